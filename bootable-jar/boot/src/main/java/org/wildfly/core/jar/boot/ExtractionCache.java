@@ -0,0 +1,354 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.core.jar.boot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A cache of server installations extracted from bootable JARs, enabled by setting the
+ * {@code org.wildfly.core.bootable.jar.cache.dir} system property to the directory holding the cache.
+ * <p>
+ * Each installation is extracted once into a directory named after the SHA-256 digest of the bootable JAR and is
+ * then shared, read-only, by every server started from a JAR with the same content. A server started from the cache
+ * gets its own writable {@linkplain #createOverlay(Path, Path) overlay} of the {@code standalone} directory, so the
+ * cached installation is never modified. Installations for JARs that are no longer used are not removed
+ * automatically.
+ * </p>
+ */
+final class ExtractionCache {
+
+    static final String CACHE_DIR_PROPERTY = "org.wildfly.core.bootable.jar.cache.dir";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String DIGESTS_DIR_NAME = "digests";
+    private static final String STANDALONE_DIR_NAME = "standalone";
+    private static final String ZIP_FILE_NAME = "wildfly.zip";
+    private static final String EXTRACTED_DIR_NAME = "installation";
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private final Path cacheDir;
+
+    private ExtractionCache(final Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Creates the cache configured by the {@code org.wildfly.core.bootable.jar.cache.dir} system property.
+     *
+     * @return the cache or {@code null} if caching is not enabled
+     */
+    static ExtractionCache fromSystemProperty() {
+        final String value = System.getProperty(CACHE_DIR_PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return new ExtractionCache(Paths.get(value.trim()).toAbsolutePath().normalize());
+    }
+
+    /**
+     * Returns the cached installation for the bootable JAR this class was loaded from, extracting the server
+     * distribution if the installation is not cached yet.
+     *
+     * @param resource the name of the resource containing the zipped server distribution
+     *
+     * @return the installation directory or {@code null} if the bootable JAR could not be located
+     *
+     * @throws Exception if the installation could not be extracted
+     */
+    Path getInstallation(final String resource) throws Exception {
+        final Path jar = getJarFile();
+        if (jar == null) {
+            logWarning("Can't locate the bootable JAR, the server will not be extracted to the cache %s%n", cacheDir);
+            return null;
+        }
+        final String digest = digest(jar);
+        final Path installation = cacheDir.resolve(digest);
+        if (Files.isDirectory(installation)) {
+            return installation;
+        }
+        Files.createDirectories(cacheDir);
+        // Extract in a private work directory and move the result into place, so a concurrently starting server
+        // never sees a partial installation
+        final Path workDir = Files.createTempDirectory(cacheDir, digest + ".");
+        try {
+            final Path zip = workDir.resolve(ZIP_FILE_NAME);
+            try (InputStream wf = Main.class.getResourceAsStream(resource)) {
+                if (wf == null) {
+                    throw new Exception("Resource " + resource + " doesn't exist, can't run.");
+                }
+                Files.copy(wf, zip);
+            }
+            final Path extracted = workDir.resolve(EXTRACTED_DIR_NAME);
+            Files.createDirectory(extracted);
+            extract(zip, extracted);
+            try {
+                Files.move(extracted, installation, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Another server extracted the same JAR first
+            } catch (IOException e) {
+                if (!Files.isDirectory(installation)) {
+                    throw e;
+                }
+            }
+        } finally {
+            deleteDirectory(workDir);
+        }
+        return installation;
+    }
+
+    /**
+     * Creates the writable {@code standalone} directory of a server started from a cached installation. Deployment
+     * content is immutable and is hard linked where the file system allows it, everything else is copied so the server
+     * can modify it.
+     *
+     * @param installation the cached installation
+     * @param installDir   the directory of this server run
+     *
+     * @throws IOException if the overlay could not be created
+     */
+    static void createOverlay(final Path installation, final Path installDir) throws IOException {
+        final Path source = installation.resolve(STANDALONE_DIR_NAME);
+        final Path target = installDir.resolve(STANDALONE_DIR_NAME);
+        final Path content = source.resolve("data").resolve("content");
+        if (Files.isDirectory(source)) {
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                    final Path targetFile = target.resolve(source.relativize(file).toString());
+                    if (file.startsWith(content)) {
+                        try {
+                            Files.createLink(targetFile, file);
+                            return FileVisitResult.CONTINUE;
+                        } catch (IOException | UnsupportedOperationException ignore) {
+                            // Fall back to a copy
+                        }
+                    }
+                    Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        Files.createDirectories(target.resolve("data"));
+        Files.createDirectories(target.resolve("log"));
+        Files.createDirectories(target.resolve("tmp"));
+    }
+
+    /**
+     * Extracts a zip file into a directory, inflating the entries in parallel.
+     *
+     * @param zipFile the zip file
+     * @param dir     the target directory
+     *
+     * @throws Exception if the zip file could not be extracted
+     */
+    static void extract(final Path zipFile, final Path dir) throws Exception {
+        final boolean isWindows = Main.isWindows();
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            final List<ZipEntry> files = new ArrayList<>();
+            final Set<Path> parents = new HashSet<>();
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final Path path = Main.resolveEntry(dir, entry);
+                if (entry.isDirectory()) {
+                    Files.createDirectories(path);
+                } else {
+                    // Create the parent directories up front so the extracting threads only have to write files
+                    final Path parent = path.getParent();
+                    if (parent != null && parents.add(parent)) {
+                        Files.createDirectories(parent);
+                    }
+                    files.add(entry);
+                }
+            }
+            if (files.isEmpty()) {
+                return;
+            }
+            // Start with the largest entries, module JARs, so the threads finish at about the same time
+            files.sort(Comparator.comparingLong(ZipEntry::getSize).reversed());
+            final int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+            final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+                final Thread thread = new Thread(r);
+                thread.setName("bootable-jar-extract");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                final List<Future<Void>> futures = new ArrayList<>(files.size());
+                for (ZipEntry entry : files) {
+                    futures.add(executor.submit(() -> {
+                        final Path path = Main.resolveEntry(dir, entry);
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                        if (!isWindows && path.getFileName().toString().endsWith(".sh")) {
+                            Files.setPosixFilePermissions(path, Main.EXECUTE_PERMISSIONS);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<Void> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        final Throwable cause = e.getCause();
+                        if (cause instanceof Exception) {
+                            throw (Exception) cause;
+                        }
+                        throw e;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Computes the digest of the bootable JAR. The digest is remembered for the JAR's path, size and modification time
+     * so it is only computed once for each JAR.
+     */
+    private String digest(final Path jar) throws IOException {
+        final BasicFileAttributes attrs = Files.readAttributes(jar, BasicFileAttributes.class);
+        final String key = jar.toAbsolutePath() + "|" + attrs.size() + "|" + attrs.lastModifiedTime().toMillis();
+        final Path digestFile = cacheDir.resolve(DIGESTS_DIR_NAME).resolve(toHex(newDigest().digest(key.getBytes(StandardCharsets.UTF_8))));
+        if (Files.isRegularFile(digestFile)) {
+            final String digest = new String(Files.readAllBytes(digestFile), StandardCharsets.UTF_8).trim();
+            if (isDigest(digest)) {
+                return digest;
+            }
+        }
+        final MessageDigest messageDigest = newDigest();
+        try (InputStream in = Files.newInputStream(jar)) {
+            final byte[] buffer = new byte[65536];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, len);
+            }
+        }
+        final String digest = toHex(messageDigest.digest());
+        try {
+            Files.createDirectories(digestFile.getParent());
+            final Path tmp = Files.createTempFile(digestFile.getParent(), null, null);
+            Files.write(tmp, digest.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, digestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignore) {
+            // The digest is computed again on the next start
+        }
+        return digest;
+    }
+
+    private static Path getJarFile() {
+        final CodeSource codeSource = Main.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return null;
+        }
+        try {
+            final Path path = Paths.get(codeSource.getLocation().toURI());
+            return Files.isRegularFile(path) ? path : null;
+        } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isDigest(final String value) {
+        if (value.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_CHARS[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX_CHARS[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+
+    private static void deleteDirectory(final Path dir) throws IOException {
+        if (Files.notExists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @SuppressWarnings("UseOfSystemOutOrSystemErr")
+    private static void logWarning(final String format, final Object... args) {
+        System.err.printf(format, args);
+    }
+}
@@ -73,7 +73,7 @@ public final class Main {
 
     private static final String WILDFLY_BOOTABLE_TMP_DIR_PREFIX = "wildfly-bootable-server";
 
-    private static final Set<PosixFilePermission> EXECUTE_PERMISSIONS = new HashSet<>();
+    static final Set<PosixFilePermission> EXECUTE_PERMISSIONS = new HashSet<>();
 
     static {
         EXECUTE_PERMISSIONS.add(PosixFilePermission.OWNER_EXECUTE);
@@ -139,11 +139,20 @@ public final class Main {
                     "to be running.", installDir));
         }
 
-        try (InputStream wf = Main.class.getResourceAsStream(WILDFLY_RESOURCE)) {
-            if (wf == null) {
-                throw new Exception("Resource " + WILDFLY_RESOURCE + " doesn't exist, can't run.");
+        // If an extraction cache is configured the server is run from a shared installation and only the standalone
+        // directory is created in the install directory.
+        final ExtractionCache cache = ExtractionCache.fromSystemProperty();
+        Path jbossHome = cache == null ? null : cache.getInstallation(WILDFLY_RESOURCE);
+        if (jbossHome == null) {
+            try (InputStream wf = Main.class.getResourceAsStream(WILDFLY_RESOURCE)) {
+                if (wf == null) {
+                    throw new Exception("Resource " + WILDFLY_RESOURCE + " doesn't exist, can't run.");
+                }
+                unzip(wf, installDir);
             }
-            unzip(wf, installDir);
+            jbossHome = installDir;
+        } else {
+            ExtractionCache.createOverlay(jbossHome, installDir);
         }
 
         //Extensions are injected by the maven plugin during packaging.
@@ -152,7 +161,7 @@ public final class Main {
             extension.boot(filteredArgs, installDir);
         }
 
-        runBootableJar(installDir, filteredArgs, System.currentTimeMillis() - t, securityManager);
+        runBootableJar(jbossHome, installDir, filteredArgs, System.currentTimeMillis() - t, securityManager);
     }
 
     private static String getValue(String arg) {
@@ -163,7 +172,7 @@ public final class Main {
         return arg.substring(sep + 1);
     }
 
-    private static void runBootableJar(Path jbossHome, List<String> arguments, Long unzipTime, boolean securityManager) throws Exception {
+    private static void runBootableJar(Path jbossHome, Path installDir, List<String> arguments, Long unzipTime, boolean securityManager) throws Exception {
         final String modulePath = jbossHome.resolve(JBOSS_MODULES_DIR_NAME).toAbsolutePath().toString();
         ModuleLoader moduleLoader = setupModuleLoader(modulePath);
 
@@ -181,9 +190,16 @@ public final class Main {
         } catch (final ClassNotFoundException cnfe) {
             throw new Exception(cnfe);
         }
+        // Only a server run from the extraction cache needs the run method taking a separate install directory, which
+        // older runtimes do not have
+        final boolean sharedInstallation = !jbossHome.equals(installDir);
         Method runMethod;
         try {
-            runMethod = bjFactoryClass.getMethod(BOOTABLE_JAR_RUN_METHOD, Path.class, List.class, ModuleLoader.class, ModuleClassLoader.class, Long.class);
+            if (sharedInstallation) {
+                runMethod = bjFactoryClass.getMethod(BOOTABLE_JAR_RUN_METHOD, Path.class, Path.class, List.class, ModuleLoader.class, ModuleClassLoader.class, Long.class);
+            } else {
+                runMethod = bjFactoryClass.getMethod(BOOTABLE_JAR_RUN_METHOD, Path.class, List.class, ModuleLoader.class, ModuleClassLoader.class, Long.class);
+            }
         } catch (final NoSuchMethodException nsme) {
             throw new Exception(nsme);
         }
@@ -201,7 +217,11 @@ public final class Main {
             }
         }
 
-        runMethod.invoke(null, jbossHome, arguments, moduleLoader, moduleCL, unzipTime);
+        if (sharedInstallation) {
+            runMethod.invoke(null, jbossHome, installDir, arguments, moduleLoader, moduleCL, unzipTime);
+        } else {
+            runMethod.invoke(null, jbossHome, arguments, moduleLoader, moduleCL, unzipTime);
+        }
     }
 
     private static void unzip(InputStream wf, Path dir) throws Exception {
@@ -209,11 +229,7 @@ public final class Main {
         try (ZipInputStream zis = new ZipInputStream(wf)) {
             ZipEntry ze = zis.getNextEntry();
             while (ze != null) {
-                String fileName = ze.getName();
-                Path newFile = dir.resolve(fileName);
-                if (!newFile.normalize().startsWith(dir.normalize())) {
-                    throw new IOException("Bad zip entry");
-                }
+                Path newFile = resolveEntry(dir, ze);
                 if (ze.isDirectory()) {
                     Files.createDirectories(newFile);
                 } else {
@@ -233,7 +249,15 @@ public final class Main {
         }
     }
 
-    private static boolean isWindows() {
+    static Path resolveEntry(Path dir, ZipEntry ze) throws IOException {
+        Path newFile = dir.resolve(ze.getName());
+        if (!newFile.normalize().startsWith(dir.normalize())) {
+            throw new IOException("Bad zip entry");
+        }
+        return newFile;
+    }
+
+    static boolean isWindows() {
         return System.getProperty("os.name").toLowerCase(Locale.ENGLISH).contains("windows");
     }
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.core.jar.boot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the extraction of the server into the bootable JAR cache and the creation of the writable overlay.
+ */
+public class ExtractionCacheTestCase {
+
+    private Path dir;
+
+    @Before
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("extraction-cache-test");
+    }
+
+    @After
+    public void deleteDir() throws IOException {
+        Files.walk(dir)
+                .sorted((a, b) -> b.compareTo(a))
+                .forEach(p -> p.toFile().delete());
+    }
+
+    @Test
+    public void testExtract() throws Exception {
+        final Path zip = dir.resolve("wildfly.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("bin/"));
+            out.closeEntry();
+            writeEntry(out, "bin/standalone.sh", "#!/bin/sh");
+            for (int i = 0; i < 100; i++) {
+                writeEntry(out, "modules/system/layers/base/module" + i + "/main/module.xml", "module" + i);
+            }
+        }
+        final Path target = dir.resolve("installation");
+        Files.createDirectory(target);
+        ExtractionCache.extract(zip, target);
+
+        Assert.assertEquals("#!/bin/sh", read(target.resolve("bin/standalone.sh")));
+        if (!Main.isWindows()) {
+            Assert.assertTrue(Files.isExecutable(target.resolve("bin/standalone.sh")));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("module" + i, read(target.resolve("modules/system/layers/base/module" + i + "/main/module.xml")));
+        }
+    }
+
+    @Test
+    public void testBadEntry() throws Exception {
+        final Path zip = dir.resolve("bad.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            writeEntry(out, "../escaped.txt", "escaped");
+        }
+        final Path target = dir.resolve("installation");
+        Files.createDirectory(target);
+        try {
+            ExtractionCache.extract(zip, target);
+            Assert.fail("Entry outside of the target directory should have been rejected");
+        } catch (IOException expected) {
+            Assert.assertTrue(Files.notExists(dir.resolve("escaped.txt")));
+        }
+    }
+
+    @Test
+    public void testOverlay() throws Exception {
+        final Path installation = dir.resolve("installation");
+        final Path configuration = installation.resolve("standalone/configuration/standalone.xml");
+        final Path content = installation.resolve("standalone/data/content/ff/00/content");
+        write(configuration, "<server/>");
+        write(content, "deployment");
+
+        final Path installDir = dir.resolve("run");
+        ExtractionCache.createOverlay(installation, installDir);
+
+        final Path overlayConfiguration = installDir.resolve("standalone/configuration/standalone.xml");
+        Assert.assertEquals("<server/>", read(overlayConfiguration));
+        Assert.assertEquals("deployment", read(installDir.resolve("standalone/data/content/ff/00/content")));
+        Assert.assertTrue(Files.isDirectory(installDir.resolve("standalone/log")));
+        Assert.assertTrue(Files.isDirectory(installDir.resolve("standalone/tmp")));
+
+        // Changes made by the server must not reach the cached installation
+        write(overlayConfiguration, "<server><deployments/></server>");
+        Assert.assertEquals("<server/>", read(configuration));
+    }
+
+    private static void writeEntry(final ZipOutputStream out, final String name, final String value) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    private static void write(final Path file, final String value) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String read(final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
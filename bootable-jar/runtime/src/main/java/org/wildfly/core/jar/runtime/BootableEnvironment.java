@@ -43,6 +43,7 @@ class BootableEnvironment {
     private static final AtomicBoolean DEBUG = new AtomicBoolean();
     private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("windows");
     private final Path jbossHome;
+    private final Path installDir;
     private final Path serverDir;
     private final Path tmpDir;
     private final Collection<String> ignoredProperties;
@@ -50,10 +51,11 @@ class BootableEnvironment {
     private final String pidFileName;
     private final long timeout;
 
-    private BootableEnvironment(final Path jbossHome, final Collection<String> ignoredProperties,
+    private BootableEnvironment(final Path jbossHome, final Path installDir, final Collection<String> ignoredProperties,
                                 final PropertyUpdater propertyUpdater) {
         this.jbossHome = jbossHome;
-        serverDir = jbossHome.resolve("standalone");
+        this.installDir = installDir;
+        serverDir = installDir.resolve("standalone");
         tmpDir = resolvePath(serverDir, "tmp");
         this.ignoredProperties = ignoredProperties;
         this.propertyUpdater = propertyUpdater;
@@ -83,6 +85,20 @@ class BootableEnvironment {
      * @return the newly create environment
      */
     static BootableEnvironment of(final Path jbossHome) {
+        return of(jbossHome, jbossHome);
+    }
+
+    /**
+     * Creates a new environment initializing required system properties based on the JBoss Home directory and the
+     * install directory passed in. The install directory contains the {@code standalone} server directory and is
+     * different from the JBoss Home directory if the server runs from a shared, read-only installation.
+     *
+     * @param jbossHome  the base JBoss Home directory
+     * @param installDir the directory containing the server directory
+     *
+     * @return the newly create environment
+     */
+    static BootableEnvironment of(final Path jbossHome, final Path installDir) {
         final PropertyUpdater propertyUpdater;
         if (System.getSecurityManager() == null) {
             propertyUpdater = System::setProperty;
@@ -90,7 +106,7 @@ class BootableEnvironment {
             propertyUpdater = (name, value) ->
                     AccessController.doPrivileged((PrivilegedAction<String>) () -> System.setProperty(name, value));
         }
-        return of(jbossHome, propertyUpdater);
+        return of(jbossHome, installDir, propertyUpdater);
     }
 
     /**
@@ -102,7 +118,21 @@ class BootableEnvironment {
      * @return the newly create environment
      */
     static BootableEnvironment of(final Path jbossHome, final PropertyUpdater propertyUpdater) {
-        return new BootableEnvironment(jbossHome, init(jbossHome, propertyUpdater), propertyUpdater);
+        return of(jbossHome, jbossHome, propertyUpdater);
+    }
+
+    /**
+     * Creates a new environment initializing required system properties based on the JBoss Home directory and the
+     * install directory passed in.
+     *
+     * @param jbossHome       the base JBoss Home directory
+     * @param installDir      the directory containing the server directory
+     * @param propertyUpdater the updater used to set system properties
+     *
+     * @return the newly create environment
+     */
+    static BootableEnvironment of(final Path jbossHome, final Path installDir, final PropertyUpdater propertyUpdater) {
+        return new BootableEnvironment(jbossHome, installDir, init(jbossHome, installDir, propertyUpdater), propertyUpdater);
     }
 
     /**
@@ -114,6 +144,16 @@ class BootableEnvironment {
         return jbossHome;
     }
 
+    /**
+     * Returns the install directory. This directory contains the server directory and the PID file and is deleted
+     * when the server stops.
+     *
+     * @return the install directory
+     */
+    Path getInstallDir() {
+        return installDir;
+    }
+
     /**
      * Returns the server tmp dir.
      *
@@ -129,7 +169,7 @@ class BootableEnvironment {
      * @return the PID file
      */
     Path getPidFile() {
-        return resolvePath(jbossHome, pidFileName);
+        return resolvePath(installDir, pidFileName);
     }
 
     /**
@@ -239,7 +279,7 @@ class BootableEnvironment {
         }
     }
 
-    private static Collection<String> init(final Path jbossHome, final PropertyUpdater propertyUpdater) {
+    private static Collection<String> init(final Path jbossHome, final Path installDir, final PropertyUpdater propertyUpdater) {
         final Collection<String> propertyNames = new ArrayList<>();
         propertyNames.add("java.ext.dirs");
         propertyNames.add("java.home");
@@ -252,7 +292,7 @@ class BootableEnvironment {
 
         // Configure known paths
         setSystemProperty(propertyUpdater, "jboss.home.dir", jbossHome, propertyNames);
-        final Path serverBaseDir = resolvePath(jbossHome, "standalone");
+        final Path serverBaseDir = resolvePath(installDir, "standalone");
         setSystemProperty(propertyUpdater, "jboss.server.base.dir", serverBaseDir, propertyNames);
         setSystemProperty(propertyUpdater, "jboss.controller.temp.dir", resolvePath(serverBaseDir, "tmp"), propertyNames);
         final Path dataDir = resolvePath(serverBaseDir, "data");
@@ -281,7 +281,7 @@ public final class BootableJar implements ShutdownHandler {
         if (Files.notExists(pidFile)) {
             Files.write(pidFile, Collections.singleton(Long.toString(org.wildfly.common.os.Process.getProcessId())), StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
         } else {
-            throw log.pidFileAlreadyExists(pidFile, environment.getJBossHome());
+            throw log.pidFileAlreadyExists(pidFile, environment.getInstallDir());
         }
         server.start();
     }
@@ -319,9 +319,24 @@ public final class BootableJar implements ShutdownHandler {
      * @throws Exception
      */
     public static void run(Path jbossHome, List<String> args, ModuleLoader moduleLoader, ModuleClassLoader moduleClassLoader, Long unzipTime) throws Exception {
+        run(jbossHome, jbossHome, args, moduleLoader, moduleClassLoader, unzipTime);
+    }
+
+    /**
+     * Modular entry point for a server whose writable server directory is not located in the server home directory.
+     *
+     * @param jbossHome Server home directory.
+     * @param installDir Directory containing the server directory, deleted when the server stops.
+     * @param args User provided arguments.
+     * @param moduleLoader JBoss modules loader.
+     * @param moduleClassLoader Bootable jar module classloader
+     * @param unzipTime Time spent to unzip the server.
+     * @throws Exception
+     */
+    public static void run(Path jbossHome, Path installDir, List<String> args, ModuleLoader moduleLoader, ModuleClassLoader moduleClassLoader, Long unzipTime) throws Exception {
         setTccl(moduleClassLoader);
         // Initialize the environment
-        final BootableEnvironment environment = BootableEnvironment.of(jbossHome);
+        final BootableEnvironment environment = BootableEnvironment.of(jbossHome, installDir);
         Arguments arguments;
         try {
             arguments = Arguments.parseArguments(args, environment);
@@ -423,7 +438,7 @@ public final class BootableJar implements ShutdownHandler {
                 }
             } catch (IOException | InterruptedException e) {
                 // Possibly already logged, but we should log again to be safe
-                log.failedToStartCleanupProcess(e, environment.getJBossHome());
+                log.failedToStartCleanupProcess(e, environment.getInstallDir());
             }
         }
 
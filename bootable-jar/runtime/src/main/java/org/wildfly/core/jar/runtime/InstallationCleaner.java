@@ -52,7 +52,7 @@ class InstallationCleaner implements Runnable {
 
     InstallationCleaner(final BootableEnvironment environment, final BootableJarLogger logger) {
         this.environment = environment;
-        cleanupMarker = environment.getJBossHome().resolve("wildfly-cleanup-marker");
+        cleanupMarker = environment.getInstallDir().resolve("wildfly-cleanup-marker");
         this.logger = logger;
         newProcess = getProperty("org.wildfly.core.jar.cleanup.newProcess", environment.isWindows());
         retries = getProperty("org.wildfly.core.jar.cleanup.retries", 3);
@@ -81,7 +81,7 @@ class InstallationCleaner implements Runnable {
                 }
                 cleanup();
             } catch (IOException e) {
-                logger.failedToStartCleanupProcess(e, environment.getJBossHome());
+                logger.failedToStartCleanupProcess(e, environment.getInstallDir());
             }
         }
     }
@@ -119,7 +119,7 @@ class InstallationCleaner implements Runnable {
     }
 
     private void deleteDirectory() throws IOException {
-        final Path installDir = environment.getJBossHome();
+        final Path installDir = environment.getInstallDir();
         Files.walkFileTree(installDir, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
@@ -160,7 +160,7 @@ class InstallationCleaner implements Runnable {
                 // CleanupProcess is located.
                 System.getProperty("java.class.path"),
                 "org.wildfly.core.jar.boot.CleanupProcessor",
-                environment.getJBossHome().toString(),
+                environment.getInstallDir().toString(),
                 Integer.toString(retries)
         };
         final ProcessBuilder builder = new ProcessBuilder(cmd)
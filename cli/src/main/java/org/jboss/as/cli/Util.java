@@ -184,12 +184,16 @@ public class Util {
     public static final String KEY_SIZE = "key-size";
     public static final String KEY_STORE = "key-store";
     public static final String KEY_STORE_REALM = "key-store-realm";
+    public static final String LAUNCH_TYPE = "launch-type";
     public static final String LOCAL = "local";
     public static final String LOCAL_HOST_NAME = "local-host-name";
     public static final String MANAGEMENT = "management";
     public static final String MANAGEMENT_CLIENT_CONTENT = "management-client-content";
     public static final String MANAGEMENT_HTTPS = "management-https";
     public static final String MANAGEMENT_INTERFACE = "management-interface";
+    public static final String MANAGEMENT_MAJOR_VERSION = "management-major-version";
+    public static final String MANAGEMENT_MICRO_VERSION = "management-micro-version";
+    public static final String MANAGEMENT_MINOR_VERSION = "management-minor-version";
     public static final String MASTER = "master";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
@@ -219,6 +223,7 @@ public class Util {
     public static final String PLAIN_TEXT = "plain-text";
     public static final String PRIMARY = "primary";
     public static final String PROBLEM = "problem";
+    public static final String PROCESS_TYPE = "process-type";
     public static final String PRODUCT_NAME = "product-name";
     public static final String PRODUCT_VERSION = "product-version";
     public static final String PROFILE = "profile";
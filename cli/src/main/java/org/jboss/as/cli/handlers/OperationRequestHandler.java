@@ -86,29 +86,55 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
             }
         }
 
+        final ModelNode result;
         try {
-            final ModelNode result = ctx.execute(op, "Operation request");
-            if (Util.isSuccess(result)) {
-                ctx.printDMR(result);
-            } else {
-                if (!ctx.getConfig().isOutputJSON()) {
-                    throw new CommandLineException(result.toString());
-                } else {
-                    throw new CommandLineException(result.toJSONString(false));
-                }
-            }
+            result = ctx.execute(op, "Operation request");
         } catch(NoSuchElementException e) {
             throw new CommandLineException("ModelNode request is incomplete", e);
-        } catch (CancellationException e) {
-            throw new CommandLineException("The result couldn't be retrieved (perhaps the task was cancelled", e);
-        } catch (IOException e) {
-            if (e.getCause() != null && !(e.getCause() instanceof InterruptedException)) {
+        } catch (IOException | RuntimeException e) {
+            throw executionFailure(ctx, e);
+        }
+        handleResponse(ctx, result);
+    }
+
+    /**
+     * Prints the response to an operation request.
+     *
+     * @param ctx the command context
+     * @param response the response
+     * @throws CommandLineException describing the response if the operation failed
+     */
+    public static void handleResponse(CommandContext ctx, ModelNode response) throws CommandLineException {
+        if (Util.isSuccess(response)) {
+            ctx.printDMR(response);
+        } else {
+            if (!ctx.getConfig().isOutputJSON()) {
+                throw new CommandLineException(response.toString());
+            } else {
+                throw new CommandLineException(response.toJSONString(false));
+            }
+        }
+    }
+
+    /**
+     * Creates the exception reporting that an operation request could not be executed, disconnecting from the
+     * controller if the connection was broken.
+     *
+     * @param ctx the command context
+     * @param cause the reason the operation could not be executed
+     * @return the exception to throw
+     */
+    public static CommandLineException executionFailure(CommandContext ctx, Throwable cause) {
+        if (cause instanceof CancellationException) {
+            return new CommandLineException("The result couldn't be retrieved (perhaps the task was cancelled)", cause);
+        }
+        if (cause instanceof IOException) {
+            if (cause.getCause() != null && !(cause.getCause() instanceof InterruptedException)) {
                 ctx.disconnectController();
             }
-            throw new CommandLineException("Communication error", e);
-        } catch (RuntimeException e) {
-            throw new CommandLineException("Failed to execute operation.", e);
+            return new CommandLineException("Communication error", cause);
         }
+        return new CommandLineException("Failed to execute operation.", cause);
     }
 
     @Override
@@ -40,6 +40,9 @@ import org.jboss.as.cli.CommandLineException;
 import org.jboss.as.cli.ControllerAddress;
 import org.jboss.as.cli.Util;
 import org.jboss.as.cli.impl.ModelControllerClientFactory.ConnectionCloseHandler;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.AbstractModelControllerClient;
 import org.jboss.as.protocol.ProtocolConnectionConfiguration;
 import org.jboss.as.protocol.ProtocolTimeoutHandler;
@@ -52,6 +55,7 @@ import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.Connection;
 import org.jboss.remoting3.Endpoint;
+import org.jboss.threads.AsyncFuture;
 import org.wildfly.security.SecurityFactory;
 import org.jboss.remoting3.EndpointBuilder;
 import org.wildfly.security.auth.client.AuthenticationContext;
@@ -113,6 +117,9 @@ public class CLIModelControllerClient extends AbstractModelControllerClient
     private ManagementClientChannelStrategy strategy;
     private final ProtocolConnectionConfiguration channelConfig;
     private final AtomicInteger state = new AtomicInteger(CLOSED);
+    /** The descriptions of the model of the controller, once resolved for the current connection */
+    private volatile DescriptionCache descriptionCache;
+    private volatile boolean descriptionCacheResolved;
 
     CLIModelControllerClient(final ControllerAddress address, CallbackHandler handler, int connectionTimeout,
             final ConnectionCloseHandler closeHandler, Map<String, String> saslOptions, SecurityFactory<SSLContext> sslContextFactory,
@@ -180,6 +187,8 @@ public class CLIModelControllerClient extends AbstractModelControllerClient
         ManagementClientChannelStrategy localStrategy;
         synchronized(lock) {
             if (strategy == null) {
+                // The controller may have been restarted with a different release or set of extensions
+                descriptionCacheResolved = false;
                 final ChannelCloseHandler channelCloseHandler = new ChannelCloseHandler();
                 localStrategy = ManagementClientChannelStrategy.create(channelConfig, channelAssociation, handler, saslOptions, sslContext,
                         channelCloseHandler);
@@ -217,8 +226,103 @@ public class CLIModelControllerClient extends AbstractModelControllerClient
         return strategy != null;
     }
 
+    @Override
+    public ModelNode execute(ModelNode operation) throws IOException {
+        return execute(operation, null);
+    }
+
+    @Override
+    public ModelNode execute(ModelNode operation, OperationMessageHandler messageHandler) throws IOException {
+        if (!DescriptionCache.ENABLED) {
+            return super.execute(operation, messageHandler);
+        }
+        if (DescriptionCache.isCacheable(operation)) {
+            final DescriptionCache cache = getDescriptionCache();
+            ModelNode response = cache == null ? null : cache.get(operation);
+            if (response == null) {
+                response = super.execute(operation, messageHandler);
+                if (cache != null) {
+                    cache.put(operation, response);
+                }
+            }
+            return response;
+        }
+        try {
+            return super.execute(operation, messageHandler);
+        } finally {
+            operationExecuted(operation);
+        }
+    }
+
+    @Override
+    public ModelNode execute(Operation operation) throws IOException {
+        return execute(operation, null);
+    }
+
+    @Override
+    public ModelNode execute(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+        try {
+            return super.execute(operation, messageHandler);
+        } finally {
+            operationExecuted(operation.getOperation());
+        }
+    }
+
+    @Override
+    public OperationResponse executeOperation(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+        try {
+            return super.executeOperation(operation, messageHandler);
+        } finally {
+            operationExecuted(operation.getOperation());
+        }
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
+        return registrationsMayChange(operation, super.executeAsync(operation, messageHandler));
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler) {
+        return registrationsMayChange(operation.getOperation(), super.executeAsync(operation, messageHandler));
+    }
+
+    private AsyncFuture<ModelNode> registrationsMayChange(ModelNode operation, AsyncFuture<ModelNode> future) {
+        operationExecuted(operation);
+        if (DescriptionCache.ENABLED && DescriptionCache.mayChangeRegistrations(operation)) {
+            // Descriptions may be read and cached while the operation is in flight
+            future.addListener(new AsyncFuture.AbstractListener<ModelNode, Void>() {
+                @Override
+                public void handleComplete(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                    operationExecuted(operation);
+                }
+            }, null);
+        }
+        return future;
+    }
+
+    private DescriptionCache getDescriptionCache() throws IOException {
+        if (!descriptionCacheResolved) {
+            descriptionCache = DescriptionCache.forIdentity(super.execute(DescriptionCache.createIdentityOperation(), null));
+            descriptionCacheResolved = true;
+        }
+        return descriptionCache;
+    }
+
+    private void operationExecuted(ModelNode operation) {
+        if (DescriptionCache.ENABLED && DescriptionCache.mayChangeRegistrations(operation)) {
+            final DescriptionCache cache = descriptionCache;
+            if (cache != null) {
+                cache.clear();
+            }
+            // Extensions may have been added or removed
+            descriptionCacheResolved = false;
+        }
+    }
+
     @Override
     public void close() throws IOException {
+        DescriptionCache.persist();
         if(state.get() == CLOSED) {
             return;
         }
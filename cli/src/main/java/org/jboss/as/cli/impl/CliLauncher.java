@@ -67,6 +67,7 @@ public class CliLauncher {
             boolean connect = false;
             boolean version = false;
             int connectionTimeout = -1;
+            int pipelineDepth = 0;
 
             final CommandContextConfiguration.Builder ctxBuilder = new CommandContextConfiguration.Builder();
             ctxBuilder.setErrorOnInteract(errorOnInteract);
@@ -174,6 +175,17 @@ public class CliLauncher {
                     ctxBuilder.setOutputPaging(false);
                 } else if (arg.equals("--resolve-parameter-values")) {
                     ctxBuilder.setResolveParameterValues(true);
+                } else if (arg.startsWith("--pipeline-depth=")) {
+                    try {
+                        pipelineDepth = Integer.parseInt(arg.substring(17));
+                    } catch (NumberFormatException e) {
+                        pipelineDepth = 0;
+                    }
+                    if (pipelineDepth < 1) {
+                        argError = "The value of '--pipeline-depth' must be a positive integer: " + arg.substring(17);
+                        break;
+                    }
+                    ctxBuilder.setPipelineDepth(pipelineDepth);
                 } else if (arg.startsWith("--command-timeout=")) {
                     ctxBuilder.
                             setCommandTimeout(Integer.parseInt(arg.substring(18)));
@@ -272,6 +284,10 @@ public class CliLauncher {
                 argError = "--error-on-interact function is only available in non-interactive mode, using --file or --command(s).";
             }
 
+            if(pipelineDepth > 0 && file == null) {
+                argError = "--pipeline-depth is only available when executing a script using --file.";
+            }
+
             ctxBuilder.setConnectionTimeout(connectionTimeout);
 
             if(argError != null) {
@@ -370,6 +386,9 @@ public class CliLauncher {
                 cmdCtx.handleSafe(line.trim());
                 line = reader.readLine();
             }
+            if (cmdCtx instanceof CommandContextImpl) {
+                ((CommandContextImpl) cmdCtx).finishPipelinedOperations();
+            }
         } catch (Throwable e) {
             throw new IllegalStateException("Failed to process file '" + file.getAbsolutePath() + "'", e);
         } finally {
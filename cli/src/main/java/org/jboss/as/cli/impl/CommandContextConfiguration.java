@@ -40,6 +40,7 @@ public class CommandContextConfiguration {
     private boolean silent;
     private Boolean errorOnInteract;
     private Boolean validateOperationRequests;
+    private int pipelineDepth;
     private final boolean echoCommand;
     private final Integer commandTimeout;
     private final boolean outputJSON;
@@ -68,6 +69,15 @@ public class CommandContextConfiguration {
         this.resolveParameters = resolveParameters;
     }
 
+    /**
+     * The maximum number of operations of a script that may be in flight at once. Values below 2 disable pipelining.
+     *
+     * @return the pipeline depth
+     */
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
     public Integer getCommandTimeout() {
         return commandTimeout;
     }
@@ -154,6 +164,7 @@ public class CommandContextConfiguration {
         private boolean silent;
         private Boolean errorOnInteract;
         private Boolean validateOperationRequests;
+        private int pipelineDepth;
         private boolean echoCommand;
         private Integer commandTimeout;
         private boolean outputJSON;
@@ -174,6 +185,7 @@ public class CommandContextConfiguration {
             config.silent = silent;
             config.errorOnInteract = errorOnInteract;
             config.validateOperationRequests = validateOperationRequests;
+            config.pipelineDepth = pipelineDepth;
             return config;
         }
 
@@ -252,6 +264,11 @@ public class CommandContextConfiguration {
             return this;
         }
 
+        public Builder setPipelineDepth(int pipelineDepth) {
+            this.pipelineDepth = pipelineDepth;
+            return this;
+        }
+
         public Builder setOutputJSON(boolean outputJSON) {
             this.outputJSON = outputJSON;
             return this;
@@ -296,6 +296,8 @@ public class CommandContextImpl implements CommandContext, ModelControllerClient
     private final OperationCandidatesProvider operationCandidatesProvider;
     /** operation request handler */
     private final OperationRequestHandler operationHandler;
+    /** Executes the operations of a script asynchronously, if pipelining was requested */
+    private OperationPipeline pipeline;
     /** batches */
     private final BatchManager batchManager = new DefaultBatchManager();
     /** the default command completer */
@@ -450,6 +452,9 @@ public class CommandContextImpl implements CommandContext, ModelControllerClient
 
         addShutdownHook();
         CliLauncher.runcom(this);
+        if (configuration.getPipelineDepth() > 1) {
+            pipeline = new OperationPipeline(this, configuration.getPipelineDepth());
+        }
     }
 
     /**
@@ -868,6 +873,11 @@ public class CommandContextImpl implements CommandContext, ModelControllerClient
          * that aesh parsing doesn't fail for complex corner cases.
          */
         try {
+            if (pipeline != null && (redirection != null || parsedCmd.hasOperator()
+                    || parsedCmd.getFormat() != OperationFormat.INSTANCE || isBatchMode())) {
+                // Anything but a plain operation may depend on the outcome of the operations in flight
+                pipeline.awaitAll();
+            }
             if (redirection != null) {
                 redirection.target.handle(this);
             } else if (parsedCmd.hasOperator()) {
@@ -950,6 +960,20 @@ public class CommandContextImpl implements CommandContext, ModelControllerClient
         }
     }
 
+    /**
+     * Waits for the operations of a script executed through the pipeline to complete, if pipelining was requested,
+     * reporting their failure as {@link #handleSafe(String)} would.
+     */
+    void finishPipelinedOperations() {
+        if (pipeline != null) {
+            try {
+                pipeline.finish();
+            } catch (Throwable t) {
+                error(Util.getMessagesFromThrowable(t));
+            }
+        }
+    }
+
     public void handleSafe(String line) {
         exitCode = 0;
         try {
@@ -1913,6 +1937,10 @@ public class CommandContextImpl implements CommandContext, ModelControllerClient
                     = new DefaultBatchedCommand(this, op.toString(), request, null);
             batch.add(batchedCmd);
         } else {
+            if (pipeline != null) {
+                pipeline.submit(parsedLine);
+                return;
+            }
             Attachments attachments = new Attachments();
             final ModelNode op = Util.toOperationRequest(CommandContextImpl.this,
                     parsedLine, attachments);
@@ -0,0 +1,334 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.cli.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.cli.CommandContext;
+import org.jboss.as.cli.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Cache of the successful results of the description reading operations the CLI executes for tab completion,
+ * operation validation and help.
+ * <p>
+ * Descriptions are keyed by the identity of the management model they were read from: the product name and version,
+ * the management model version, the process and launch types and the names of the installed extensions. Caches are shared by all the clients in
+ * the CLI process, so reconnecting to the same controller, or to another controller running the same release with
+ * the same extensions, does not read the descriptions again. Clients must look up the cache for a connection with
+ * {@link #forIdentity(ModelNode)} every time a connection is established and must {@link #clear() clear} it after
+ * executing an operation that {@link #mayChangeRegistrations(ModelNode) may have changed what is registered}.
+ * <p>
+ * A cache only notices the registration changes made by operations executed through the CLI, so a description may
+ * be stale if another client changes the model. Caching is therefore only
+ * enabled if the {@code jboss.cli.description.cache} system property is set to {@code true}. If the
+ * {@code jboss.cli.description.cache.persistent} system property is set to {@code true} the caches are also stored
+ * under {@code ~/.jboss-cli/description-cache} and reused by later CLI processes. Descriptions of deployments and of
+ * host and server resources are never cached, as they are registered at runtime or may come from processes running
+ * a different release than the controller the CLI is connected to.
+ */
+final class DescriptionCache {
+
+    static final boolean ENABLED = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.cli.description.cache", "false"));
+    private static final boolean PERSISTENT = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.cli.description.cache.persistent", "false"));
+
+    /** Upper bound on the number of descriptions held for a model before the cache is discarded and refilled. */
+    private static final int MAX_ENTRIES = 4096;
+    private static final int MAGIC = 0x4A434443; // JCDC
+    private static final int FORMAT_VERSION = 2;
+
+    /** Root attributes identifying the model, read ahead of the names of the installed extensions */
+    private static final String[] IDENTITY_ATTRIBUTES = {Util.PRODUCT_NAME, Util.PRODUCT_VERSION,
+            Util.MANAGEMENT_MAJOR_VERSION, Util.MANAGEMENT_MINOR_VERSION, Util.MANAGEMENT_MICRO_VERSION, Util.PROCESS_TYPE,
+            Util.LAUNCH_TYPE};
+    private static final Set<String> CACHEABLE_OPERATIONS = Set.of(Util.READ_RESOURCE_DESCRIPTION,
+            Util.READ_OPERATION_DESCRIPTION, Util.READ_OPERATION_NAMES);
+    private static final Set<String> REGISTERING_OPERATIONS = Set.of(Util.ADD, Util.REMOVE, Util.COMPOSITE);
+    /** Address keys of resources whose descriptions depend on more than the identity of the model */
+    private static final Set<String> UNCACHEABLE_ADDRESS_KEYS = Set.of(Util.DEPLOYMENT, "subdeployment", Util.HOST,
+            Util.SERVER);
+
+    private static final Logger log = Logger.getLogger(CommandContext.class);
+    private static final Map<String, DescriptionCache> CACHES = new HashMap<>();
+
+    private final String identity;
+    private volatile Map<String, ModelNode> descriptions = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    private DescriptionCache(String identity) {
+        this.identity = identity;
+    }
+
+    /**
+     * Creates the operation that reads the identity of the management model of a controller. The response must be
+     * passed to {@link #forIdentity(ModelNode)}.
+     *
+     * @return the operation. Will not be {@code null}
+     */
+    static ModelNode createIdentityOperation() {
+        final ModelNode composite = new ModelNode();
+        composite.get(Util.OPERATION).set(Util.COMPOSITE);
+        composite.get(Util.ADDRESS).setEmptyList();
+        final ModelNode steps = composite.get(Util.STEPS).setEmptyList();
+        for (String attribute : IDENTITY_ATTRIBUTES) {
+            final ModelNode step = steps.add();
+            step.get(Util.OPERATION).set(Util.READ_ATTRIBUTE);
+            step.get(Util.ADDRESS).setEmptyList();
+            step.get(Util.NAME).set(attribute);
+        }
+        final ModelNode step = steps.add();
+        step.get(Util.OPERATION).set(Util.READ_CHILDREN_NAMES);
+        step.get(Util.ADDRESS).setEmptyList();
+        step.get(Util.CHILD_TYPE).set(Util.EXTENSION);
+        return composite;
+    }
+
+    /**
+     * Gets the cache for the management model identified by the response to the
+     * {@link #createIdentityOperation() identity operation}, loading it from disk if persistence is enabled.
+     *
+     * @param response the response to the identity operation
+     * @return the cache, or {@code null} if the response does not identify the model
+     */
+    static DescriptionCache forIdentity(ModelNode response) {
+        if (!Util.isSuccess(response)) {
+            return null;
+        }
+        final ModelNode result = response.get(Util.RESULT);
+        final StringBuilder identity = new StringBuilder();
+        for (int i = 1; i <= IDENTITY_ATTRIBUTES.length; i++) {
+            final ModelNode step = result.get("step-" + i);
+            if (!Util.isSuccess(step)) {
+                return null;
+            }
+            identity.append(step.get(Util.RESULT).asString("")).append(' ');
+        }
+        final ModelNode extensionStep = result.get("step-" + (IDENTITY_ATTRIBUTES.length + 1));
+        if (!Util.isSuccess(extensionStep)) {
+            return null;
+        }
+        final List<String> extensions = new ArrayList<>();
+        for (ModelNode extension : extensionStep.get(Util.RESULT).asListOrEmpty()) {
+            extensions.add(extension.asString());
+        }
+        Collections.sort(extensions);
+        identity.append(String.join(",", extensions));
+        return forIdentity(identity.toString());
+    }
+
+    private static DescriptionCache forIdentity(String identity) {
+        synchronized (CACHES) {
+            DescriptionCache cache = CACHES.get(identity);
+            if (cache == null) {
+                cache = new DescriptionCache(identity);
+                if (PERSISTENT) {
+                    cache.load();
+                }
+                CACHES.put(identity, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Stores all the caches that have changed since they were loaded, if persistence is enabled.
+     */
+    static void persist() {
+        if (!PERSISTENT) {
+            return;
+        }
+        final List<DescriptionCache> caches;
+        synchronized (CACHES) {
+            caches = new ArrayList<>(CACHES.values());
+        }
+        for (DescriptionCache cache : caches) {
+            if (cache.modified) {
+                cache.store();
+            }
+        }
+    }
+
+    /**
+     * Whether the result of an operation may be cached.
+     *
+     * @param operation the operation
+     * @return {@code true} if the operation reads a description that only depends on the identity of the model
+     */
+    static boolean isCacheable(ModelNode operation) {
+        if (!CACHEABLE_OPERATIONS.contains(operation.get(Util.OPERATION).asString())
+                || operation.has(Util.OPERATION_HEADERS)
+                || !operation.get(Util.ACCESS_CONTROL).asString("none").matches("none|false")) {
+            return false;
+        }
+        for (ModelNode element : operation.get(Util.ADDRESS).asListOrEmpty()) {
+            if (UNCACHEABLE_ADDRESS_KEYS.contains(element.asProperty().getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether an operation may change what is registered in the model, in which case cached descriptions must be
+     * cleared after executing it. Registrations are changed by adding and removing resources, which includes adding
+     * extensions and subsystems and managing deployments, and such operations can be wrapped in a composite.
+     *
+     * @param operation the operation
+     * @return {@code true} if the operation may change the registrations
+     */
+    static boolean mayChangeRegistrations(ModelNode operation) {
+        final String name = operation.get(Util.OPERATION).asString();
+        return REGISTERING_OPERATIONS.contains(name) || name.contains(Util.DEPLOY);
+    }
+
+    /**
+     * Gets the cached response to an operation.
+     *
+     * @param operation a {@link #isCacheable(ModelNode) cacheable} operation
+     * @return a copy of the cached response, or {@code null} if it has not been cached
+     */
+    ModelNode get(ModelNode operation) {
+        final ModelNode result = descriptions.get(operation.toString());
+        if (result == null) {
+            return null;
+        }
+        final ModelNode response = new ModelNode();
+        response.get(Util.OUTCOME).set(Util.SUCCESS);
+        response.get(Util.RESULT).set(result.clone());
+        return response;
+    }
+
+    /**
+     * Caches the response to an operation, if it succeeded.
+     *
+     * @param operation a {@link #isCacheable(ModelNode) cacheable} operation
+     * @param response the response
+     */
+    void put(ModelNode operation, ModelNode response) {
+        if (!Util.isSuccess(response)) {
+            return;
+        }
+        final Map<String, ModelNode> current = descriptions;
+        if (current.size() >= MAX_ENTRIES) {
+            clear();
+            return;
+        }
+        // Only the result is kept; response headers describe the state of the process at the time of the read
+        current.put(operation.toString(), response.get(Util.RESULT).clone());
+        modified = true;
+    }
+
+    /**
+     * Discards all the cached descriptions.
+     */
+    void clear() {
+        descriptions = new ConcurrentHashMap<>();
+        modified = true;
+    }
+
+    private File getFile() {
+        final String userHome = WildFlySecurityManager.getPropertyPrivileged("user.home", null);
+        if (userHome == null) {
+            return null;
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        final StringBuilder name = new StringBuilder();
+        for (byte b : digest.digest(identity.getBytes(StandardCharsets.UTF_8))) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return new File(new File(new File(userHome, ".jboss-cli"), "description-cache"), name.append(".dmr").toString());
+    }
+
+    private void load() {
+        final File file = getFile();
+        if (file == null || !file.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !identity.equals(in.readUTF())) {
+                return;
+            }
+            final ModelNode stored = new ModelNode();
+            stored.readExternal(in);
+            final Map<String, ModelNode> loaded = new ConcurrentHashMap<>();
+            for (String key : stored.keys()) {
+                loaded.put(key, stored.get(key));
+            }
+            descriptions = loaded;
+        } catch (IOException | RuntimeException e) {
+            log.debugf(e, "Cannot read description cache %s", file);
+        }
+    }
+
+    private void store() {
+        final File file = getFile();
+        if (file == null) {
+            return;
+        }
+        modified = false;
+        final ModelNode stored = new ModelNode().setEmptyObject();
+        for (Map.Entry<String, ModelNode> entry : descriptions.entrySet()) {
+            stored.get(entry.getKey()).set(entry.getValue());
+        }
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(identity);
+                stored.writeExternal(out);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debugf(e, "Cannot store description cache %s", file);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.cli.impl;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.cli.Attachments;
+import org.jboss.as.cli.CommandContext;
+import org.jboss.as.cli.CommandContext.Scope;
+import org.jboss.as.cli.CommandFormatException;
+import org.jboss.as.cli.CommandLineException;
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.handlers.OperationRequestHandler;
+import org.jboss.as.cli.operation.OperationRequestAddress;
+import org.jboss.as.cli.operation.ParsedCommandLine;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.logging.Logger;
+import org.jboss.threads.AsyncFuture;
+
+/**
+ * Executes the operations of a non-interactive script without waiting for the response to one operation before
+ * sending the next.
+ * <p>
+ * Up to {@code depth} operations are kept in flight. An operation is not sent while an operation against the same
+ * resource, one of its ancestors or one of its descendants is in flight, so operations that add a resource and then
+ * configure it or its children still execute in order; operations against unrelated resources must not depend on each
+ * other. Operations against the root resource or an extension may change what can be addressed anywhere in the model,
+ * so they are only sent once all the operations before them have completed and no other operation is sent until they
+ * have completed. Responses are printed in the order the operations appear in the script. Once an operation fails no
+ * further operations are sent; the operations already in flight are allowed to complete and their responses are
+ * printed before the script stops.
+ * <p>
+ * Building an operation request reads the description of the operation to convert its parameters and, unless
+ * disabled, to validate them. The descriptions are read only once for a given resource and operation and kept for the
+ * rest of the script, so repeated operations do not wait for a round trip before being sent. The descriptions below
+ * the address of an operation that may change what is registered there are discarded, and all of them are discarded
+ * by the operations against the root resource or an extension. Operations against a resource not addressed before
+ * still wait for their description to be read.
+ * <p>
+ * Anything in the script other than a plain operation, such as a command, a batch or a control flow statement, may
+ * depend on the outcome of the operations before it, so {@link #awaitAll()} must be called before handling it.
+ */
+final class OperationPipeline {
+
+    private static final Logger log = Logger.getLogger(CommandContext.class);
+    /** The number of slowest operations listed in the summary */
+    private static final int SLOWEST = 5;
+
+    private final CommandContextImpl ctx;
+    private final int depth;
+    private final Deque<PipelinedOperation> inFlight = new ArrayDeque<>();
+    private final List<PipelinedOperation> slowest = new ArrayList<>(SLOWEST + 1);
+    /** Descriptions of the operations of the script, by address and operation name */
+    private final Map<ModelNode, Map<String, ModelNode>> descriptions = new HashMap<>();
+    private final long start = System.nanoTime();
+    private int completed;
+    private long totalLatency;
+
+    OperationPipeline(CommandContextImpl ctx, int depth) {
+        this.ctx = ctx;
+        this.depth = depth;
+    }
+
+    /**
+     * Sends an operation once there is room in the pipeline and no related operation is in flight. The request is only
+     * built then, as building it reads the description of the operation, which may depend on the operations before it.
+     *
+     * @param parsedLine the line of the script the operation was parsed from
+     * @throws CommandLineException if the operation cannot be sent or an earlier operation failed
+     */
+    void submit(ParsedCommandLine parsedLine) throws CommandLineException {
+        final ModelControllerClient client = ctx.getModelControllerClient();
+        if (client == null) {
+            throw new CommandFormatException("You are disconnected at the moment." +
+                    " Type 'connect' to connect to the server" +
+                    " or 'help' for the list of supported commands.");
+        }
+        // Report whatever has already completed, so a failure stops the script as early as possible
+        while (!inFlight.isEmpty() && inFlight.peekFirst().future.isDone()) {
+            completeNext();
+        }
+        final ModelNode address = toAddress(parsedLine.getAddress());
+        final boolean barrier = isBarrier(address);
+        while (inFlight.size() >= depth || (barrier ? !inFlight.isEmpty() : isRelatedInFlight(address))) {
+            completeNext();
+        }
+
+        final Attachments attachments = new Attachments();
+        final ModelNode request = toOperationRequest(parsedLine, address, attachments);
+        if (barrier) {
+            descriptions.clear();
+        } else if (DescriptionCache.mayChangeRegistrations(request)) {
+            descriptions.keySet().removeIf(described -> isPrefix(address, described) && !described.equals(address));
+        }
+        final OperationBuilder opBuilder = new OperationBuilder(request, true);
+        for (String path : attachments.getAttachedFiles()) {
+            opBuilder.addFileAsAttachment(new File(path));
+        }
+        final PipelinedOperation op;
+        try {
+            op = new PipelinedOperation(parsedLine.getOriginalLine(), address, barrier,
+                    client.executeAsync(opBuilder.build(), null));
+        } catch (RuntimeException e) {
+            throw new CommandLineException("Failed to execute operation.", e);
+        }
+        inFlight.addLast(op);
+    }
+
+    /**
+     * Waits for all the operations in flight to complete, printing their responses.
+     *
+     * @throws CommandLineException if any of the operations failed
+     */
+    void awaitAll() throws CommandLineException {
+        while (!inFlight.isEmpty()) {
+            completeNext();
+        }
+    }
+
+    /**
+     * Waits for all the operations in flight to complete and prints a summary of the latencies of the operations
+     * executed through the pipeline.
+     *
+     * @throws CommandLineException if any of the operations failed
+     */
+    void finish() throws CommandLineException {
+        try {
+            awaitAll();
+        } finally {
+            if (completed > 0) {
+                final StringBuilder summary = new StringBuilder();
+                summary.append("Pipelined ").append(completed).append(" operations in ")
+                        .append(toMillis(System.nanoTime() - start)).append(" ms, average latency ")
+                        .append(toMillis(totalLatency / completed)).append(" ms. Slowest operations:");
+                for (PipelinedOperation op : slowest) {
+                    summary.append(Util.LINE_SEPARATOR).append("  ").append(toMillis(op.latency)).append(" ms ").append(op.line);
+                }
+                ctx.printLine(summary.toString());
+            }
+        }
+    }
+
+    private ModelNode toOperationRequest(ParsedCommandLine parsedLine, ModelNode address, Attachments attachments)
+            throws CommandFormatException {
+        final Map<String, ModelNode> described = descriptions.computeIfAbsent(address, a -> new HashMap<>());
+        final String name = parsedLine.getOperationName();
+        final ModelNode description = described.get(name);
+        if (description != null) {
+            ctx.set(Scope.REQUEST, Util.DESCRIPTION_RESPONSE, description);
+        } else {
+            ctx.remove(Scope.REQUEST, Util.DESCRIPTION_RESPONSE);
+        }
+        final ModelNode request = Util.toOperationRequest(ctx, parsedLine, attachments);
+        if (ctx.getConfig().isValidateOperationRequests()) {
+            final ModelNode opDescOutcome = Util.validateRequest(ctx, request);
+            if (opDescOutcome != null) { // operation has params that might need to be replaced
+                Util.replaceFilePathsWithBytes(request, opDescOutcome);
+            }
+        }
+        final ModelNode read = (ModelNode) ctx.get(Scope.REQUEST, Util.DESCRIPTION_RESPONSE);
+        if (read != null) {
+            described.put(name, read);
+        }
+        return request;
+    }
+
+    private static ModelNode toAddress(OperationRequestAddress parsedAddress) {
+        final ModelNode address = new ModelNode().setEmptyList();
+        for (OperationRequestAddress.Node node : parsedAddress) {
+            // An incomplete address is reported when the request is built
+            if (node.getName() != null) {
+                address.add(node.getType(), node.getName());
+            }
+        }
+        return address;
+    }
+
+    /**
+     * Whether an operation may change what can be addressed anywhere in the model, such as adding an extension, which
+     * registers the subsystems operations of the script may then address.
+     */
+    private static boolean isBarrier(ModelNode address) {
+        final List<ModelNode> elements = address.asListOrEmpty();
+        return elements.isEmpty() || Util.EXTENSION.equals(elements.get(0).asProperty().getName());
+    }
+
+    private boolean isRelatedInFlight(ModelNode address) {
+        for (PipelinedOperation op : inFlight) {
+            if (op.barrier || isPrefix(op.address, address) || isPrefix(address, op.address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPrefix(ModelNode prefix, ModelNode address) {
+        final List<ModelNode> prefixElements = prefix.asListOrEmpty();
+        final List<ModelNode> addressElements = address.asListOrEmpty();
+        if (prefixElements.size() > addressElements.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefixElements.size(); i++) {
+            final Property p = prefixElements.get(i).asProperty();
+            final Property a = addressElements.get(i).asProperty();
+            if (!p.getName().equals(a.getName()) || !p.getValue().asString().equals(a.getValue().asString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void completeNext() throws CommandLineException {
+        try {
+            complete(inFlight.removeFirst());
+        } catch (CommandLineException e) {
+            // The operations sent after the failed one cannot be recalled, so let them complete and show their outcome
+            ctx.error(Util.getMessagesFromThrowable(e));
+            while (!inFlight.isEmpty()) {
+                try {
+                    complete(inFlight.removeFirst());
+                } catch (CommandLineException ex) {
+                    ctx.error(Util.getMessagesFromThrowable(ex));
+                }
+            }
+            throw new CommandLineException("Stopped executing the script after a pipelined operation failed.");
+        }
+    }
+
+    private void complete(PipelinedOperation op) throws CommandLineException {
+        final ModelNode response;
+        try {
+            final int timeout = ctx.getCommandTimeout();
+            response = timeout > 0 ? op.future.get(timeout, TimeUnit.SECONDS) : op.future.get();
+        } catch (TimeoutException e) {
+            op.future.asyncCancel(true);
+            throw new CommandLineException("Timeout exception for " + op.line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            op.future.asyncCancel(true);
+            throw new CommandLineException("Interrupt exception for " + op.line);
+        } catch (CancellationException e) {
+            throw OperationRequestHandler.executionFailure(ctx, e);
+        } catch (ExecutionException e) {
+            throw OperationRequestHandler.executionFailure(ctx, e.getCause());
+        }
+        record(op);
+        OperationRequestHandler.handleResponse(ctx, response);
+    }
+
+    private void record(PipelinedOperation op) {
+        if (op.latency == 0) {
+            // The completion listener has not run yet
+            op.latency = System.nanoTime() - op.sent;
+        }
+        if (log.isDebugEnabled()) {
+            log.debugf("Pipelined operation '%s' completed in %d ms", op.line, toMillis(op.latency));
+        }
+        completed++;
+        totalLatency += op.latency;
+        int i = slowest.size();
+        while (i > 0 && slowest.get(i - 1).latency < op.latency) {
+            i--;
+        }
+        if (i < SLOWEST) {
+            slowest.add(i, op);
+            if (slowest.size() > SLOWEST) {
+                slowest.remove(SLOWEST);
+            }
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static final class PipelinedOperation implements AsyncFuture.Listener<ModelNode, Void> {
+        private final String line;
+        private final ModelNode address;
+        private final boolean barrier;
+        private final AsyncFuture<ModelNode> future;
+        private final long sent = System.nanoTime();
+        /** Time from sending the operation to receiving its outcome; responses are not necessarily consumed in that order */
+        private volatile long latency;
+
+        private PipelinedOperation(String line, ModelNode address, boolean barrier, AsyncFuture<ModelNode> future) {
+            this.line = line;
+            this.address = address;
+            this.barrier = barrier;
+            this.future = future;
+            future.addListener(this, null);
+        }
+
+        @Override
+        public void handleComplete(AsyncFuture<? extends ModelNode> future, Void attachment) {
+            latency = System.nanoTime() - sent;
+        }
+
+        @Override
+        public void handleFailed(AsyncFuture<? extends ModelNode> future, Throwable cause, Void attachment) {
+            latency = System.nanoTime() - sent;
+        }
+
+        @Override
+        public void handleCancelled(AsyncFuture<? extends ModelNode> future, Void attachment) {
+            latency = System.nanoTime() - sent;
+        }
+    }
+}
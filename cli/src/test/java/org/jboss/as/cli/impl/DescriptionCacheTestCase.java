@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.cli.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.cli.Util;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DescriptionCache}.
+ */
+public class DescriptionCacheTestCase {
+
+    @Test
+    public void testCacheableOperations() {
+        assertTrue(DescriptionCache.isCacheable(operation(Util.READ_RESOURCE_DESCRIPTION, Util.SUBSYSTEM, "logging")));
+        assertTrue(DescriptionCache.isCacheable(operation(Util.READ_OPERATION_NAMES, Util.PROFILE, "default")));
+
+        final ModelNode accessControl = operation(Util.READ_RESOURCE_DESCRIPTION);
+        accessControl.get(Util.ACCESS_CONTROL).set("trim-descriptions");
+        assertFalse(DescriptionCache.isCacheable(accessControl));
+
+        final ModelNode headers = operation(Util.READ_OPERATION_DESCRIPTION);
+        headers.get(Util.OPERATION_HEADERS, "roles").set("Monitor");
+        assertFalse(DescriptionCache.isCacheable(headers));
+
+        assertFalse(DescriptionCache.isCacheable(operation(Util.READ_RESOURCE)));
+        assertFalse(DescriptionCache.isCacheable(operation(Util.READ_RESOURCE_DESCRIPTION, Util.DEPLOYMENT, "test.war")));
+        assertFalse(DescriptionCache.isCacheable(operation(Util.READ_RESOURCE_DESCRIPTION, Util.HOST, "primary")));
+    }
+
+    @Test
+    public void testRegistrationChanges() {
+        assertTrue(DescriptionCache.mayChangeRegistrations(operation(Util.ADD, Util.EXTENSION, "org.foo")));
+        assertTrue(DescriptionCache.mayChangeRegistrations(operation(Util.COMPOSITE)));
+        assertTrue(DescriptionCache.mayChangeRegistrations(operation("full-replace-deployment")));
+        assertFalse(DescriptionCache.mayChangeRegistrations(operation(Util.WRITE_ATTRIBUTE, Util.SUBSYSTEM, "logging")));
+        assertFalse(DescriptionCache.mayChangeRegistrations(operation(Util.READ_RESOURCE)));
+    }
+
+    @Test
+    public void testIdentity() {
+        final DescriptionCache cache = DescriptionCache.forIdentity(identityResponse("1.0", "a", "b"));
+        assertNotNull(cache);
+        assertSame(cache, DescriptionCache.forIdentity(identityResponse("1.0", "b", "a")));
+        assertNotSame(cache, DescriptionCache.forIdentity(identityResponse("1.0", "a")));
+        assertNotSame(cache, DescriptionCache.forIdentity(identityResponse("2.0", "a", "b")));
+        assertNotSame(cache, DescriptionCache.forIdentity(processIdentityResponse("1.0", "host-controller", "a", "b")));
+
+        final ModelNode failed = identityResponse("1.0", "a");
+        failed.get(Util.RESULT, "step-8", Util.OUTCOME).set("failed");
+        assertNull(DescriptionCache.forIdentity(failed));
+    }
+
+    @Test
+    public void testGetAndPut() {
+        final DescriptionCache cache = DescriptionCache.forIdentity(identityResponse("test-get-and-put"));
+        final ModelNode op = operation(Util.READ_RESOURCE_DESCRIPTION, Util.SUBSYSTEM, "logging");
+        assertNull(cache.get(op));
+
+        final ModelNode failure = new ModelNode();
+        failure.get(Util.OUTCOME).set("failed");
+        cache.put(op, failure);
+        assertNull(cache.get(op));
+
+        final ModelNode response = new ModelNode();
+        response.get(Util.OUTCOME).set(Util.SUCCESS);
+        response.get(Util.RESULT, Util.DESCRIPTION).set("The logging subsystem");
+        response.get(Util.RESPONSE_HEADERS, "process-state").set("reload-required");
+        cache.put(op, response);
+
+        final ModelNode cached = cache.get(op);
+        assertTrue(Util.isSuccess(cached));
+        assertEquals(response.get(Util.RESULT), cached.get(Util.RESULT));
+        assertFalse(cached.has(Util.RESPONSE_HEADERS));
+        // Callers get their own copy
+        cached.get(Util.RESULT, Util.DESCRIPTION).set("changed");
+        assertEquals(response.get(Util.RESULT), cache.get(op).get(Util.RESULT));
+
+        cache.clear();
+        assertNull(cache.get(op));
+    }
+
+    private static ModelNode operation(String name, String... address) {
+        final ModelNode op = new ModelNode();
+        op.get(Util.OPERATION).set(name);
+        final ModelNode addr = op.get(Util.ADDRESS).setEmptyList();
+        for (int i = 0; i < address.length; i += 2) {
+            addr.add(address[i], address[i + 1]);
+        }
+        return op;
+    }
+
+    private static ModelNode identityResponse(String version, String... extensions) {
+        return processIdentityResponse(version, "server", extensions);
+    }
+
+    private static ModelNode processIdentityResponse(String version, String processType, String... extensions) {
+        final ModelNode response = new ModelNode();
+        response.get(Util.OUTCOME).set(Util.SUCCESS);
+        final ModelNode result = response.get(Util.RESULT);
+        final String[] values = {"WildFly Core", version, "20", "0", "0", processType, "STANDALONE"};
+        for (int i = 0; i < values.length; i++) {
+            final ModelNode step = result.get("step-" + (i + 1));
+            step.get(Util.OUTCOME).set(Util.SUCCESS);
+            step.get(Util.RESULT).set(values[i]);
+        }
+        final ModelNode step = result.get("step-8");
+        step.get(Util.OUTCOME).set(Util.SUCCESS);
+        step.get(Util.RESULT).setEmptyList();
+        for (String extension : extensions) {
+            step.get(Util.RESULT).add(extension);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.cli.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.cli.CommandLineException;
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.operation.ParsedCommandLine;
+import org.jboss.as.cli.operation.impl.DefaultCallbackHandler;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link OperationPipeline}.
+ */
+public class OperationPipelineTestCase {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final TestClient client = new TestClient();
+    private CommandContextImpl ctx;
+
+    @Before
+    public void setup() throws Exception {
+        ctx = new CommandContextImpl(output);
+        ctx.bindClient(client);
+    }
+
+    @After
+    public void cleanup() {
+        ctx.terminateSession();
+    }
+
+    @Test
+    public void testDepth() throws Exception {
+        final OperationPipeline pipeline = new OperationPipeline(ctx, 2);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+        pipeline.submit(parse("/subsystem=b:write-attribute"));
+        assertEquals(2, client.sent.size());
+
+        final Submission third = submitInBackground(pipeline, "/subsystem=c:write-attribute");
+        third.assertBlocked();
+        client.sent.get(0).complete(true);
+        third.get();
+        assertEquals(3, client.sent.size());
+
+        client.sent.get(2).complete(true);
+        client.sent.get(1).complete(true);
+        pipeline.finish();
+        assertTrue(output.toString().contains("Pipelined 3 operations"));
+    }
+
+    @Test
+    public void testRelatedAddressesAreOrdered() throws Exception {
+        final OperationPipeline pipeline = new OperationPipeline(ctx, 10);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+        pipeline.submit(parse("/subsystem=b:write-attribute"));
+
+        final Submission child = submitInBackground(pipeline, "/subsystem=a/child=x:write-attribute");
+        child.assertBlocked();
+        client.sent.get(0).complete(true);
+        child.get();
+        assertEquals(3, client.sent.size());
+
+        client.sent.get(1).complete(true);
+        client.sent.get(2).complete(true);
+        pipeline.awaitAll();
+    }
+
+    @Test
+    public void testExtensionsAreBarriers() throws Exception {
+        final OperationPipeline pipeline = new OperationPipeline(ctx, 10);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+
+        final Submission extension = submitInBackground(pipeline, "/extension=x:add");
+        extension.assertBlocked();
+        client.sent.get(0).complete(true);
+        extension.get();
+        assertEquals(2, client.sent.size());
+
+        final Submission subsystem = submitInBackground(pipeline, "/subsystem=x:add");
+        subsystem.assertBlocked();
+        client.sent.get(1).complete(true);
+        subsystem.get();
+        assertEquals(3, client.sent.size());
+
+        client.sent.get(2).complete(true);
+        pipeline.awaitAll();
+    }
+
+    @Test
+    public void testDescriptionsAreReused() throws Exception {
+        final OperationPipeline pipeline = new OperationPipeline(ctx, 10);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+        client.sent.get(0).complete(true);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+        assertEquals(1, client.descriptions.get());
+        pipeline.submit(parse("/subsystem=b:write-attribute"));
+        assertEquals(2, client.descriptions.get());
+
+        client.sent.get(1).complete(true);
+        client.sent.get(2).complete(true);
+        // Adding an extension may change any description
+        pipeline.submit(parse("/extension=x:add"));
+        client.sent.get(3).complete(true);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+        assertEquals(4, client.descriptions.get());
+
+        client.sent.get(4).complete(true);
+        pipeline.awaitAll();
+    }
+
+    @Test
+    public void testStopOnFailure() throws Exception {
+        final OperationPipeline pipeline = new OperationPipeline(ctx, 10);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+        pipeline.submit(parse("/subsystem=b:write-attribute"));
+        client.sent.get(0).complete(false);
+        client.sent.get(1).complete(true);
+        try {
+            pipeline.submit(parse("/subsystem=c:write-attribute"));
+            fail("The failure of the first operation should have been reported");
+        } catch (CommandLineException expected) {
+            // expected
+        }
+        assertEquals(2, client.sent.size());
+        assertEquals(1, ctx.getExitCode());
+        final String out = output.toString();
+        assertTrue(out, out.contains("failure-description"));
+        assertTrue(out, out.indexOf("failure-description") < out.indexOf("\"success\""));
+        pipeline.awaitAll();
+    }
+
+    @Test
+    public void testCommunicationErrorDisconnects() throws Exception {
+        final OperationPipeline pipeline = new OperationPipeline(ctx, 10);
+        pipeline.submit(parse("/subsystem=a:write-attribute"));
+        client.sent.get(0).fail(new IOException("Channel closed", new IOException("Connection reset")));
+        try {
+            pipeline.awaitAll();
+            fail("The communication error should have been reported");
+        } catch (CommandLineException expected) {
+            // expected
+        }
+        assertTrue(output.toString(), output.toString().contains("Communication error"));
+        assertNull(ctx.getModelControllerClient());
+    }
+
+    private ParsedCommandLine parse(String line) throws CommandLineException {
+        final DefaultCallbackHandler parsedLine = new DefaultCallbackHandler();
+        parsedLine.parse(null, line, ctx);
+        return parsedLine;
+    }
+
+    private Submission submitInBackground(OperationPipeline pipeline, String line) throws CommandLineException {
+        final ParsedCommandLine parsedLine = parse(line);
+        return new Submission(() -> {
+            pipeline.submit(parsedLine);
+            return null;
+        });
+    }
+
+    private static final class Submission extends FutureTask<Void> {
+
+        private final Thread thread = new Thread(this);
+
+        private Submission(Callable<Void> submit) {
+            super(submit);
+            thread.start();
+        }
+
+        /** Asserts that the submission waits for the response to an operation in flight rather than sending its own */
+        void assertBlocked() throws Exception {
+            // The submitting thread parks once it waits for the response to an operation in flight
+            while (thread.getState() != Thread.State.WAITING) {
+                try {
+                    get(10, TimeUnit.MILLISECONDS);
+                    fail("The operation should not have been sent");
+                } catch (TimeoutException expected) {
+                    // still running
+                }
+            }
+            assertFalse(isDone());
+        }
+
+        @Override
+        public Void get() throws ExecutionException, InterruptedException {
+            try {
+                return get(5, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                throw new AssertionError("The operation was not sent", e);
+            }
+        }
+    }
+
+    private static final class TestFuture extends AsyncFutureTask<ModelNode> {
+
+        private TestFuture() {
+            super(Runnable::run);
+        }
+
+        void complete(boolean success) {
+            final ModelNode response = new ModelNode();
+            if (success) {
+                response.get(Util.OUTCOME).set(Util.SUCCESS);
+            } else {
+                response.get(Util.OUTCOME).set("failed");
+                response.get("failure-description").set("failed");
+            }
+            setResult(response);
+        }
+
+        void fail(Throwable cause) {
+            setFailed(cause);
+        }
+    }
+
+    private static final class TestClient implements ModelControllerClient {
+
+        private final List<TestFuture> sent = new CopyOnWriteArrayList<>();
+        private final AtomicInteger descriptions = new AtomicInteger();
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler) {
+            final TestFuture future = new TestFuture();
+            sent.add(future);
+            return future;
+        }
+
+        @Override
+        public OperationResponse executeOperation(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+            if (!Util.READ_OPERATION_DESCRIPTION.equals(operation.getOperation().get(Util.OPERATION).asString())) {
+                throw new UnsupportedOperationException();
+            }
+            descriptions.incrementAndGet();
+            final ModelNode response = new ModelNode();
+            response.get(Util.OUTCOME).set(Util.SUCCESS);
+            response.get(Util.RESULT, Util.DESCRIPTION).set("An operation");
+            return OperationResponse.Factory.createSimple(response);
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> executeOperationAsync(Operation operation, OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
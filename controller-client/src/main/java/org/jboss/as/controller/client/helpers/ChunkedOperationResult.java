@@ -0,0 +1,372 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.client.helpers;
+
+import static org.jboss.as.controller.client.helpers.ClientConstants.CHUNKED_RESULT;
+import static org.jboss.as.controller.client.helpers.ClientConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.client.helpers.ClientConstants.RESULT;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reads the result of an operation one chunk at a time.
+ * <p>
+ * If an operation executed over the native management interface has the {@value ClientConstants#CHUNKED_RESULT}
+ * operation header set to {@code true}, a successful {@code OBJECT} or {@code LIST} result is not included in the
+ * response. Instead it is streamed back as a {@link OperationResponse#getInputStreams() response stream}, and the
+ * uuid of that stream is set as the {@value ClientConstants#CHUNKED_RESULT} response header. Reading the result
+ * this way means the client never needs to hold the whole result in memory. The response must be obtained using
+ * {@link org.jboss.as.controller.client.ModelControllerClient#executeOperation(org.jboss.as.controller.client.Operation, org.jboss.as.controller.client.OperationMessageHandler)}
+ * so the stream is available, and should be read promptly as the server discards unread streams after a while.
+ * <p>
+ * Each chunk of an {@code OBJECT} result is a {@link ModelType#PROPERTY PROPERTY} node holding one of the
+ * result's keys and its value; each chunk of a {@code LIST} result is one of the list's elements. Responses without
+ * a chunked result, e.g. from a server that does not support the header, are read the same way from the
+ * {@code result} included in the response, with any other type of defined result being a single chunk.
+ * <p>
+ * <b>Example:</b>
+ * <pre>
+ *     <code>
+ *         final ModelNode op = Operations.createReadResourceOperation(new ModelNode().setEmptyList(), true);
+ *         op.get(ClientConstants.OPERATION_HEADERS, ClientConstants.CHUNKED_RESULT).set(true);
+ *         try (OperationResponse response = client.executeOperation(Operation.Factory.create(op), OperationMessageHandler.DISCARD);
+ *              ChunkedOperationResult result = ChunkedOperationResult.of(response)) {
+ *             result.visit(chunk -&gt; process(chunk));
+ *         }
+ *     </code>
+ * </pre>
+ */
+public final class ChunkedOperationResult implements Iterator<ModelNode>, Closeable {
+
+    /** The MIME type of the response stream holding a chunked result. */
+    public static final String MIME_TYPE = "application/vnd.wildfly.dmr-chunks";
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte OBJECT = 'o';
+    private static final byte LIST = 'l';
+    private static final byte CHUNK = 1;
+    private static final byte END = 0;
+
+    /**
+     * Gets whether the given response carries a chunked result.
+     *
+     * @param response the DMR response. Cannot be {@code null}
+     * @return {@code true} if the result needs to be read from a response stream
+     */
+    public static boolean isChunked(final ModelNode response) {
+        return response.hasDefined(RESPONSE_HEADERS, CHUNKED_RESULT);
+    }
+
+    /**
+     * Creates a reader of the result of the given response.
+     *
+     * @param response the operation response. Cannot be {@code null}
+     * @return the reader. Will not be {@code null}
+     * @throws IOException if the response stream holding the chunked result is missing or unreadable
+     */
+    public static ChunkedOperationResult of(final OperationResponse response) throws IOException {
+        final ModelNode responseNode = response.getResponseNode();
+        if (!isChunked(responseNode)) {
+            return new ChunkedOperationResult(responseNode.get(RESULT));
+        }
+        final String uuid = responseNode.get(RESPONSE_HEADERS, CHUNKED_RESULT).asString();
+        final OperationResponse.StreamEntry entry = response.getInputStream(uuid);
+        if (entry == null) {
+            throw new IOException(uuid);
+        }
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(entry.getStream()));
+        try {
+            final byte version = input.readByte();
+            final byte type = input.readByte();
+            if (version != FORMAT_VERSION || (type != OBJECT && type != LIST)) {
+                throw new IOException(String.format("Unsupported chunked result format %d/%d", version, type));
+            }
+            return new ChunkedOperationResult(input, type == OBJECT ? ModelType.OBJECT : ModelType.LIST);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a stream of the chunks of a result. The stream serializes the result lazily, one chunk at a time.
+     * Intended for use by the server.
+     *
+     * @param result the {@code OBJECT} or {@code LIST} result. Cannot be {@code null}
+     * @return the stream. Will not be {@code null}
+     */
+    public static InputStream createStream(final ModelNode result) {
+        return new ChunkingInputStream(result);
+    }
+
+    private final ModelType type;
+    private final DataInputStream input;
+    private final Iterator<ModelNode> inline;
+    private ModelNode next;
+    private boolean finished;
+
+    private ChunkedOperationResult(final DataInputStream input, final ModelType type) {
+        this.input = input;
+        this.type = type;
+        this.inline = null;
+    }
+
+    private ChunkedOperationResult(final ModelNode result) {
+        this.input = null;
+        this.type = result.getType();
+        final List<ModelNode> chunks;
+        switch (type) {
+            case OBJECT:
+                chunks = new ArrayList<>();
+                for (String key : result.keys()) {
+                    chunks.add(new ModelNode().set(key, result.get(key)));
+                }
+                break;
+            case LIST:
+                chunks = result.asList();
+                break;
+            case UNDEFINED:
+                chunks = new ArrayList<>();
+                break;
+            default:
+                chunks = new ArrayList<>();
+                chunks.add(result);
+        }
+        this.inline = chunks.iterator();
+    }
+
+    /**
+     * Gets the type of the result.
+     *
+     * @return the type. Will not be {@code null}
+     */
+    public ModelType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (inline != null) {
+            return inline.hasNext();
+        }
+        if (next == null && !finished) {
+            try {
+                next = readChunk();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ModelNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (inline != null) {
+            return inline.next();
+        }
+        final ModelNode result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Passes each remaining chunk of the result to the given visitor.
+     *
+     * @param visitor the visitor. Cannot be {@code null}
+     * @throws IOException if the result cannot be read, or the visitor throws it
+     */
+    public void visit(final Visitor visitor) throws IOException {
+        try {
+            while (hasNext()) {
+                visitor.visit(next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads all remaining chunks back into a single result.
+     *
+     * @return the result. Will not be {@code null}
+     * @throws IOException if the result cannot be read
+     */
+    public ModelNode readAll() throws IOException {
+        final ModelNode result = new ModelNode();
+        if (type == ModelType.OBJECT) {
+            result.setEmptyObject();
+            visit(chunk -> result.get(chunk.asProperty().getName()).set(chunk.asProperty().getValue()));
+        } else if (type == ModelType.LIST) {
+            result.setEmptyList();
+            visit(result::add);
+        } else {
+            visit(result::set);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        if (input != null) {
+            input.close();
+        }
+    }
+
+    private ModelNode readChunk() throws IOException {
+        final byte marker = input.readByte();
+        if (marker == END) {
+            close();
+            return null;
+        }
+        if (marker != CHUNK) {
+            throw new IOException(String.format("Unexpected chunk marker %d", marker));
+        }
+        final String name = type == ModelType.OBJECT ? input.readUTF() : null;
+        final ModelNode value = new ModelNode();
+        value.readExternal(input);
+        return name == null ? value : new ModelNode().set(name, value);
+    }
+
+    /**
+     * Receives the chunks of a result.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Visits a chunk of the result.
+         *
+         * @param chunk the chunk. Will not be {@code null}
+         * @throws IOException if the chunk cannot be processed
+         */
+        void visit(ModelNode chunk) throws IOException;
+    }
+
+    private static final class ChunkingInputStream extends InputStream {
+
+        private final ModelNode result;
+        private final boolean object;
+        private final Iterator<String> keys;
+        private final int size;
+        private final ChunkBuffer buffer = new ChunkBuffer();
+        private final DataOutputStream output = new DataOutputStream(buffer);
+        private int index;
+        private int position;
+        private boolean started;
+        private boolean ended;
+
+        private ChunkingInputStream(final ModelNode result) {
+            this.result = result;
+            this.object = result.getType() == ModelType.OBJECT;
+            this.keys = object ? new ArrayList<>(result.keys()).iterator() : null;
+            this.size = object ? 0 : result.asInt();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return buffer.bytes()[position++] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.size() - position);
+            System.arraycopy(buffer.bytes(), position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.size() - position;
+        }
+
+        /** Serializes the next chunk once the previous one has been read. */
+        private boolean fill() throws IOException {
+            if (position < buffer.size()) {
+                return true;
+            }
+            if (ended) {
+                return false;
+            }
+            buffer.reset();
+            position = 0;
+            if (!started) {
+                started = true;
+                output.writeByte(FORMAT_VERSION);
+                output.writeByte(object ? OBJECT : LIST);
+            }
+            if (object ? keys.hasNext() : index < size) {
+                output.writeByte(CHUNK);
+                final ModelNode value;
+                if (object) {
+                    final String key = keys.next();
+                    output.writeUTF(key);
+                    value = result.get(key);
+                } else {
+                    value = result.get(index++);
+                }
+                value.writeExternal(output);
+            } else {
+                output.writeByte(END);
+                ended = true;
+            }
+            output.flush();
+            return true;
+        }
+    }
+
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
@@ -34,6 +34,7 @@ public class ClientConstants {
     public static final String ATTACHED_STREAMS = "attached-streams";
     public static final String AUTO_START = "auto-start";
     public static final String CHILD_TYPE = "child-type";
+    public static final String CHUNKED_RESULT = "chunked-result";
     public static final String COMPOSITE = "composite";
     public static final String CONTENT = "content";
     public static final String DEPLOYMENT = "deployment";
@@ -164,6 +164,8 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
     Step activeStep;
     /** The step that acquired the write lock */
     Step lockStep;
+    /** Records the time taken by each step, if the slow operation log is enabled */
+    OperationStatistics.StepTimings stepTimings;
     private final Supplier<SecurityIdentity> securityIdentitySupplier;
     /** Whether operation execution has begun; i.e. whether completeStep() has been called */
     private boolean executing;
@@ -1056,6 +1058,9 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
             this.activeStep.linkNextStep(step);
         }
         this.activeStep = step;
+        final boolean profiled = BootPhaseRecorder.ENABLED && currentStage == Stage.RUNTIME && isBooting();
+        final OperationStatistics.StepTimings timings = stepTimings;
+        final long stepStart = profiled || timings != null ? System.nanoTime() : 0L;
 
         try {
             try {
@@ -1108,6 +1113,12 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
             }
         } finally {
             addBootFailureDescription();
+            if (profiled) {
+                BootPhaseRecorder.record(BootPhaseRecorder.RUNTIME_STEP, step.address.toCLIStyleString() + ':' + step.operationId.name, stepStart);
+            }
+            if (timings != null) {
+                timings.record(currentStage, step.operationId.name, step.address, System.nanoTime() - stepStart);
+            }
         }
     }
 
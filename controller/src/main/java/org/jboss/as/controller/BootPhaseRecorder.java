@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Records how long the phases of a server boot take, for use by the boot profiler of a server.
+ * <p>
+ * Recording is disabled unless the {@code org.wildfly.boot.profiling} system property is set to {@code true}. When
+ * disabled, {@link #start()} and {@link #record(String, String, long)} do nothing beyond checking a static final flag.
+ * Phases are recorded process wide, as a process only ever boots one server at a time, and are discarded when the next
+ * boot {@linkplain #reset() starts}.
+ */
+public final class BootPhaseRecorder {
+
+    /** System property used to enable boot profiling. */
+    public static final String PROFILING_PROPERTY = "org.wildfly.boot.profiling";
+
+    /** Whether boot profiling is enabled. */
+    public static final boolean ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PROFILING_PROPERTY, "false"));
+
+    /** Phase covering the parsing of the configuration into boot operations. */
+    public static final String PARSE_CONFIGURATION = "parse-configuration";
+    /** Phase covering the execution of the boot operations, up to the point the service container is stable. */
+    public static final String BOOT_OPERATIONS = "boot-operations";
+    /** Phase covering the initialization of each extension. The detail is the extension module. */
+    public static final String EXTENSION_INITIALIZATION = "extension-initialization";
+    /** Phase covering the {@code Stage.MODEL} execution of each subsystem's boot operations. The detail is the subsystem. */
+    public static final String SUBSYSTEM_MODEL = "subsystem-model";
+    /** Phase covering the {@code Stage.RUNTIME} execution of each subsystem's boot operations. The detail is the subsystem. */
+    public static final String SUBSYSTEM_RUNTIME = "subsystem-runtime";
+    /** Phase covering each {@code Stage.RUNTIME} step executed during boot. The detail is the operation and address. */
+    public static final String RUNTIME_STEP = "runtime-step";
+    /** Phase covering the wait for the service container to become stable at the end of the boot operations. */
+    public static final String SERVICE_CONTAINER_STABILITY = "service-container-stability";
+
+    private static final List<Phase> PHASES = new ArrayList<>();
+
+    private BootPhaseRecorder() {
+    }
+
+    /**
+     * Returns the time to pass to {@link #record(String, String, long)} once the phase is complete.
+     *
+     * @return the current {@link System#nanoTime()} or {@code 0} if profiling is disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a completed phase, if profiling is enabled.
+     *
+     * @param name   the name of the phase. Cannot be {@code null}
+     * @param detail what the phase worked on, if it was run more than once. May be {@code null}
+     * @param start  the value returned by {@link #start()} when the phase started
+     */
+    public static void record(final String name, final String detail, final long start) {
+        if (ENABLED) {
+            final Phase phase = new Phase(name, detail, start, System.nanoTime(), Thread.currentThread().getName());
+            synchronized (PHASES) {
+                PHASES.add(phase);
+            }
+        }
+    }
+
+    /**
+     * Discards all recorded phases.
+     */
+    public static void reset() {
+        synchronized (PHASES) {
+            PHASES.clear();
+        }
+    }
+
+    /**
+     * Gets the phases recorded since the last {@link #reset()}, in the order they completed.
+     *
+     * @return a copy of the recorded phases. Will not be {@code null}
+     */
+    public static List<Phase> getPhases() {
+        synchronized (PHASES) {
+            return new ArrayList<>(PHASES);
+        }
+    }
+
+    /**
+     * A completed boot phase. Times are {@link System#nanoTime()} values.
+     */
+    public static final class Phase {
+        private final String name;
+        private final String detail;
+        private final long start;
+        private final long end;
+        private final String thread;
+
+        /**
+         * Creates a completed phase.
+         *
+         * @param name   the name of the phase. Cannot be {@code null}
+         * @param detail what the phase worked on. May be {@code null}
+         * @param start  the {@link System#nanoTime()} at which the phase started
+         * @param end    the {@link System#nanoTime()} at which the phase completed
+         * @param thread the name of the thread that ran the phase
+         */
+        public Phase(final String name, final String detail, final long start, final long end, final String thread) {
+            this.name = name;
+            this.detail = detail;
+            this.start = start;
+            this.end = end;
+            this.thread = thread;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public long getDuration() {
+            return end - start;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+    }
+}
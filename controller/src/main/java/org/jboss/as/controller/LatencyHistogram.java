@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Concurrent histogram of durations in nanoseconds, with buckets laid out in the log-linear style of HdrHistogram.
+ * <p>
+ * Each power of two range of values is split into {@value #SUB_BUCKETS} linear sub-buckets, so reported percentiles
+ * are within about 6% of the recorded values. Values above roughly 18 minutes are counted in the highest bucket, but
+ * the {@linkplain #getMax() maximum} and {@linkplain #getTotal() total} are exact. Recording does not allocate and
+ * does not block, so it is cheap enough for the management operation execution path.
+ */
+public final class LatencyHistogram {
+
+    /** Key of the number of recorded values in {@link #toModelNode()} */
+    public static final String COUNT = "count";
+    /** Key of the sum of the recorded values in {@link #toModelNode()} */
+    public static final String TOTAL_TIME = "total-time";
+    /** Key of the largest recorded value in {@link #toModelNode()} */
+    public static final String MAX_TIME = "max-time";
+    /** Key of the median in {@link #toModelNode()} */
+    public static final String P50 = "p50";
+    /** Key of the 90th percentile in {@link #toModelNode()} */
+    public static final String P90 = "p90";
+    /** Key of the 99th percentile in {@link #toModelNode()} */
+    public static final String P99 = "p99";
+    /** Key of the 99.9th percentile in {@link #toModelNode()} */
+    public static final String P999 = "p999";
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_TRACKED_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds. Negative values are recorded as {@code 0}
+     */
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0L);
+        buckets.incrementAndGet(getBucket(Math.min(value, MAX_TRACKED_VALUE)));
+        count.increment();
+        total.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return the total in nanoseconds
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return the maximum in nanoseconds, or {@code 0} if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the highest value equivalent to the percentile's bucket, in nanoseconds, or {@code 0} if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        return getValueAtPercentile(snapshot(), percentile);
+    }
+
+    /**
+     * Gets the state of the histogram as a model node with {@link #COUNT}, {@link #TOTAL_TIME}, {@link #MAX_TIME},
+     * {@link #P50}, {@link #P90}, {@link #P99} and {@link #P999} fields. All times are in nanoseconds.
+     *
+     * @return the model node. Will not be {@code null}
+     */
+    public ModelNode toModelNode() {
+        final long[] snapshot = snapshot();
+        final ModelNode node = new ModelNode();
+        node.get(COUNT).set(getCount());
+        node.get(TOTAL_TIME).set(getTotal());
+        node.get(MAX_TIME).set(getMax());
+        node.get(P50).set(getValueAtPercentile(snapshot, 50));
+        node.get(P90).set(getValueAtPercentile(snapshot, 90));
+        node.get(P99).set(getValueAtPercentile(snapshot, 99));
+        node.get(P999).set(getValueAtPercentile(snapshot, 99.9));
+        return node;
+    }
+
+    /**
+     * Creates the definition of a runtime attribute whose value is produced by {@link #toModelNode()}.
+     *
+     * @param name the name of the attribute
+     * @return the attribute definition. Will not be {@code null}
+     */
+    public static ObjectTypeAttributeDefinition attributeDefinition(String name) {
+        return new ObjectTypeAttributeDefinition.Builder(name,
+                SimpleAttributeDefinitionBuilder.create(COUNT, ModelType.LONG).build(),
+                nanoseconds(TOTAL_TIME),
+                nanoseconds(MAX_TIME),
+                nanoseconds(P50),
+                nanoseconds(P90),
+                nanoseconds(P99),
+                nanoseconds(P999))
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static AttributeDefinition nanoseconds(String name) {
+        return SimpleAttributeDefinitionBuilder.create(name, ModelType.LONG)
+                .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                .build();
+    }
+
+    private long[] snapshot() {
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+        }
+        return snapshot;
+    }
+
+    private long getValueAtPercentile(long[] snapshot, double percentile) {
+        long recorded = 0;
+        for (long bucketCount : snapshot) {
+            recorded += bucketCount;
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        final long target = Math.max(1L, (long) Math.ceil(Math.min(percentile, 100d) / 100d * recorded));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= target) {
+                return Math.min(getHighestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long getHighestEquivalentValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+        final long lowest = (long) ((bucket & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -136,6 +136,7 @@ class ModelControllerImpl implements ModelController {
     private final Supplier<SecurityIdentity> securityIdentitySupplier;
 
     private final ConcurrentMap<Integer, OperationContextImpl> activeOperations = new ConcurrentHashMap<>();
+    private final OperationStatistics operationStatistics = new OperationStatistics();
     private final Random random = new Random();
     private final ManagedAuditLogger auditLogger;
     private final BootErrorCollector bootErrorCollector;
@@ -429,18 +430,27 @@ class ModelControllerImpl implements ModelController {
                     headers, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), forBoot, hostServerGroupTracker, accessContext, notificationSupport,
                     false, extraValidationStepHandler, partialModel, securityIdentitySupplier);
+            if (executorService != null) {
+                context.attach(ProxyOperationDispatcher.EXECUTOR_KEY, executorService);
+            }
             // Try again if the operation-id is already taken
             if(activeOperations.putIfAbsent(operationID, context) == null) {
                 //noinspection deprecation
                 CurrentOperationIdHolder.setCurrentOperationID(operationID);
                 boolean shouldUnlock = false;
+                long lockTime = 0;
                 try (context) {
                     if (attemptLock) {
+                        final long waitStart = System.nanoTime();
                         if (!controllerLock.detectDeadlockAndGetLock(operationID)) {
                             responseNode.get(OUTCOME).set(FAILED);
                             responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.cannotGetControllerLock());
                             return OperationResponse.Factory.createSimple(responseNode);
                         }
+                        lockTime = System.nanoTime();
+                        operationStatistics.writeLockAcquired(lockTime - waitStart);
+                        // The context only re-enters the lock, so its own statistics would not be meaningful
+                        context.writeLockHeldByCaller();
                         shouldUnlock = true;
                     }
 
@@ -471,10 +481,14 @@ class ModelControllerImpl implements ModelController {
 
                     if (shouldUnlock) {
                         controllerLock.unlock(operationID);
+                        operationStatistics.writeLockReleased(System.nanoTime() - lockTime);
                     }
                     activeOperations.remove(operationID);
                     //noinspection deprecation
                     CurrentOperationIdHolder.setCurrentOperationID(null);
+                    if (!forBoot) {
+                        recordOperation(context, operation);
+                    }
                 }
                 break;
             }
@@ -486,6 +500,28 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    private void recordOperation(OperationContextImpl context, ModelNode operation) {
+        if (!operation.hasDefined(OP)) {
+            return;
+        }
+        PathAddress address = PathAddress.EMPTY_ADDRESS;
+        if (operation.hasDefined(OP_ADDR)) {
+            try {
+                address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            } catch (IllegalArgumentException e) {
+                // record it against the root
+            }
+        }
+        final ImmutableManagementResourceRegistration registration = managementModel.get().getRootResourceRegistration().getSubModel(address);
+        final String resourceType = registration == null ? null : registration.getPathAddress().toCLIStyleString();
+        operationStatistics.operationCompleted(operation.get(OP).asString(), address, resourceType,
+                context.getRunningTime(), context.getExclusiveRunningTime(), context.stepTimings);
+    }
+
+    OperationStatistics getOperationStatistics() {
+        return operationStatistics;
+    }
+
     private static OperationResponse handleExternalRequestDuringBoot() {
         ModelNode result = new ModelNode();
         result.get(OUTCOME).set(FAILED);
@@ -1220,6 +1256,10 @@ class ModelControllerImpl implements ModelController {
             return delegatingResourceRegistration;
         }
 
+        OperationStatistics getOperationStatistics() {
+            return operationStatistics;
+        }
+
         @Override
         public Resource getRootResource() {
             return delegatingResource;
@@ -162,6 +162,10 @@ final class OperationContextImpl extends AbstractOperationContext {
     private volatile BlockingTimeout blockingTimeout;
     private final long startTime = System.nanoTime();
     private volatile long exclusiveStartTime = -1;
+    /** Whether the write lock was acquired before executing the operation, by the caller recording its statistics */
+    private volatile boolean writeLockHeldByCaller;
+    /** Total time the exclusive lock has been held, not counting the current hold */
+    private long exclusiveRunningTime;
 
     /** Tracks whether any steps have gotten write access to  the resource tree */
     private volatile boolean affectsResourceTree;
@@ -237,6 +241,9 @@ final class OperationContextImpl extends AbstractOperationContext {
         this.hostServerGroupTracker = hostServerGroupTracker;
         this.activeOperationResource = new ActiveOperationResource();
         this.accessAuditContext = accessAuditContext;
+        if (!booting) {
+            this.stepTimings = modelController.getOperationStatistics().createStepTimings();
+        }
         this.partialModel = partialModel;
         if(runningMode == RunningMode.ADMIN_ONLY) {
             boolean hostXmlOnly = booting && !processType.isServer() && partialModel;
@@ -499,8 +506,12 @@ final class OperationContextImpl extends AbstractOperationContext {
                 // the ContainerStateMonitor may not have gotten the notification causing it to untick
                 executionStatus = ExecutionStatus.AWAITING_STABILITY;
                 waitForRemovals();
+                final long profileStart = isBooting() ? BootPhaseRecorder.start() : 0L;
                 ContainerStateMonitor.ContainerStateChangeReport changeReport =
                         modelController.awaitContainerStateChangeReport(timeout, TimeUnit.MILLISECONDS);
+                if (profileStart != 0L) {
+                    BootPhaseRecorder.record(BootPhaseRecorder.SERVICE_CONTAINER_STABILITY, null, profileStart);
+                }
                 if (changeReport != null && changeReport.hasNewProblems()) {
                     // If any services are missing, add a verification handler to see if we caused it
                     if (!changeReport.getMissingServices().isEmpty()) {
@@ -825,6 +836,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 // let op 3 block for the time needed for both 1 and 2
 //                int timeout = blockingTimeout.getBlockingTimeout();
 //                if (timeout < 1) {
+                final long waitStart = System.nanoTime();
                 modelController.acquireWriteLock(operationId, respectInterruption);
 //                } else {
 //                    // Wait longer than the standard amount to get a chance to execute
@@ -835,6 +847,9 @@ final class OperationContextImpl extends AbstractOperationContext {
 //                    }
 //                }
                 exclusiveStartTime = System.nanoTime();
+                if (!writeLockHeldByCaller) {
+                    modelController.getOperationStatistics().writeLockAcquired(exclusiveStartTime - waitStart);
+                }
                 recordWriteLock();
             } catch (InterruptedException e) {
                 cancelled = true;
@@ -1276,12 +1291,43 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Notification that the caller acquired the write lock before executing the operation and records the statistics
+     * of the lock, as taking the lock then only re-enters it.
+     */
+    void writeLockHeldByCaller() {
+        writeLockHeldByCaller = true;
+    }
+
     private void releaseModelControllerLock() {
         modelController.releaseWriteLock(operationId);
+        final long held = System.nanoTime() - exclusiveStartTime;
+        exclusiveRunningTime += held;
+        if (!writeLockHeldByCaller) {
+            modelController.getOperationStatistics().writeLockReleased(held);
+        }
         exclusiveStartTime = -1;
         lockStep = null;
     }
 
+    /**
+     * Gets how long the operation has been executing.
+     *
+     * @return the running time in nanoseconds
+     */
+    long getRunningTime() {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Gets how long the operation held the exclusive controller lock, once it has released it.
+     *
+     * @return the time in nanoseconds
+     */
+    long getExclusiveRunningTime() {
+        return exclusiveRunningTime;
+    }
+
     private void resetContainerStateChanges() {
         modelController.logContainerStateChangesAndReset();
         containerMonitorStep = null;
@@ -0,0 +1,300 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXCLUSIVE_RUNNING_TIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_TIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Statistics about the management operations a {@link ModelControllerImpl} has executed, exposed as the metrics of the
+ * {@code core-service=management/service=management-operations} resource.
+ * <p>
+ * Latencies are kept per operation name and per resource type, along with the time operations waited for and held
+ * the exclusive controller lock. Operations that take longer than the slow operation threshold, configured in
+ * milliseconds with the {@code jboss.as.management.slow-operation-threshold} system property, are logged along with
+ * the time taken by each of their steps and the most recent of them are retained. The slow operation log is disabled
+ * by default, in which case step execution is not timed at all.
+ */
+public final class OperationStatistics {
+
+    /** System property used to set the slow operation threshold, in milliseconds. */
+    static final String SLOW_OPERATION_THRESHOLD_PROPERTY = "jboss.as.management.slow-operation-threshold";
+
+    /** Upper bound on the number of distinct operation names or resource types tracked */
+    private static final int MAX_HISTOGRAMS = 256;
+    /** Number of slow operations retained */
+    private static final int MAX_SLOW_OPERATIONS = 20;
+
+    private final long slowOperationThreshold;
+    private final Map<String, LatencyHistogram> operationLatency = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> resourceTypeLatency = new ConcurrentHashMap<>();
+    private final LatencyHistogram writeLockWait = new LatencyHistogram();
+    private final LatencyHistogram writeLockHold = new LatencyHistogram();
+    private final Deque<ModelNode> slowOperations = new ArrayDeque<>(MAX_SLOW_OPERATIONS);
+
+    OperationStatistics() {
+        this(readSlowOperationThreshold());
+    }
+
+    /**
+     * Creates statistics using the given slow operation threshold.
+     *
+     * @param slowOperationThreshold the threshold in milliseconds, or {@code 0} to disable the slow operation log
+     */
+    OperationStatistics(long slowOperationThreshold) {
+        this.slowOperationThreshold = Math.max(slowOperationThreshold, 0L);
+    }
+
+    /**
+     * Gets the statistics of the controller executing an operation.
+     *
+     * @param context the context of the operation. Cannot be {@code null}
+     * @return the statistics. Will not be {@code null}
+     */
+    public static OperationStatistics getOperationStatistics(OperationContext context) {
+        assert context instanceof AbstractOperationContext;
+        return ((AbstractOperationContext) context).getManagementModel().getOperationStatistics();
+    }
+
+    private static long readSlowOperationThreshold() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(SLOW_OPERATION_THRESHOLD_PROPERTY, "0");
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, SLOW_OPERATION_THRESHOLD_PROPERTY, 0);
+            return 0L;
+        }
+    }
+
+    /**
+     * Creates the object an operation uses to time its steps.
+     *
+     * @return the step timings, or {@code null} if the slow operation log is disabled
+     */
+    StepTimings createStepTimings() {
+        return slowOperationThreshold > 0 ? new StepTimings() : null;
+    }
+
+    void writeLockAcquired(long waitTime) {
+        writeLockWait.record(waitTime);
+    }
+
+    void writeLockReleased(long holdTime) {
+        writeLockHold.record(holdTime);
+    }
+
+    /**
+     * Records the completion of an operation.
+     *
+     * @param operationName the name of the operation
+     * @param address the address of the operation
+     * @param resourceType the address of the registration of the operation's target, or {@code null} if there is none
+     * @param runningTime how long the operation took, in nanoseconds
+     * @param exclusiveRunningTime how long the operation held the exclusive controller lock, in nanoseconds
+     * @param stepTimings the timings of the operation's steps, or {@code null} if they were not recorded
+     */
+    void operationCompleted(String operationName, PathAddress address, String resourceType, long runningTime,
+                            long exclusiveRunningTime, StepTimings stepTimings) {
+        record(operationLatency, operationName, runningTime);
+        if (resourceType != null) {
+            record(resourceTypeLatency, resourceType, runningTime);
+        }
+        if (stepTimings != null && runningTime >= TimeUnit.MILLISECONDS.toNanos(slowOperationThreshold)) {
+            final ModelNode slowOperation = new ModelNode();
+            slowOperation.get(OP).set(operationName);
+            slowOperation.get(OP_ADDR).set(address.toCLIStyleString());
+            slowOperation.get(RUNNING_TIME).set(runningTime);
+            slowOperation.get(EXCLUSIVE_RUNNING_TIME).set(exclusiveRunningTime);
+            slowOperation.get(STEPS).set(stepTimings.toModelNode());
+            synchronized (slowOperations) {
+                if (slowOperations.size() == MAX_SLOW_OPERATIONS) {
+                    slowOperations.removeFirst();
+                }
+                slowOperations.addLast(slowOperation);
+            }
+            ControllerLogger.MGMT_OP_LOGGER.slowOperation(operationName, address.toCLIStyleString(),
+                    TimeUnit.NANOSECONDS.toMillis(runningTime), TimeUnit.NANOSECONDS.toMillis(exclusiveRunningTime), stepTimings);
+        }
+    }
+
+    private static void record(Map<String, LatencyHistogram> histograms, String key, long value) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            if (histograms.size() >= MAX_HISTOGRAMS) {
+                // Most likely operations against arbitrary proxied addresses; don't let them grow the map
+                return;
+            }
+            histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        histogram.record(value);
+    }
+
+    /**
+     * Gets the latency of the executed operations by operation name.
+     *
+     * @return a {@link LatencyHistogram#toModelNode() histogram} per operation name. Will not be {@code null}
+     */
+    public ModelNode getOperationLatency() {
+        return toModelNode(operationLatency);
+    }
+
+    /**
+     * Gets the latency of the executed operations by the address of the registration of their target.
+     *
+     * @return a {@link LatencyHistogram#toModelNode() histogram} per resource type. Will not be {@code null}
+     */
+    public ModelNode getResourceTypeLatency() {
+        return toModelNode(resourceTypeLatency);
+    }
+
+    /**
+     * Gets the time operations waited to acquire the exclusive controller lock.
+     *
+     * @return the histogram. Will not be {@code null}
+     */
+    public ModelNode getWriteLockWait() {
+        return writeLockWait.toModelNode();
+    }
+
+    /**
+     * Gets the time operations held the exclusive controller lock.
+     *
+     * @return the histogram. Will not be {@code null}
+     */
+    public ModelNode getWriteLockHold() {
+        return writeLockHold.toModelNode();
+    }
+
+    /**
+     * Gets the slow operation threshold.
+     *
+     * @return the threshold in milliseconds, or {@code 0} if the slow operation log is disabled
+     */
+    public long getSlowOperationThreshold() {
+        return slowOperationThreshold;
+    }
+
+    /**
+     * Gets the most recent operations that took longer than the slow operation threshold, oldest first.
+     *
+     * @return the slow operations. Will not be {@code null}
+     */
+    public ModelNode getSlowOperations() {
+        final ModelNode slow = new ModelNode().setEmptyList();
+        synchronized (slowOperations) {
+            for (ModelNode slowOperation : slowOperations) {
+                slow.add(slowOperation.clone());
+            }
+        }
+        return slow;
+    }
+
+    private static ModelNode toModelNode(Map<String, LatencyHistogram> histograms) {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            result.get(entry.getKey()).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    /**
+     * The time taken by each step of an operation, recorded by the thread executing the operation. Only the first
+     * {@value #MAX_STEPS} steps are recorded individually.
+     */
+    static final class StepTimings {
+
+        private static final int MAX_STEPS = 64;
+
+        private final List<StepTiming> steps = new ArrayList<>();
+        private int omittedSteps;
+        private long omittedTime;
+
+        void record(OperationContext.Stage stage, String operationName, PathAddress address, long time) {
+            if (steps.size() < MAX_STEPS) {
+                steps.add(new StepTiming(stage, operationName, address, time));
+            } else {
+                omittedSteps++;
+                omittedTime += time;
+            }
+        }
+
+        private ModelNode toModelNode() {
+            final ModelNode result = new ModelNode().setEmptyList();
+            for (StepTiming step : steps) {
+                final ModelNode node = result.add();
+                node.get(STAGE).set(step.stage.toString());
+                node.get(OP).set(step.operationName);
+                node.get(OP_ADDR).set(step.address.toCLIStyleString());
+                node.get(RUNNING_TIME).set(step.time);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder();
+            for (StepTiming step : steps) {
+                builder.append("\n    ").append(step.stage).append(' ').append(step.address.toCLIStyleString())
+                        .append(':').append(step.operationName).append(' ')
+                        .append(TimeUnit.NANOSECONDS.toMillis(step.time)).append(" ms");
+            }
+            if (omittedSteps > 0) {
+                builder.append("\n    ... ").append(omittedSteps).append(" more steps ")
+                        .append(TimeUnit.NANOSECONDS.toMillis(omittedTime)).append(" ms");
+            }
+            return builder.toString();
+        }
+    }
+
+    private static final class StepTiming {
+        private final OperationContext.Stage stage;
+        private final String operationName;
+        private final PathAddress address;
+        private final long time;
+
+        private StepTiming(OperationContext.Stage stage, String operationName, PathAddress address, long time) {
+            this.stage = stage;
+            this.operationName = operationName;
+            this.address = address;
+            this.time = time;
+        }
+    }
+}
@@ -140,7 +140,8 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             List<ParsedBootOp> subsystemRuntimeOps = new ArrayList<ParsedBootOp>();
             runtimeOpsBySubsystem.put(subsystemName, subsystemRuntimeOps);
 
-            final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch);
+            final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch,
+                    BootPhaseRecorder.SUBSYSTEM_MODEL, subsystemName);
             transactionControls.put(entry.getKey(), txControl);
 
             // Execute the subsystem's ops in another thread
@@ -291,7 +292,8 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
                 for (Map.Entry<String, List<ParsedBootOp>> entry : runtimeOpsBySubsystem.entrySet()) {
                     String subsystemName = entry.getKey();
-                    final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch);
+                    final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch,
+                            BootPhaseRecorder.SUBSYSTEM_RUNTIME, subsystemName);
                     transactionControls.put(subsystemName, txControl);
 
                     // Execute the subsystem's ops in another thread
@@ -364,6 +366,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
         @Override
         public void run() {
+            transactionControl.profileStart = BootPhaseRecorder.start();
             try {
 
                 if (pboc == null) {
@@ -421,19 +424,27 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         private final CountDownLatch preparedLatch;
         private final CountDownLatch committedLatch;
         private final CountDownLatch completeLatch;
+        private final String profilePhase;
+        private final String subsystemName;
         private OperationResponse response;
         private ModelController.OperationTransaction transaction;
         private boolean signalled;
+        /** Set and read by the thread running the subsystem's boot operations */
+        private long profileStart;
 
-        ParallelBootTransactionControl(CountDownLatch preparedLatch, CountDownLatch committedLatch, CountDownLatch completeLatch) {
+        ParallelBootTransactionControl(CountDownLatch preparedLatch, CountDownLatch committedLatch, CountDownLatch completeLatch,
+                                       String profilePhase, String subsystemName) {
             this.preparedLatch = preparedLatch;
             this.committedLatch = committedLatch;
             this.completeLatch = completeLatch;
+            this.profilePhase = profilePhase;
+            this.subsystemName = subsystemName;
         }
 
         @Override
         public void operationFailed(ModelNode response) {
             if (!signalled) {
+                BootPhaseRecorder.record(profilePhase, subsystemName, profileStart);
                 this.response = OperationResponse.Factory.createSimple(response);
                 preparedLatch.countDown();
                 completeLatch.countDown();
@@ -444,6 +455,8 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         @Override
         public void operationPrepared(ModelController.OperationTransaction transaction, ModelNode result) {
             if (!signalled) {
+                // Record the time taken to prepare, not the time spent waiting for the other subsystems to commit
+                BootPhaseRecorder.record(profilePhase, subsystemName, profileStart);
                 this.transaction = transaction;
                 preparedLatch.countDown();
                 signalled = true;
@@ -211,6 +211,8 @@ public class PathAddress implements Iterable<PathElement> {
     }
 
     private final List<PathElement> pathAddressList;
+    /** Lazily computed hash code; {@code 0} means not yet computed. Addresses are immutable so racy computation is benign. */
+    private int hashCode;
 
     PathAddress(final List<PathElement> pathAddressList) {
         Assert.assertNotNull(pathAddressList);
@@ -360,7 +362,12 @@ public class PathAddress implements Iterable<PathElement> {
 
     @Override
     public int hashCode() {
-        return pathAddressList.hashCode();
+        int result = hashCode;
+        if (result == 0) {
+            result = pathAddressList.hashCode();
+            hashCode = result;
+        }
+        return result;
     }
 
     /**
@@ -381,7 +388,19 @@ public class PathAddress implements Iterable<PathElement> {
      * @return {@code true} if they are equal, {@code false} otherwise
      */
     public boolean equals(PathAddress other) {
-        return this == other || other != null && pathAddressList.equals(other.pathAddressList);
+        if (this == other) {
+            return true;
+        }
+        if (other == null || other.pathAddressList.size() != pathAddressList.size()) {
+            return false;
+        }
+        // Only use the hash codes to short-circuit if both have already been computed
+        final int thisHash = hashCode;
+        final int otherHash = other.hashCode;
+        if (thisHash != 0 && otherHash != 0 && thisHash != otherHash) {
+            return false;
+        }
+        return pathAddressList.equals(other.pathAddressList);
     }
 
     @Override
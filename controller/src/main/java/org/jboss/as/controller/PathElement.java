@@ -229,7 +229,7 @@ public class PathElement {
      * @return {@code true} if they are equal, {@code false} otherwise
      */
     public boolean equals(PathElement other) {
-        return this == other || other != null && other.key.equals(key) && other.value.equals(value);
+        return this == other || other != null && other.hashCode == hashCode && other.key.equals(key) && other.value.equals(value);
     }
 
     @Override
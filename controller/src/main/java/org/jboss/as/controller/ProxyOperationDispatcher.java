@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Runs the operations {@link ProxyStepHandler#dispatch dispatched} to proxied processes
+ * on behalf of a single operation, with at most {@link #PARALLELISM} of them executing at once. Operations start in
+ * the order they were dispatched.
+ */
+final class ProxyOperationDispatcher {
+
+    /** System property setting how many proxied operations a single operation may execute concurrently. */
+    static final String PARALLELISM_PROPERTY = "jboss.as.management.proxy.parallelism";
+
+    /** The maximum number of proxied operations executed concurrently; {@code 1} or less disables dispatching. */
+    static final int PARALLELISM = resolveParallelism();
+
+    /** The executor the controller provides for the current operation. */
+    static final OperationContext.AttachmentKey<Executor> EXECUTOR_KEY = OperationContext.AttachmentKey.create(Executor.class);
+
+    private static final OperationContext.AttachmentKey<ProxyOperationDispatcher> DISPATCHER_KEY = OperationContext.AttachmentKey.create(ProxyOperationDispatcher.class);
+
+    private final Executor executor;
+    // Guarded by 'this'
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    // Guarded by 'this'
+    private int running;
+
+    private ProxyOperationDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the dispatcher for the operation associated with the given context.
+     *
+     * @param context the operation context. Cannot be {@code null}
+     * @return the dispatcher, or {@code null} if dispatching is disabled or no executor is available
+     */
+    static ProxyOperationDispatcher getDispatcher(OperationContext context) {
+        if (PARALLELISM <= 1) {
+            return null;
+        }
+        ProxyOperationDispatcher dispatcher = context.getAttachment(DISPATCHER_KEY);
+        if (dispatcher == null) {
+            final Executor executor = context.getAttachment(EXECUTOR_KEY);
+            if (executor == null) {
+                return null;
+            }
+            dispatcher = new ProxyOperationDispatcher(executor);
+            final ProxyOperationDispatcher existing = context.attachIfAbsent(DISPATCHER_KEY, dispatcher);
+            if (existing != null) {
+                dispatcher = existing;
+            }
+        }
+        return dispatcher;
+    }
+
+    void execute(Runnable task) {
+        synchronized (this) {
+            if (running >= PARALLELISM) {
+                queue.add(task);
+                return;
+            }
+            running++;
+        }
+        start(task);
+    }
+
+    private void start(Runnable task) {
+        try {
+            executor.execute(() -> drain(task));
+        } catch (RejectedExecutionException e) {
+            // Run it on the calling thread; we still honour the bound, just with less concurrency
+            drain(task);
+        }
+    }
+
+    private void drain(Runnable first) {
+        Runnable task = first;
+        while (task != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                ControllerLogger.MGMT_OP_LOGGER.debugf(e, "Failed executing proxied operation");
+            }
+            synchronized (this) {
+                task = queue.poll();
+                if (task == null) {
+                    running--;
+                }
+            }
+        }
+    }
+
+    private static int resolveParallelism() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(PARALLELISM_PROPERTY, null);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                ControllerLogger.MGMT_OP_LOGGER.debugf("Ignoring invalid %s value %s", PARALLELISM_PROPERTY, value);
+            }
+        }
+        return 16;
+    }
+}
@@ -22,8 +22,10 @@
 
 package org.jboss.as.controller;
 
+import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ABSOLUTE_ADDRESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_CONTROL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
@@ -36,10 +38,13 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.jboss.as.controller.access.InVmAccess;
 import org.jboss.as.controller.client.MessageSeverity;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
@@ -49,6 +54,7 @@ import org.jboss.as.controller.remote.ResponseAttachmentInputStreamSupport;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Step handler that uses a proxied {@link ModelController} to execute the step.
@@ -67,6 +73,44 @@ public class ProxyStepHandler implements OperationStepHandler {
 
     @Override
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ProxyOperation proxyOperation = prepare(context, operation);
+        proxyOperation.run();
+        proxyOperation.complete(context, operation);
+    }
+
+    /**
+     * Starts executing the given operation against the proxied process on another thread, and returns a handler
+     * that completes it. The handler must be executed from a step for the same operation, in which case it behaves
+     * like this handler but only waits for the part of the remote execution not already done in the background.
+     * Operations that are dispatched but whose handler is never executed must be {@link DispatchedOperation#discard()
+     * discarded} so the proxied process is not left waiting for the outcome of its transaction.
+     * <p>
+     * Dispatching is only available if the controller provided an executor for the current operation; the
+     * maximum number of operations executed concurrently for a single operation is controlled by the
+     * {@code jboss.as.management.proxy.parallelism} system property.
+     *
+     * @param context the context of the step resolving the targets of the operation. Cannot be {@code null}
+     * @param operation the operation to execute against the proxied process. Cannot be {@code null}
+     * @return the handler that completes the operation, or {@code null} if the operation cannot be dispatched and
+     *         this handler should be executed instead
+     */
+    public DispatchedOperation dispatch(OperationContext context, ModelNode operation) {
+        final ProxyOperationDispatcher dispatcher = ProxyOperationDispatcher.getDispatcher(context);
+        if (dispatcher == null) {
+            return null;
+        }
+        final DispatchedOperation dispatched;
+        try {
+            dispatched = new DispatchedOperation(prepare(context, operation));
+        } catch (OperationFailedException | RuntimeException e) {
+            // Let the step report the failure as it would have without dispatching
+            return new DispatchedOperation(e);
+        }
+        dispatcher.execute(dispatched);
+        return dispatched;
+    }
+
+    private ProxyOperation prepare(OperationContext context, ModelNode operation) throws OperationFailedException {
 
         final BlockingTimeout blockingTimeout = BlockingTimeout.Factory.getProxyBlockingTimeout(context);
 
@@ -168,43 +212,285 @@ public class ProxyStepHandler implements OperationStepHandler {
                         return transformed;
                     }
                 };
-                proxyController.execute(transformedOperation, messageHandler, transformingProxyControl,
-                        new DelegatingOperationAttachments(context), blockingTimeout);
+                return new ProxyOperation(transformedOperation, messageHandler, transformingProxyControl,
+                        new DelegatingOperationAttachments(context), blockingTimeout, txRef, preparedResultRef, finalResultRef);
             } else {
                 // discard the operation
-                final ModelNode transformedResult = resultTransformer.transformResult(new ModelNode());
-                if(transformedResult != null) {
-                    context.getResult().set(transformedResult);
+                return new ProxyOperation(resultTransformer.transformResult(new ModelNode()));
+            }
+        } else {
+            return new ProxyOperation(operation, messageHandler, proxyControl, new DelegatingOperationAttachments(context),
+                    blockingTimeout, txRef, preparedResultRef, finalResultRef);
+        }
+    }
+
+    /**
+     * A single execution of an operation against the proxied process, split into the part that blocks on the
+     * proxied process and the part that records the outcome in the step.
+     */
+    private final class ProxyOperation {
+
+        private final ModelNode operation;
+        private final OperationMessageHandler messageHandler;
+        private final ProxyController.ProxyOperationControl control;
+        private final OperationAttachments attachments;
+        private final BlockingTimeout blockingTimeout;
+        private final AtomicReference<ModelController.OperationTransaction> txRef;
+        private final AtomicReference<ModelNode> preparedResultRef;
+        private final AtomicReference<OperationResponse> finalResultRef;
+        /** The result to use if the operation was discarded by the transformers instead of being executed */
+        private final ModelNode discardedResult;
+
+        private ProxyOperation(ModelNode operation, OperationMessageHandler messageHandler, ProxyController.ProxyOperationControl control,
+                               OperationAttachments attachments, BlockingTimeout blockingTimeout,
+                               AtomicReference<ModelController.OperationTransaction> txRef, AtomicReference<ModelNode> preparedResultRef,
+                               AtomicReference<OperationResponse> finalResultRef) {
+            this.operation = operation;
+            this.messageHandler = messageHandler;
+            this.control = control;
+            this.attachments = attachments;
+            this.blockingTimeout = blockingTimeout;
+            this.txRef = txRef;
+            this.preparedResultRef = preparedResultRef;
+            this.finalResultRef = finalResultRef;
+            this.discardedResult = null;
+        }
+
+        private ProxyOperation(ModelNode discardedResult) {
+            this.operation = null;
+            this.messageHandler = null;
+            this.control = null;
+            this.attachments = null;
+            this.blockingTimeout = null;
+            this.txRef = null;
+            this.preparedResultRef = null;
+            this.finalResultRef = null;
+            this.discardedResult = discardedResult;
+        }
+
+        private boolean isDiscarded() {
+            return operation == null;
+        }
+
+        /**
+         * Executes the operation against the proxied process, returning once it has prepared or failed.
+         */
+        private void run() {
+            if (!isDiscarded()) {
+                proxyController.execute(operation, messageHandler, control, attachments, blockingTimeout);
+            }
+        }
+
+        /**
+         * Records a failure for an operation that was never {@link #run() run}.
+         */
+        private void cancelled() {
+            final ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(CANCELLED);
+            response.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.operationCancelled());
+            control.operationFailed(response);
+        }
+
+        /**
+         * Rolls back the transaction of an operation that has been {@link #run() run} but will not be completed.
+         */
+        private void rollback() {
+            final ModelController.OperationTransaction tx = txRef == null ? null : txRef.getAndSet(null);
+            if (tx != null) {
+                tx.rollback();
+            }
+        }
+
+        private void complete(OperationContext context, ModelNode operation) {
+            if (isDiscarded()) {
+                if (discardedResult != null) {
+                    context.getResult().set(discardedResult);
                 }
                 context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
                 return;
             }
-        } else {
-            proxyController.execute(operation, messageHandler, proxyControl, new DelegatingOperationAttachments(context),
-                    blockingTimeout);
+            OperationResponse finalResult = finalResultRef.get();
+            if (finalResult != null) {
+                // operation failed before it could commit
+                ModelNode responseNode = finalResult.getResponseNode();
+                ControllerLogger.MGMT_OP_LOGGER.tracef("Remote operation %s failed before commit with response %s", operation, responseNode);
+                ModelNode result = responseNode.get(RESULT);
+                context.getResult().set(result);
+                ModelNode failureDesc = responseNode.get(FAILURE_DESCRIPTION);
+                RuntimeException stdFailure = translateFailureDescription(failureDesc);
+                if (stdFailure != null) {
+                    ControllerLogger.MGMT_OP_LOGGER.tracef("Converted failure response to %s", stdFailure);
+                    throw stdFailure;
+                }
+                context.getFailureDescription().set(failureDesc);
+                if (responseNode.hasDefined(RESPONSE_HEADERS)) {
+                    context.getResponseHeaders().set(responseNode.get(RESPONSE_HEADERS));
+                }
+                context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+            } else {
+
+                completeRemoteTransaction(context, operation, txRef, preparedResultRef, finalResultRef);
+
+            }
         }
-        OperationResponse finalResult = finalResultRef.get();
-        if (finalResult != null) {
-            // operation failed before it could commit
-            ModelNode responseNode = finalResult.getResponseNode();
-            ControllerLogger.MGMT_OP_LOGGER.tracef("Remote operation %s failed before commit with response %s", operation, responseNode);
-            ModelNode result = responseNode.get(RESULT);
-            context.getResult().set(result);
-            ModelNode failureDesc = responseNode.get(FAILURE_DESCRIPTION);
-            RuntimeException stdFailure = translateFailureDescription(failureDesc);
-            if (stdFailure != null) {
-                ControllerLogger.MGMT_OP_LOGGER.tracef("Converted failure response to %s", stdFailure);
-                throw stdFailure;
+    }
+
+    /**
+     * Handler completing an operation {@link #dispatch(OperationContext, ModelNode) dispatched} to the proxied
+     * process.
+     */
+    public static final class DispatchedOperation implements OperationStepHandler, Runnable {
+
+        private enum State {
+            QUEUED, RUNNING, DONE, CANCELLED
+        }
+
+        private final ProxyOperation proxyOperation;
+        private final Exception prepareFailure;
+        /** The caller's access context and in-vm state, which the proxy sends along with the operation */
+        private final AccessAuditContext accessAuditContext;
+        private final boolean inVmCall;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private State state = State.QUEUED;
+        private Thread runner;
+        private boolean interrupted;
+        private boolean completed;
+
+        private DispatchedOperation(ProxyOperation proxyOperation) {
+            this.proxyOperation = proxyOperation;
+            this.prepareFailure = null;
+            this.accessAuditContext = WildFlySecurityManager.isChecking()
+                    ? doPrivileged((PrivilegedAction<AccessAuditContext>) AccessAuditContext::currentAccessAuditContext)
+                    : AccessAuditContext.currentAccessAuditContext();
+            this.inVmCall = InVmAccess.isInVmCall();
+        }
+
+        private DispatchedOperation(Exception prepareFailure) {
+            this.proxyOperation = null;
+            this.prepareFailure = prepareFailure;
+            this.accessAuditContext = null;
+            this.inVmCall = false;
+            this.state = State.DONE;
+            done.countDown();
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (state != State.QUEUED) {
+                    return;
+                }
+                state = State.RUNNING;
+                runner = Thread.currentThread();
+            }
+            try {
+                runAsCaller();
+            } finally {
+                synchronized (this) {
+                    state = State.DONE;
+                    runner = null;
+                    if (interrupted) {
+                        // Don't leave our cancellation behind on a pooled thread
+                        Thread.interrupted();
+                    }
+                }
+                done.countDown();
             }
-            context.getFailureDescription().set(failureDesc);
-            if (responseNode.hasDefined(RESPONSE_HEADERS)) {
-                context.getResponseHeaders().set(responseNode.get(RESPONSE_HEADERS));
+        }
+
+        /**
+         * Runs the operation with the access context and in-vm state of the thread that dispatched it, as the
+         * thread running it may be a pooled thread that has neither.
+         */
+        private void runAsCaller() {
+            final PrivilegedAction<Void> action = () -> {
+                proxyOperation.run();
+                return null;
+            };
+            final PrivilegedAction<Void> inVmAction = inVmCall ? () -> InVmAccess.runInVm(action) : action;
+            if (accessAuditContext == null) {
+                inVmAction.run();
+                return;
             }
-            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
-        } else {
+            AccessAuditContext.doAs(accessAuditContext.isInflowed(), accessAuditContext.getSecurityIdentity(),
+                    accessAuditContext.getRemoteAddress(), (PrivilegedAction<Void>) () -> {
+                        final AccessAuditContext current = AccessAuditContext.currentAccessAuditContext();
+                        current.setDomainUuid(accessAuditContext.getDomainUuid());
+                        current.setAccessMechanism(accessAuditContext.getAccessMechanism());
+                        current.setDomainRollout(accessAuditContext.isDomainRollout());
+                        return inVmAction.run();
+                    });
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (prepareFailure instanceof OperationFailedException) {
+                throw (OperationFailedException) prepareFailure;
+            } else if (prepareFailure != null) {
+                throw (RuntimeException) prepareFailure;
+            }
+            synchronized (this) {
+                completed = true;
+            }
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                // The operation was cancelled; cancel the remote execution as we would have without dispatching
+                cancel();
+                awaitUninterruptibly();
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                if (state == State.CANCELLED) {
+                    proxyOperation.cancelled();
+                }
+            }
+            proxyOperation.complete(context, operation);
+        }
+
+        /**
+         * Abandons the operation without completing it, rolling back its remote transaction if it has one.
+         */
+        public void discard() {
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+            }
+            if (proxyOperation != null) {
+                cancel();
+                awaitUninterruptibly();
+                proxyOperation.rollback();
+            }
+        }
 
-            completeRemoteTransaction(context, operation, txRef, preparedResultRef, finalResultRef);
+        private synchronized void cancel() {
+            if (state == State.QUEUED) {
+                state = State.CANCELLED;
+                done.countDown();
+            } else if (state == State.RUNNING) {
+                interrupted = true;
+                runner.interrupt();
+            }
+        }
 
+        private void awaitUninterruptibly() {
+            boolean intr = false;
+            try {
+                for (;;) {
+                    try {
+                        done.await();
+                        return;
+                    } catch (InterruptedException e) {
+                        intr = true;
+                    }
+                }
+            } finally {
+                if (intr) {
+                    Thread.currentThread().interrupt();
+                }
+            }
         }
     }
 
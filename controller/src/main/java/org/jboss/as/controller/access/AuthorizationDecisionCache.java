@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache of authorization decisions made by a role based {@link Authorizer}.
+ * <p>
+ * Keys are supplied by the authorizer and must identify everything the decision depends on: the permissions
+ * granted to the caller's set of roles, the {@link Action.ActionEffect effects} of the action and the constraints
+ * the target imposes for each effect (sensitivity classification, application type, host and server group scoping
+ * and so on). As the target's constraints are part of the key, changes to access constraint definitions are
+ * reflected without the cache needing to be told. Anything that changes what a set of roles is permitted to do
+ * without changing the identity of their permissions, such as the combination policy or the hosts or server groups
+ * of a scoped role, must call {@link #invalidate()}.
+ *
+ * @see org.jboss.as.controller.access.management.WritableAuthorizerConfiguration#getAuthorizationDecisionCache()
+ */
+public final class AuthorizationDecisionCache {
+
+    /** Upper bound on the number of decisions held before the cache is discarded and refilled. */
+    private static final int MAX_ENTRIES = 16384;
+
+    private volatile Map<Object, AuthorizationResult.Decision> decisions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Gets the decision for the given key, making and caching it if it is not already known.
+     *
+     * @param key the key identifying the decision. Cannot be {@code null}
+     * @param decider makes the decision if it is not cached. Cannot be {@code null}
+     * @return the decision. Will not be {@code null}
+     */
+    public AuthorizationResult.Decision getDecision(Object key, Supplier<AuthorizationResult.Decision> decider) {
+        // Work against a single snapshot so a decision made while the cache is being invalidated
+        // can only end up in the discarded map
+        final Map<Object, AuthorizationResult.Decision> current = decisions;
+        AuthorizationResult.Decision result = current.get(key);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        result = decider.get();
+        if (current.size() < MAX_ENTRIES) {
+            current.put(key, result);
+        } else if (decisions == current) {
+            invalidate();
+        }
+        return result;
+    }
+
+    /**
+     * Discards all cached decisions.
+     */
+    public void invalidate() {
+        decisions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the number of lookups that found a cached decision.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a cached decision.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
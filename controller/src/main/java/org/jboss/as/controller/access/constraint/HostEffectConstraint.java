@@ -168,6 +168,25 @@ public class HostEffectConstraint extends AbstractConstraint implements Constrai
     }
 
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HostEffectConstraint)) {
+            return false;
+        }
+        HostEffectConstraint other = (HostEffectConstraint) o;
+        // User constraints can be reconfigured, so only required constraints are compared by value
+        return !user && !other.user && global == other.global && readOnly == other.readOnly
+                && hostsHolder.specific.equals(other.hostsHolder.specific);
+    }
+
+    @Override
+    public int hashCode() {
+        return user ? System.identityHashCode(this) : hostsHolder.specific.hashCode() * 31 + (global ? 1 : 0);
+    }
+
     @Override
     public boolean replaces(Constraint other) {
         return other instanceof HostEffectConstraint && (readOnly || readOnlyConstraint != null);
@@ -217,6 +217,36 @@ public class ServerGroupEffectConstraint extends AbstractConstraint implements C
         return matched;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServerGroupEffectConstraint)) {
+            return false;
+        }
+        ServerGroupEffectConstraint other = (ServerGroupEffectConstraint) o;
+        // User constraints can be reconfigured, so only required constraints are compared by value
+        return !user && !other.user && global == other.global && nonServerHost == other.nonServerHost
+                && unassigned == other.unassigned && readOnly == other.readOnly
+                && groupAdd == other.groupAdd && groupRemove == other.groupRemove
+                && groupsHolder.specific.equals(other.groupsHolder.specific);
+    }
+
+    @Override
+    public int hashCode() {
+        if (user) {
+            return System.identityHashCode(this);
+        }
+        int result = groupsHolder.specific.hashCode();
+        result = 31 * result + (global ? 1 : 0);
+        result = 31 * result + (nonServerHost ? 1 : 0);
+        result = 31 * result + (unassigned ? 1 : 0);
+        result = 31 * result + (groupAdd ? 1 : 0);
+        result = 31 * result + (groupRemove ? 1 : 0);
+        return result;
+    }
+
     @Override
     public boolean replaces(Constraint other) {
         return other instanceof ServerGroupEffectConstraint && (readOnly || readOnlyConstraint != null);
@@ -32,6 +32,7 @@ import java.util.Set;
 import java.util.WeakHashMap;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.access.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.Authorizer;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.CombinationPolicy;
@@ -58,6 +59,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     private volatile Authorizer.AuthorizerDescription authorizerDescription;
     private volatile RoleMaps roleMaps;
     private final Set<ScopedRoleListener> scopedRoleListeners = new LinkedHashSet<ScopedRoleListener>();
+    private final AuthorizationDecisionCache authorizationDecisionCache = new AuthorizationDecisionCache();
 
     public WritableAuthorizerConfiguration(Authorizer.AuthorizerDescription authorizerDescription) {
         this.authorizerDescription = authorizerDescription;
@@ -85,6 +87,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 }
             }
         }
+        authorizationDecisionCache.invalidate();
     }
 
     public synchronized void registerScopedRoleListener(ScopedRoleListener listener) {
@@ -147,6 +150,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
         Map<String, ScopedRole> newScopedRoles = new HashMap<String, ScopedRole>(roleMaps.scopedRoles);
         newScopedRoles.put(toAdd.getName(), toAdd);
         roleMaps = new RoleMaps(roleMaps.standardRoles, newScopedRoles);
+        authorizationDecisionCache.invalidate();
     }
 
     public synchronized void removeScopedRole(String toRemove) {
@@ -158,6 +162,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 listener.scopedRoleRemoved(removed);
             }
         }
+        authorizationDecisionCache.invalidate();
     }
 
     @Override
@@ -257,6 +262,19 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     public void setPermissionCombinationPolicy(CombinationPolicy combinationPolicy) {
         assert combinationPolicy != null : "combinationPolicy is null";
         this.combinationPolicy = combinationPolicy;
+        authorizationDecisionCache.invalidate();
+    }
+
+    /**
+     * Gets the cache of decisions made by a role based authorizer using this configuration. Callers that change
+     * what a role is permitted to do other than via this object, for example by changing the hosts or server groups
+     * of a scoped role's {@link org.jboss.as.controller.access.constraint.ScopingConstraint}, must
+     * {@link AuthorizationDecisionCache#invalidate() invalidate} it.
+     *
+     * @return the cache. Will not be {@code null}
+     */
+    public AuthorizationDecisionCache getAuthorizationDecisionCache() {
+        return authorizationDecisionCache;
     }
 
     void setNonFacadeMBeansSensitive(boolean nonFacadeMBeansSensitive) {
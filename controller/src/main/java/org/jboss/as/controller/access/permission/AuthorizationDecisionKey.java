@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.access.permission;
+
+import java.security.Permission;
+import java.security.PermissionCollection;
+import java.util.Arrays;
+import java.util.Enumeration;
+
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationDecisionCache;
+import org.jboss.as.controller.access.constraint.Constraint;
+
+/**
+ * {@link AuthorizationDecisionCache} key for a check of a set of required {@link SimpleManagementPermission}s
+ * against the permissions granted to a caller.
+ * <p>
+ * The caller's permissions are compared by identity, as the {@link PermissionFactory} hands out the same collection
+ * for the same set of roles until the role configuration changes. The required permissions are compared by the
+ * constraints they carry for each {@link Action.ActionEffect}.
+ */
+final class AuthorizationDecisionKey {
+
+    private static final int EFFECT_COUNT = Action.ActionEffect.values().length;
+
+    private final PermissionCollection userPermissions;
+    private final Constraint[][] constraintsByEffect;
+    private final int hashCode;
+
+    private AuthorizationDecisionKey(PermissionCollection userPermissions, Constraint[][] constraintsByEffect) {
+        this.userPermissions = userPermissions;
+        this.constraintsByEffect = constraintsByEffect;
+        this.hashCode = 31 * System.identityHashCode(userPermissions) + Arrays.deepHashCode(constraintsByEffect);
+    }
+
+    /**
+     * Creates a key for checking {@code requiredPermissions} against {@code userPermissions}.
+     *
+     * @return the key, or {@code null} if the required permissions are not all {@link SimpleManagementPermission}s
+     */
+    static AuthorizationDecisionKey create(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
+        final Constraint[][] constraintsByEffect = new Constraint[EFFECT_COUNT][];
+        final Enumeration<Permission> enumeration = requiredPermissions.elements();
+        while (enumeration.hasMoreElements()) {
+            final Permission permission = enumeration.nextElement();
+            if (permission.getClass() != SimpleManagementPermission.class) {
+                return null;
+            }
+            final SimpleManagementPermission required = (SimpleManagementPermission) permission;
+            constraintsByEffect[required.getActionEffect().ordinal()] = required.getConstraints();
+        }
+        return new AuthorizationDecisionKey(userPermissions, constraintsByEffect);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuthorizationDecisionKey)) {
+            return false;
+        }
+        final AuthorizationDecisionKey other = (AuthorizationDecisionKey) o;
+        return hashCode == other.hashCode
+                && userPermissions == other.userPermissions
+                && Arrays.deepEquals(constraintsByEffect, other.constraintsByEffect);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Set;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.Authorizer;
 import org.jboss.as.controller.access.Environment;
@@ -50,9 +51,22 @@ import org.wildfly.security.auth.server.SecurityIdentity;
  */
 public class ManagementPermissionAuthorizer implements Authorizer {
     private final PermissionFactory permissionFactory;
+    private final AuthorizationDecisionCache decisionCache;
 
     public ManagementPermissionAuthorizer(PermissionFactory permissionFactory) {
+        this(permissionFactory, null);
+    }
+
+    /**
+     * Creates a new {@code ManagementPermissionAuthorizer}.
+     *
+     * @param permissionFactory the permission factory. Cannot be {@code null}
+     * @param decisionCache cache for decisions. May be {@code null}, in which case every authorization is evaluated
+     *                      against the permissions
+     */
+    public ManagementPermissionAuthorizer(PermissionFactory permissionFactory, AuthorizationDecisionCache decisionCache) {
         this.permissionFactory = permissionFactory;
+        this.decisionCache = decisionCache;
     }
 
     @Override
@@ -104,15 +118,27 @@ public class ManagementPermissionAuthorizer implements Authorizer {
 
     private AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
 
+        final AuthorizationDecisionKey key = decisionCache == null || userPermissions == AllPermissionsCollection.INSTANCE
+                ? null : AuthorizationDecisionKey.create(userPermissions, requiredPermissions);
+        final AuthorizationResult.Decision decision = key == null
+                ? decide(userPermissions, requiredPermissions)
+                : decisionCache.getDecision(key, () -> decide(userPermissions, requiredPermissions));
+        if (decision == AuthorizationResult.Decision.DENY) {
+            return new AuthorizationResult(AuthorizationResult.Decision.DENY,
+                        new ModelNode(ControllerLogger.ROOT_LOGGER.permissionDenied()));
+        }
+        return AuthorizationResult.PERMITTED;
+    }
+
+    private static AuthorizationResult.Decision decide(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
         final Enumeration<Permission> enumeration = requiredPermissions.elements();
         while (enumeration.hasMoreElements()){
             Permission requiredPermission = enumeration.nextElement();
             if (!userPermissions.implies(requiredPermission)) {
-                return new AuthorizationResult(AuthorizationResult.Decision.DENY,
-                            new ModelNode(ControllerLogger.ROOT_LOGGER.permissionDenied()));
+                return AuthorizationResult.Decision.DENY;
             }
         }
-        return AuthorizationResult.PERMITTED;
+        return AuthorizationResult.Decision.PERMIT;
     }
 
     @Override
@@ -92,6 +92,11 @@ public class SimpleManagementPermission extends ManagementPermission {
         return getActionEffect().toString();
     }
 
+    /** Gets the constraints for use in an {@link AuthorizationDecisionKey}; the array must not be modified */
+    Constraint[] getConstraints() {
+        return constraints;
+    }
+
     public ManagementPermission createScopedPermission(Constraint constraint, int constraintIndex) {
         Constraint[] altered;
         if (constraintIndex == constraints.length) {
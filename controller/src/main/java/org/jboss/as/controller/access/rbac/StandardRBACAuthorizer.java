@@ -30,8 +30,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.controller.access.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
 import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
 import org.wildfly.security.auth.server.SecurityIdentity;
 
@@ -78,7 +80,9 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
         final RunAsRoleMapper runAsRoleMapper = new RunAsRoleMapper(roleMapper);
         final DefaultPermissionFactory permissionFactory = new DefaultPermissionFactory(
                 runAsRoleMapper, configuration);
-        return new StandardRBACAuthorizer(configuration, permissionFactory, runAsRoleMapper);
+        final AuthorizationDecisionCache decisionCache = configuration instanceof WritableAuthorizerConfiguration
+                ? ((WritableAuthorizerConfiguration) configuration).getAuthorizationDecisionCache() : null;
+        return new StandardRBACAuthorizer(configuration, permissionFactory, runAsRoleMapper, decisionCache);
     }
 
     private final AuthorizerConfiguration configuration;
@@ -87,8 +91,9 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
     private final Map<String, String> mappedToOfficialForm = Collections.synchronizedMap(new HashMap<String, String>());
 
     private StandardRBACAuthorizer(final AuthorizerConfiguration configuration,
-                                   final DefaultPermissionFactory permissionFactory, final RoleMapper roleMapper) {
-        super(permissionFactory);
+                                   final DefaultPermissionFactory permissionFactory, final RoleMapper roleMapper,
+                                   final AuthorizationDecisionCache decisionCache) {
+        super(permissionFactory, decisionCache);
         this.configuration = configuration;
         this.permissionFactory = permissionFactory;
         configuration.registerScopedRoleListener(permissionFactory);
@@ -100,6 +100,7 @@ public class ModelDescriptionConstants {
     public static final String CAPABILITY_REGISTRY = "capability-registry";
     public static final String CHILD_TYPE = "child-type";
     public static final String CHILDREN = "children";
+    public static final String CHUNKED_RESULT = "chunked-result";
     public static final String CLASSIFICATION = "classification";
     public static final String CLIENT_CERT_STORE = "client-certificate-store";
     public static final String CLIENT_MAPPINGS = "client-mappings";
@@ -355,6 +356,7 @@ public class ModelDescriptionConstants {
     public static final String OPERATION_DATE = "operation-date";
     public static final String OPERATION_HEADERS = "operation-headers";
     public static final String OPERATION_ID = "operation-id";
+    public static final String OPERATION_LATENCY = "operation-latency";
     public static final String OPERATION_NAME = "operation-name";
     public static final String OP_PARAMS = "op-params";
     public static final String OP_PARAMS_MAPPING = "op-params-mapping";
@@ -441,6 +443,7 @@ public class ModelDescriptionConstants {
     public static final String REMOTE_DESTINATION_OUTBOUND_SOCKET_BINDING = "remote-destination-outbound-socket-binding";
     public static final String REPLACE_DEPLOYMENT = "replace-deployment";
     public static final String REPLY_PROPERTIES = "reply-properties";
+    public static final String RESOURCE_TYPE_LATENCY = "resource-type-latency";
     public static final String REVERSE_GROUP = "reverse-group";
     public static final String REQUEST_PROPERTIES = "request-properties";
     public static final String REQUIRED = "required";
@@ -508,9 +511,12 @@ public class ModelDescriptionConstants {
     public static final String SERVICE_CONTAINER = "service-container";
     public static final String SINCE = "since";
     public static final String SIZE_ROTATING_FILE_HANDLER = "size-rotating-file-handler";
+    public static final String SLOW_OPERATIONS = "slow-operations";
+    public static final String SLOW_OPERATION_THRESHOLD = "slow-operation-threshold";
     public static final String SOURCE_FILE = "source-file";
     public static final String SOURCE_NETWORK = "source-network";
     public static final String SSL_PROTOCOL = "ssl-protocol";
+    public static final String STAGE = "stage";
     public static final String SUSPEND_TIMEOUT = "suspend-timeout";
     public static final String OPERATION_REQUIRES_RELOAD = "operation-requires-reload";
     public static final String OPERATION_REQUIRES_RESTART = "operation-requires-restart";
@@ -624,6 +630,8 @@ public class ModelDescriptionConstants {
     public static final String WILDCARD = "wildcard";
     public static final String WRITE = "write";
     public static final String WRITE_ATTRIBUTE_OPERATION = "write-attribute";
+    public static final String WRITE_LOCK_HOLD = "write-lock-hold";
+    public static final String WRITE_LOCK_WAIT = "write-lock-wait";
     public static final String XML_NAMESPACES = "xml-namespaces";
     public static final String GIT_MASTER_BRANCH = "master";
     public static final String PRIMARY = "primary";
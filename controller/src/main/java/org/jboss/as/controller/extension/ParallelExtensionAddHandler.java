@@ -33,6 +33,7 @@ import java.util.concurrent.Future;
 
 import org.jboss.as.controller._private.OperationFailedRuntimeException;
 import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.BootPhaseRecorder;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -140,10 +141,13 @@ public class ParallelExtensionAddHandler implements OperationStepHandler {
         @Override
         public OperationFailedRuntimeException call() {
             OperationFailedRuntimeException failure = null;
+            final long start = BootPhaseRecorder.start();
             try {
                 addHandler.initializeExtension(module, rootResourceRegistration);
             } catch (OperationFailedRuntimeException e) {
                 failure = e;
+            } finally {
+                BootPhaseRecorder.record(BootPhaseRecorder.EXTENSION_INITIALIZATION, module, start);
             }
             return failure;
         }
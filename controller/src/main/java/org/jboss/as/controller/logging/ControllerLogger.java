@@ -3753,4 +3753,8 @@ public interface ControllerLogger extends BasicLogger {
 
     @Message(id = 503, value = "Failed to publish configuration, because the remote name %s is not valid.")
     ConfigurationPersistenceException failedToPublishConfigurationInvalidRemote(String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 504, value = "Operation '%s' against '%s' took %d ms, %d ms of which holding the exclusive controller lock. Time taken by its steps:%s")
+    void slowOperation(String operationName, String address, long runningTime, long exclusiveRunningTime, Object steps);
 }
@@ -61,6 +61,7 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ProxyStepHandler;
 import org.jboss.as.controller.UnauthorizedException;
 import org.jboss.as.controller._private.OperationFailedRuntimeException;
 import org.jboss.as.controller.access.Action;
@@ -73,6 +74,7 @@ import org.jboss.as.controller.registry.AliasEntry;
 import org.jboss.as.controller.registry.AliasEntry.AliasContext;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.registry.WildcardReadResourceDescriptionAddressHack;
 import org.jboss.dmr.ModelNode;
@@ -133,6 +135,7 @@ public class GlobalOperationHandlers {
         root.registerOperationHandler(ReadOperationNamesHandler.DEFINITION, ReadOperationNamesHandler.INSTANCE, true);
         root.registerOperationHandler(ReadOperationDescriptionHandler.DEFINITION, ReadOperationDescriptionHandler.INSTANCE, true);
         root.registerOperationHandler(QueryOperationHandler.DEFINITION, QueryOperationHandler.INSTANCE, true);
+        root.registerOperationHandler(ReadMetricsHandler.DEFINITION, ReadMetricsHandler.INSTANCE);
 
         //map operations
         root.registerOperationHandler(MapOperations.MAP_PUT_DEFINITION, MapOperations.MAP_PUT_HANDLER, true);
@@ -336,6 +339,8 @@ public class GlobalOperationHandlers {
         private final FilteredData filteredData;
         private final FilterPredicate predicate;
         private final OperationStepHandler handler; // handler bypassing further wildcard resolution
+        // Operations dispatched to proxied processes, which must be discarded if their step never runs
+        private final List<ProxyStepHandler.DispatchedOperation> dispatched = new ArrayList<>();
 
         public AbstractAddressResolver(final ModelNode operation, final ModelNode result,
                                     final OperationStepHandler delegate,
@@ -362,6 +367,9 @@ public class GlobalOperationHandlers {
             context.completeStep(new OperationContext.ResultHandler() {
                 @Override
                 public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
+                    for (ProxyStepHandler.DispatchedOperation dispatchedOperation : dispatched) {
+                        dispatchedOperation.discard();
+                    }
                     if (result.getType() == ModelType.LIST) {
                         boolean replace = false;
                         ModelNode replacement = new ModelNode().setEmptyList();
@@ -581,7 +589,8 @@ public class GlobalOperationHandlers {
             // Temp remote result
             final ModelNode resultItem = new ModelNode();
 
-            final OperationStepHandler proxyHandler = registration.getOperationHandler(PathAddress.EMPTY_ADDRESS, operation.require(OP).asString());
+            final OperationStepHandler proxyHandler = dispatch(context, remoteOp, registration,
+                    registration.getOperationHandler(PathAddress.EMPTY_ADDRESS, operation.require(OP).asString()));
             context.addStep(resultItem, remoteOp, new OperationStepHandler() {
                 @Override
                 public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -684,7 +693,34 @@ public class GlobalOperationHandlers {
             }, OperationContext.Stage.MODEL, true);
         }
 
-
+        /**
+         * Starts a read-only operation on the proxied process straight away, so the targets of a multi-target
+         * operation are executed concurrently rather than one after the other as their steps run. The steps still
+         * complete in order, so the result is the same as if the operation had not been dispatched.
+         *
+         * <p>
+         * The proxy registration itself only carries the flags of the generic proxy step, so whether the operation
+         * is read-only is taken from the registration holding the proxy, where the operation is registered or
+         * inherited for the target.
+         *
+         * @return the handler to use in the step executing {@code remoteOp}
+         */
+        private OperationStepHandler dispatch(OperationContext context, ModelNode remoteOp,
+                                              ImmutableManagementResourceRegistration registration, OperationStepHandler proxyHandler) {
+            final ImmutableManagementResourceRegistration parent = registration.getParent();
+            if (proxyHandler instanceof ProxyStepHandler && parent != null) {
+                final Set<OperationEntry.Flag> flags = parent.getOperationFlags(PathAddress.EMPTY_ADDRESS, remoteOp.require(OP).asString());
+                if (flags != null && flags.contains(OperationEntry.Flag.READ_ONLY)) {
+                    // Dispatch a copy, as the step may still touch its operation while the copy is being sent
+                    final ProxyStepHandler.DispatchedOperation dispatchedOperation = ((ProxyStepHandler) proxyHandler).dispatch(context, remoteOp.clone());
+                    if (dispatchedOperation != null) {
+                        dispatched.add(dispatchedOperation);
+                        return dispatchedOperation;
+                    }
+                }
+            }
+            return proxyHandler;
+        }
     }
 
     private static final class ModelAddressResolver extends AbstractAddressResolver {
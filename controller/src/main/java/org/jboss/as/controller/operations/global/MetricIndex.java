@@ -0,0 +1,365 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Index of the numeric metric attributes registered in a registration tree, as used by {@link ReadMetricsHandler}.
+ * <p>
+ * The index records, for each registration that has metrics somewhere beneath it, the metrics registered against it
+ * and the OpenMetrics family each of them belongs to, so a scrape only has to walk the resources that can actually
+ * contribute samples. Building it requires walking the whole registration tree and resolving descriptions, so it is
+ * built once per {@link ImmutableManagementResourceRegistration#getRegistrationVersion() registration version}.
+ */
+final class MetricIndex {
+
+    private static final String PREFIX = "wildfly_";
+    private static final String TOTAL_SUFFIX = "_total";
+
+    private final long version;
+    private final Node root;
+
+    private MetricIndex(long version, Node root) {
+        this.version = version;
+        this.root = root;
+    }
+
+    /**
+     * Builds the index for the registration tree rooted at the given registration.
+     *
+     * @param rootRegistration the root registration. Cannot be {@code null}
+     * @return the index. Will not be {@code null}
+     */
+    static MetricIndex build(ImmutableManagementResourceRegistration rootRegistration) {
+        // Read the version first; if the tree changes while we walk it the next scrape will rebuild
+        final long version = rootRegistration.getRegistrationVersion();
+        final Node root = index(rootRegistration, PathAddress.EMPTY_ADDRESS, new HashMap<>());
+        return new MetricIndex(version, root);
+    }
+
+    /**
+     * Gets whether this index still describes the given registration tree.
+     *
+     * @param rootRegistration the root registration. Cannot be {@code null}
+     * @return {@code true} if the index can be used for a scrape of the tree
+     */
+    boolean isCurrent(ImmutableManagementResourceRegistration rootRegistration) {
+        return version != -1 && version == rootRegistration.getRegistrationVersion();
+    }
+
+    /**
+     * Gets the node for the root registration.
+     *
+     * @return the root node, or {@code null} if nothing in the tree registers a numeric metric
+     */
+    Node getRoot() {
+        return root;
+    }
+
+    private static Node index(ImmutableManagementResourceRegistration registration, PathAddress address, Map<String, Family> families) {
+        List<Metric> metrics = Collections.emptyList();
+        ModelNode attributeDescriptions = null;
+        for (String attributeName : registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+            final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+            if (access == null || access.getAccessType() != AttributeAccess.AccessType.METRIC) {
+                continue;
+            }
+            final AttributeDefinition definition = access.getAttributeDefinition();
+            if (!isNumeric(definition)) {
+                continue;
+            }
+            if (attributeDescriptions == null) {
+                attributeDescriptions = getAttributeDescriptions(registration);
+            }
+            final Metric metric = createMetric(address, definition, attributeDescriptions.get(attributeName, DESCRIPTION), families);
+            if (metric != null) {
+                if (metrics.isEmpty()) {
+                    metrics = new ArrayList<>();
+                }
+                metrics.add(metric);
+            }
+        }
+
+        Map<PathElement, Node> children = Collections.emptyMap();
+        for (PathElement element : registration.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
+            final ImmutableManagementResourceRegistration child = registration.getSubModel(PathAddress.pathAddress(element));
+            // Proxied resources are scraped by the process that owns them and aliases would only duplicate samples
+            if (child == null || child.isRemote() || child.isAlias()) {
+                continue;
+            }
+            final Node childNode = index(child, address.append(element), families);
+            if (childNode != null) {
+                if (children.isEmpty()) {
+                    children = new LinkedHashMap<>();
+                }
+                children.put(element, childNode);
+            }
+        }
+
+        return metrics.isEmpty() && children.isEmpty() ? null : new Node(metrics, children);
+    }
+
+    private static boolean isNumeric(AttributeDefinition definition) {
+        switch (definition.getType()) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case BIG_DECIMAL:
+            case BIG_INTEGER:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static ModelNode getAttributeDescriptions(ImmutableManagementResourceRegistration registration) {
+        try {
+            final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+            if (provider != null) {
+                return provider.getModelDescription(Locale.getDefault()).get(ATTRIBUTES);
+            }
+        } catch (RuntimeException e) {
+            // A description is only used for HELP, so do without it
+            ControllerLogger.MGMT_OP_LOGGER.debugf(e, "Cannot resolve the description of %s", registration.getPathAddress());
+        }
+        return new ModelNode();
+    }
+
+    private static Metric createMetric(PathAddress address, AttributeDefinition definition, ModelNode description, Map<String, Family> families) {
+        final boolean counter = definition.getFlags().contains(AttributeAccess.Flag.COUNTER_METRIC);
+        final String unit = getUnit(definition.getMeasurementUnit());
+
+        // Labels are named after the keys of the address, except for the subsystem which is part of the name
+        final List<String> labels = new ArrayList<>(address.size());
+        final StringBuilder prefix = new StringBuilder(PREFIX);
+        final StringBuilder qualifier = new StringBuilder();
+        for (int i = 0; i < address.size(); i++) {
+            final PathElement element = address.getElement(i);
+            if (i == 0 && SUBSYSTEM.equals(element.getKey())) {
+                prefix.append(sanitize(element.getValue())).append('_');
+            } else {
+                final String label = sanitize(element.getKey());
+                if (labels.contains(label)) {
+                    // Cannot be expressed as a set of labels
+                    return null;
+                }
+                labels.add(label);
+                qualifier.append(label).append('_');
+            }
+        }
+
+        String attribute = sanitize(definition.getName());
+        if (counter && attribute.endsWith(TOTAL_SUFFIX)) {
+            attribute = attribute.substring(0, attribute.length() - TOTAL_SUFFIX.length());
+        }
+        if (unit != null && !attribute.endsWith("_" + unit)) {
+            attribute = attribute + "_" + unit;
+        }
+
+        // The same attribute name on different resource types shares a family unless the two disagree
+        // about the type or unit, in which case the resource types become part of the name
+        final String help = description.isDefined() ? description.asString() : null;
+        Family family = getFamily(prefix + attribute, counter, unit, help, families);
+        if (family == null && qualifier.length() > 0) {
+            family = getFamily(prefix.toString() + qualifier + attribute, counter, unit, help, families);
+        }
+        return family == null ? null : new Metric(definition.getName(), family, labels);
+    }
+
+    private static Family getFamily(String name, boolean counter, String unit, String help, Map<String, Family> families) {
+        final Family existing = families.get(name);
+        if (existing == null) {
+            final Family family = new Family(name, counter, unit, help);
+            families.put(name, family);
+            return family;
+        }
+        return existing.counter == counter && (existing.unit == null ? unit == null : existing.unit.equals(unit)) ? existing : null;
+    }
+
+    private static String getUnit(MeasurementUnit unit) {
+        if (unit == null) {
+            return null;
+        }
+        switch (unit) {
+            case BYTES:
+                return "bytes";
+            case NANOSECONDS:
+                return "nanoseconds";
+            case MICROSECONDS:
+                return "microseconds";
+            case MILLISECONDS:
+                return "milliseconds";
+            case SECONDS:
+                return "seconds";
+            default:
+                return null;
+        }
+    }
+
+    static String sanitize(String name) {
+        final StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+                builder.append(c);
+            } else {
+                builder.append('_');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A registration with numeric metrics registered against it or somewhere beneath it.
+     */
+    static final class Node {
+        private final List<Metric> metrics;
+        private final Map<PathElement, Node> children;
+        private final Set<String> childTypes;
+
+        private Node(List<Metric> metrics, Map<PathElement, Node> children) {
+            this.metrics = metrics;
+            this.children = children;
+            final Set<String> childTypes = new LinkedHashSet<>();
+            for (PathElement element : children.keySet()) {
+                childTypes.add(element.getKey());
+            }
+            this.childTypes = childTypes;
+        }
+
+        List<Metric> getMetrics() {
+            return metrics;
+        }
+
+        /**
+         * Gets the types of the children that may contribute samples.
+         *
+         * @return the child types. Will not be {@code null}
+         */
+        Set<String> getChildTypes() {
+            return childTypes;
+        }
+
+        /**
+         * Gets the node for a child resource, preferring a registration for its specific name over a wildcard one.
+         *
+         * @param type the child type
+         * @param name the child name
+         * @return the node, or {@code null} if the child cannot contribute samples
+         */
+        Node getChild(String type, String name) {
+            final Node child = children.get(PathElement.pathElement(type, name));
+            return child != null ? child : children.get(PathElement.pathElement(type));
+        }
+    }
+
+    /**
+     * A numeric metric attribute and the family its samples belong to.
+     */
+    static final class Metric {
+        private final String attributeName;
+        private final Family family;
+        private final List<String> labels;
+
+        private Metric(String attributeName, Family family, List<String> labels) {
+            this.attributeName = attributeName;
+            this.family = family;
+            this.labels = labels;
+        }
+
+        String getAttributeName() {
+            return attributeName;
+        }
+
+        Family getFamily() {
+            return family;
+        }
+
+        /**
+         * Gets the label names, one per element of the resource address other than a leading subsystem element.
+         *
+         * @return the label names. Will not be {@code null}
+         */
+        List<String> getLabels() {
+            return labels;
+        }
+    }
+
+    /**
+     * An OpenMetrics metric family. Metrics that share a family share its name, type, unit and help but may use
+     * different {@link Metric#getLabels() labels}.
+     */
+    static final class Family {
+        private final String name;
+        private final boolean counter;
+        private final String unit;
+        private final String help;
+
+        private Family(String name, boolean counter, String unit, String help) {
+            this.name = name;
+            this.counter = counter;
+            this.unit = unit;
+            this.help = help;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isCounter() {
+            return counter;
+        }
+
+        String getUnit() {
+            return unit;
+        }
+
+        String getHelp() {
+            return help;
+        }
+    }
+}
@@ -32,7 +32,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ExpressionResolver;
@@ -52,6 +54,7 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
@@ -116,17 +119,116 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
                 ModelDescriptionConstants.READ_RESOURCE_OPERATION
         );
 
-        final ModelNode readResourceOp = new ModelNode();
-        readResourceOp.get(ADDRESS).set(operation.get(ADDRESS));
-        readResourceOp.get(OP).set(READ_RESOURCE_OPERATION);
-        readResourceOp.get(INCLUDE_RUNTIME).set(true);
+        if (isPushdownSupported(mrr, readResourceHandler, where, select)) {
+            if (where.isDefined() && isConfigurationOnly(mrr, where)) {
+                // Evaluate the filter against the configuration attributes it needs before reading
+                // anything else, so non-matching resources never have their runtime attributes read
+                final ModelNode filterResponse = new ModelNode();
+                parentContext.addStep(operation, new FilterGateHandler(filterResponse, where, operator, select, mrr), OperationContext.Stage.MODEL, true);
+                parentContext.addStep(filterResponse, createReadResourceOp(operation, false),
+                        new ReadResourceHandler(getAttributeNames(where, null)), OperationContext.Stage.MODEL, true);
+                return;
+            } else if (select.isDefined()) {
+                // Only read what the filter and the projection need
+                parentContext.addStep(operation, new FilterReduceHandler(where, operator, select), OperationContext.Stage.MODEL);
+                parentContext.addStep(createReadResourceOp(operation, true),
+                        new ReadResourceHandler(getAttributeNames(where, select)), OperationContext.Stage.MODEL);
+                return;
+            }
+        }
 
         // filter/reduce phase
         parentContext.addStep(operation, new FilterReduceHandler(where, operator, select), OperationContext.Stage.MODEL);
 
         // map phase
-        parentContext.addStep(readResourceOp, readResourceHandler, OperationContext.Stage.MODEL);
+        parentContext.addStep(createReadResourceOp(operation, true), readResourceHandler, OperationContext.Stage.MODEL);
+
+    }
+
+    private static ModelNode createReadResourceOp(ModelNode operation, boolean includeRuntime) {
+        final ModelNode readResourceOp = new ModelNode();
+        readResourceOp.get(ADDRESS).set(operation.get(ADDRESS));
+        readResourceOp.get(OP).set(READ_RESOURCE_OPERATION);
+        readResourceOp.get(INCLUDE_RUNTIME).set(includeRuntime);
+        return readResourceOp;
+    }
+
+    /**
+     * Whether the attributes named by {@code where} and {@code select} can be read individually rather than by
+     * reading the complete resource. This requires a standard read-resource handler on a local resource and that
+     * every name refers to an attribute registered on the resource; anything else is left to the full read.
+     */
+    private static boolean isPushdownSupported(ImmutableManagementResourceRegistration mrr, OperationStepHandler readResourceHandler,
+                                               ModelNode where, ModelNode select) {
+        if (!where.isDefined() && !select.isDefined()) {
+            return false;
+        }
+        if (mrr.isRemote() || (readResourceHandler != ReadResourceHandler.INSTANCE && readResourceHandler != ReadResourceHandler.RESOLVE_INSTANCE)) {
+            return false;
+        }
+        final Set<String> registered = mrr.getAttributeNames(PathAddress.EMPTY_ADDRESS);
+        return registered.containsAll(getAttributeNames(where, select));
+    }
+
+    private static boolean isConfigurationOnly(ImmutableManagementResourceRegistration mrr, ModelNode where) {
+        for (Property property : where.asPropertyList()) {
+            final AttributeAccess access = mrr.getAttributeAccess(PathAddress.EMPTY_ADDRESS, property.getName());
+            if (access == null || access.getStorageType() != AttributeAccess.Storage.CONFIGURATION) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    private static Set<String> getAttributeNames(ModelNode where, ModelNode select) {
+        final Set<String> names = new HashSet<>();
+        if (where.isDefined()) {
+            for (Property property : where.asPropertyList()) {
+                names.add(property.getName());
+            }
+        }
+        if (select != null && select.isDefined()) {
+            for (ModelNode attribute : select.asList()) {
+                names.add(attribute.asString());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Evaluates the filter against a read of the configuration attributes it refers to and, only if the resource
+     * matches, reads the attributes to return. A resource that does not match is left with an undefined result,
+     * as {@link FilterReduceHandler} would have left it.
+     */
+    private static class FilterGateHandler implements OperationStepHandler {
+
+        private final ModelNode filterResponse;
+        private final ModelNode filter;
+        private final Operator operator;
+        private final ModelNode select;
+        private final ImmutableManagementResourceRegistration mrr;
+
+        private FilterGateHandler(ModelNode filterResponse, ModelNode filter, Operator operator, ModelNode select,
+                                  ImmutableManagementResourceRegistration mrr) {
+            this.filterResponse = filterResponse;
+            this.filter = filter;
+            this.operator = operator;
+            this.select = select;
+            this.mrr = mrr;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (filterResponse.hasDefined(FAILURE_DESCRIPTION) || !filterResponse.hasDefined(RESULT)
+                    || !FilterReduceHandler.matchesFilter(filterResponse.get(RESULT), filter, operator)) {
+                return;
+            }
+            // The filter has already been applied, so only the projection remains
+            context.addStep(createReadResourceOp(operation, true), select.isDefined()
+                    ? new ReadResourceHandler(getAttributeNames(new ModelNode(), select))
+                    : mrr.getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_RESOURCE_OPERATION), OperationContext.Stage.MODEL, true);
+            context.addStep(new FilterReduceHandler(new ModelNode(), operator, select), OperationContext.Stage.MODEL, true);
+        }
     }
 
     static class FilterReduceHandler implements OperationStepHandler {
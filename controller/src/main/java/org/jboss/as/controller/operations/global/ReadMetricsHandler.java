@@ -0,0 +1,353 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.UnauthorizedException;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Private operation that reads every numeric metric in the process and attaches them to the response as a stream in
+ * the <a href="https://openmetrics.io">OpenMetrics</a> text exposition format.
+ * <p>
+ * Each metric family is named after the subsystem and the attribute and its samples are labelled with the remaining
+ * elements of the address of the resource they were read from, so
+ * {@code /subsystem=io/worker=default:read-attribute(name=busy-task-thread-count)} becomes
+ * {@code wildfly_io_busy_task_thread_count{worker="default"}}. Metrics registered with
+ * {@link org.jboss.as.controller.registry.AttributeAccess.Flag#COUNTER_METRIC} are exposed as counters, all others as
+ * gauges. Values are read with the standard {@code read-attribute} handling, so access control applies. Metrics the
+ * caller cannot read, or whose read handler fails before handing off to the runtime stage, are left out rather than
+ * failing the scrape.
+ * <p>
+ * The registrations to visit are taken from a {@link MetricIndex} that is only rebuilt when the registration tree
+ * changes. The exposition is rendered one family at a time as the attached stream is read.
+ */
+public class ReadMetricsHandler implements OperationStepHandler {
+
+    public static final String OPERATION_NAME = "read-metrics";
+
+    /** The media type of the attached stream */
+    public static final String MEDIA_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, NonResolvingResourceDescriptionResolver.INSTANCE)
+            .setPrivateEntry()
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
+    static final ReadMetricsHandler INSTANCE = new ReadMetricsHandler();
+
+    private volatile MetricIndex index;
+
+    private ReadMetricsHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final MetricIndex index = getIndex(context.getRootResourceRegistration());
+        final FilteredData filteredData = new FilteredData(PathAddress.EMPTY_ADDRESS);
+        final Map<String, FamilySamples> families = new TreeMap<>();
+        if (index.getRoot() != null) {
+            addReadSteps(context, PathAddress.EMPTY_ADDRESS, index.getRoot(), filteredData, families);
+        }
+        context.addStep((ctx, op) -> ctx.getResult().set(ctx.attachResultStream(MEDIA_TYPE, new ExpositionStream(families.values()))),
+                OperationContext.Stage.VERIFY);
+    }
+
+    /**
+     * Gets the metric index for the given registration tree, rebuilding it if the tree has changed since it was built.
+     */
+    MetricIndex getIndex(ImmutableManagementResourceRegistration rootRegistration) {
+        MetricIndex current = index;
+        if (current == null || !current.isCurrent(rootRegistration)) {
+            current = MetricIndex.build(rootRegistration);
+            index = current;
+        }
+        return current;
+    }
+
+    private static void addReadSteps(OperationContext context, PathAddress address, MetricIndex.Node node,
+                                     FilteredData filteredData, Map<String, FamilySamples> families) {
+        if (!node.getMetrics().isEmpty()) {
+            final List<String> labelValues = getLabelValues(address);
+            for (MetricIndex.Metric metric : node.getMetrics()) {
+                final ModelNode readOp = Util.getReadAttributeOperation(address, metric.getAttributeName());
+                final ModelNode response = new ModelNode();
+                final GlobalOperationHandlers.AvailableResponse availableResponse = new GlobalOperationHandlers.AvailableResponse(response);
+                final OperationStepHandler readHandler = new ReadAttributeHandler(filteredData, null, false);
+                context.addStep(response, readOp, new ReadMetricHandler(readHandler, availableResponse),
+                        OperationContext.Stage.MODEL, true);
+                families.computeIfAbsent(metric.getFamily().getName(), name -> new FamilySamples(metric.getFamily()))
+                        .samples.add(new Sample(metric.getLabels(), labelValues, availableResponse));
+            }
+        }
+        if (node.getChildTypes().isEmpty()) {
+            return;
+        }
+        final Resource resource;
+        try {
+            resource = context.readResourceFromRoot(address, false);
+        } catch (Resource.NoSuchResourceException | UnauthorizedException e) {
+            // Removed concurrently or not visible to the caller
+            return;
+        }
+        for (String type : node.getChildTypes()) {
+            for (String name : resource.getChildrenNames(type)) {
+                final MetricIndex.Node child = node.getChild(type, name);
+                if (child != null) {
+                    addReadSteps(context, address.append(type, name), child, filteredData, families);
+                }
+            }
+        }
+    }
+
+    private static List<String> getLabelValues(PathAddress address) {
+        final List<String> values = new ArrayList<>(address.size());
+        for (int i = 0; i < address.size(); i++) {
+            final PathElement element = address.getElement(i);
+            if (i != 0 || !SUBSYSTEM.equals(element.getKey())) {
+                values.add(element.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads a single metric, recording a failure to do so against the sample instead of failing the scrape.
+     */
+    private static final class ReadMetricHandler implements OperationStepHandler {
+        private final OperationStepHandler wrapped;
+        private final GlobalOperationHandlers.AvailableResponse availableResponse;
+
+        private ReadMetricHandler(OperationStepHandler readHandler, GlobalOperationHandlers.AvailableResponse availableResponse) {
+            this.wrapped = new GlobalOperationHandlers.AvailableResponseWrapper(readHandler, availableResponse);
+            this.availableResponse = availableResponse;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) {
+            try {
+                wrapped.execute(context, operation);
+            } catch (OperationFailedException | RuntimeException e) {
+                availableResponse.unavailable = true;
+                ControllerLogger.MGMT_OP_LOGGER.debugf(e, "Failed to read metric %s of %s", operation.get(NAME).asString(), context.getCurrentAddress());
+            }
+        }
+    }
+
+    private static final class FamilySamples {
+        private final MetricIndex.Family family;
+        private final List<Sample> samples = new ArrayList<>();
+
+        private FamilySamples(MetricIndex.Family family) {
+            this.family = family;
+        }
+    }
+
+    private static final class Sample {
+        private final List<String> labels;
+        private final List<String> labelValues;
+        private final GlobalOperationHandlers.AvailableResponse response;
+
+        private Sample(List<String> labels, List<String> labelValues, GlobalOperationHandlers.AvailableResponse response) {
+            this.labels = labels;
+            this.labelValues = labelValues;
+            this.response = response;
+        }
+
+        /**
+         * Gets the value of the sample in exposition format.
+         *
+         * @return the value or {@code null} if the metric could not be read
+         */
+        private String getValue() {
+            if (response.unavailable || response.response.has(FAILURE_DESCRIPTION) || !response.response.hasDefined(RESULT)) {
+                return null;
+            }
+            final ModelNode value = response.response.get(RESULT);
+            switch (value.getType()) {
+                case INT:
+                case LONG:
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    return value.asString();
+                case DOUBLE:
+                    final double d = value.asDouble();
+                    if (Double.isNaN(d)) {
+                        return "NaN";
+                    } else if (Double.isInfinite(d)) {
+                        return d > 0 ? "+Inf" : "-Inf";
+                    }
+                    return Double.toString(d);
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * Renders the exposition one metric family at a time as it is read.
+     */
+    private static final class ExpositionStream extends InputStream {
+
+        private static final byte[] EOF = "# EOF\n".getBytes(StandardCharsets.UTF_8);
+
+        private final Iterator<FamilySamples> families;
+        private byte[] chunk = new byte[0];
+        private int position;
+        private boolean done;
+
+        private ExpositionStream(Iterable<FamilySamples> families) {
+            this.families = families.iterator();
+        }
+
+        @Override
+        public int read() {
+            return fill() ? chunk[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            final int count = Math.min(len, chunk.length - position);
+            System.arraycopy(chunk, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return chunk.length - position;
+        }
+
+        private boolean fill() {
+            while (position == chunk.length) {
+                if (families.hasNext()) {
+                    chunk = render(families.next());
+                } else if (!done) {
+                    chunk = EOF;
+                    done = true;
+                } else {
+                    return false;
+                }
+                position = 0;
+            }
+            return true;
+        }
+
+        private static byte[] render(FamilySamples familySamples) {
+            final MetricIndex.Family family = familySamples.family;
+            final StringBuilder builder = new StringBuilder();
+            boolean empty = true;
+            for (Sample sample : familySamples.samples) {
+                final String value = sample.getValue();
+                if (value == null) {
+                    continue;
+                }
+                if (empty) {
+                    appendMetadata(builder, family);
+                    empty = false;
+                }
+                builder.append(family.getName());
+                if (family.isCounter()) {
+                    builder.append("_total");
+                }
+                if (!sample.labels.isEmpty()) {
+                    builder.append('{');
+                    for (int i = 0; i < sample.labels.size(); i++) {
+                        if (i > 0) {
+                            builder.append(',');
+                        }
+                        builder.append(sample.labels.get(i)).append("=\"");
+                        appendEscaped(builder, sample.labelValues.get(i));
+                        builder.append('"');
+                    }
+                    builder.append('}');
+                }
+                builder.append(' ').append(value).append('\n');
+            }
+            return builder.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static void appendMetadata(StringBuilder builder, MetricIndex.Family family) {
+            builder.append("# TYPE ").append(family.getName()).append(family.isCounter() ? " counter\n" : " gauge\n");
+            if (family.getUnit() != null) {
+                builder.append("# UNIT ").append(family.getName()).append(' ').append(family.getUnit()).append('\n');
+            }
+            if (family.getHelp() != null) {
+                builder.append("# HELP ").append(family.getName()).append(' ');
+                appendEscaped(builder, family.getHelp());
+                builder.append('\n');
+            }
+        }
+
+        private static void appendEscaped(StringBuilder builder, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+                    case '"':
+                        builder.append("\\\"");
+                        break;
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+                    default:
+                        builder.append(c);
+                }
+            }
+        }
+    }
+}
@@ -117,6 +117,8 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
 
     private final OperationStepHandler overrideHandler;
     private final boolean resolvable;
+    /** Names of the only attributes to read, or {@code null} to read the complete resource */
+    private final Set<String> restrictedAttributes;
 
     public ReadResourceHandler() {
         this(null, null, false, false);
@@ -130,11 +132,27 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         this(filteredData, overrideHandler, resolvable, true);
     }
 
+    /**
+     * Creates a handler that only reads the given attributes of the target resource and none of its children.
+     * Used by operations such as {@link QueryOperationHandler query} that only need part of the resource.
+     *
+     * @param restrictedAttributes the names of the attributes to read. Cannot be {@code null}
+     */
+    ReadResourceHandler(Set<String> restrictedAttributes) {
+        this(null, null, false, false, restrictedAttributes);
+    }
+
     private ReadResourceHandler(final FilteredData filteredData, OperationStepHandler overrideHandler,
                                 boolean resolvable, boolean ignoreMissingResource) {
+        this(filteredData, overrideHandler, resolvable, ignoreMissingResource, null);
+    }
+
+    private ReadResourceHandler(final FilteredData filteredData, OperationStepHandler overrideHandler,
+                                boolean resolvable, boolean ignoreMissingResource, Set<String> restrictedAttributes) {
         super(filteredData, ignoreMissingResource);
         this.overrideHandler = overrideHandler;
         this.resolvable = resolvable;
+        this.restrictedAttributes = restrictedAttributes;
         this.validator = resolvable ? Validator.RESOLVABLE : Validator.NON_RESOLVABLE;
     }
 
@@ -236,7 +254,7 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         // Get the model for this resource.
         final Resource resource = nullSafeReadResource(context, registry);
 
-        final Map<String, Set<String>> childrenByType = registry != null ? GlobalOperationHandlers.getChildAddresses(context, address, registry, resource, null) : Collections.<String, Set<String>>emptyMap();
+        final Map<String, Set<String>> childrenByType = registry != null && restrictedAttributes == null ? GlobalOperationHandlers.getChildAddresses(context, address, registry, resource, null) : Collections.<String, Set<String>>emptyMap();
         if (!attributesOnly) {
             // Next, process child resources
             for (Map.Entry<String, Set<String>> entry : childrenByType.entrySet()) {
@@ -324,6 +342,9 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         // Handle registered attributes
         final Set<String> attributeNames = registry != null ? registry.getAttributeNames(PathAddress.EMPTY_ADDRESS) : Collections.<String>emptySet();
         for (final String attributeName : attributeNames) {
+            if (restrictedAttributes != null && !restrictedAttributes.contains(attributeName)) {
+                continue;
+            }
 
             final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
             if ((aliases || !access.getFlags().contains(AttributeAccess.Flag.ALIAS))
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.persistence;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -29,6 +30,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import javax.xml.namespace.QName;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
@@ -42,6 +44,11 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
     private ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private final XMLElementReader<List<ModelNode>> rootParser;
+    private final boolean suppressLoad;
+    private boolean bootOperationSnapshotSupported;
+    /** Snapshot of freshly parsed boot operations, to be written once boot has succeeded */
+    private volatile BootOperationSnapshot bootOperationSnapshot;
 
     /**
      * Construct a new instance.
@@ -54,6 +61,8 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser, final boolean suppressLoad) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser, suppressLoad);
         this.configurationFile = file;
+        this.rootParser = rootParser;
+        this.suppressLoad = suppressLoad;
     }
 
     /**
@@ -68,8 +77,7 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
      */
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser,
                                            final XMLElementWriter<ModelMarshallingContext> rootDeparser, boolean reload, boolean allowEmpty) {
-        super(file.getBootFile(), rootElement, rootParser, rootDeparser, isSuppressLoad(file, reload, allowEmpty));
-        this.configurationFile = file;
+        this(file, rootElement, rootParser, rootDeparser, isSuppressLoad(file, reload, allowEmpty));
     }
 
     private static boolean isSuppressLoad(ConfigurationFile configurationFile, boolean reload, boolean allowEmpty) {
@@ -89,10 +97,74 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
         super.registerAdditionalRootElement(anotherRoot, parser);
     }
 
+    /**
+     * Allows the boot operations to be loaded from and stored to a {@link BootOperationSnapshot}. Only configurations
+     * whose parsed operations depend solely on the configuration file and the installed modules may opt in; the host
+     * and domain parsers also depend on process options such as the host controller name or the running mode, so those
+     * persisters never use a snapshot.
+     */
+    public void enableBootOperationSnapshot() {
+        this.bootOperationSnapshotSupported = true;
+    }
+
+    /**
+     * Loads the boot operations. If boot operation snapshots are supported by this persister, are enabled via the
+     * {@code jboss.config.boot-operation-snapshot} system property and the snapshot stored after the last successful
+     * boot matches both the boot file's digest and the installed parser and extension module versions, the operations
+     * are read from the snapshot instead of parsing the XML.
+     *
+     * @return the boot operations
+     * @throws ConfigurationPersistenceException if the configuration cannot be parsed
+     */
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        if (suppressLoad || !bootOperationSnapshotSupported || !BootOperationSnapshot.isEnabled()) {
+            return super.load();
+        }
+        final String digest;
+        try {
+            digest = BootOperationSnapshot.digest(configurationFile.getBootFile());
+        } catch (IOException e) {
+            ControllerLogger.ROOT_LOGGER.debugf(e, "Cannot compute digest of %s", configurationFile.getBootFile());
+            return super.load();
+        }
+        long start = System.nanoTime();
+        List<ModelNode> bootOperations = BootOperationSnapshot.load(configurationFile.getBootOperationSnapshotFile(), digest, rootParser.getClass());
+        if (bootOperations != null) {
+            ControllerLogger.ROOT_LOGGER.debugf("Loaded %s boot operations from snapshot %s in %s ms", bootOperations.size(),
+                    configurationFile.getBootOperationSnapshotFile(), Long.valueOf((System.nanoTime() - start) / 1000000));
+            return bootOperations;
+        }
+        start = System.nanoTime();
+        bootOperations = super.load();
+        ControllerLogger.ROOT_LOGGER.debugf("Parsed %s boot operations from %s in %s ms", bootOperations.size(),
+                configurationFile.getBootFile(), Long.valueOf((System.nanoTime() - start) / 1000000));
+        try {
+            bootOperationSnapshot = BootOperationSnapshot.create(digest, rootParser.getClass(), bootOperations);
+        } catch (IOException e) {
+            ControllerLogger.ROOT_LOGGER.debugf(e, "Cannot create boot operation snapshot");
+        }
+        return bootOperations;
+    }
+
     @Override
     public void successfulBoot() throws ConfigurationPersistenceException {
         if(successfulBoot.compareAndSet(false, true)) {
             configurationFile.successfulBoot();
+            storeBootOperationSnapshot();
+        }
+    }
+
+    private void storeBootOperationSnapshot() {
+        final BootOperationSnapshot snapshot = bootOperationSnapshot;
+        if (snapshot != null) {
+            bootOperationSnapshot = null;
+            try {
+                snapshot.store(configurationFile.getBootOperationSnapshotFile());
+            } catch (IOException | ConfigurationPersistenceException e) {
+                // The snapshot is only an optimization; the next boot will parse the XML again
+                ControllerLogger.ROOT_LOGGER.debugf(e, "Cannot store boot operation snapshot %s", configurationFile.getBootOperationSnapshotFile());
+            }
         }
     }
 
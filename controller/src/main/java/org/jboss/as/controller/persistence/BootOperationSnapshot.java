@@ -0,0 +1,318 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MODULE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.modules.Module;
+
+/**
+ * A compact binary DMR snapshot of the boot operations parsed from a configuration file. The snapshot is
+ * keyed by the digest of the configuration file together with a fingerprint of the content of the modules
+ * that contributed to parsing it (the root parser's module and every extension module referenced by the boot
+ * operations), so a snapshot is only used if re-parsing the file would produce the same operations.
+ * <p>
+ * Module fingerprints are computed from the name, size and last modification time of every file in the
+ * module's directories on the module path, including layers, add-ons and patch overlays, so modules never
+ * need to be loaded to validate a snapshot.
+ */
+final class BootOperationSnapshot {
+
+    /** System property that enables use of boot operation snapshots. */
+    static final String BOOT_OPERATION_SNAPSHOT_PROPERTY = "jboss.config.boot-operation-snapshot";
+
+    private static final int MAGIC = 0x4A424F50; // JBOP
+    private static final int FORMAT_VERSION = 2;
+    private static final String ROOT_PARSER_KEY = "<root-parser>";
+
+    private final String configurationDigest;
+    /** Module name -> content fingerprint, sorted so the serialized key is stable */
+    private final Map<String, String> moduleFingerprints;
+    private final ExposedByteArrayOutputStream operations;
+
+    private BootOperationSnapshot(String configurationDigest, Map<String, String> moduleFingerprints, ExposedByteArrayOutputStream operations) {
+        this.configurationDigest = configurationDigest;
+        this.moduleFingerprints = moduleFingerprints;
+        this.operations = operations;
+    }
+
+    /**
+     * Creates a snapshot of freshly parsed boot operations. The operations are serialized immediately,
+     * as the boot process is free to modify the {@code ModelNode}s once they have been handed over.
+     *
+     * @param configurationDigest the hex digest of the configuration file the operations were parsed from
+     * @param rootParserClass the class of the root parser
+     * @param bootOperations the parsed operations
+     * @return the snapshot, or {@code null} if the modules contributing to the parse could not be identified
+     */
+    static BootOperationSnapshot create(String configurationDigest, Class<?> rootParserClass, List<ModelNode> bootOperations) throws IOException {
+        return create(configurationDigest, getModuleName(rootParserClass), bootOperations, getModuleRoots());
+    }
+
+    static BootOperationSnapshot create(String configurationDigest, String rootParserModule, List<ModelNode> bootOperations, List<File> moduleRoots) throws IOException {
+        final Map<String, String> moduleFingerprints = fingerprintModules(rootParserModule, getExtensionModules(bootOperations), moduleRoots);
+        if (moduleFingerprints == null) {
+            return null;
+        }
+        final ModelNode list = new ModelNode().setEmptyList();
+        for (ModelNode op : bootOperations) {
+            list.add(op);
+        }
+        final ExposedByteArrayOutputStream operations = new ExposedByteArrayOutputStream(1024 * 64);
+        try (DataOutputStream out = new DataOutputStream(operations)) {
+            list.writeExternal(out);
+        }
+        return new BootOperationSnapshot(configurationDigest, moduleFingerprints, operations);
+    }
+
+    /**
+     * Loads the boot operations stored in {@code snapshotFile} if the snapshot is still valid for the given
+     * configuration digest and the currently installed modules.
+     *
+     * @return the boot operations, or {@code null} if there is no usable snapshot
+     */
+    static List<ModelNode> load(File snapshotFile, String configurationDigest, Class<?> rootParserClass) {
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+        return load(snapshotFile, configurationDigest, getModuleName(rootParserClass), getModuleRoots());
+    }
+
+    static List<ModelNode> load(File snapshotFile, String configurationDigest, String rootParserModule, List<File> moduleRoots) {
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            if (!configurationDigest.equals(in.readUTF())) {
+                ControllerLogger.ROOT_LOGGER.debugf("Configuration file has changed since boot operation snapshot %s was written", snapshotFile);
+                return null;
+            }
+            final int moduleCount = in.readInt();
+            final Map<String, String> stored = new TreeMap<>();
+            for (int i = 0; i < moduleCount; i++) {
+                stored.put(in.readUTF(), in.readUTF());
+            }
+            final List<String> extensionModules = new ArrayList<>(stored.keySet());
+            extensionModules.remove(ROOT_PARSER_KEY);
+            final Map<String, String> current = fingerprintModules(rootParserModule, extensionModules, moduleRoots);
+            if (!stored.equals(current)) {
+                ControllerLogger.ROOT_LOGGER.debugf("Installed modules differ from boot operation snapshot %s", snapshotFile);
+                return null;
+            }
+            final ModelNode list = new ModelNode();
+            list.readExternal(in);
+            return new ArrayList<>(list.asList());
+        } catch (IOException | RuntimeException e) {
+            ControllerLogger.ROOT_LOGGER.debugf(e, "Cannot read boot operation snapshot %s", snapshotFile);
+            return null;
+        }
+    }
+
+    /**
+     * Writes this snapshot to {@code snapshotFile}, replacing any previous snapshot atomically.
+     */
+    void store(File snapshotFile) throws IOException, ConfigurationPersistenceException {
+        final File temp = FilePersistenceUtils.createTempFile(snapshotFile);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(configurationDigest);
+            out.writeInt(moduleFingerprints.size());
+            for (Map.Entry<String, String> entry : moduleFingerprints.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            operations.writeTo(out);
+        }
+        FilePersistenceUtils.moveTempFileToMain(temp, snapshotFile);
+    }
+
+    /**
+     * Computes the hex SHA-1 digest of a configuration file.
+     */
+    static String digest(File file) throws IOException {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), messageDigest)) {
+            final byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // just digest
+            }
+        }
+        return HashUtil.bytesToHexString(messageDigest.digest());
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean(BOOT_OPERATION_SNAPSHOT_PROPERTY);
+    }
+
+    private static List<String> getExtensionModules(List<ModelNode> bootOperations) {
+        final List<String> result = new ArrayList<>();
+        for (ModelNode op : bootOperations) {
+            if (ADD.equals(op.get(OP).asString()) && op.hasDefined(MODULE)) {
+                final PathAddress address = PathAddress.pathAddress(op.get(OP_ADDR));
+                if (address.size() > 0 && EXTENSION.equals(address.getLastElement().getKey())) {
+                    result.add(op.get(MODULE).asString());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String getModuleName(Class<?> rootParserClass) {
+        final Module module = Module.forClass(rootParserClass);
+        // If we are not running modular we cannot tell whether the parser has changed
+        return module == null ? null : module.getName();
+    }
+
+    /**
+     * Gets the directories modules are loaded from: each root of the {@code module.path}, its layers and
+     * add-ons, and any patch overlays of those.
+     */
+    private static List<File> getModuleRoots() {
+        final String modulePath = System.getProperty("module.path");
+        if (modulePath == null) {
+            return null;
+        }
+        final List<File> result = new ArrayList<>();
+        for (String path : modulePath.split(File.pathSeparator)) {
+            if (path.isEmpty()) {
+                continue;
+            }
+            final File root = new File(path);
+            result.add(root);
+            for (String type : new String[] {"layers", "add-ons"}) {
+                for (File base : listDirectories(new File(root, "system" + File.separatorChar + type))) {
+                    result.add(base);
+                    result.addAll(listDirectories(new File(base, ".overlays")));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<File> listDirectories(File parent) {
+        final File[] children = parent.listFiles(File::isDirectory);
+        if (children == null) {
+            return Collections.emptyList();
+        }
+        final List<File> result = new ArrayList<>(children.length);
+        Collections.addAll(result, children);
+        Collections.sort(result);
+        return result;
+    }
+
+    private static Map<String, String> fingerprintModules(String rootParserModule, List<String> extensionModules, List<File> moduleRoots) throws IOException {
+        if (rootParserModule == null || moduleRoots == null) {
+            return null;
+        }
+        final Map<String, String> result = new TreeMap<>();
+        final String parserFingerprint = fingerprint(rootParserModule, moduleRoots);
+        if (parserFingerprint == null) {
+            return null;
+        }
+        result.put(ROOT_PARSER_KEY, rootParserModule + ':' + parserFingerprint);
+        for (String name : extensionModules) {
+            final String fingerprint = fingerprint(name, moduleRoots);
+            if (fingerprint == null) {
+                ControllerLogger.ROOT_LOGGER.debugf("Cannot find extension module %s on the module path", name);
+                return null;
+            }
+            result.put(name, fingerprint);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Computes a fingerprint of every file of a module that is present in any of the module roots.
+     *
+     * @return the hex fingerprint, or {@code null} if the module is not present in any of the roots
+     */
+    static String fingerprint(String moduleName, List<File> moduleRoots) throws IOException {
+        final int slotIndex = moduleName.lastIndexOf(':');
+        final String name = slotIndex < 0 ? moduleName : moduleName.substring(0, slotIndex);
+        final String slot = slotIndex < 0 ? "main" : moduleName.substring(slotIndex + 1);
+        final String relativePath = name.replace('.', File.separatorChar) + File.separatorChar + slot;
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        boolean found = false;
+        for (File root : moduleRoots) {
+            final Path moduleDir = new File(root, relativePath).toPath();
+            if (!Files.isDirectory(moduleDir)) {
+                continue;
+            }
+            found = true;
+            messageDigest.update(moduleDir.toString().getBytes(StandardCharsets.UTF_8));
+            final List<Path> files;
+            try (Stream<Path> stream = Files.walk(moduleDir)) {
+                files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                final String entry = moduleDir.relativize(file) + "|" + Files.size(file) + '|' + Files.getLastModifiedTime(file).toMillis();
+                messageDigest.update(entry.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return found ? HashUtil.bytesToHexString(messageDigest.digest()) : null;
+    }
+}
@@ -528,6 +528,11 @@ public class ConfigurationFile {
         return this.serverTempDir;
     }
 
+    /** Gets the file in the history directory in which a binary snapshot of the parsed boot operations is kept */
+    File getBootOperationSnapshotFile() {
+        return new File(historyRoot, mainFile.getName() + ".bootops");
+    }
+
     /** Notification that boot has completed successfully and the configuration history should be updated */
     void successfulBoot() throws ConfigurationPersistenceException {
         synchronized (this) {
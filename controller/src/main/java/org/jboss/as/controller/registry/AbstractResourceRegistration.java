@@ -29,6 +29,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.jboss.as.controller.CapabilityReferenceRecorder;
 
 import org.jboss.as.controller.OperationDefinition;
@@ -56,11 +58,18 @@ import org.wildfly.common.Assert;
 @SuppressWarnings("deprecation")
 abstract class AbstractResourceRegistration implements ManagementResourceRegistration {
 
+    /** Source of registration versions, shared so that distinct registration trees never report the same version */
+    private static final AtomicLong REGISTRATION_VERSIONS = new AtomicLong();
+
     private final String valueString;
     private final NodeSubregistry parent;
     private final PathAddress pathAddress;
     private final ProcessType processType;
     private RootInvocation rootInvocation;
+    /** Only set on the root MRR */
+    private final RegistrationLookupCache lookupCache;
+    /** Only meaningful on the root MRR */
+    private volatile long registrationVersion;
 
     /** Constructor for a root MRR */
     AbstractResourceRegistration(final ProcessType processType) {
@@ -69,6 +78,8 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         this.parent = null;
         this.pathAddress = PathAddress.EMPTY_ADDRESS;
         this.processType = Assert.checkNotNullParam("processType", processType);
+        this.lookupCache = new RegistrationLookupCache(this::findOperationEntry, this::findAttributeAccess);
+        this.registrationVersion = REGISTRATION_VERSIONS.incrementAndGet();
     }
 
     /** Constructor for a non-root MRR */
@@ -78,6 +89,7 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         this.parent = Assert.checkNotNullParam("parent", parent);
         this.pathAddress = parent.getPathAddress(valueString);
         this.processType = parent.getProcessType();
+        this.lookupCache = null;
     }
 
     static void checkPermission() {
@@ -175,7 +187,10 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
             return ri.root.getOperationEntry(ri.pathAddress.append(pathAddress), operationName);
         }
         // else we are the root
+        return lookupCache.getOperationEntry(pathAddress, operationName);
+    }
 
+    private OperationEntry findOperationEntry(final PathAddress pathAddress, final String operationName) {
         OperationEntry inheritable = getInheritableOperationEntry(operationName);
         return getOperationEntry(pathAddress.iterator(), operationName, inheritable);
     }
@@ -212,6 +227,10 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
             return ri.root.getAttributeAccess(ri.pathAddress.append(address), attributeName);
         }
         // else we are the root
+        return lookupCache.getAttributeAccess(address, attributeName);
+    }
+
+    private AttributeAccess findAttributeAccess(final PathAddress address, final String attributeName) {
         return getAttributeAccess(address.iterator(), attributeName);
     }
 
@@ -489,6 +508,21 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
 
     abstract Set<CapabilityReferenceRecorder> getRequirements(ListIterator<PathElement> iterator);
 
+    /**
+     * Discards any cached lookups held by the root registration. Must be called after any change to the
+     * operations, attributes or children registered in the tree.
+     */
+    final void registrationChanged() {
+        AbstractResourceRegistration root = getRootResourceRegistration();
+        root.lookupCache.invalidate();
+        root.registrationVersion = REGISTRATION_VERSIONS.incrementAndGet();
+    }
+
+    @Override
+    public long getRegistrationVersion() {
+        return getRootResourceRegistration().registrationVersion;
+    }
+
     protected AbstractResourceRegistration getRootResourceRegistration() {
         if (parent == null) {
             return this;
@@ -249,6 +249,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationChanged();
     }
 
     public void unregisterSubModel(final PathElement address) throws IllegalArgumentException {
@@ -397,6 +398,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationChanged();
     }
 
     @Override
@@ -432,6 +434,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationChanged();
     }
 
     @Override
@@ -519,6 +522,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         } finally {
             writeLock.unlock();
         }
+        registrationChanged();
     }
 
     private boolean assertMetricValues(AttributeDefinition definition) {
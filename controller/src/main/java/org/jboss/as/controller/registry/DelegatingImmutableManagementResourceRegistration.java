@@ -106,6 +106,11 @@ public class DelegatingImmutableManagementResourceRegistration implements Immuta
         return delegate.isAlias();
     }
 
+    @Override
+    public long getRegistrationVersion() {
+        return delegate.getRegistrationVersion();
+    }
+
     @Override
     public OperationEntry getOperationEntry(PathAddress address, String operationName) {
         return delegate.getOperationEntry(address, operationName);
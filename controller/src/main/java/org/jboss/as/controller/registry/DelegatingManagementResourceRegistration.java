@@ -141,6 +141,11 @@ public class DelegatingManagementResourceRegistration implements ManagementResou
         return getDelegate().isAlias();
     }
 
+    @Override
+    public long getRegistrationVersion() {
+        return getDelegate().getRegistrationVersion();
+    }
+
     @Override
     public OperationEntry getOperationEntry(PathAddress address, String operationName) {
         return getDelegate().getOperationEntry(address, operationName);
@@ -165,6 +165,18 @@ public interface ImmutableManagementResourceRegistration {
      */
     AliasEntry getAliasEntry();
 
+    /**
+     * Gets a value that changes whenever a resource, attribute or operation registration is added to or removed
+     * from the registration tree this registration belongs to. Callers can use it to tell whether information
+     * they derived from walking the tree is still current.
+     *
+     * @return the version of the registration tree, or {@code -1} if this registration does not track changes
+     * @throws SecurityException if the caller does not have {@link #ACCESS_PERMISSION}
+     */
+    default long getRegistrationVersion() {
+        return -1;
+    }
+
     /**
      * Get the operation handler at the given address, or {@code null} if none exists.
      *
@@ -128,6 +128,7 @@ final class NodeSubregistry {
             AbstractResourceRegistration parentRegistration = getParent();
             parentRegistration.setOrderedChild(keyName);
         }
+        parent.registrationChanged();
 
         return newRegistry;
     }
@@ -139,12 +140,14 @@ final class NodeSubregistry {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
         //register(elementValue, newRegistry);
+        parent.registrationChanged();
         return newRegistry;
     }
 
     void unregisterProxyController(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        parent.registrationChanged();
     }
 
     public AliasResourceRegistration registerAlias(final String elementValue, AliasEntry aliasEntry, AbstractResourceRegistration target) {
@@ -153,12 +156,14 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        parent.registrationChanged();
         return newRegistry;
     }
 
     public void unregisterAlias(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        parent.registrationChanged();
     }
 
 
@@ -174,6 +179,7 @@ final class NodeSubregistry {
             for (Capability c : rr.getCapabilities(EMPTY_ITERATOR)) {
                 capabilityRegistry.removePossibleCapability(c, pa);
             }
+            parent.registrationChanged();
         }
     }
 
@@ -167,6 +167,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
                 new OperationEntry(definition, handler, inherited)) != null) {
             throw alreadyRegistered("operation handler", definition.getName());
         }
+        registrationChanged();
     }
 
     @Override
@@ -174,6 +175,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (operationsUpdater.remove(this, operationName) == null) {
             throw operationNotRegisteredException(operationName, proxyController.getProxyNodeAddress().getLastElement());
         }
+        registrationChanged();
     }
 
     @Override
@@ -184,6 +186,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        registrationChanged();
     }
 
     @Override
@@ -194,11 +197,13 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        registrationChanged();
     }
 
     @Override
     public void unregisterAttribute(String attributeName) {
         attributesUpdater.remove(this, attributeName);
+        registrationChanged();
     }
 
     @Override
@@ -207,6 +212,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (attributesUpdater.putIfAbsent(this, definition.getName(), aa) != null) {
             throw alreadyRegistered("attribute", definition.getName());
         }
+        registrationChanged();
     }
 
     @Override
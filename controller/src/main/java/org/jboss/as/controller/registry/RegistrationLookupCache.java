@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.PathAddress;
+
+/**
+ * Cache of the {@link OperationEntry} and {@link AttributeAccess} lookups made against a root
+ * {@link AbstractResourceRegistration}, so repeated lookups for the same address do not have to walk the
+ * registration tree and take the read lock of every registration along the way.
+ * <p>
+ * Any change to the registration tree must call {@link #invalidate()} <em>after</em> the change has been made.
+ * Invalidation swaps in a fresh set of maps, so a lookup that raced with the change can only ever store its
+ * possibly stale result in maps that are no longer reachable. Only non-{@code null} results are cached.
+ */
+final class RegistrationLookupCache {
+
+    /** Upper bound on the number of entries held before the cache is discarded and refilled. */
+    private static final int MAX_ENTRIES = 16384;
+
+    private final Lookup<OperationEntry> operationLookup;
+    private final Lookup<AttributeAccess> attributeLookup;
+    private volatile Maps maps = new Maps();
+
+    RegistrationLookupCache(Lookup<OperationEntry> operationLookup, Lookup<AttributeAccess> attributeLookup) {
+        this.operationLookup = operationLookup;
+        this.attributeLookup = attributeLookup;
+    }
+
+    OperationEntry getOperationEntry(PathAddress address, String operationName) {
+        final Maps current = maps;
+        return get(current, current.operations, address, operationName, operationLookup);
+    }
+
+    AttributeAccess getAttributeAccess(PathAddress address, String attributeName) {
+        final Maps current = maps;
+        return get(current, current.attributes, address, attributeName, attributeLookup);
+    }
+
+    /**
+     * Discards all cached lookups.
+     */
+    void invalidate() {
+        maps = new Maps();
+    }
+
+    private <T> T get(Maps current, Map<PathAddress, Map<String, T>> cache, PathAddress address, String name, Lookup<T> lookup) {
+        Map<String, T> byName = cache.get(address);
+        T result = byName == null ? null : byName.get(name);
+        if (result == null) {
+            result = lookup.lookup(address, name);
+            if (result != null) {
+                if (current.size.incrementAndGet() > MAX_ENTRIES) {
+                    // Most likely lookups of arbitrary names against proxied resources; start over
+                    if (maps == current) {
+                        invalidate();
+                    }
+                    return result;
+                }
+                if (byName == null) {
+                    byName = cache.computeIfAbsent(address, a -> new ConcurrentHashMap<>());
+                }
+                byName.put(name, result);
+            }
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    interface Lookup<T> {
+        T lookup(PathAddress address, String name);
+    }
+
+    private static final class Maps {
+        private final Map<PathAddress, Map<String, OperationEntry>> operations = new ConcurrentHashMap<>();
+        private final Map<PathAddress, Map<String, AttributeAccess>> attributes = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+}
@@ -22,18 +22,22 @@
 package org.jboss.as.controller.remote;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_MECHANISM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTACHED_STREAMS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CALLER_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHUNKED_RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_UUID;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE_FOR_COORDINATOR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIME_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELOAD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SHUTDOWN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
@@ -44,14 +48,18 @@ import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -62,7 +70,9 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.client.helpers.ChunkedOperationResult;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.protocol.StreamUtils;
@@ -77,6 +87,7 @@ import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.ProtocolUtils;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.wildfly.security.auth.server.SecurityIdentity;
 
 /**
@@ -194,6 +205,8 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
             if (headers.hasDefined(SYNC_REMOVED_FOR_READD)) {
                 headers.remove(SYNC_REMOVED_FOR_READD);
             }
+            // Only affects how the result is sent back to this client, so don't pass it on
+            final boolean chunkedResult = headers.hasDefined(CHUNKED_RESULT) && headers.remove(CHUNKED_RESULT).asBoolean();
 
             final ManagementRequestHeader header = ManagementRequestHeader.class.cast(context.getRequestHeader());
             final int batchId = header.getBatchId();
@@ -240,7 +253,11 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                 ROOT_LOGGER.tracef("Executing client request %d(%d)", batchId, header.getRequestId());
                 OperationResponse response = controller.execute(attachmentsProxy, messageHandlerProxy, transactionControl);
 
-                responseAttachmentSupport.registerStreams(context.getOperationId(), response.getInputStreams());
+                List<OperationResponse.StreamEntry> streams = response.getInputStreams();
+                if (chunkedResult) {
+                    streams = chunkResult(response.getResponseNode(), streams);
+                }
+                responseAttachmentSupport.registerStreams(context.getOperationId(), streams);
 
                 result.set(response.getResponseNode());
             } catch (Throwable t) {
@@ -259,6 +276,37 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
 
     }
 
+    /**
+     * Moves a successful {@code OBJECT} or {@code LIST} result out of the response and into a response stream the
+     * client can read one chunk at a time.
+     *
+     * @param responseNode the response. Modified in place if the result is chunked
+     * @param streams the streams already associated with the response
+     * @return the streams to associate with the response
+     *
+     * @see ChunkedOperationResult
+     */
+    private static List<OperationResponse.StreamEntry> chunkResult(final ModelNode responseNode, final List<OperationResponse.StreamEntry> streams) {
+        if (!SUCCESS.equals(responseNode.get(OUTCOME).asString()) || !responseNode.has(RESULT)) {
+            return streams;
+        }
+        final ModelType type = responseNode.get(RESULT).getType();
+        if (type != ModelType.OBJECT && type != ModelType.LIST) {
+            return streams;
+        }
+        final ModelNode result = responseNode.remove(RESULT);
+        responseNode.get(RESULT);
+        final String uuid = UUID.randomUUID().toString();
+        final ModelNode responseHeaders = responseNode.get(RESPONSE_HEADERS);
+        responseHeaders.get(CHUNKED_RESULT).set(uuid);
+        final ModelNode streamNode = responseHeaders.get(ATTACHED_STREAMS).add();
+        streamNode.get(ModelDescriptionConstants.UUID).set(uuid);
+        streamNode.get(MIME_TYPE).set(ChunkedOperationResult.MIME_TYPE);
+        final List<OperationResponse.StreamEntry> chunkedStreams = new ArrayList<>(streams);
+        chunkedStreams.add(new ChunkedResultStreamEntry(uuid, ChunkedOperationResult.createStream(result)));
+        return chunkedStreams;
+    }
+
     /**
      * Determine whether the prepared response should be sent, before the operation completed. This is needed in order
      * that operations like :reload() can be executed without causing communication failures.
@@ -291,6 +339,36 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
         }
     }
 
+    private static final class ChunkedResultStreamEntry implements OperationResponse.StreamEntry {
+        private final String uuid;
+        private final InputStream stream;
+
+        private ChunkedResultStreamEntry(final String uuid, final InputStream stream) {
+            this.uuid = uuid;
+            this.stream = stream;
+        }
+
+        @Override
+        public String getUUID() {
+            return uuid;
+        }
+
+        @Override
+        public String getMimeType() {
+            return ChunkedOperationResult.MIME_TYPE;
+        }
+
+        @Override
+        public InputStream getStream() {
+            return stream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            StreamUtils.safeClose(stream);
+        }
+    }
+
     private static class CompletedCallback {
 
         private volatile boolean completed;
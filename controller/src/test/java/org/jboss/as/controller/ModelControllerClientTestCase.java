@@ -47,6 +47,9 @@ import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.client.helpers.ChunkedOperationResult;
+import org.jboss.as.controller.client.helpers.ClientConstants;
 import org.jboss.as.controller.client.impl.ExistingChannelModelControllerClient;
 import org.jboss.as.controller.client.impl.InputStreamEntry;
 import org.jboss.as.controller.remote.ModelControllerClientOperationHandler;
@@ -56,6 +59,7 @@ import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
 import org.jboss.as.protocol.mgmt.support.ManagementChannelInitialization;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.logging.Logger;
 import org.jboss.remoting3.Channel;
 import org.jboss.threads.AsyncFuture;
@@ -361,6 +365,59 @@ public class ModelControllerClientTestCase {
         }
     }
 
+    @Test
+    public void testChunkedResult() throws Exception {
+        final ModelNode expected = new ModelNode();
+        for (int i = 0; i < 1000; i++) {
+            expected.get("child-" + i, "value").set(i);
+            expected.get("child-" + i, "list").add("a").add(i);
+        }
+        final MockModelController controller = new MockModelController() {
+            @Override
+            public ModelNode execute(ModelNode operation, OperationMessageHandler handler, OperationTransactionControl control, OperationAttachments attachments) {
+                this.operation = operation;
+                final ModelNode response = new ModelNode();
+                response.get("outcome").set("success");
+                response.get("result").set(expected);
+                return response;
+            }
+        };
+        final ModelControllerClient client = setupTestClient(controller);
+        try {
+            final ModelNode op = new ModelNode();
+            op.get("operation").set("fake");
+            op.get(ClientConstants.OPERATION_HEADERS, ClientConstants.CHUNKED_RESULT).set(true);
+            try (OperationResponse response = client.executeOperation(OperationBuilder.create(op).build(), OperationMessageHandler.DISCARD)) {
+                Assert.assertFalse(controller.getOperation().get(ClientConstants.OPERATION_HEADERS).has(ClientConstants.CHUNKED_RESULT));
+                Assert.assertTrue(ChunkedOperationResult.isChunked(response.getResponseNode()));
+                Assert.assertFalse(response.getResponseNode().get("result").isDefined());
+                try (ChunkedOperationResult result = ChunkedOperationResult.of(response)) {
+                    Assert.assertEquals(ModelType.OBJECT, result.getType());
+                    final ModelNode first = result.next();
+                    Assert.assertEquals("child-0", first.asProperty().getName());
+                    Assert.assertEquals(expected.get("child-0"), first.asProperty().getValue());
+                    final ModelNode rest = result.readAll();
+                    Assert.assertEquals(999, rest.keys().size());
+                    rest.get("child-0").set(expected.get("child-0"));
+                    Assert.assertEquals(expected.keys().size(), rest.keys().size());
+                    for (String key : expected.keys()) {
+                        Assert.assertEquals(expected.get(key), rest.get(key));
+                    }
+                }
+            }
+
+            // Without the header the result is read from the response
+            op.get(ClientConstants.OPERATION_HEADERS).remove(ClientConstants.CHUNKED_RESULT);
+            try (OperationResponse response = client.executeOperation(OperationBuilder.create(op).build(), OperationMessageHandler.DISCARD);
+                 ChunkedOperationResult result = ChunkedOperationResult.of(response)) {
+                Assert.assertFalse(ChunkedOperationResult.isChunked(response.getResponseNode()));
+                Assert.assertEquals(expected, result.readAll());
+            }
+        } finally {
+            IoUtils.safeClose(client);
+        }
+    }
+
     private void assertArrays(byte[] expected, byte[] actual) {
         assertEquals(expected.length, actual.length);
         for (int i = 0 ; i < expected.length ; i++) {
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link OperationStatistics} and {@link LatencyHistogram}.
+ */
+public class OperationStatisticsUnitTestCase {
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(500500), histogram.getTotal());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), histogram.getMax());
+        assertApproximately(TimeUnit.MICROSECONDS.toNanos(500), histogram.getValueAtPercentile(50));
+        assertApproximately(TimeUnit.MICROSECONDS.toNanos(900), histogram.getValueAtPercentile(90));
+        assertApproximately(TimeUnit.MICROSECONDS.toNanos(990), histogram.getValueAtPercentile(99));
+        // The top bucket is bounded by the largest recorded value
+        Assert.assertEquals(histogram.getMax(), histogram.getValueAtPercentile(100));
+
+        final ModelNode model = histogram.toModelNode();
+        Assert.assertEquals(1000, model.get(LatencyHistogram.COUNT).asLong());
+        Assert.assertEquals(histogram.getValueAtPercentile(99.9), model.get(LatencyHistogram.P999).asLong());
+    }
+
+    @Test
+    public void testHistogramExtremes() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(3, histogram.getCount());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getMax());
+        Assert.assertTrue(histogram.getValueAtPercentile(100) > 0);
+    }
+
+    @Test
+    public void testLatencyByOperationAndResourceType() {
+        final OperationStatistics statistics = new OperationStatistics(0);
+        Assert.assertNull(statistics.createStepTimings());
+        final PathAddress address = PathAddress.pathAddress("subsystem", "test");
+        statistics.operationCompleted("read-resource", address, "/subsystem=test", 1000, 0, null);
+        statistics.operationCompleted("read-resource", PathAddress.EMPTY_ADDRESS, "", 3000, 0, null);
+        statistics.operationCompleted("add", address, null, 2000, 1500, null);
+
+        final ModelNode operationLatency = statistics.getOperationLatency();
+        Assert.assertEquals(2, operationLatency.get("read-resource", LatencyHistogram.COUNT).asLong());
+        Assert.assertEquals(4000, operationLatency.get("read-resource", LatencyHistogram.TOTAL_TIME).asLong());
+        Assert.assertEquals(1, operationLatency.get("add", LatencyHistogram.COUNT).asLong());
+        final ModelNode resourceTypeLatency = statistics.getResourceTypeLatency();
+        Assert.assertEquals(1, resourceTypeLatency.get("/subsystem=test", LatencyHistogram.COUNT).asLong());
+        Assert.assertEquals(1, resourceTypeLatency.get("", LatencyHistogram.COUNT).asLong());
+        Assert.assertEquals(0, statistics.getSlowOperations().asInt());
+    }
+
+    @Test
+    public void testSlowOperations() {
+        final OperationStatistics statistics = new OperationStatistics(1);
+        final PathAddress address = PathAddress.pathAddress("subsystem", "test");
+
+        OperationStatistics.StepTimings timings = statistics.createStepTimings();
+        Assert.assertNotNull(timings);
+        timings.record(OperationContext.Stage.MODEL, "add", address, 10);
+        statistics.operationCompleted("add", address, "/subsystem=test", TimeUnit.MICROSECONDS.toNanos(10), 0, timings);
+        Assert.assertEquals("Fast operation was retained", 0, statistics.getSlowOperations().asInt());
+
+        for (int i = 0; i < 25; i++) {
+            timings = statistics.createStepTimings();
+            timings.record(OperationContext.Stage.MODEL, "add", address, TimeUnit.MILLISECONDS.toNanos(1));
+            timings.record(OperationContext.Stage.RUNTIME, "add", address, TimeUnit.MILLISECONDS.toNanos(1));
+            statistics.operationCompleted("op" + i, address, "/subsystem=test", TimeUnit.MILLISECONDS.toNanos(2), 0, timings);
+        }
+        final List<ModelNode> slow = statistics.getSlowOperations().asList();
+        // Only the most recent are retained
+        Assert.assertEquals(20, slow.size());
+        Assert.assertEquals("op5", slow.get(0).get(OP).asString());
+        Assert.assertEquals("op24", slow.get(19).get(OP).asString());
+        final List<ModelNode> steps = slow.get(0).get(STEPS).asList();
+        Assert.assertEquals(2, steps.size());
+        Assert.assertEquals(OperationContext.Stage.RUNTIME.toString(), steps.get(1).get("stage").asString());
+    }
+
+    private static void assertApproximately(long expected, long actual) {
+        Assert.assertTrue(expected + " != " + actual, Math.abs(expected - actual) <= expected / 10);
+    }
+}
@@ -35,6 +35,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.Environment;
 import org.jboss.as.controller.access.JmxAction;
@@ -118,8 +119,79 @@ public class ManagementPermissionAuthorizerTestCase {
         assertEquals(AuthorizationResult.Decision.DENY, result.getDecision());
     }
 
+    @Test
+    public void testDecisionCache() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache();
+        ManagementPermissionAuthorizer cachingAuthorizer = new ManagementPermissionAuthorizer(new SimplePermissionFactory(), cache);
+        TargetResource targetResource = TargetResource.forStandalone(PathAddress.EMPTY_ADDRESS, ROOT_RR, null);
+        Action read = new Action(null, null, EnumSet.of(Action.ActionEffect.ADDRESS, Action.ActionEffect.READ_CONFIG));
+        Action write = new Action(null, null, EnumSet.of(Action.ActionEffect.ADDRESS, Action.ActionEffect.WRITE_CONFIG));
+
+        assertEquals(AuthorizationResult.Decision.PERMIT, cachingAuthorizer.authorize(identity, environment, read, targetResource).getDecision());
+        assertEquals(AuthorizationResult.Decision.PERMIT, cachingAuthorizer.authorize(identity, environment, read, targetResource).getDecision());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+
+        assertEquals(AuthorizationResult.Decision.DENY, cachingAuthorizer.authorize(identity, environment, write, targetResource).getDecision());
+        assertEquals(AuthorizationResult.Decision.DENY, cachingAuthorizer.authorize(identity, environment, write, targetResource).getDecision());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+
+        cache.invalidate();
+        assertEquals(AuthorizationResult.Decision.PERMIT, cachingAuthorizer.authorize(identity, environment, read, targetResource).getDecision());
+        assertEquals(3, cache.getMissCount());
+    }
+
     // ---
 
+    /** Hands out the same user permissions each time, as the standard permission factory does for a given set of roles */
+    private static final class SimplePermissionFactory implements PermissionFactory {
+        private final ManagementPermissionCollection userPermissions = new ManagementPermissionCollection("test", SimpleManagementPermission.class);
+
+        private SimplePermissionFactory() {
+            userPermissions.add(new SimpleManagementPermission(Action.ActionEffect.ADDRESS));
+            userPermissions.add(new SimpleManagementPermission(Action.ActionEffect.READ_CONFIG));
+        }
+
+        private PermissionCollection getRequiredPermissions(Action action) {
+            ManagementPermissionCollection mpc = new ManagementPermissionCollection(SimpleManagementPermission.class);
+            for (Action.ActionEffect actionEffect : action.getActionEffects()) {
+                mpc.add(new SimpleManagementPermission(actionEffect));
+            }
+            return mpc;
+        }
+
+        @Override
+        public PermissionCollection getUserPermissions(SecurityIdentity identity, Environment callEnvironment, Action action, TargetAttribute target) {
+            return userPermissions;
+        }
+
+        @Override
+        public PermissionCollection getUserPermissions(SecurityIdentity identity, Environment callEnvironment, Action action, TargetResource target) {
+            return userPermissions;
+        }
+
+        @Override
+        public PermissionCollection getRequiredPermissions(Action action, TargetAttribute target) {
+            return getRequiredPermissions(action);
+        }
+
+        @Override
+        public PermissionCollection getRequiredPermissions(Action action, TargetResource target) {
+            return getRequiredPermissions(action);
+        }
+
+        @Override
+        public PermissionCollection getUserPermissions(SecurityIdentity identity, Environment callEnvironment, JmxAction action, JmxTarget target) {
+            return null;
+        }
+
+        @Override
+        public PermissionCollection getRequiredPermissions(JmxAction action, JmxTarget target) {
+            return null;
+        }
+    }
+
     private static final class TestPermissionFactory implements PermissionFactory {
         private PermissionCollection getUserPermissions() {
             ManagementPermissionCollection mpc = new ManagementPermissionCollection("test", TestManagementPermission.class);
@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.operation.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SELECT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WHERE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.ModelOnlyRemoveStepHandler;
+import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.test.AbstractControllerTestBase;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the cost of the {@code query} operation, measured as the number of runtime metric reads it triggers,
+ * with that of a plain {@code read-resource} on a model with many metrics, and checks both return the same data.
+ */
+public class QueryOperationPushdownTestCase extends AbstractControllerTestBase {
+
+    private static final int RESOURCES = 20;
+    private static final int MATCHING = 5;
+    private static final int METRICS = 50;
+
+    private static final PathElement ITEM = PathElement.pathElement("item");
+    private static final PathAddress ITEMS = PathAddress.pathAddress(PathElement.pathElement("subsystem", "test"), ITEM);
+
+    private static final AttributeDefinition ENABLED = new SimpleAttributeDefinitionBuilder("enabled", ModelType.BOOLEAN)
+            .setRequired(false)
+            .setDefaultValue(ModelNode.FALSE)
+            .build();
+    private static final AttributeDefinition LABEL = new SimpleAttributeDefinitionBuilder("label", ModelType.STRING)
+            .setRequired(false)
+            .build();
+    private static final AttributeDefinition[] METRIC_ATTRIBUTES = new AttributeDefinition[METRICS];
+
+    static {
+        for (int i = 0; i < METRICS; i++) {
+            METRIC_ATTRIBUTES[i] = new SimpleAttributeDefinitionBuilder("metric-" + i, ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+        }
+    }
+
+    private final AtomicInteger metricReads = new AtomicInteger();
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+        GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+
+        final OperationStepHandler metricHandler = (context, operation) -> {
+            metricReads.incrementAndGet();
+            context.getResult().set(42L);
+        };
+        rootRegistration.registerSubModel(ResourceBuilder.Factory.create(ITEMS.getElement(0), NonResolvingResourceDescriptionResolver.INSTANCE)
+                .setAddOperation(new ModelOnlyAddStepHandler())
+                .setRemoveOperation(ModelOnlyRemoveStepHandler.INSTANCE)
+                .pushChild(ITEM, NonResolvingResourceDescriptionResolver.INSTANCE, new ModelOnlyAddStepHandler(ENABLED, LABEL), ModelOnlyRemoveStepHandler.INSTANCE)
+                .addReadWriteAttributes(null, new ModelOnlyWriteAttributeHandler(ENABLED, LABEL), ENABLED, LABEL)
+                .addMetrics(metricHandler, METRIC_ATTRIBUTES)
+                .pop()
+                .build());
+    }
+
+    @Before
+    public void addResources() throws Exception {
+        executeCheckNoFailure(Util.createAddOperation(ITEMS.getParent()));
+        for (int i = 0; i < RESOURCES; i++) {
+            ModelNode add = Util.createAddOperation(ITEMS.getParent().append(ITEM.getKey(), "item-" + i));
+            add.get(ENABLED.getName()).set(i < MATCHING);
+            add.get(LABEL.getName()).set("label-" + i);
+            executeCheckNoFailure(add);
+        }
+        metricReads.set(0);
+    }
+
+    @Test
+    public void testReadResourceReadsAllMetrics() throws Exception {
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, ITEMS);
+        op.get(INCLUDE_RUNTIME).set(true);
+        Assert.assertEquals(RESOURCES, executeForResult(op).asInt());
+        Assert.assertEquals(RESOURCES * METRICS, metricReads.get());
+    }
+
+    @Test
+    public void testConfigurationFilterReadsMetricsOfMatchesOnly() throws Exception {
+        ModelNode op = createQuery();
+        op.get(WHERE, ENABLED.getName()).set(true);
+        op.get(SELECT).add(LABEL.getName()).add("metric-0");
+
+        List<ModelNode> results = executeForResult(op).asList();
+        Assert.assertEquals(MATCHING, results.size());
+        Assert.assertEquals(MATCHING, metricReads.get());
+        List<String> labels = new ArrayList<>();
+        for (ModelNode item : results) {
+            ModelNode result = item.get(RESULT);
+            Assert.assertEquals(2, result.keys().size());
+            Assert.assertEquals(42L, result.get("metric-0").asLong());
+            labels.add(result.get(LABEL.getName()).asString());
+        }
+        for (int i = 0; i < MATCHING; i++) {
+            Assert.assertTrue(labels.contains("label-" + i));
+        }
+    }
+
+    @Test
+    public void testConfigurationFilterWithoutSelectReadsMatchingResources() throws Exception {
+        ModelNode op = createQuery();
+        op.get(WHERE, ENABLED.getName()).set(true);
+
+        List<ModelNode> results = executeForResult(op).asList();
+        Assert.assertEquals(MATCHING, results.size());
+        Assert.assertEquals(MATCHING * METRICS, metricReads.get());
+
+        ModelNode read = Util.createEmptyOperation(READ_RESOURCE_OPERATION, ITEMS.getParent().append(ITEM.getKey(), "item-0"));
+        read.get(INCLUDE_RUNTIME).set(true);
+        ModelNode expected = executeForResult(read);
+        for (ModelNode item : results) {
+            if (PathAddress.pathAddress(item.get("address")).getLastElement().getValue().equals("item-0")) {
+                Assert.assertEquals(expected, item.get(RESULT));
+            }
+        }
+    }
+
+    @Test
+    public void testRuntimeFilterReadsOnlyNeededMetrics() throws Exception {
+        ModelNode op = createQuery();
+        op.get(WHERE, "metric-1").set(42L);
+        op.get(SELECT).add(LABEL.getName());
+
+        List<ModelNode> results = executeForResult(op).asList();
+        Assert.assertEquals(RESOURCES, results.size());
+        Assert.assertEquals(RESOURCES, metricReads.get());
+        for (ModelNode item : results) {
+            Assert.assertEquals(1, item.get(RESULT).keys().size());
+        }
+    }
+
+    @Test
+    public void testNoMatches() throws Exception {
+        ModelNode op = createQuery();
+        op.get(WHERE, LABEL.getName()).set("none");
+        op.get(SELECT).add("metric-0");
+
+        Assert.assertTrue(executeForResult(op).asList().isEmpty());
+        Assert.assertEquals(0, metricReads.get());
+    }
+
+    private static ModelNode createQuery() {
+        return Util.createEmptyOperation(QUERY, ITEMS);
+    }
+}
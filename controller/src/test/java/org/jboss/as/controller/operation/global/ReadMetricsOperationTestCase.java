@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.operation.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.ModelOnlyRemoveStepHandler;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.operations.global.ReadMetricsHandler;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.test.AbstractControllerTestBase;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the OpenMetrics exposition produced by the private {@code read-metrics} operation.
+ */
+public class ReadMetricsOperationTestCase extends AbstractControllerTestBase {
+
+    private static final int WORKERS = 200;
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+    private static final PathElement WORKER = PathElement.pathElement("worker");
+    private static final PathElement EXTRA = PathElement.pathElement("extra", "one");
+
+    private static final AttributeDefinition REQUESTS = new SimpleAttributeDefinitionBuilder("request-count", ModelType.LONG)
+            .setStorageRuntime()
+            .addFlag(AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+    private static final AttributeDefinition BUSY = new SimpleAttributeDefinitionBuilder("busy-threads", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+    private static final AttributeDefinition QUEUE_TIME = new SimpleAttributeDefinitionBuilder("queue-time", ModelType.LONG)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    private static final AttributeDefinition STATE = new SimpleAttributeDefinitionBuilder("state", ModelType.STRING)
+            .setStorageRuntime()
+            .build();
+    private static final AttributeDefinition BROKEN = new SimpleAttributeDefinitionBuilder("broken", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private final AtomicInteger metricReads = new AtomicInteger();
+    private final AtomicInteger descriptionReads = new AtomicInteger();
+    private ManagementResourceRegistration subsystemRegistration;
+
+    @Override
+    @SuppressWarnings("deprecation")
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+        GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+
+        final NonResolvingResourceDescriptionResolver resolver = new NonResolvingResourceDescriptionResolver() {
+            @Override
+            public String getResourceAttributeDescription(String attributeName, Locale locale, ResourceBundle bundle) {
+                descriptionReads.incrementAndGet();
+                return "The \"" + attributeName + "\" metric";
+            }
+        };
+        final OperationStepHandler metricHandler = (context, operation) -> {
+            metricReads.incrementAndGet();
+            final String name = operation.require("name").asString();
+            if (name.equals(STATE.getName())) {
+                context.getResult().set("running");
+            } else if (name.equals(BROKEN.getName())) {
+                throw new OperationFailedException("broken");
+            } else {
+                context.getResult().set(context.getCurrentAddressValue().length() + name.length());
+            }
+        };
+        subsystemRegistration = rootRegistration.registerSubModel(ResourceBuilder.Factory.create(SUBSYSTEM, resolver)
+                .setAddOperation(new ModelOnlyAddStepHandler())
+                .setRemoveOperation(ModelOnlyRemoveStepHandler.INSTANCE)
+                .pushChild(WORKER, resolver, new ModelOnlyAddStepHandler(), ModelOnlyRemoveStepHandler.INSTANCE)
+                .addMetrics(metricHandler, REQUESTS, BUSY, QUEUE_TIME, STATE)
+                .pop()
+                .build());
+    }
+
+    @Before
+    public void addResources() throws Exception {
+        executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM)));
+        executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement(WORKER.getKey(), "default"))));
+        executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement(WORKER.getKey(), "a\"b"))));
+    }
+
+    @Test
+    public void testExposition() throws Exception {
+        final String expected = "# TYPE wildfly_test_busy_threads gauge\n" +
+                "# HELP wildfly_test_busy_threads The \\\"busy-threads\\\" metric\n" +
+                "wildfly_test_busy_threads{worker=\"default\"} 19\n" +
+                "wildfly_test_busy_threads{worker=\"a\\\"b\"} 15\n" +
+                "# TYPE wildfly_test_queue_time_milliseconds gauge\n" +
+                "# UNIT wildfly_test_queue_time_milliseconds milliseconds\n" +
+                "# HELP wildfly_test_queue_time_milliseconds The \\\"queue-time\\\" metric\n" +
+                "wildfly_test_queue_time_milliseconds{worker=\"default\"} 17\n" +
+                "wildfly_test_queue_time_milliseconds{worker=\"a\\\"b\"} 13\n" +
+                "# TYPE wildfly_test_request_count counter\n" +
+                "# HELP wildfly_test_request_count The \\\"request-count\\\" metric\n" +
+                "wildfly_test_request_count_total{worker=\"default\"} 20\n" +
+                "wildfly_test_request_count_total{worker=\"a\\\"b\"} 16\n" +
+                "# EOF\n";
+        Assert.assertEquals(expected, scrape());
+        // Non-numeric metrics are not read
+        Assert.assertEquals(6, metricReads.get());
+    }
+
+    @Test
+    public void testIndexReusedUntilRegistrationChanges() throws Exception {
+        scrape();
+        final int descriptions = descriptionReads.get();
+        Assert.assertTrue(descriptions > 0);
+        scrape();
+        Assert.assertEquals(descriptions, descriptionReads.get());
+
+        // A new registration must be picked up by the next scrape
+        subsystemRegistration.registerSubModel(ResourceBuilder.Factory.create(EXTRA, NonResolvingResourceDescriptionResolver.INSTANCE)
+                .setAddOperation(new ModelOnlyAddStepHandler())
+                .setRemoveOperation(ModelOnlyRemoveStepHandler.INSTANCE)
+                .addMetric(BROKEN, (context, operation) -> context.getResult().set(7L))
+                .build());
+        executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM, EXTRA)));
+        final String exposition = scrape();
+        Assert.assertTrue(exposition, exposition.contains("\nwildfly_test_broken{extra=\"one\"} 7\n"));
+        Assert.assertTrue(descriptionReads.get() > descriptions);
+    }
+
+    @Test
+    public void testFailedMetricOmitted() throws Exception {
+        subsystemRegistration.registerSubModel(ResourceBuilder.Factory.create(EXTRA, NonResolvingResourceDescriptionResolver.INSTANCE)
+                .setAddOperation(new ModelOnlyAddStepHandler())
+                .setRemoveOperation(ModelOnlyRemoveStepHandler.INSTANCE)
+                .addMetric(BROKEN, (context, operation) -> {
+                    throw new OperationFailedException("broken");
+                })
+                .build());
+        executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM, EXTRA)));
+        final String exposition = scrape();
+        Assert.assertFalse(exposition, exposition.contains("broken"));
+        Assert.assertTrue(exposition, exposition.contains("wildfly_test_request_count_total{worker=\"default\"} 20\n"));
+    }
+
+    /**
+     * Local scrape of a larger model; checks every metric is read exactly once per scrape.
+     */
+    @Test
+    public void testScrapeManyResources() throws Exception {
+        for (int i = 0; i < WORKERS; i++) {
+            executeCheckNoFailure(Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement(WORKER.getKey(), "worker-" + i))));
+        }
+        final int scrapes = 10;
+        for (int i = 0; i < scrapes; i++) {
+            metricReads.set(0);
+            final String exposition = scrape();
+            Assert.assertEquals((WORKERS + 2) * 3, metricReads.get());
+            Assert.assertTrue(exposition.endsWith("# EOF\n"));
+        }
+    }
+
+    private String scrape() throws IOException {
+        final ModelNode op = Util.createEmptyOperation(ReadMetricsHandler.OPERATION_NAME, PathAddress.EMPTY_ADDRESS);
+        try (OperationResponse response = controller.execute(OperationBuilder.create(op).build(), null, ModelController.OperationTransactionControl.COMMIT)) {
+            Assert.assertEquals(response.getResponseNode().toString(), SUCCESS, response.getResponseNode().get(OUTCOME).asString());
+            Assert.assertEquals(1, response.getInputStreams().size());
+            final OperationResponse.StreamEntry entry = response.getInputStreams().get(0);
+            Assert.assertEquals(ReadMetricsHandler.MEDIA_TYPE, entry.getMimeType());
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = entry.getStream()) {
+                final byte[] buffer = new byte[64];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
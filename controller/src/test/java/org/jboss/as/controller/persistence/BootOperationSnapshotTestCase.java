@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MODULE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link BootOperationSnapshot}.
+ */
+public class BootOperationSnapshotTestCase {
+
+    private static final String PARSER_MODULE = "org.jboss.as.server";
+    private static final String EXTENSION_MODULE = "org.wildfly.extension.test";
+    private static final String DIGEST = "0123456789abcdef";
+
+    private File baseDir;
+    private File moduleRoot;
+    private File snapshotFile;
+    private List<File> moduleRoots;
+
+    @Before
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory(new File("target").toPath(), "boot-ops").toFile();
+        moduleRoot = new File(baseDir, "modules");
+        snapshotFile = new File(baseDir, "standalone.xml.bootops");
+        moduleRoots = Collections.singletonList(moduleRoot);
+        createModule(moduleRoot, PARSER_MODULE, "server.jar", "server");
+        createModule(moduleRoot, EXTENSION_MODULE, "test.jar", "test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        deleteRecursively(baseDir);
+    }
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        final List<ModelNode> operations = createOperations();
+        store(operations);
+
+        final List<ModelNode> loaded = BootOperationSnapshot.load(snapshotFile, DIGEST, PARSER_MODULE, moduleRoots);
+        Assert.assertEquals(operations, loaded);
+    }
+
+    @Test
+    public void testConfigurationChangeInvalidates() throws Exception {
+        store(createOperations());
+
+        Assert.assertNull(BootOperationSnapshot.load(snapshotFile, "fedcba9876543210", PARSER_MODULE, moduleRoots));
+    }
+
+    @Test
+    public void testReplacedJarInvalidates() throws Exception {
+        store(createOperations());
+
+        // Same version, same name, different content
+        final File jar = new File(moduleDir(moduleRoot, EXTENSION_MODULE), "test.jar");
+        Files.write(jar.toPath(), "patched test".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNull(BootOperationSnapshot.load(snapshotFile, DIGEST, PARSER_MODULE, moduleRoots));
+    }
+
+    @Test
+    public void testTouchedModuleXmlInvalidates() throws Exception {
+        store(createOperations());
+
+        final File moduleXml = new File(moduleDir(moduleRoot, PARSER_MODULE), "module.xml");
+        Assert.assertTrue(moduleXml.setLastModified(moduleXml.lastModified() - 60_000));
+        Assert.assertNull(BootOperationSnapshot.load(snapshotFile, DIGEST, PARSER_MODULE, moduleRoots));
+    }
+
+    @Test
+    public void testOverlayInvalidates() throws Exception {
+        store(createOperations());
+
+        final File overlay = new File(baseDir, "overlay");
+        createModule(overlay, EXTENSION_MODULE, "test.jar", "overlaid test");
+        Assert.assertNull(BootOperationSnapshot.load(snapshotFile, DIGEST, PARSER_MODULE, Arrays.asList(overlay, moduleRoot)));
+    }
+
+    @Test
+    public void testMissingModuleHasNoSnapshot() throws Exception {
+        final List<ModelNode> operations = createOperations();
+        Assert.assertNull(BootOperationSnapshot.create(DIGEST, "org.jboss.as.missing", operations, moduleRoots));
+        Assert.assertNull(BootOperationSnapshot.create(DIGEST, PARSER_MODULE, operations, null));
+
+        store(operations);
+        deleteRecursively(moduleDir(moduleRoot, EXTENSION_MODULE));
+        Assert.assertNull(BootOperationSnapshot.load(snapshotFile, DIGEST, PARSER_MODULE, moduleRoots));
+    }
+
+    @Test
+    public void testFingerprintSlot() throws Exception {
+        Assert.assertNotNull(BootOperationSnapshot.fingerprint(EXTENSION_MODULE, moduleRoots));
+        Assert.assertNull(BootOperationSnapshot.fingerprint(EXTENSION_MODULE + ":other", moduleRoots));
+        Assert.assertEquals(BootOperationSnapshot.fingerprint(EXTENSION_MODULE, moduleRoots),
+                BootOperationSnapshot.fingerprint(EXTENSION_MODULE + ":main", moduleRoots));
+    }
+
+    private void store(List<ModelNode> operations) throws Exception {
+        final BootOperationSnapshot snapshot = BootOperationSnapshot.create(DIGEST, PARSER_MODULE, operations, moduleRoots);
+        Assert.assertNotNull(snapshot);
+        snapshot.store(snapshotFile);
+        Assert.assertTrue(snapshotFile.isFile());
+    }
+
+    private static List<ModelNode> createOperations() {
+        final ModelNode extensionAdd = new ModelNode();
+        extensionAdd.get(OP).set(ADD);
+        extensionAdd.get(OP_ADDR).set(PathAddress.pathAddress(EXTENSION, EXTENSION_MODULE).toModelNode());
+        extensionAdd.get(MODULE).set(EXTENSION_MODULE);
+
+        final ModelNode subsystemAdd = new ModelNode();
+        subsystemAdd.get(OP).set(ADD);
+        subsystemAdd.get(OP_ADDR).set(PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, "test")).toModelNode());
+        subsystemAdd.get("value").set(42);
+        return Arrays.asList(extensionAdd, subsystemAdd);
+    }
+
+    private static File moduleDir(File root, String name) {
+        return new File(root, name.replace('.', File.separatorChar) + File.separatorChar + "main");
+    }
+
+    private static void createModule(File root, String name, String jarName, String jarContent) throws IOException {
+        final File dir = moduleDir(root, name);
+        Assert.assertTrue(dir.mkdirs());
+        Files.write(new File(dir, "module.xml").toPath(),
+                ("<module name=\"" + name + "\"><resources><resource-root path=\"" + jarName + "\"/></resources></module>").getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(dir, jarName).toPath(), jarContent.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void deleteRecursively(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -85,6 +85,32 @@ public class CoreManagementResourceRegistrationUnitTestCase {
         assertSame(TestHandler.TWO, twoHandler);
     }
 
+    @Test
+    public void testOperationLookupsSeeRegistrationChanges() throws Exception {
+
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, NonResolvingResourceDescriptionResolver.INSTANCE));
+        child.registerOperationHandler(getOpDef("one"), TestHandler.ONE);
+
+        assertSame(TestHandler.ONE, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+        assertNull(rootRegistration.getOperationHandler(fullChildAddress, "two"));
+
+        // A specific registration takes precedence over the cached wildcard lookup
+        ManagementResourceRegistration override = rootRegistration.registerSubModel(new SimpleResourceDefinition(fullChildElement, NonResolvingResourceDescriptionResolver.INSTANCE));
+        override.registerOperationHandler(getOpDef("one"), TestHandler.TWO);
+        assertSame(TestHandler.TWO, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+
+        rootRegistration.unregisterSubModel(fullChildElement);
+        assertSame(TestHandler.ONE, rootRegistration.getOperationHandler(fullChildAddress, "one"));
+
+        // Inherited operations registered after a lookup are visible
+        rootRegistration.registerOperationHandler(getOpDef("two"), TestHandler.TWO, true);
+        assertSame(TestHandler.TWO, rootRegistration.getOperationHandler(fullChildAddress, "two"));
+
+        child.unregisterOperationHandler("one");
+        assertNull(rootRegistration.getOperationHandler(fullChildAddress, "one"));
+        assertNull(child.getOperationHandler(PathAddress.EMPTY_ADDRESS, "one"));
+    }
+
     @Test
     public void testHandlersOnChildResource() throws Exception {
 
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_LATENCY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_LOCK_HOLD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_LOCK_WAIT;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.LatencyHistogram;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.ModelOnlyRemoveStepHandler;
+import org.jboss.as.controller.OperationStatistics;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that handlers read the {@link OperationStatistics} of the controller executing their operation.
+ */
+public class OperationStatisticsTestCase extends AbstractControllerTestBase {
+
+    private static final AttributeDefinition OPERATION_LATENCY_ATTRIBUTE =
+            SimpleAttributeDefinitionBuilder.create(OPERATION_LATENCY, ModelType.OBJECT).build();
+    private static final AttributeDefinition WRITE_LOCK_WAIT_ATTRIBUTE =
+            SimpleAttributeDefinitionBuilder.create(WRITE_LOCK_WAIT, ModelType.OBJECT).build();
+    private static final AttributeDefinition WRITE_LOCK_HOLD_ATTRIBUTE =
+            SimpleAttributeDefinitionBuilder.create(WRITE_LOCK_HOLD, ModelType.OBJECT).build();
+    private static final PathAddress CHILD = PathAddress.pathAddress(PathElement.pathElement("child", "one"));
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        GlobalNotifications.registerGlobalNotifications(registration, processType);
+        registration.registerMetric(OPERATION_LATENCY_ATTRIBUTE, (context, operation) ->
+                context.getResult().set(OperationStatistics.getOperationStatistics(context).getOperationLatency()));
+        registration.registerMetric(WRITE_LOCK_WAIT_ATTRIBUTE, (context, operation) ->
+                context.getResult().set(OperationStatistics.getOperationStatistics(context).getWriteLockWait()));
+        registration.registerMetric(WRITE_LOCK_HOLD_ATTRIBUTE, (context, operation) ->
+                context.getResult().set(OperationStatistics.getOperationStatistics(context).getWriteLockHold()));
+        registration.registerSubModel(new SimpleResourceDefinition(
+                new SimpleResourceDefinition.Parameters(CHILD.getLastElement(), NonResolvingResourceDescriptionResolver.INSTANCE)
+                        .setAddHandler(new ModelOnlyAddStepHandler())
+                        .setRemoveHandler(ModelOnlyRemoveStepHandler.INSTANCE)));
+    }
+
+    @Test
+    public void testReadStatistics() throws Exception {
+        executeCheckNoFailure(Util.createAddOperation(CHILD));
+
+        ModelNode latency = executeForResult(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, OPERATION_LATENCY));
+        Assert.assertEquals(1, latency.get(ADD, LatencyHistogram.COUNT).asLong());
+        Assert.assertFalse(latency.has(READ_ATTRIBUTE_OPERATION));
+
+        // The previous read has completed by now
+        latency = executeForResult(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, OPERATION_LATENCY));
+        Assert.assertEquals(1, latency.get(READ_ATTRIBUTE_OPERATION, LatencyHistogram.COUNT).asLong());
+
+        // Only the add took the write lock
+        ModelNode lockWait = executeForResult(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, WRITE_LOCK_WAIT));
+        Assert.assertEquals(1, lockWait.get(LatencyHistogram.COUNT).asLong());
+        ModelNode lockHold = executeForResult(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, WRITE_LOCK_HOLD));
+        Assert.assertEquals(1, lockHold.get(LatencyHistogram.COUNT).asLong());
+    }
+}
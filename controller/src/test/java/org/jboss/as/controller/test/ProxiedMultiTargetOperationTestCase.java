@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AccessAuditContext;
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.ModelOnlyRemoveStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.security.auth.server.SecurityDomain;
+import org.wildfly.security.auth.server.SecurityIdentity;
+import org.wildfly.security.auth.server.SecurityRealm;
+
+/**
+ * Tests that read-only operations targeting multiple proxied processes are executed against them concurrently,
+ * while the results are still reported in the order of the targets.
+ */
+public class ProxiedMultiTargetOperationTestCase extends AbstractControllerTestBase {
+
+    private static final int SERVERS = 8;
+    private static final PathAddress SUBSYSTEM = PathAddress.pathAddress(PathElement.pathElement("subsystem", "test"));
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger prepared = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final Map<String, Long> delays = new ConcurrentHashMap<>();
+    private final Map<String, String> identities = new ConcurrentHashMap<>();
+    private final Map<String, InetAddress> remoteAddresses = new ConcurrentHashMap<>();
+    private volatile String failingServer;
+    private volatile ManagementResourceRegistration subsystemRegistration;
+
+    @Override
+    protected ModelControllerService createModelControllerService(ProcessType processType) {
+        return new ModelControllerService(processType, new RunningModeControl(RunningMode.NORMAL), () -> executor);
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        GlobalNotifications.registerGlobalNotifications(registration, processType);
+
+        subsystemRegistration = registration.registerSubModel(new SimpleResourceDefinition(
+                new SimpleResourceDefinition.Parameters(SUBSYSTEM.getLastElement(), NonResolvingResourceDescriptionResolver.INSTANCE)
+                        .setAddHandler(new ModelOnlyAddStepHandler())
+                        .setRemoveHandler(ModelOnlyRemoveStepHandler.INSTANCE)));
+        for (int i = 0; i < SERVERS; i++) {
+            PathElement server = PathElement.pathElement("server", "server-" + i);
+            subsystemRegistration.registerProxyController(server, new SlowProxyController(SUBSYSTEM.append(server)));
+        }
+    }
+
+    @Before
+    public void addSubsystem() throws Exception {
+        executeCheckNoFailure(Util.createAddOperation(SUBSYSTEM));
+    }
+
+    @After
+    public void shutdownExecutor() throws Exception {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testConcurrentExecutionInTargetOrder() throws Exception {
+        List<String> targets = getTargetOrder();
+        // Make the targets complete in the reverse of their order
+        for (int i = 0; i < targets.size(); i++) {
+            delays.put(targets.get(i), 100L + 50L * (targets.size() - i));
+        }
+
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM.append("server", "*"));
+        op.get(INCLUDE_RUNTIME).set(true);
+        List<ModelNode> results = executeForResult(op).asList();
+
+        assertEquals(SERVERS, results.size());
+        for (int i = 0; i < SERVERS; i++) {
+            ModelNode item = results.get(i);
+            String server = PathAddress.pathAddress(item.get(OP_ADDR)).getLastElement().getValue();
+            assertEquals(targets.get(i), server);
+            assertEquals(server, item.get(RESULT, NAME).asString());
+        }
+        assertTrue("Targets were not executed concurrently", maxRunning.get() > 1);
+        assertEquals(SERVERS, prepared.get());
+        assertEquals(SERVERS, completed.get());
+    }
+
+    @Test
+    public void testFailedTargetCompletesOthers() throws Exception {
+        List<String> targets = getTargetOrder();
+        for (String target : targets) {
+            delays.put(target, 100L);
+        }
+        failingServer = targets.get(SERVERS / 2);
+
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM.append("server", "*"));
+        op.get(INCLUDE_RUNTIME).set(true);
+        getController().execute(op, null, null, null);
+
+        // Every target that prepared must have been told the outcome of its transaction
+        assertEquals(SERVERS - 1, prepared.get());
+        assertEquals(SERVERS - 1, completed.get());
+    }
+
+    @Test
+    public void testCallerIdentityReachesProxies() throws Exception {
+        SecurityIdentity identity = SecurityDomain.builder()
+                .setDefaultRealmName("Empty")
+                .addRealm("Empty", SecurityRealm.EMPTY_REALM).build()
+                .build()
+                .createAdHocIdentity("monitor");
+        InetAddress remoteAddress = InetAddress.getByName("192.0.2.1");
+
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM.append("server", "*"));
+        op.get(INCLUDE_RUNTIME).set(true);
+        ModelNode response = AccessAuditContext.doAs(identity, remoteAddress,
+                (PrivilegedAction<ModelNode>) () -> getController().execute(op, null, null, null));
+
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        assertEquals(SERVERS, identities.size());
+        for (String target : getTargetOrder()) {
+            assertEquals("monitor", identities.get(target));
+            assertEquals(remoteAddress, remoteAddresses.get(target));
+        }
+    }
+
+    private List<String> getTargetOrder() {
+        List<String> targets = new ArrayList<>();
+        for (PathElement element : subsystemRegistration.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
+            targets.add(element.getValue());
+        }
+        return targets;
+    }
+
+    private class SlowProxyController implements ProxyController {
+
+        private final PathAddress address;
+
+        private SlowProxyController(PathAddress address) {
+            this.address = address;
+        }
+
+        @Override
+        public PathAddress getProxyNodeAddress() {
+            return address;
+        }
+
+        @Override
+        public void execute(ModelNode operation, OperationMessageHandler handler, ProxyOperationControl control,
+                            OperationAttachments attachments, BlockingTimeout blockingTimeout) {
+            final String name = address.getLastElement().getValue();
+            final AccessAuditContext accessAuditContext = AccessAuditContext.currentAccessAuditContext();
+            if (accessAuditContext != null && accessAuditContext.getSecurityIdentity() != null) {
+                identities.put(name, accessAuditContext.getSecurityIdentity().getPrincipal().getName());
+                remoteAddresses.put(name, accessAuditContext.getRemoteAddress());
+            }
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delays.getOrDefault(name, 0L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+
+            final ModelNode response = new ModelNode();
+            if (name.equals(failingServer)) {
+                response.get(OUTCOME).set("failed");
+                response.get(FAILURE_DESCRIPTION).set("failed on " + name);
+                control.operationFailed(response);
+                return;
+            }
+            response.get(OUTCOME).set(SUCCESS);
+            response.get(RESULT, NAME).set(name);
+            prepared.incrementAndGet();
+            control.operationPrepared(new ModelController.OperationTransaction() {
+                @Override
+                public void commit() {
+                    completed.incrementAndGet();
+                    control.operationCompleted(OperationResponse.Factory.createSimple(response));
+                }
+
+                @Override
+                public void rollback() {
+                    completed.incrementAndGet();
+                    control.operationCompleted(OperationResponse.Factory.createSimple(response));
+                }
+            }, response);
+        }
+    }
+}
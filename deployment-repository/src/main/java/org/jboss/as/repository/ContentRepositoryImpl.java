@@ -39,10 +39,13 @@ import java.nio.file.StandardCopyOption;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
@@ -54,6 +57,9 @@ import static org.jboss.as.repository.PathUtil.unzip;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import org.wildfly.common.Assert;
@@ -66,15 +72,27 @@ import org.wildfly.common.Assert;
 public class ContentRepositoryImpl implements ContentRepository {
 
     protected static final String CONTENT = "content";
+    /** Maximum number of files extracted at the same time when exploding archives. */
+    private static final int EXPLODE_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+    /** Extracts the files of the archives being exploded. Its threads time out when no archive is being exploded. */
+    private static final ExecutorService EXPLODE_EXECUTOR = createExplodeExecutor();
     private final File repoRoot;
     private final File tmpRoot;
     protected final AtomicReference<MessageDigest> messageDigestRef;
-    private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<>();
-    private final Map<String, ReentrantLock> lockedContents = new HashMap<>();
-    private final Map<String, Long> obsoleteContents = new HashMap<>();
+    /** Number of locks the content hashes are spread over. Must be a power of two. */
+    private static final int LOCK_STRIPES = 64;
+    /** Number of obsolete content cleanings between full scans of the repository. */
+    private static final int FULL_SCAN_INTERVAL = 12;
+    private final Map<String, Set<ContentReference>> contentHashReferences = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // Content that was not referenced when last seen and so may be obsolete, keyed by hash
+    private final Map<String, ContentReference> unreferencedContents = new ConcurrentHashMap<>();
+    private final Map<String, Long> obsoleteContents = new ConcurrentHashMap<>();
+    private final AtomicInteger cleaningsUntilFullScan = new AtomicInteger();
     private final long obsolescenceTimeout;
     private final long lockTimeout;
     private volatile boolean readWrite = false;
+    private final TransferStatistics transferStatistics = new TransferStatistics();
 
     protected ContentRepositoryImpl(final File repoRoot, final File tmpRoot, long obsolescenceTimeout, long lockTimeout) {
         Assert.checkNotNullParam("repoRoot", repoRoot);
@@ -86,6 +104,9 @@ public class ContentRepositoryImpl implements ContentRepository {
         this.obsolescenceTimeout = obsolescenceTimeout;
         this.lockTimeout = lockTimeout;
         this.messageDigestRef = new AtomicReference<>(createMessageDigest());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
     }
 
     private void checkDirectory(final File directory) {
@@ -103,6 +124,8 @@ public class ContentRepositoryImpl implements ContentRepository {
     @Override
     public void readWrite() {
         this.readWrite = true;
+        // Look for content left over from before, such as content whose deployment was removed while the process was down
+        cleaningsUntilFullScan.set(0);
     }
 
     @Override
@@ -146,6 +169,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             moveTempToPermanent(tmp, realFile);
             DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
         }
+        trackIfUnreferenced(sha1Bytes);
         return sha1Bytes;
     }
 
@@ -154,9 +178,21 @@ public class ContentRepositoryImpl implements ContentRepository {
         if(!this.readWrite) {
             return;
         }
-        synchronized (contentHashReferences) {
-            Set<ContentReference> references = contentHashReferences.computeIfAbsent(reference.getHexHash(), k -> new HashSet<>());
-            references.add(reference);
+        final String hexHash = reference.getHexHash();
+        // Serialize with the removal of the content, so it cannot be removed once it is referenced
+        final ReentrantLock lock = getLock(reference.getHash());
+        lock.lock();
+        try {
+            // Add within the mapping function, so a concurrent removal of the last reference cannot drop the set first
+            contentHashReferences.compute(hexHash, (hash, references) -> {
+                final Set<ContentReference> result = references == null ? ConcurrentHashMap.newKeySet() : references;
+                result.add(reference);
+                return result;
+            });
+            unreferencedContents.remove(hexHash);
+            obsoleteContents.remove(hexHash);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -176,6 +212,37 @@ public class ContentRepositoryImpl implements ContentRepository {
         return Files.exists(getDeploymentContentFile(hash));
     }
 
+    /**
+     * Gets the number of bytes of content copied by this repository, either within the repository or to deployments
+     * that use exploded content.
+     *
+     * @return the number of bytes copied
+     */
+    long getBytesCopied() {
+        return transferStatistics.getBytesCopied();
+    }
+
+    /**
+     * Gets the number of bytes of content this repository did not have to copy, as the files were hard linked to
+     * identical files already in the repository.
+     *
+     * @return the number of bytes linked
+     */
+    long getBytesLinked() {
+        return transferStatistics.getBytesLinked();
+    }
+
+    private static ExecutorService createExplodeExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(EXPLODE_PARALLELISM, EXPLODE_PARALLELISM, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    final Thread thread = new Thread(r, "ContentRepository-explode");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     protected Path getRepoRoot() {
         return repoRoot.toPath();
     }
@@ -229,13 +296,13 @@ public class ContentRepositoryImpl implements ContentRepository {
             // AS7-3574. Try to avoid writing the permanent file bit by bit in we crash in the middle.
             // Copy tmpFile to another tmpfile in the same dir as the permanent file (and thus same filesystem)
             // and see then if we can rename it.
-            copyRecursively(tmpFile, localTmp, true);
+            copyRecursively(tmpFile, localTmp, true, true, transferStatistics);
             try {
                 Files.move(localTmp, permanentFile);
             } catch (IOException ex) {
                 // No luck; need to copy
                 try {
-                    copyRecursively(localTmp, permanentFile, true);
+                    copyRecursively(localTmp, permanentFile, true, true, transferStatistics);
                 } catch (IOException e) {
                     deleteRecursively(permanentFile);
                     throw e;
@@ -262,39 +329,48 @@ public class ContentRepositoryImpl implements ContentRepository {
         if(!this.readWrite) {
             return;
         }
-        synchronized (contentHashReferences) {
-            final Set<ContentReference> references = contentHashReferences.get(reference.getHexHash());
-            if (references != null) {
-                references.remove(reference);
-                if (!references.isEmpty()) {
-                    return;
-                }
-                contentHashReferences.remove(reference.getHexHash());
-            }
-        }
+        final String hexHash = reference.getHexHash();
+        final boolean deploymentContent = HashUtil.isEachHexHashInTable(hexHash);
         Path contentPath;
-        if (!HashUtil.isEachHexHashInTable(reference.getHexHash())) {
+        if (!deploymentContent) {
             contentPath = Paths.get(reference.getContentIdentifier());
         } else {
             contentPath = getDeploymentContentFile(reference.getHash(), false);
         }
         Path parent = contentPath.getParent();
         boolean interrupted = false;
+        boolean locked = false;
+        boolean dereferenced = false;
         try {
-            if (HashUtil.isEachHexHashInTable(reference.getHexHash()) && this.readWrite) { //Otherwise this is not a deployment content
-                if(!lock(reference.getHash())) {
+            if (deploymentContent) { //Otherwise this is not a deployment content
+                locked = lock(reference.getHash());
+                if (!locked) {
+                    if (removeReference(reference)) {
+                        // Leave it to the obsolete content cleaning
+                        unreferencedContents.put(hexHash, new ContentReference(parent.toAbsolutePath().toString(), hexHash));
+                    }
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(DeploymentRepositoryLogger.ROOT_LOGGER.errorLockingDeployment(), contentPath.toString());
                     return;
                 }
             }
+            if (!removeReference(reference)) {
+                return;
+            }
+            dereferenced = true;
             deleteRecursively(parent);
+            unreferencedContents.remove(hexHash);
+            obsoleteContents.remove(hexHash);
         } catch (IOException ex) {
+            if (dereferenced && deploymentContent) {
+                // Leave it to the obsolete content cleaning to try again
+                unreferencedContents.put(hexHash, new ContentReference(parent.toAbsolutePath().toString(), hexHash));
+            }
             DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, contentPath.toString());
         } catch (InterruptedException ex) {
             interrupted = true;
             DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, contentPath.toString());
         } finally {
-            if (HashUtil.isEachHexHashInTable(reference.getHexHash())) {
+            if (locked) {
                 unlock(reference.getHash());
             }
             if (interrupted) {
@@ -314,9 +390,47 @@ public class ContentRepositoryImpl implements ContentRepository {
         DeploymentRepositoryLogger.ROOT_LOGGER.contentRemoved(contentPath.toAbsolutePath().toString());
     }
 
+    /**
+     * Removes a reference to content.
+     *
+     * @param reference the reference to remove.
+     *
+     * @return true if no references to the content remain, false otherwise.
+     */
+    private boolean removeReference(ContentReference reference) {
+        final boolean[] unreferenced = {true};
+        contentHashReferences.computeIfPresent(reference.getHexHash(), (hash, references) -> {
+            references.remove(reference);
+            if (references.isEmpty()) {
+                return null;
+            }
+            unreferenced[0] = false;
+            return references;
+        });
+        return unreferenced[0];
+    }
+
+    /**
+     * Records that content may not be referenced, so the next obsolete content cleaning checks it.
+     *
+     * @param hash the hash of the content.
+     */
+    private void trackIfUnreferenced(byte[] hash) {
+        final String hexHash = HashUtil.bytesToHexString(hash);
+        if (readWrite && !contentHashReferences.containsKey(hexHash)) {
+            unreferencedContents.putIfAbsent(hexHash, new ContentReference(getDeploymentHashDir(hash, false).toAbsolutePath().toString(), hexHash));
+        }
+    }
+
     /**
      * Clean obsolete contents from the content repository. It will first mark contents as obsolete then after some time
      * if these contents are still obsolete they will be removed.
+     * <p>
+     * Only content that was seen without references, because it was added but not yet referenced or because removing
+     * it failed, is checked. The whole repository is scanned for unreferenced content on the first cleaning after the
+     * repository becomes writable and then every {@value #FULL_SCAN_INTERVAL} cleanings, to pick up content that
+     * reached the repository some other way.
+     * </p>
      *
      * @return a map containing the list of marked contents and the list of deleted contents.
      */
@@ -328,23 +442,29 @@ public class ContentRepositoryImpl implements ContentRepository {
         Map<String, Set<String>> cleanedContents = new HashMap<>(2);
         cleanedContents.put(MARKED_CONTENT, new HashSet<>());
         cleanedContents.put(DELETED_CONTENT, new HashSet<>());
-        synchronized (contentHashReferences) {
-            DeploymentRepositoryLogger.ROOT_LOGGER.debug("Current content hash references are "+contentHashReferences);
+        if (cleaningsUntilFullScan.getAndDecrement() <= 0) {
+            cleaningsUntilFullScan.set(FULL_SCAN_INTERVAL - 1);
             for (ContentReference fsContent : listLocalContents()) {
-                if (!readWrite) {
-                    return Collections.emptyMap();
-                }
-                if (!contentHashReferences.containsKey(fsContent.getHexHash())) { //We have no reference to this content
-                    if (markAsObsolete(fsContent)) {
-                        cleanedContents.get(DELETED_CONTENT).add(fsContent.getContentIdentifier());
-                    } else {
-                        cleanedContents.get(MARKED_CONTENT).add(fsContent.getContentIdentifier());
-                    }
-                } else {
-                    obsoleteContents.remove(fsContent.getHexHash()); //Remove existing references from obsoleteContents
+                if (!contentHashReferences.containsKey(fsContent.getHexHash())) {
+                    unreferencedContents.putIfAbsent(fsContent.getHexHash(), fsContent);
                 }
             }
         }
+        DeploymentRepositoryLogger.ROOT_LOGGER.debug("Current content hash references are "+contentHashReferences);
+        for (ContentReference fsContent : unreferencedContents.values()) {
+            if (!readWrite) {
+                return Collections.emptyMap();
+            }
+            final String hexHash = fsContent.getHexHash();
+            if (contentHashReferences.containsKey(hexHash) || !Files.exists(Paths.get(fsContent.getContentIdentifier()))) {
+                unreferencedContents.remove(hexHash);
+                obsoleteContents.remove(hexHash); //Remove existing references from obsoleteContents
+            } else if (markAsObsolete(fsContent)) {
+                cleanedContents.get(DELETED_CONTENT).add(fsContent.getContentIdentifier());
+            } else {
+                cleanedContents.get(MARKED_CONTENT).add(fsContent.getContentIdentifier());
+            }
+        }
         return cleanedContents;
     }
 
@@ -356,14 +476,12 @@ public class ContentRepositoryImpl implements ContentRepository {
      * @return true if the content refrence is removed, fale otherwise.
      */
     private boolean markAsObsolete(ContentReference ref) {
-        if (obsoleteContents.containsKey(ref.getHexHash())) { //This content is already marked as obsolete
-            if (obsoleteContents.get(ref.getHexHash()) + obsolescenceTimeout < System.currentTimeMillis()) {
-                DeploymentRepositoryLogger.ROOT_LOGGER.obsoleteContentCleaned(ref.getContentIdentifier());
-                removeContent(ref);
-                return true;
-            }
-        } else {
-            obsoleteContents.put(ref.getHexHash(), System.currentTimeMillis()); //Mark content as obsolete
+        final Long marked = obsoleteContents.putIfAbsent(ref.getHexHash(), System.currentTimeMillis()); //Mark content as obsolete
+        if (marked != null && marked + obsolescenceTimeout < System.currentTimeMillis()) { //This content was already marked as obsolete
+            DeploymentRepositoryLogger.ROOT_LOGGER.obsoleteContentCleaned(ref.getContentIdentifier());
+            removeContent(ref);
+            // Content that could not be deleted is still tracked, so the next cleaning tries again
+            return !unreferencedContents.containsKey(ref.getHexHash());
         }
         return false;
     }
@@ -405,7 +523,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             }
             Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
             Path contentDir = Files.createDirectory(tmp.resolve(CONTENT));
-            unzip(contentPath, contentDir);
+            unzip(contentPath, contentDir, EXPLODE_EXECUTOR, EXPLODE_PARALLELISM);
             byte[] sha1Bytes = getSha1Bytes(contentDir);
             final Path realFile = getDeploymentContentFile(sha1Bytes, true);
             if (hasContent(sha1Bytes)) {
@@ -422,6 +540,7 @@ public class ContentRepositoryImpl implements ContentRepository {
                 deleteRecursively(tmp);
                 DeploymentRepositoryLogger.ROOT_LOGGER.contentExploded(realFile.toAbsolutePath().toString());
             }
+            trackIfUnreferenced(sha1Bytes);
             return sha1Bytes;
         } catch (IOException ioex) {
             DeploymentRepositoryLogger.ROOT_LOGGER.warn(ioex);
@@ -437,7 +556,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath) && this.readWrite) {
                 Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
                 Path contentDir = tmp.resolve(CONTENT);
-                copyRecursively(contentPath, contentDir, true);
+                copyRecursively(contentPath, contentDir, true, true, transferStatistics);
                 Path targetPath = resolveSecurely(contentDir, relativePath);
                 if (!Files.exists(sourcePath)) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.archiveNotFound(sourcePath.toString());
@@ -465,6 +584,7 @@ public class ContentRepositoryImpl implements ContentRepository {
                     deleteRecursively(tmp);
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
                 }
+                trackIfUnreferenced(sha1Bytes);
                 return sha1Bytes;
             } else {
                 throw DeploymentRepositoryLogger.ROOT_LOGGER.errorExplodingContent(null, sourcePath.toString());
@@ -480,7 +600,7 @@ public class ContentRepositoryImpl implements ContentRepository {
         final Path contentPath = getDeploymentContentFile(deploymentHash);
         try {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath)) {
-                copyRecursively(contentPath, target, false);
+                copyRecursively(contentPath, target, false, false, transferStatistics);
             }
         } catch (IOException ioex) {
             DeploymentRepositoryLogger.ROOT_LOGGER.warn(ioex);
@@ -494,7 +614,7 @@ public class ContentRepositoryImpl implements ContentRepository {
         try {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath)) {
                 for (String relativePath : relativePaths) {
-                    copyRecursively(resolveSecurely(contentPath, relativePath), resolveSecurely(target, relativePath), true);
+                    copyRecursively(resolveSecurely(contentPath, relativePath), resolveSecurely(target, relativePath), true, false, transferStatistics);
                 }
             }
         } catch (IOException ioex) {
@@ -503,37 +623,29 @@ public class ContentRepositoryImpl implements ContentRepository {
         }
     }
 
+    private ReentrantLock getLock(byte[] hash) {
+        return locks[Arrays.hashCode(hash) & (LOCK_STRIPES - 1)];
+    }
+
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     private boolean lock(byte[] hash) throws InterruptedException {
-        String hashHex = HashUtil.bytesToHexString(hash);
-        synchronized(lockedContents) {
-            if(!lockedContents.containsKey(hashHex)) {
-                lockedContents.put(hashHex, new ReentrantLock());
-            }
-            return lockedContents.get(hashHex).tryLock(lockTimeout, TimeUnit.MILLISECONDS);
-        }
+        return getLock(hash).tryLock(lockTimeout, TimeUnit.MILLISECONDS);
     }
 
     private void unlock(byte[] hash) {
-        String hashHex = HashUtil.bytesToHexString(hash);
-        synchronized (lockedContents) {
-            if (lockedContents.containsKey(hashHex)) {
-                ReentrantLock lock = lockedContents.get(hashHex);
-                if (lock.isHeldByCurrentThread()) {
-                    lock.unlock();
-                    if (!Files.exists(getDeploymentContentFile(hash))) {
-                        lockedContents.remove(hashHex);
-                    }
-                }
-            }
+        final ReentrantLock lock = getLock(hash);
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
         }
     }
 
     @Override
     public TypedInputStream readContent(byte[] deploymentHash, String path) throws ExplodedContentException {
         Path tmpDir = null;
+        boolean locked = false;
         try {
-            if(!lock(deploymentHash)) {
+            locked = lock(deploymentHash);
+            if(!locked) {
                 throw DeploymentRepositoryLogger.ROOT_LOGGER.errorLockingDeployment();
             }
             Path src = resolveSecurely(getDeploymentContentFile(deploymentHash), path);
@@ -549,7 +661,9 @@ public class ContentRepositoryImpl implements ContentRepository {
             DeploymentRepositoryLogger.ROOT_LOGGER.warn(ex);
             throw DeploymentRepositoryLogger.ROOT_LOGGER.errorAccessingDeployment(ex);
         } finally {
-            unlock(deploymentHash);
+            if (locked) {
+                unlock(deploymentHash);
+            }
             deleteSilentlyRecursively(tmpDir);
         }
     }
@@ -557,8 +671,10 @@ public class ContentRepositoryImpl implements ContentRepository {
     @Override
     public List<ContentRepositoryElement> listContent(byte[] deploymentHash, String path, ContentFilter filter) throws ExplodedContentException {
         Path tmpDir = null;
+        boolean locked = false;
         try {
-            if (!lock(deploymentHash)) {
+            locked = lock(deploymentHash);
+            if (!locked) {
                 throw DeploymentRepositoryLogger.ROOT_LOGGER.errorLockingDeployment();
             }
             tmpDir = Files.createTempDirectory(tmpRoot.toPath(), HashUtil.bytesToHexString(deploymentHash));
@@ -571,7 +687,9 @@ public class ContentRepositoryImpl implements ContentRepository {
             DeploymentRepositoryLogger.ROOT_LOGGER.warn(ex);
             throw DeploymentRepositoryLogger.ROOT_LOGGER.errorAccessingDeployment(ex);
         } finally {
-            unlock(deploymentHash);
+            if (locked) {
+                unlock(deploymentHash);
+            }
             if(tmpDir != null) {
                 deleteSilentlyRecursively(tmpDir);
             }
@@ -597,7 +715,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath) && this.readWrite) {
                 Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
                 Path contentDir = tmp.resolve(CONTENT);
-                copyRecursively(contentPath, contentDir, overwrite);
+                copyRecursively(contentPath, contentDir, overwrite, true, transferStatistics);
                 for (ExplodedContent newContent : addFiles) {
                     Path targetFile = resolveSecurely(contentDir, newContent.getRelativePath());
                     if (!Files.exists(targetFile)) {
@@ -631,6 +749,7 @@ public class ContentRepositoryImpl implements ContentRepository {
                     deleteRecursively(tmp);
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
                 }
+                trackIfUnreferenced(sha1Bytes);
                 return sha1Bytes;
             }
             return deploymentHash;
@@ -647,7 +766,7 @@ public class ContentRepositoryImpl implements ContentRepository {
             if (Files.exists(contentPath) && Files.isDirectory(contentPath) && this.readWrite) {
                 Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
                 Path contentDir = tmp.resolve(CONTENT).toAbsolutePath();
-                copyRecursively(contentPath, contentDir, false);
+                copyRecursively(contentPath, contentDir, false, true, transferStatistics);
                 for (String path : paths) {
                     Path targetFile = resolveSecurely(contentDir, path);
                     deleteFileWithEmptyAncestorDirectories(targetFile);
@@ -668,6 +787,7 @@ public class ContentRepositoryImpl implements ContentRepository {
                     deleteRecursively(tmp);
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
                 }
+                trackIfUnreferenced(sha1Bytes);
                 return sha1Bytes;
             }
             return deploymentHash;
@@ -19,17 +19,30 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.CopyOption;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
@@ -51,6 +64,21 @@ public class PathUtil {
      * @throws IOException
      */
     public static void copyRecursively(final Path source, final Path target, boolean overwrite) throws IOException {
+        copyRecursively(source, target, overwrite, false, null);
+    }
+
+    /**
+     * Copy a path recursively, creating hard links to the source files rather than copying them if {@code link} is
+     * {@code true} and the file system supports it. Only link files that are never modified in place, such as the
+     * contents of the content repository, as the source and the target share the same data.
+     * @param source a Path pointing to a file or a directory that must exist
+     * @param target a Path pointing to a directory where the contents will be copied.
+     * @param overwrite overwrite existing files - if set to false fails if the target file already exists.
+     * @param link {@code true} to hard link files if possible
+     * @param statistics records the bytes copied and linked. May be {@code null}
+     * @throws IOException
+     */
+    static void copyRecursively(final Path source, final Path target, boolean overwrite, boolean link, TransferStatistics statistics) throws IOException {
         final CopyOption[] options;
         if (overwrite) {
             options = new CopyOption[]{StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING};
@@ -69,7 +97,19 @@ public class PathUtil {
 
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                Files.copy(file, target.resolve(source.relativize(file)), options);
+                final Path targetFile = target.resolve(source.relativize(file));
+                if (link && attrs.isRegularFile() && createLink(file, targetFile, overwrite)) {
+                    if (statistics != null) {
+                        statistics.linked(attrs.size());
+                    }
+                } else if (attrs.isRegularFile()) {
+                    copyFile(file, targetFile, overwrite);
+                    if (statistics != null) {
+                        statistics.copied(attrs.size());
+                    }
+                } else {
+                    Files.copy(file, targetFile, options);
+                }
                 return FileVisitResult.CONTINUE;
             }
 
@@ -86,6 +126,51 @@ public class PathUtil {
         });
     }
 
+    private static boolean createLink(final Path source, final Path target, final boolean overwrite) throws IOException {
+        if (overwrite) {
+            Files.deleteIfExists(target);
+        } else if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // Not supported by the file system or the files are on different file stores; copy instead
+            DeploymentRepositoryLogger.ROOT_LOGGER.tracef(e, "Cannot link %s to %s", target, source);
+            return false;
+        }
+    }
+
+    /**
+     * Copy a file, letting the operating system transfer the data directly between the files where it can. The last
+     * modified time and, on POSIX file systems, the permissions of the source are copied to the target.
+     * @param source a Path pointing to a regular file that must exist
+     * @param target the Path of the copy.
+     * @param overwrite replace the target file if it exists - if set to false fails if the target file already exists.
+     * @throws IOException
+     */
+    static void copyFile(final Path source, final Path target, final boolean overwrite) throws IOException {
+        if (overwrite) {
+            // Replace rather than truncate the target, as it may be a link to other content
+            Files.deleteIfExists(target);
+        }
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+            final long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+        final BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        Files.getFileAttributeView(target, BasicFileAttributeView.class).setTimes(attributes.lastModifiedTime(), attributes.lastAccessTime(), attributes.creationTime());
+        final PosixFileAttributeView posixView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (posixView != null) {
+            posixView.setPermissions(Files.getPosixFilePermissions(source));
+        }
+    }
+
     /**
      * Delete a path recursively, not throwing Exception if it fails or if the path is null.
      * @param path a Path pointing to a file or a directory that may not exists anymore.
@@ -317,6 +402,76 @@ public class PathUtil {
         }
     }
 
+    /**
+     * Unzip a file to a target directory, extracting the files of the archive in parallel.
+     * @param zip the path to the zip file.
+     * @param target the path to the target directory into which the zip file will be unzipped.
+     * @param executor the executor extracting the files.
+     * @param parallelism the maximum number of files the executor extracts at the same time.
+     * @throws IOException
+     */
+    static void unzip(Path zip, Path target, ExecutorService executor, int parallelism) throws IOException {
+        try (final ZipFile zipFile = new ZipFile(zip.toFile())) {
+            if (parallelism < 2) {
+                unzip(zipFile, target);
+                return;
+            }
+            // Create the directories up front, so the files can be extracted in any order
+            final List<ZipEntry> files = new ArrayList<>();
+            final Map<Path, ZipEntry> directories = new LinkedHashMap<>();
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final Path current = resolveSecurely(target, entry.getName());
+                if (entry.isDirectory()) {
+                    Files.createDirectories(current);
+                    directories.put(current, entry);
+                } else {
+                    Files.createDirectories(current.getParent());
+                    files.add(entry);
+                }
+            }
+            if (files.size() < 2 * parallelism) {
+                for (ZipEntry entry : files) {
+                    extract(zipFile, entry, resolveSecurely(target, entry.getName()));
+                }
+            } else {
+                // Largest first, so one big file does not hold up the end of the extraction
+                files.sort(Comparator.comparingLong(ZipEntry::getSize).reversed());
+                final List<Future<Void>> futures = new ArrayList<>(files.size());
+                try {
+                    for (ZipEntry entry : files) {
+                        final Path current = resolveSecurely(target, entry.getName());
+                        futures.add(executor.submit(() -> {
+                            extract(zipFile, entry, current);
+                            return null;
+                        }));
+                    }
+                    for (Future<Void> future : futures) {
+                        future.get();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IOException(e.getCause());
+                } finally {
+                    // The executor is shared, so only cancel the extraction of this archive
+                    for (Future<Void> future : futures) {
+                        future.cancel(true);
+                    }
+                }
+            }
+            // Set the times of the directories last, as extracting their files changes them
+            for (Map.Entry<Path, ZipEntry> directory : directories.entrySet()) {
+                setTimes(directory.getKey(), directory.getValue());
+            }
+        }
+    }
+
     private static void unzip(final ZipFile zip, final Path targetDir) throws IOException {
         final Enumeration<? extends ZipEntry> entries = zip.entries();
         while (entries.hasMoreElements()) {
@@ -327,22 +482,31 @@ public class PathUtil {
                 if (!Files.exists(current)) {
                     Files.createDirectories(current);
                 }
+                setTimes(current, entry);
             } else {
                 if (Files.notExists(current.getParent())) {
                     Files.createDirectories(current.getParent());
                 }
-                try (final InputStream eis = zip.getInputStream(entry)) {
-                    Files.copy(eis, current);
-                }
-            }
-            try {
-                Files.getFileAttributeView(current, BasicFileAttributeView.class).setTimes(entry.getLastModifiedTime(), entry.getLastAccessTime(), entry.getCreationTime());
-            } catch (IOException e) {
-                //ignore, if we cannot set it, world will not end
+                extract(zip, entry, current);
             }
         }
     }
 
+    private static void extract(final ZipFile zip, final ZipEntry entry, final Path target) throws IOException {
+        try (final InputStream eis = zip.getInputStream(entry)) {
+            Files.copy(eis, target);
+        }
+        setTimes(target, entry);
+    }
+
+    private static void setTimes(final Path path, final ZipEntry entry) {
+        try {
+            Files.getFileAttributeView(path, BasicFileAttributeView.class).setTimes(entry.getLastModifiedTime(), entry.getLastAccessTime(), entry.getCreationTime());
+        } catch (IOException e) {
+            //ignore, if we cannot set it, world will not end
+        }
+    }
+
     public static String getFileExtension(Path path) {
         String fileName = path.getFileName().toString();
         int separator = fileName.lastIndexOf('.');
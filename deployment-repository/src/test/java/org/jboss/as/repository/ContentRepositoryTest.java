@@ -317,6 +317,45 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test that exploding an archive of many files extracts all of them and that changing exploded content links the
+     * unchanged files to the previous content rather than copying them.
+     */
+    @Test
+    public void testChangeExplodedContentLinksUnchangedFiles() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < 64; i++) {
+                zip.putNextEntry(new ZipEntry("dir" + (i % 4) + "/file" + i + ".txt"));
+                zip.write(("content of file " + i).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        byte[] hash;
+        try (ByteArrayInputStream stream = new ByteArrayInputStream(out.toByteArray())) {
+            hash = repository.explodeContent(repository.addContent(stream));
+        }
+        final Path content = repository.getContent(hash).getPhysicalFile().toPath();
+        for (int i = 0; i < 64; i++) {
+            assertThat(readFileContent(content.resolve("dir" + (i % 4)).resolve("file" + i + ".txt")), is("content of file " + i));
+        }
+        final byte[] updatedHash = repository.addContentToExploded(hash,
+                Collections.singletonList(new ExplodedContent("dir0/file0.txt",
+                        new ByteArrayInputStream("updated".getBytes(StandardCharsets.UTF_8)))),
+                true);
+        final Path updatedContent = repository.getContent(updatedHash).getPhysicalFile().toPath();
+        assertThat(readFileContent(updatedContent.resolve("dir0").resolve("file0.txt")), is("updated"));
+        assertThat(readFileContent(content.resolve("dir0").resolve("file0.txt")), is("content of file 0"));
+        assertThat(readFileContent(updatedContent.resolve("dir1").resolve("file1.txt")), is("content of file 1"));
+        final ContentRepositoryImpl impl = (ContentRepositoryImpl) repository;
+        if (impl.getBytesLinked() > 0) {
+            assertTrue(Files.isSameFile(content.resolve("dir1").resolve("file1.txt"), updatedContent.resolve("dir1").resolve("file1.txt")));
+        } else {
+            // The file system does not support hard links
+            assertTrue(impl.getBytesCopied() > 0);
+        }
+    }
+
     @Test
     public void testListContents() throws Exception {
         byte[] archive = createArchive(Collections.singletonList("testfile.xhtml"));
@@ -483,6 +522,35 @@ public class ContentRepositoryTest {
         assertFalse(Files.exists(content));
     }
 
+    /**
+     * Test that content added after the initial scan of the repository is cleaned once it is no longer referenced.
+     */
+    @Test
+    public void testCleanContentAddedAfterScan() throws Exception {
+        Map<String, Set<String>> result = repository.cleanObsoleteContent(); //Initial scan of the empty repository
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(0));
+        byte[] referenced;
+        byte[] unreferenced;
+        try (InputStream stream = getResourceAsStream("testfile.xhtml")) {
+            referenced = repository.addContent(stream);
+        }
+        try (InputStream stream = new ByteArrayInputStream("unreferenced".getBytes(StandardCharsets.UTF_8))) {
+            unreferenced = repository.addContent(stream);
+        }
+        repository.addContentReference(new ContentReference("testfile.xhtml", referenced));
+        Path unreferencedDir = repository.getContent(unreferenced).getPhysicalFile().toPath().getParent();
+        result = repository.cleanObsoleteContent(); //Mark content for deletion
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(1));
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).contains(unreferencedDir.toAbsolutePath().toString()), is(true));
+        Thread.sleep(10);
+        result = repository.cleanObsoleteContent();
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(1));
+        assertThat(repository.hasContent(unreferenced), is(false));
+        assertThat(repository.hasContent(referenced), is(true));
+        repository.removeContent(new ContentReference("testfile.xhtml", referenced));
+        assertThat(repository.hasContent(referenced), is(false));
+    }
+
     /**
      * Test that an empty dir will be removed during cleaning.
      */
@@ -225,6 +225,10 @@ public class ManagementHttpServer {
         }
         extensionHandlers.extensionContexts.remove(context);
         extensionHandlers.extensionPathHandler.removePrefixPath(context);
+        if (OpenMetricsHandler.PATH.equals(context)) {
+            // Restore the default handler the extension replaced
+            extensionHandlers.extensionPathHandler.addPrefixPath(context, extensionHandlers.metricsHandler);
+        }
     }
 
     private static String fixPath(String contextName) {
@@ -284,6 +288,17 @@ public class ManagementHttpServer {
         return readinessHandler;
     }
 
+    private static HttpHandler addMetricsHandler(PathHandler pathHandler, Builder builder, Function<HttpServerExchange, Boolean> readinessFunction) {
+        HttpHandler metricsHandler = CorrelationHandler.wrap(InExecutorHandler.wrap(builder.executor,
+                associateIdentity(new OpenMetricsHandler(builder.modelController))));
+        metricsHandler = new ServerErrorReadinessHandler(OpenMetricsHandler.PATH, readinessFunction,
+                secureDomainAccess(metricsHandler, builder));
+        // Not a reserved context, so an extension can still register its own handler for it
+        pathHandler.addPrefixPath(OpenMetricsHandler.PATH, metricsHandler);
+
+        return metricsHandler;
+    }
+
     private static void addLogoutHandler(PathHandler pathHandler, Builder builder) {
         pathHandler.addPrefixPath(LogoutHandler.PATH, wrapXFrameOptions(
                 new LogoutHandler(DEFAULT_SECURITY_REALM)));
@@ -298,14 +313,16 @@ public class ManagementHttpServer {
         private final PathHandler extensionPathHandler;
         private final HttpHandler managementHandler;
         private final Function<HttpServerExchange, Boolean> readyFunction;
+        private final HttpHandler metricsHandler;
         private final Set<String> reservedContexts;
         private final Set<String> extensionContexts = new HashSet<>();
 
         private ExtensionHandlers(PathHandler extensionPathHandler, HttpHandler managementHandler,
-                Function<HttpServerExchange, Boolean> readyFunction, ResourceHandlerDefinition consoleHandler) {
+                Function<HttpServerExchange, Boolean> readyFunction, HttpHandler metricsHandler, ResourceHandlerDefinition consoleHandler) {
             this.extensionPathHandler = extensionPathHandler;
             this.managementHandler = managementHandler;
             this.readyFunction = readyFunction;
+            this.metricsHandler = metricsHandler;
             if (consoleHandler == null) {
                 this.reservedContexts = RESERVED_CONTEXTS;
             } else {
@@ -385,9 +402,10 @@ public class ManagementHttpServer {
 
         domainApiHandler = secureDomainAccess(domainApiHandler, builder);
         HttpHandler readinessHandler = addDmrRedinessHandler(pathHandler, domainApiHandler, readyFunction);
+        HttpHandler metricsHandler = addMetricsHandler(pathHandler, builder, readyFunction);
         addLogoutHandler(pathHandler, builder);
 
-        return new ExtensionHandlers(pathHandler, readinessHandler, readyFunction, consoleHandler);
+        return new ExtensionHandlers(pathHandler, readinessHandler, readyFunction, metricsHandler, consoleHandler);
     }
 
     private static HttpHandler associateIdentity(HttpHandler domainHandler) {
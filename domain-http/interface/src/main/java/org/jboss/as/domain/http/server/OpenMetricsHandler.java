@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_MECHANISM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.domain.http.server.logging.HttpServerLogger.ROOT_LOGGER;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.operations.global.ReadMetricsHandler;
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Serves the metrics of the process in the OpenMetrics text format, as produced by the
+ * {@value ReadMetricsHandler#OPERATION_NAME} operation, so they can be scraped directly by Prometheus and compatible
+ * collectors.
+ * <p>
+ * This is the default handler for the {@link #PATH} context; an extension that registers its own management handler
+ * for the context replaces it.
+ */
+class OpenMetricsHandler implements HttpHandler {
+
+    static final String PATH = "/metrics";
+
+    private final ModelController modelController;
+
+    OpenMetricsHandler(ModelController modelController) {
+        this.modelController = modelController;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) {
+        if (!exchange.getRequestMethod().equals(Methods.GET)) {
+            exchange.getResponseHeaders().put(Headers.ALLOW, Methods.GET_STRING);
+            exchange.setStatusCode(405);
+            exchange.endExchange();
+            return;
+        }
+
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(ReadMetricsHandler.OPERATION_NAME);
+        operation.get(OP_ADDR).setEmptyList();
+        // Not a user call, as the operation is private
+        operation.get(OPERATION_HEADERS, ACCESS_MECHANISM).set(AccessMechanism.HTTP.toString());
+
+        try (OperationResponse response = modelController.execute(new OperationBuilder(operation).build(),
+                OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT)) {
+            final ModelNode responseNode = response.getResponseNode();
+            if (!SUCCESS.equals(responseNode.get(OUTCOME).asString()) || response.getInputStreams().isEmpty()) {
+                Common.sendError(exchange, false, responseNode);
+                return;
+            }
+            final OperationResponse.StreamEntry entry = response.getInputStreams().get(0);
+            exchange.setStatusCode(200);
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, entry.getMimeType());
+            exchange.getResponseHeaders().put(Headers.CACHE_CONTROL, "no-cache");
+            try (InputStream in = entry.getStream(); OutputStream out = exchange.getOutputStream()) {
+                StreamUtils.copyStream(in, out);
+            }
+        } catch (Throwable t) {
+            ROOT_LOGGER.modelRequestError(t);
+            if (!exchange.isResponseStarted()) {
+                Common.sendError(exchange, false, t.getLocalizedMessage());
+            }
+        }
+    }
+}
@@ -33,6 +33,8 @@ import java.util.List;
 import org.jboss.as.controller.BootErrorCollector;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.access.management.AccessConstraintUtilizationRegistry;
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
@@ -47,6 +49,9 @@ import org.jboss.as.domain.management.access.AccessIdentityResourceDefinition;
 import org.jboss.as.domain.management.audit.AccessAuditResourceDefinition;
 import org.jboss.as.domain.management.audit.EnvironmentNameReader;
 import org.jboss.as.domain.management.controller.ManagementControllerResourceDefinition;
+import org.jboss.as.protocol.mgmt.ManagementProtocolCompression;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * A {@link org.jboss.as.controller.ResourceDefinition} for the the core management resource.
@@ -60,6 +65,20 @@ public class CoreManagementResourceDefinition extends SimpleResourceDefinition {
 
     public static final PathElement PATH_ELEMENT = PathElement.pathElement(CORE_SERVICE, MANAGEMENT);
 
+    static final SimpleAttributeDefinition PROTOCOL_DEFLATED_MESSAGES = createMetric("protocol-deflated-messages");
+    static final SimpleAttributeDefinition PROTOCOL_BYTES_SAVED = createMetric("protocol-bytes-saved");
+    static final SimpleAttributeDefinition PROTOCOL_DEFLATE_TIME = createMetric("protocol-deflate-time");
+    static final SimpleAttributeDefinition PROTOCOL_INFLATED_MESSAGES = createMetric("protocol-inflated-messages");
+    static final SimpleAttributeDefinition PROTOCOL_INFLATE_TIME = createMetric("protocol-inflate-time");
+
+    private static SimpleAttributeDefinition createMetric(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setStorageRuntime()
+                .setRuntimeServiceNotRequired()
+                .setUndefinedMetricValue(ModelNode.ZERO)
+                .build();
+    }
+
     public static void registerDomainResource(Resource parent, AccessConstraintUtilizationRegistry registry) {
         Resource coreManagement = Resource.Factory.create();
         coreManagement.registerChild(AccessAuthorizationResourceDefinition.PATH_ELEMENT,
@@ -121,6 +140,24 @@ public class CoreManagementResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        if (environment != Environment.DOMAIN) {
+            // Native management protocol compression, see ManagementProtocolCompression
+            resourceRegistration.registerMetric(PROTOCOL_DEFLATED_MESSAGES,
+                    (context, operation) -> context.getResult().set(ManagementProtocolCompression.getDeflatedMessageCount()));
+            resourceRegistration.registerMetric(PROTOCOL_BYTES_SAVED,
+                    (context, operation) -> context.getResult().set(ManagementProtocolCompression.getBytesSaved()));
+            resourceRegistration.registerMetric(PROTOCOL_DEFLATE_TIME,
+                    (context, operation) -> context.getResult().set(ManagementProtocolCompression.getDeflateTime()));
+            resourceRegistration.registerMetric(PROTOCOL_INFLATED_MESSAGES,
+                    (context, operation) -> context.getResult().set(ManagementProtocolCompression.getInflatedMessageCount()));
+            resourceRegistration.registerMetric(PROTOCOL_INFLATE_TIME,
+                    (context, operation) -> context.getResult().set(ManagementProtocolCompression.getInflateTime()));
+        }
+    }
+
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
@@ -35,6 +35,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.access.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.CombinationPolicy;
 import org.jboss.as.controller.access.management.AccessConstraintUtilizationRegistry;
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
@@ -98,6 +99,18 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
             .setRuntimeServiceNotRequired()
             .build();
 
+    static final SimpleAttributeDefinition DECISION_CACHE_HITS = new SimpleAttributeDefinitionBuilder("decision-cache-hits", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .build();
+
+    static final SimpleAttributeDefinition DECISION_CACHE_MISSES = new SimpleAttributeDefinitionBuilder("decision-cache-misses", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .build();
+
     public static final List<AttributeDefinition> CONFIG_ATTRIBUTES = Arrays.<AttributeDefinition>asList(PROVIDER, PERMISSION_COMBINATION_POLICY);
 
     public static AccessAuthorizationResourceDefinition forDomain(DelegatingConfigurableAuthorizer configurableAuthorizer) {
@@ -136,6 +149,11 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
                 AccessAuthorizationRolesHandler.getStandardRolesHandler(authorizerConfiguration));
         resourceRegistration.registerReadOnlyAttribute(ALL_ROLE_NAMES,
                 AccessAuthorizationRolesHandler.getAllRolesHandler(authorizerConfiguration));
+        final AuthorizationDecisionCache decisionCache = authorizerConfiguration.getAuthorizationDecisionCache();
+        resourceRegistration.registerMetric(DECISION_CACHE_HITS,
+                (context, operation) -> context.getResult().set(decisionCache.getHitCount()));
+        resourceRegistration.registerMetric(DECISION_CACHE_MISSES,
+                (context, operation) -> context.getResult().set(decisionCache.getMissCount()));
     }
 
     @Override
@@ -31,6 +31,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.access.constraint.HostEffectConstraint;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.dmr.ModelNode;
 
@@ -42,10 +43,12 @@ import org.jboss.dmr.ModelNode;
 class HostScopedRoleWriteAttributeHandler extends AbstractWriteAttributeHandler<Void> {
 
     private final Map<String, HostEffectConstraint> constraintMap;
+    private final WritableAuthorizerConfiguration authorizerConfiguration;
 
-    HostScopedRoleWriteAttributeHandler(Map<String, HostEffectConstraint> constraintMap) {
+    HostScopedRoleWriteAttributeHandler(Map<String, HostEffectConstraint> constraintMap, WritableAuthorizerConfiguration authorizerConfiguration) {
         super(HostScopedRolesResourceDefinition.HOSTS);
         this.constraintMap = constraintMap;
+        this.authorizerConfiguration = authorizerConfiguration;
     }
 
 
@@ -78,6 +81,7 @@ class HostScopedRoleWriteAttributeHandler extends AbstractWriteAttributeHandler<
         }
 
         constraint.setAllowedHosts(hosts);
+        authorizerConfiguration.getAuthorizationDecisionCache().invalidate();
     }
 
     @Override
@@ -91,7 +91,7 @@ public class HostScopedRolesResourceDefinition extends SimpleResourceDefinition
         Map<String, HostEffectConstraint> constraintMap = new HashMap<String, HostEffectConstraint>();
         this.addHandler = new HostScopedRoleAdd(constraintMap, authorizerConfiguration);
         this.removeHandler =  new HostScopedRoleRemove(constraintMap, authorizerConfiguration);
-        this.writeAttributeHandler = new HostScopedRoleWriteAttributeHandler(constraintMap);
+        this.writeAttributeHandler = new HostScopedRoleWriteAttributeHandler(constraintMap, authorizerConfiguration);
     }
 
     @Override
@@ -93,7 +93,7 @@ public class ServerGroupScopedRoleResourceDefinition extends SimpleResourceDefin
         Map<String, ServerGroupEffectConstraint> constraintMap = new HashMap<String, ServerGroupEffectConstraint>();
         this.addHandler = new ServerGroupScopedRoleAdd(constraintMap, authorizerConfiguration);
         this.removeHandler =  new ServerGroupScopedRoleRemove(constraintMap, authorizerConfiguration);
-        this.writeAttributeHandler = new ServerGroupScopedRoleWriteAttributeHandler(constraintMap);
+        this.writeAttributeHandler = new ServerGroupScopedRoleWriteAttributeHandler(constraintMap, authorizerConfiguration);
     }
 
     @Override
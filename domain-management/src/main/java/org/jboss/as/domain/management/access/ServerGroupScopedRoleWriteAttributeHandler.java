@@ -31,6 +31,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.access.constraint.ServerGroupEffectConstraint;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.dmr.ModelNode;
 
@@ -42,10 +43,12 @@ import org.jboss.dmr.ModelNode;
 class ServerGroupScopedRoleWriteAttributeHandler extends AbstractWriteAttributeHandler<Void> {
 
     private final Map<String, ServerGroupEffectConstraint> constraintMap;
+    private final WritableAuthorizerConfiguration authorizerConfiguration;
 
-    public ServerGroupScopedRoleWriteAttributeHandler(Map<String, ServerGroupEffectConstraint> constraintMap) {
+    public ServerGroupScopedRoleWriteAttributeHandler(Map<String, ServerGroupEffectConstraint> constraintMap, WritableAuthorizerConfiguration authorizerConfiguration) {
         super(ServerGroupScopedRoleResourceDefinition.SERVER_GROUPS);
         this.constraintMap = constraintMap;
+        this.authorizerConfiguration = authorizerConfiguration;
     }
 
 
@@ -76,6 +79,7 @@ class ServerGroupScopedRoleWriteAttributeHandler extends AbstractWriteAttributeH
             }
 
             constraint.setAllowedGroups(serverGroups);
+            authorizerConfiguration.getAuthorizationDecisionCache().invalidate();
         }
     }
 
@@ -24,18 +24,43 @@ package org.jboss.as.domain.management.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BOOT_COMPLETE_NOTIFICATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXCLUSIVE_RUNNING_TIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_OPERATIONS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_LATENCY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESOURCE_TYPE_LATENCY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_TIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_MODIFICATION_BEGUN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_MODIFICATION_COMPLETE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SLOW_OPERATIONS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SLOW_OPERATION_THRESHOLD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_LOCK_HOLD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_LOCK_WAIT;
 
+import java.util.function.Function;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.LatencyHistogram;
 import org.jboss.as.controller.NotificationDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectMapAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationStatistics;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.domain.management._private.DomainManagementResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@code ResourceDefinition} for the management of operation execution.
@@ -52,6 +77,35 @@ public class ManagementControllerResourceDefinition extends SimpleResourceDefini
     private static final NotificationDefinition NOTIFICATION_COMPLETE_RUNTIME_MODIFICATION = NotificationDefinition.Builder.create(RUNTIME_MODIFICATION_COMPLETE, RESOLVER).build();
     private static final NotificationDefinition NOTIFICATION_BOOT_COMPLETE = NotificationDefinition.Builder.create(BOOT_COMPLETE_NOTIFICATION, RESOLVER).build();
 
+    private static final AttributeDefinition OPERATION_LATENCY_ATTRIBUTE =
+            new ObjectMapAttributeDefinition.Builder(OPERATION_LATENCY, LatencyHistogram.attributeDefinition(OPERATION_LATENCY)).build();
+    private static final AttributeDefinition RESOURCE_TYPE_LATENCY_ATTRIBUTE =
+            new ObjectMapAttributeDefinition.Builder(RESOURCE_TYPE_LATENCY, LatencyHistogram.attributeDefinition(RESOURCE_TYPE_LATENCY)).build();
+    private static final AttributeDefinition WRITE_LOCK_WAIT_ATTRIBUTE = LatencyHistogram.attributeDefinition(WRITE_LOCK_WAIT);
+    private static final AttributeDefinition WRITE_LOCK_HOLD_ATTRIBUTE = LatencyHistogram.attributeDefinition(WRITE_LOCK_HOLD);
+    private static final AttributeDefinition SLOW_OPERATION_THRESHOLD_ATTRIBUTE =
+            SimpleAttributeDefinitionBuilder.create(SLOW_OPERATION_THRESHOLD, ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition SLOW_OPERATIONS_ATTRIBUTE =
+            new ObjectListAttributeDefinition.Builder(SLOW_OPERATIONS,
+                    new ObjectTypeAttributeDefinition.Builder(SLOW_OPERATIONS,
+                            SimpleAttributeDefinitionBuilder.create(OP, ModelType.STRING).build(),
+                            SimpleAttributeDefinitionBuilder.create(OP_ADDR, ModelType.STRING).build(),
+                            nanoseconds(RUNNING_TIME),
+                            nanoseconds(EXCLUSIVE_RUNNING_TIME),
+                            new ObjectListAttributeDefinition.Builder(STEPS,
+                                    new ObjectTypeAttributeDefinition.Builder(STEPS,
+                                            SimpleAttributeDefinitionBuilder.create(STAGE, ModelType.STRING).build(),
+                                            SimpleAttributeDefinitionBuilder.create(OP, ModelType.STRING).build(),
+                                            SimpleAttributeDefinitionBuilder.create(OP_ADDR, ModelType.STRING).build(),
+                                            nanoseconds(RUNNING_TIME)
+                                    ).build()
+                            ).build()
+                    ).build())
+                    .build();
+
     public static final ResourceDefinition INSTANCE = new ManagementControllerResourceDefinition();
 
     private ManagementControllerResourceDefinition() {
@@ -60,6 +114,28 @@ public class ManagementControllerResourceDefinition extends SimpleResourceDefini
         );
     }
 
+    private static AttributeDefinition nanoseconds(String name) {
+        return SimpleAttributeDefinitionBuilder.create(name, ModelType.LONG)
+                .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                .build();
+    }
+
+    private static OperationStepHandler statisticsReadHandler(Function<OperationStatistics, ModelNode> reader) {
+        return (context, operation) -> context.getResult().set(reader.apply(OperationStatistics.getOperationStatistics(context)));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(OPERATION_LATENCY_ATTRIBUTE, statisticsReadHandler(OperationStatistics::getOperationLatency));
+        resourceRegistration.registerMetric(RESOURCE_TYPE_LATENCY_ATTRIBUTE, statisticsReadHandler(OperationStatistics::getResourceTypeLatency));
+        resourceRegistration.registerMetric(WRITE_LOCK_WAIT_ATTRIBUTE, statisticsReadHandler(OperationStatistics::getWriteLockWait));
+        resourceRegistration.registerMetric(WRITE_LOCK_HOLD_ATTRIBUTE, statisticsReadHandler(OperationStatistics::getWriteLockHold));
+        resourceRegistration.registerMetric(SLOW_OPERATIONS_ATTRIBUTE, statisticsReadHandler(OperationStatistics::getSlowOperations));
+        resourceRegistration.registerReadOnlyAttribute(SLOW_OPERATION_THRESHOLD_ATTRIBUTE,
+                statisticsReadHandler(statistics -> new ModelNode(statistics.getSlowOperationThreshold())));
+    }
+
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
@@ -24,6 +24,7 @@ import static org.wildfly.extension.elytron.ElytronDefinition.commonDependencies
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
@@ -89,10 +90,18 @@ class AggregateRealmDefinition extends SimpleResourceDefinition {
             .setAllowExpression(true)
             .build();
 
+    static final SimpleAttributeDefinition PARALLEL_RESOLUTION = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PARALLEL_RESOLUTION, ModelType.BOOLEAN, true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
     static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { AUTHENTICATION_REALM, AUTHORIZATION_REALM };
 
     static final AttributeDefinition[] ATTRIBUTES_8_0 = new AttributeDefinition[] { AUTHENTICATION_REALM, AUTHORIZATION_REALM, AUTHORIZATION_REALMS, PRINCIPAL_TRANSFORMER };
 
+    static final AttributeDefinition[] ATTRIBUTES_18_0 = new AttributeDefinition[] { AUTHENTICATION_REALM, AUTHORIZATION_REALM, AUTHORIZATION_REALMS, PRINCIPAL_TRANSFORMER, PARALLEL_RESOLUTION };
+
     private static final AbstractAddStepHandler ADD = new RealmAddHandler();
     private static final OperationStepHandler REMOVE = new TrivialCapabilityServiceRemoveHandler(ADD, SECURITY_REALM_RUNTIME_CAPABILITY);
 
@@ -107,8 +116,8 @@ class AggregateRealmDefinition extends SimpleResourceDefinition {
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
-        AbstractWriteAttributeHandler write = new ElytronReloadRequiredWriteAttributeHandler(ATTRIBUTES_8_0);
-        for (AttributeDefinition current : ATTRIBUTES_8_0) {
+        AbstractWriteAttributeHandler write = new ElytronReloadRequiredWriteAttributeHandler(ATTRIBUTES_18_0);
+        for (AttributeDefinition current : ATTRIBUTES_18_0) {
             resourceRegistration.registerReadWriteAttribute(current, null, write);
         }
     }
@@ -116,7 +125,7 @@ class AggregateRealmDefinition extends SimpleResourceDefinition {
     private static class RealmAddHandler extends BaseAddHandler {
 
         private RealmAddHandler() {
-            super(SECURITY_REALM_RUNTIME_CAPABILITY, ATTRIBUTES_8_0);
+            super(SECURITY_REALM_RUNTIME_CAPABILITY, ATTRIBUTES_18_0);
         }
 
         @Override
@@ -132,7 +141,11 @@ class AggregateRealmDefinition extends SimpleResourceDefinition {
             final List<InjectedValue<SecurityRealm>> authorizationRealmValues = new ArrayList<>();
             ModelNode authorizationRealmNode = AUTHORIZATION_REALM.resolveModelAttribute(context, model);
 
+            final List<String> authorizationRealmNames = new ArrayList<>();
+
             String principalTransformer = PRINCIPAL_TRANSFORMER.resolveModelAttribute(context, model).asStringOrNull();
+            boolean parallelResolution = PARALLEL_RESOLUTION.resolveModelAttribute(context, model).asBoolean();
+            String aggregateRealmName = context.getCurrentAddressValue();
 
             InjectedValue<PrincipalTransformer> principalTransformerValue = null;
             String principalTransformerRuntimeCapability;
@@ -145,16 +158,39 @@ class AggregateRealmDefinition extends SimpleResourceDefinition {
             }
 
             final InjectedValue<PrincipalTransformer> finalPrincipalTransformerValue = principalTransformerValue;
-            TrivialService<SecurityRealm> aggregateRealmService = new TrivialService<SecurityRealm>(() -> {
-                SecurityRealm[] authorizationRealms = new SecurityRealm[authorizationRealmValues.size()];
-                for (int i = 0; i < authorizationRealms.length; i++) {
-                    authorizationRealms[i] = authorizationRealmValues.get(i).getValue();
+            TrivialService<SecurityRealm> aggregateRealmService = new TrivialService<SecurityRealm>(new TrivialService.ValueSupplier<SecurityRealm>() {
+
+                private ParallelSecurityRealm parallelRealm;
+
+                @Override
+                public SecurityRealm get() {
+                    SecurityRealm[] authorizationRealms = new SecurityRealm[authorizationRealmValues.size()];
+                    for (int i = 0; i < authorizationRealms.length; i++) {
+                        authorizationRealms[i] = authorizationRealmValues.get(i).getValue();
+                    }
+
+                    SecurityRealm authenticationSecurityRealm = authenticationRealmValue.getValue();
+                    PrincipalTransformer transformer = finalPrincipalTransformerValue != null ? finalPrincipalTransformerValue.getValue() : null;
+                    Function<SecurityRealm[], SecurityRealm> realmFactory = realms -> transformer != null
+                            ? new AggregateSecurityRealm(authenticationSecurityRealm, transformer, realms)
+                            : new AggregateSecurityRealm(authenticationSecurityRealm, realms);
+
+                    if (parallelResolution) {
+                        // Without a transformer the aggregate realm reuses the authentication identity for the same realm
+                        parallelRealm = new ParallelSecurityRealm(aggregateRealmName, realmFactory, authorizationRealms,
+                                authorizationRealmNames.toArray(new String[0]), transformer == null ? authenticationSecurityRealm : null,
+                                transformer != null ? transformer : Function.identity(), true, 0);
+                        return parallelRealm;
+                    }
+                    return realmFactory.apply(authorizationRealms);
                 }
 
-                if (finalPrincipalTransformerValue != null) {
-                    return new AggregateSecurityRealm(authenticationRealmValue.getValue(), finalPrincipalTransformerValue.getValue(), authorizationRealms);
-                } else {
-                    return new AggregateSecurityRealm(authenticationRealmValue.getValue(), authorizationRealms);
+                @Override
+                public void dispose() {
+                    if (parallelRealm != null) {
+                        parallelRealm.shutdown();
+                        parallelRealm = null;
+                    }
                 }
             });
 
@@ -170,12 +206,14 @@ class AggregateRealmDefinition extends SimpleResourceDefinition {
                 InjectedValue<SecurityRealm> authorizationRealmValue = new InjectedValue<SecurityRealm>();
                 addRealmDependency(context, serviceBuilder, authorizationRealm, authorizationRealmValue);
                 authorizationRealmValues.add(authorizationRealmValue);
+                authorizationRealmNames.add(authorizationRealm);
             } else {
                 List<String> authorizationRealms = AUTHORIZATION_REALMS.unwrap(context, model);
                 for (String authorizationRealm : authorizationRealms) {
                     InjectedValue<SecurityRealm> authorizationRealmValue = new InjectedValue<SecurityRealm>();
                     addRealmDependency(context, serviceBuilder, authorizationRealm, authorizationRealmValue);
                     authorizationRealmValues.add(authorizationRealmValue);
+                    authorizationRealmNames.add(authorizationRealm);
                 }
             }
 
@@ -21,11 +21,15 @@ package org.wildfly.extension.elytron;
 import static org.wildfly.extension.elytron.Capabilities.SECURITY_REALM_CAPABILITY;
 import static org.wildfly.extension.elytron.Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY;
 import static org.wildfly.extension.elytron.ElytronDefinition.commonDependencies;
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.LatencyHistogram;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -36,13 +40,17 @@ import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceController.State;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.value.InjectedValue;
@@ -55,6 +63,7 @@ import org.wildfly.security.auth.server.event.SecurityRealmUnavailableEvent;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * A {@link ResourceDefinition} for a {@link SecurityRealm} for authentication and authorization of identities distributed between multiple realms.
@@ -84,7 +93,30 @@ class DistributedRealmDefinition extends SimpleResourceDefinition {
             .setDefaultValue(ModelNode.TRUE)
             .build();
 
-    static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {REALMS, IGNORE_UNAVAILABLE_REALMS, EMIT_EVENTS};
+    static final SimpleAttributeDefinition PARALLEL_RESOLUTION = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PARALLEL_RESOLUTION, ModelType.BOOLEAN, true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition RESOLUTION_TIMEOUT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.RESOLUTION_TIMEOUT, ModelType.LONG, true)
+            .setRequires(ElytronDescriptionConstants.PARALLEL_RESOLUTION)
+            .setValidator(new LongRangeValidator(1, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {REALMS, IGNORE_UNAVAILABLE_REALMS, EMIT_EVENTS, PARALLEL_RESOLUTION, RESOLUTION_TIMEOUT};
+
+    private static final ObjectListAttributeDefinition REALM_STATISTICS = new ObjectListAttributeDefinition.Builder(ElytronDescriptionConstants.REALM_STATISTICS,
+            new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.REALM_STATISTICS,
+                    SimpleAttributeDefinitionBuilder.create(ElytronDescriptionConstants.REALM, ModelType.STRING).build(),
+                    SimpleAttributeDefinitionBuilder.create(ElytronDescriptionConstants.TIMEOUTS, ModelType.LONG).build(),
+                    LatencyHistogram.attributeDefinition(ElytronDescriptionConstants.LATENCY))
+                .build())
+            .setStorageRuntime()
+            .build();
 
     private static final AbstractAddStepHandler ADD = new RealmAddHandler();
     private static final OperationStepHandler REMOVE = new TrivialCapabilityServiceRemoveHandler(ADD, SECURITY_REALM_RUNTIME_CAPABILITY);
@@ -104,6 +136,34 @@ class DistributedRealmDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition current : ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(current, null, write);
         }
+        resourceRegistration.registerMetric(REALM_STATISTICS, new RealmStatisticsHandler());
+    }
+
+    /**
+     * Reads the resolution statistics of each realm, which are undefined unless identities are resolved in parallel.
+     */
+    private static class RealmStatisticsHandler extends ElytronRuntimeOnlyHandler {
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceName serviceName = SECURITY_REALM_RUNTIME_CAPABILITY.fromBaseCapability(context.getCurrentAddressValue()).getCapabilityServiceName(SecurityRealm.class);
+            ServiceController<?> serviceController = context.getServiceRegistry(false).getRequiredService(serviceName);
+            State serviceState;
+            if ((serviceState = serviceController.getState()) != State.UP) {
+                throw ROOT_LOGGER.requiredServiceNotUp(serviceName, serviceState);
+            }
+            Object realm = serviceController.getValue();
+            if (realm instanceof ParallelSecurityRealm) {
+                ModelNode result = context.getResult().setEmptyList();
+                for (ParallelSecurityRealm.RealmStatistics statistics : ((ParallelSecurityRealm) realm).getStatistics()) {
+                    ModelNode realmStatistics = new ModelNode();
+                    realmStatistics.get(ElytronDescriptionConstants.REALM).set(statistics.getRealmName());
+                    realmStatistics.get(ElytronDescriptionConstants.TIMEOUTS).set(statistics.getTimeoutCount());
+                    realmStatistics.get(ElytronDescriptionConstants.LATENCY).set(statistics.getLatency().toModelNode());
+                    result.add(realmStatistics);
+                }
+            }
+        }
     }
 
     private static class RealmAddHandler extends BaseAddHandler {
@@ -122,26 +182,48 @@ class DistributedRealmDefinition extends SimpleResourceDefinition {
 
             boolean ignoreUnavailableRealms = IGNORE_UNAVAILABLE_REALMS.resolveModelAttribute(context, model).asBoolean();
             boolean emitEvents = EMIT_EVENTS.resolveModelAttribute(context, model).asBoolean();
+            boolean parallelResolution = PARALLEL_RESOLUTION.resolveModelAttribute(context, model).asBoolean();
+            long resolutionTimeout = RESOLUTION_TIMEOUT.resolveModelAttribute(context, model).asLong(0);
 
             List<String> distributedRealms = REALMS.unwrap(context, model);
 
-            TrivialService<SecurityRealm> distributedRealmService = new TrivialService<SecurityRealm>(() ->
-            {
-                SecurityRealm[] realms = new SecurityRealm[distributedRealmValues.size()];
+            String distributedRealmName = context.getCurrentAddressValue();
+            TrivialService<SecurityRealm> distributedRealmService = new TrivialService<SecurityRealm>(new TrivialService.ValueSupplier<SecurityRealm>() {
 
-                Consumer<Integer> unavailableRealmConsumer = (ignoreUnavailableRealms && emitEvents) ? (realmIndex) -> {
-                    SecurityDomain domain = SecurityDomain.getCurrent();
-                    String realm = distributedRealms.get(realmIndex);
-                    if (domain != null) {
-                        domain.handleSecurityEvent(new SecurityRealmUnavailableEvent(domain.getCurrentSecurityIdentity(), realm));
+                private ParallelSecurityRealm parallelRealm;
+
+                @Override
+                public SecurityRealm get() {
+                    SecurityRealm[] realms = new SecurityRealm[distributedRealmValues.size()];
+
+                    Consumer<Integer> unavailableRealmConsumer = (ignoreUnavailableRealms && emitEvents) ? (realmIndex) -> {
+                        SecurityDomain domain = SecurityDomain.getCurrent();
+                        String realm = distributedRealms.get(realmIndex);
+                        if (domain != null) {
+                            domain.handleSecurityEvent(new SecurityRealmUnavailableEvent(domain.getCurrentSecurityIdentity(), realm));
+                        }
+                    } : (realmIndex) -> {};
+
+                    for (int i = 0; i < distributedRealmValues.size(); i++) {
+                        realms[i] = distributedRealmValues.get(i).getValue();
                     }
-                } : (realmIndex) -> {};
 
-                for (int i = 0; i < distributedRealmValues.size(); i++) {
-                    realms[i] = distributedRealmValues.get(i).getValue();
+                    if (parallelResolution) {
+                        parallelRealm = new ParallelSecurityRealm(distributedRealmName,
+                                resolvedRealms -> new DistributedSecurityRealm(ignoreUnavailableRealms, unavailableRealmConsumer, resolvedRealms),
+                                realms, distributedRealms.toArray(new String[0]), null, Function.identity(), false, resolutionTimeout);
+                        return parallelRealm;
+                    }
+                    return new DistributedSecurityRealm(ignoreUnavailableRealms, unavailableRealmConsumer, realms);
                 }
 
-                return new DistributedSecurityRealm(ignoreUnavailableRealms, unavailableRealmConsumer, realms);
+                @Override
+                public void dispose() {
+                    if (parallelRealm != null) {
+                        parallelRealm.shutdown();
+                        parallelRealm = null;
+                    }
+                }
             });
 
             ServiceBuilder<SecurityRealm> serviceBuilder = serviceTarget.addService(realmName, distributedRealmService);
@@ -86,6 +86,8 @@ interface ElytronDescriptionConstants {
     String BCRYPT_MAPPER = "bcrypt-mapper";
 
     String CAA_IDENTITIES = "caa-identities";
+    String CACHE_MAXIMUM_AGE = "cache-maximum-age";
+    String CACHE_PREFETCH = "cache-prefetch";
     String CACHING_REALM = "caching-realm";
     String CASE_PRINCIPAL_TRANSFORMER = "case-principal-transformer";
     String CALLBACK_HANDLER = "callback-handler";
@@ -228,6 +230,8 @@ interface ElytronDescriptionConstants {
     String FORMAT = "format";
     String FORWARDING_MODE = "forwarding-mode";
     String FROM = "from";
+    String FULL_HANDSHAKE_COUNT = "full-handshake-count";
+    String FULL_HANDSHAKE_TIME = "full-handshake-time";
 
     String GENERATE_CERTIFICATE_SIGNING_REQUEST = "generate-certificate-signing-request";
     String GENERATE_KEY_PAIR = "generate-key-pair";
@@ -298,6 +302,7 @@ interface ElytronDescriptionConstants {
     String KID = "kid";
 
     String LAST_ACCESSED_TIME = "last-accessed-time";
+    String LATENCY = "latency";
     String LAYER = "layer";
     String LDAP_KEY_STORE = "ldap-key-store";
     String LDAP_MAPPING = "ldap-mapping";
@@ -363,6 +368,8 @@ interface ElytronDescriptionConstants {
 
     String NAME = "name";
     String NEED_CLIENT_AUTH = "need-client-auth";
+    String NEGOTIATED_CIPHER_SUITES = "negotiated-cipher-suites";
+    String NEGOTIATED_PROTOCOLS = "negotiated-protocols";
     String NEW_ALIAS = "new-alias";
     String NEW_IDENTITY_ATTRIBUTES = "new-identity-attributes";
     String NEW_IDENTITY_PARENT_DN = "new-identity-parent-dn";
@@ -377,6 +384,9 @@ interface ElytronDescriptionConstants {
     String OBTAIN_CERTIFICATE = "obtain-certificate";
     String OBTAIN_KERBEROS_TICKET = "obtain-kerberos-ticket";
     String OCSP = "ocsp";
+    String OCSP_CACHE_HITS = "ocsp-cache-hits";
+    String OCSP_CACHE_MISSES = "ocsp-cache-misses";
+    String OCSP_CACHE_STALE_SERVED = "ocsp-cache-stale-served";
     String OID = "oid";
     String ONLY_LEAF_CERT = "only-leaf-cert";
     String OPERATIONS = "operations";
@@ -391,6 +401,7 @@ interface ElytronDescriptionConstants {
     String OUTFLOW_SECURITY_DOMAINS = "outflow-security-domains";
 
     String PACKET_BUFFER_SIZE = "packet-buffer-size";
+    String PARALLEL_RESOLUTION = "parallel-resolution";
     String PATH = "path";
     String PASSWORD = "password";
     String PASSWORD_INDEX = "password-index";
@@ -452,6 +463,7 @@ interface ElytronDescriptionConstants {
     String REALM_MAPPER = "realm-mapper";
     String REALM_MAPPING = "realm-mapping";
     String REALM_NAME = "realm-name";
+    String REALM_STATISTICS = "realm-statistics";
     String REALMS = "realms";
     String REASON = "reason";
     String RECONNECT_ATTEMPTS = "reconnect-attempts";
@@ -473,11 +485,14 @@ interface ElytronDescriptionConstants {
     String REQUIRED_OIDS = "required-oids";
     String REQUIRED_ATTRIBUTES = "required-attributes";
     String REQUISITE = "requisite";
+    String RESOLUTION_TIMEOUT = "resolution-timeout";
     String RESOLVER = "resolver";
     String RESOLVERS = "resolvers";
     String RESPONDER = "responder";
     String RESPONDER_CERTIFICATE = "responder-certificate";
     String RESPONDER_KEYSTORE = "responder-keystore";
+    String RESUMED_HANDSHAKE_COUNT = "resumed-handshake-count";
+    String RESUMED_HANDSHAKE_TIME = "resumed-handshake-time";
     String REVERSE = "reverse";
     String REVOKE_CERTIFICATE = "revoke-certificate";
     String RIGHT = "right";
@@ -535,6 +550,7 @@ interface ElytronDescriptionConstants {
     String SERVER_SSL_CONTEXTS = "server-ssl-contexts";
     String SERVER_SSL_SNI_CONTEXT = "server-ssl-sni-context";
     String SERVER_SSL_SNI_CONTEXTS = "server-ssl-sni-contexts";
+    String SESSION_CACHE_HIT_RATIO = "session-cache-hit-ratio";
     String SESSION_TIMEOUT = "session-timeout";
     String SET_PASSWORD = "set-password";
     String SET_SECRET = "set-secret";
@@ -569,6 +585,7 @@ interface ElytronDescriptionConstants {
     String STAGING_URL = "staging-url";
     String START_SEGMENT = "start-segment";
     String STATE = "state";
+    String STATISTICS_ENABLED = "statistics-enabled";
     String STORE = "store";
     String SUBJECT = "subject";
     String SUBJECT_DN_FROM = "subject-dn-from";
@@ -580,6 +597,7 @@ interface ElytronDescriptionConstants {
 
     String TARGET_NAME = "target-name";
     String TERMS_OF_SERVICE = "terms-of-service";
+    String TIMEOUTS = "timeouts";
     String TLS = "tls";
     String TO = "to";
     String TOKEN_REALM = "token-realm";
@@ -41,5 +41,10 @@ public class ElytronSubsystemParser18_0 extends ElytronSubsystemParser17_0 {
     PersistentResourceXMLDescription getRealmParser() {
         return new RealmParser().realmParser_18;
     }
+
+    @Override
+    PersistentResourceXMLDescription getTlsParser() {
+        return new TlsParser().tlsParser_18_0;
+    }
 }
 
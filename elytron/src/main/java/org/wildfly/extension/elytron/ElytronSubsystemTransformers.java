@@ -180,7 +180,31 @@ public final class ElytronSubsystemTransformers implements ExtensionTransformerR
         .setDiscard(DiscardAttributeChecker.UNDEFINED, IGNORE_UNAVAILABLE_REALMS)
         .setDiscard(DiscardAttributeChecker.UNDEFINED, EMIT_EVENTS)
         .addRejectCheck(new RejectAttributeChecker.SimpleRejectAttributeChecker(ModelNode.TRUE), IGNORE_UNAVAILABLE_REALMS)
-        .addRejectCheck(RejectAttributeChecker.DEFINED, EMIT_EVENTS);
+        .addRejectCheck(RejectAttributeChecker.DEFINED, EMIT_EVENTS)
+        .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, ElytronDescriptionConstants.PARALLEL_RESOLUTION)
+        .addRejectCheck(RejectAttributeChecker.DEFINED, ElytronDescriptionConstants.PARALLEL_RESOLUTION, ElytronDescriptionConstants.RESOLUTION_TIMEOUT);
+        builder.addChildResource(PathElement.pathElement(AGGREGATE_REALM))
+        .getAttributeBuilder()
+        .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, ElytronDescriptionConstants.PARALLEL_RESOLUTION)
+        .addRejectCheck(RejectAttributeChecker.DEFINED, ElytronDescriptionConstants.PARALLEL_RESOLUTION)
+        .end();
+        Map<String, RejectAttributeChecker> ocspCacheCheckers = new HashMap<>();
+        ocspCacheCheckers.put(ElytronDescriptionConstants.CACHE_MAXIMUM_AGE, RejectAttributeChecker.DEFINED);
+        ocspCacheCheckers.put(ElytronDescriptionConstants.CACHE_PREFETCH, RejectAttributeChecker.DEFINED);
+        builder.addChildResource(PathElement.pathElement(ElytronDescriptionConstants.TRUST_MANAGER))
+        .getAttributeBuilder()
+        .addRejectCheck(new RejectAttributeChecker.ObjectFieldsRejectAttributeChecker(ocspCacheCheckers), ElytronDescriptionConstants.OCSP)
+        .end();
+        builder.addChildResource(PathElement.pathElement(ElytronDescriptionConstants.SERVER_SSL_CONTEXT))
+        .getAttributeBuilder()
+        .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, ElytronDescriptionConstants.STATISTICS_ENABLED)
+        .addRejectCheck(RejectAttributeChecker.DEFINED, ElytronDescriptionConstants.STATISTICS_ENABLED)
+        .end();
+        builder.addChildResource(PathElement.pathElement(ElytronDescriptionConstants.CLIENT_SSL_CONTEXT))
+        .getAttributeBuilder()
+        .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, ElytronDescriptionConstants.STATISTICS_ENABLED)
+        .addRejectCheck(RejectAttributeChecker.DEFINED, ElytronDescriptionConstants.STATISTICS_ENABLED)
+        .end();
     }
 
     private static void from17(ChainedTransformationDescriptionBuilder chainedBuilder) {
@@ -0,0 +1,430 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+
+import org.jboss.as.controller.LatencyHistogram;
+
+/**
+ * An {@link SSLContext} which records statistics of the handshakes performed by the {@link SSLEngine SSLEngines} it
+ * creates.
+ * <p>
+ * A handshake is timed from the first engine operation that takes part in it to the first operation reporting it is
+ * no longer in progress, so time spent waiting for the peer is included. A handshake which negotiated a session
+ * created before the handshake started is counted as resumed, otherwise as full. Post-handshake messages, such as
+ * TLS 1.3 session tickets, are not counted as handshakes. Connections made through the socket factories of the context
+ * are not counted.
+ */
+final class HandshakeStatisticsSSLContext extends SSLContext {
+
+    private final HandshakeStatistics statistics;
+
+    HandshakeStatisticsSSLContext(SSLContext delegate) {
+        this(delegate, new HandshakeStatistics());
+    }
+
+    private HandshakeStatisticsSSLContext(SSLContext delegate, HandshakeStatistics statistics) {
+        super(new StatisticsSSLContextSpi(delegate, statistics), delegate.getProvider(), delegate.getProtocol());
+        this.statistics = statistics;
+    }
+
+    HandshakeStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * The handshake statistics of an {@link SSLContext}.
+     */
+    static final class HandshakeStatistics {
+
+        private final LatencyHistogram fullHandshakeTime = new LatencyHistogram();
+        private final LatencyHistogram resumedHandshakeTime = new LatencyHistogram();
+        private final Map<String, LongAdder> protocols = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> cipherSuites = new ConcurrentHashMap<>();
+
+        LatencyHistogram getFullHandshakeTime() {
+            return fullHandshakeTime;
+        }
+
+        LatencyHistogram getResumedHandshakeTime() {
+            return resumedHandshakeTime;
+        }
+
+        long getFullHandshakeCount() {
+            return fullHandshakeTime.getCount();
+        }
+
+        long getResumedHandshakeCount() {
+            return resumedHandshakeTime.getCount();
+        }
+
+        /**
+         * Gets the number of handshakes which negotiated each protocol.
+         *
+         * @return the counts by protocol name, sorted by name
+         */
+        Map<String, Long> getProtocols() {
+            return snapshot(protocols);
+        }
+
+        /**
+         * Gets the number of handshakes which negotiated each cipher suite.
+         *
+         * @return the counts by cipher suite name, sorted by name
+         */
+        Map<String, Long> getCipherSuites() {
+            return snapshot(cipherSuites);
+        }
+
+        void record(SSLSession session, long nanos, boolean resumed) {
+            (resumed ? resumedHandshakeTime : fullHandshakeTime).record(nanos);
+            protocols.computeIfAbsent(session.getProtocol(), k -> new LongAdder()).increment();
+            cipherSuites.computeIfAbsent(session.getCipherSuite(), k -> new LongAdder()).increment();
+        }
+
+        private static Map<String, Long> snapshot(Map<String, LongAdder> counts) {
+            Map<String, Long> result = new TreeMap<>();
+            counts.forEach((name, count) -> result.put(name, count.sum()));
+            return result;
+        }
+    }
+
+    private static final class StatisticsSSLContextSpi extends SSLContextSpi {
+
+        private final SSLContext delegate;
+        private final HandshakeStatistics statistics;
+
+        StatisticsSSLContextSpi(SSLContext delegate, HandshakeStatistics statistics) {
+            this.delegate = delegate;
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] keyManagers, TrustManager[] trustManagers, SecureRandom secureRandom) {
+            // The delegate is already initialized
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            return new StatisticsSSLEngine(delegate.createSSLEngine(), statistics);
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            return new StatisticsSSLEngine(delegate.createSSLEngine(host, port), statistics);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+
+    private static final class StatisticsSSLEngine extends SSLEngine {
+
+        private final SSLEngine delegate;
+        private final HandshakeStatistics statistics;
+        /** Whether the next engine operation takes part in a handshake, which is the case until the initial handshake finishes. */
+        private volatile boolean handshaking = true;
+        /** The {@link System#nanoTime()} the current handshake started at, or {@code 0} if no handshake is being timed. */
+        private volatile long handshakeStart;
+        /** The {@link System#currentTimeMillis()} the current handshake started at, to compare with session creation times. */
+        private volatile long handshakeStartMillis;
+        /** The session of the last handshake recorded, as a TLS 1.3 key update reports finishing without a new session. */
+        private volatile SSLSession lastSession;
+        /** The application protocol selector as set on this engine, before it was adapted for the delegate. */
+        private volatile BiFunction<SSLEngine, List<String>, String> selector;
+
+        StatisticsSSLEngine(SSLEngine delegate, HandshakeStatistics statistics) {
+            super(delegate.getPeerHost(), delegate.getPeerPort());
+            this.delegate = delegate;
+            this.statistics = statistics;
+        }
+
+        private void beforeOperation() {
+            if (handshaking && handshakeStart == 0) {
+                handshakeStartMillis = System.currentTimeMillis();
+                handshakeStart = System.nanoTime();
+            }
+        }
+
+        private SSLEngineResult afterOperation(SSLEngineResult result) {
+            final HandshakeStatus status = result.getHandshakeStatus();
+            if (status == HandshakeStatus.FINISHED || status == HandshakeStatus.NOT_HANDSHAKING) {
+                // Not every handshake is reported finished, for example if it completed in a delegated task
+                final long start = handshakeStart;
+                if (start != 0) {
+                    final SSLSession session = delegate.getSession();
+                    if (session.isValid() && session != lastSession) {
+                        statistics.record(session, System.nanoTime() - start, session.getCreationTime() < handshakeStartMillis);
+                        lastSession = session;
+                    }
+                    handshakeStart = 0;
+                    handshaking = false;
+                }
+            } else {
+                // Includes handshakes initiated by the peer, which are timed from the next operation
+                handshaking = true;
+            }
+            return result;
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer src, ByteBuffer dst) throws SSLException {
+            beforeOperation();
+            return afterOperation(delegate.wrap(src, dst));
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer[] srcs, ByteBuffer dst) throws SSLException {
+            beforeOperation();
+            return afterOperation(delegate.wrap(srcs, dst));
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+            beforeOperation();
+            return afterOperation(delegate.wrap(srcs, offset, length, dst));
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer dst) throws SSLException {
+            beforeOperation();
+            return afterOperation(delegate.unwrap(src, dst));
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts) throws SSLException {
+            beforeOperation();
+            return afterOperation(delegate.unwrap(src, dsts));
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+            beforeOperation();
+            return afterOperation(delegate.unwrap(src, dsts, offset, length));
+        }
+
+        @Override
+        public void beginHandshake() throws SSLException {
+            delegate.beginHandshake();
+            handshaking = true;
+            beforeOperation();
+        }
+
+        @Override
+        public String getPeerHost() {
+            return delegate.getPeerHost();
+        }
+
+        @Override
+        public int getPeerPort() {
+            return delegate.getPeerPort();
+        }
+
+        @Override
+        public Runnable getDelegatedTask() {
+            return delegate.getDelegatedTask();
+        }
+
+        @Override
+        public void closeInbound() throws SSLException {
+            delegate.closeInbound();
+        }
+
+        @Override
+        public boolean isInboundDone() {
+            return delegate.isInboundDone();
+        }
+
+        @Override
+        public void closeOutbound() {
+            delegate.closeOutbound();
+        }
+
+        @Override
+        public boolean isOutboundDone() {
+            return delegate.isOutboundDone();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public String[] getEnabledCipherSuites() {
+            return delegate.getEnabledCipherSuites();
+        }
+
+        @Override
+        public void setEnabledCipherSuites(String[] suites) {
+            delegate.setEnabledCipherSuites(suites);
+        }
+
+        @Override
+        public String[] getSupportedProtocols() {
+            return delegate.getSupportedProtocols();
+        }
+
+        @Override
+        public String[] getEnabledProtocols() {
+            return delegate.getEnabledProtocols();
+        }
+
+        @Override
+        public void setEnabledProtocols(String[] protocols) {
+            delegate.setEnabledProtocols(protocols);
+        }
+
+        @Override
+        public SSLSession getSession() {
+            return delegate.getSession();
+        }
+
+        @Override
+        public SSLSession getHandshakeSession() {
+            return delegate.getHandshakeSession();
+        }
+
+        @Override
+        public HandshakeStatus getHandshakeStatus() {
+            return delegate.getHandshakeStatus();
+        }
+
+        @Override
+        public void setUseClientMode(boolean mode) {
+            delegate.setUseClientMode(mode);
+        }
+
+        @Override
+        public boolean getUseClientMode() {
+            return delegate.getUseClientMode();
+        }
+
+        @Override
+        public void setNeedClientAuth(boolean need) {
+            delegate.setNeedClientAuth(need);
+        }
+
+        @Override
+        public boolean getNeedClientAuth() {
+            return delegate.getNeedClientAuth();
+        }
+
+        @Override
+        public void setWantClientAuth(boolean want) {
+            delegate.setWantClientAuth(want);
+        }
+
+        @Override
+        public boolean getWantClientAuth() {
+            return delegate.getWantClientAuth();
+        }
+
+        @Override
+        public void setEnableSessionCreation(boolean flag) {
+            delegate.setEnableSessionCreation(flag);
+        }
+
+        @Override
+        public boolean getEnableSessionCreation() {
+            return delegate.getEnableSessionCreation();
+        }
+
+        @Override
+        public SSLParameters getSSLParameters() {
+            return delegate.getSSLParameters();
+        }
+
+        @Override
+        public void setSSLParameters(SSLParameters params) {
+            delegate.setSSLParameters(params);
+        }
+
+        @Override
+        public String getApplicationProtocol() {
+            return delegate.getApplicationProtocol();
+        }
+
+        @Override
+        public String getHandshakeApplicationProtocol() {
+            return delegate.getHandshakeApplicationProtocol();
+        }
+
+        @Override
+        public void setHandshakeApplicationProtocolSelector(BiFunction<SSLEngine, List<String>, String> selector) {
+            this.selector = selector;
+            // the selector is called with the delegate, but must see the engine it was set on
+            delegate.setHandshakeApplicationProtocolSelector(selector == null ? null : (engine, protocols) -> selector.apply(this, protocols));
+        }
+
+        @Override
+        public BiFunction<SSLEngine, List<String>, String> getHandshakeApplicationProtocolSelector() {
+            return selector;
+        }
+    }
+}
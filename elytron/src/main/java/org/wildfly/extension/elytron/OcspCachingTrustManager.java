@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertPathValidator;
+import java.security.cert.CertPathValidatorException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.PKIXParameters;
+import java.security.cert.PKIXRevocationChecker;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+/**
+ * A trust manager that checks the revocation status of certificates using OCSP responses from an
+ * {@link OcspResponseCache}.
+ * <p>
+ * The certificate chain is first validated by a delegate trust manager with revocation checking disabled, then the
+ * path up to the first trust anchor is validated again with a {@link PKIXRevocationChecker} that is given the cached
+ * responses. Any certificate a response could not be obtained for is left to the JDK to check itself, unless its
+ * responder recently could not be reached. Such a certificate fails the check straight away, or if soft fail is enabled
+ * and no other certificate remains to be checked, the revocation check is skipped as the JDK would have after waiting
+ * on the responder.
+ */
+final class OcspCachingTrustManager extends X509ExtendedTrustManager {
+
+    private final X509ExtendedTrustManager delegate;
+    private final Set<TrustAnchor> trustAnchors;
+    private final PKIXRevocationChecker revocationChecker;
+    private final boolean onlyEndEntity;
+    private final boolean softFail;
+    private final OcspResponseCache cache;
+
+    OcspCachingTrustManager(final X509ExtendedTrustManager delegate, final Set<TrustAnchor> trustAnchors,
+                            final PKIXRevocationChecker revocationChecker, final OcspResponseCache cache) {
+        this.delegate = delegate;
+        this.trustAnchors = trustAnchors;
+        this.revocationChecker = revocationChecker;
+        this.onlyEndEntity = revocationChecker.getOptions().contains(PKIXRevocationChecker.Option.ONLY_END_ENTITY);
+        this.softFail = revocationChecker.getOptions().contains(PKIXRevocationChecker.Option.SOFT_FAIL);
+        this.cache = cache;
+    }
+
+    OcspResponseCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        delegate.checkClientTrusted(chain, authType, socket);
+        checkRevocation(chain);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        delegate.checkServerTrusted(chain, authType, socket);
+        checkRevocation(chain);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine sslEngine) throws CertificateException {
+        delegate.checkClientTrusted(chain, authType, sslEngine);
+        checkRevocation(chain);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine sslEngine) throws CertificateException {
+        delegate.checkServerTrusted(chain, authType, sslEngine);
+        checkRevocation(chain);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkClientTrusted(chain, authType);
+        checkRevocation(chain);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkServerTrusted(chain, authType);
+        checkRevocation(chain);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+
+    private void checkRevocation(X509Certificate[] chain) throws CertificateException {
+        final List<X509Certificate> path = new ArrayList<>(chain.length);
+        for (X509Certificate certificate : chain) {
+            if (isTrustAnchor(certificate)) {
+                break;
+            }
+            path.add(certificate);
+        }
+        if (path.isEmpty()) {
+            return;
+        }
+
+        final Map<X509Certificate, byte[]> responses = new HashMap<>();
+        final int checked = onlyEndEntity ? 1 : path.size();
+        int unreachable = 0;
+        for (int i = 0; i < checked; i++) {
+            final X509Certificate certificate = path.get(i);
+            final X509Certificate issuer = i + 1 < chain.length ? chain[i + 1] : findIssuer(certificate);
+            if (issuer != null) {
+                final byte[] response = cache.getResponse(certificate, issuer);
+                if (response != null) {
+                    responses.put(certificate, response);
+                } else if (cache.isResponderUnreachable(certificate)) {
+                    if (!softFail) {
+                        throw ROOT_LOGGER.ocspResponderUnreachable(certificate.getSubjectX500Principal().getName());
+                    }
+                    unreachable++;
+                }
+            }
+        }
+        if (unreachable == checked) {
+            ROOT_LOGGER.debugf("Skipping the revocation check of '%s' as its OCSP responder could not be reached", path.get(0).getSubjectX500Principal());
+            return;
+        }
+
+        final PKIXRevocationChecker checker = (PKIXRevocationChecker) revocationChecker.clone();
+        checker.setOcspResponses(responses);
+        try {
+            final PKIXParameters parameters = new PKIXParameters(trustAnchors);
+            parameters.setRevocationEnabled(false);
+            parameters.addCertPathChecker(checker);
+            CertPathValidator.getInstance("PKIX").validate(CertificateFactory.getInstance("X.509").generateCertPath(path), parameters);
+        } catch (CertPathValidatorException e) {
+            if (e.getReason() != CertPathValidatorException.BasicReason.REVOKED) {
+                // The JDK may have rejected one of the cached responses, don't offer it again
+                responses.keySet().forEach(cache::invalidate);
+            }
+            throw new CertificateException(e);
+        } catch (GeneralSecurityException e) {
+            throw new CertificateException(e);
+        }
+    }
+
+    private boolean isTrustAnchor(X509Certificate certificate) {
+        for (TrustAnchor trustAnchor : trustAnchors) {
+            if (certificate.equals(trustAnchor.getTrustedCert())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private X509Certificate findIssuer(X509Certificate certificate) {
+        for (TrustAnchor trustAnchor : trustAnchors) {
+            final X509Certificate trusted = trustAnchor.getTrustedCert();
+            if (trusted != null && trusted.getSubjectX500Principal().equals(certificate.getIssuerX500Principal())) {
+                return trusted;
+            }
+        }
+        return null;
+    }
+}
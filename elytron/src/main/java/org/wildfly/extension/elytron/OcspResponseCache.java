@@ -0,0 +1,405 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.cert.PKIXRevocationChecker;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.security.asn1.ASN1;
+import org.wildfly.security.asn1.ASN1Exception;
+import org.wildfly.security.asn1.DERDecoder;
+import org.wildfly.security.asn1.DEREncoder;
+
+/**
+ * A cache of OCSP responses, shared by every certificate path validation made by a trust manager.
+ * <p>
+ * Responses are fetched ahead of validation and handed to the JDK's {@link PKIXRevocationChecker} using
+ * {@link PKIXRevocationChecker#setOcspResponses(Map)}, so the JDK still verifies the signature, status and validity
+ * of each response it is given. A response is reused until the earlier of its {@code nextUpdate} time and the
+ * configured maximum age after it was fetched. If the responder cannot be reached once a response is due to be
+ * refreshed, the cached response continues to be served for as long as its {@code nextUpdate} time allows.
+ * Responses without a {@code nextUpdate} time are used once and never cached, as the responder is signalling that
+ * newer information is always available.
+ * <p>
+ * If a responder cannot be reached it is not contacted again for {@link #RETRY_AFTER_FAILURE} milliseconds, during
+ * which {@link #isResponderUnreachable(X509Certificate)} lets the trust manager apply its soft fail setting without
+ * the JDK waiting on the responder again.
+ * <p>
+ * If prefetching is enabled, responses that have been used more than once are refreshed in the background once
+ * three quarters of their lifetime in the cache has passed, so frequently seen certificates do not wait on the
+ * responder at all.
+ */
+final class OcspResponseCache {
+
+    private static final String AUTHORITY_INFO_ACCESS_OID = "1.3.6.1.5.5.7.1.1";
+    private static final String OCSP_ACCESS_METHOD_OID = "1.3.6.1.5.5.7.48.1";
+    private static final String OCSP_BASIC_RESPONSE_OID = "1.3.6.1.5.5.7.48.1.1";
+    private static final String SHA1_OID = "1.3.14.3.2.26";
+    private static final int URI_NAME_TAG = 6;
+    private static final int ENUMERATED_TYPE = 10;
+    private static final DateTimeFormatter GENERALIZED_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /** Upper bound on the number of responses held before expired responses are purged or the cache is discarded. */
+    private static final int MAX_ENTRIES = 10000;
+    /** The number of uses after which a response is considered frequently seen and is prefetched. */
+    private static final int PREFETCH_MIN_HITS = 2;
+    /** Use the same timeout as the JDK's own OCSP client. */
+    private static final int TIMEOUT = (int) TimeUnit.SECONDS.toMillis(Integer.getInteger("com.sun.security.ocsp.timeout", 15));
+    /** The time in milliseconds a responder that could not be reached is not contacted again. */
+    static final long RETRY_AFTER_FAILURE = TimeUnit.SECONDS.toMillis(30);
+
+    private final URI responder;
+    private final long maximumAge;
+    private final ThreadPoolExecutor prefetchExecutor;
+    private final Map<X509Certificate, Entry> entries = new ConcurrentHashMap<>();
+    /** The time until which each responder that could not be reached is not contacted again */
+    private final Map<URI, Long> unreachableUntil = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    /**
+     * @param responder the responder to contact, or {@code null} to use the responder named by each certificate
+     * @param maximumAge the maximum time in seconds a response is used before it is refreshed
+     * @param prefetch whether to refresh frequently used responses in the background before they are due
+     */
+    OcspResponseCache(final URI responder, final long maximumAge, final boolean prefetch) {
+        this.responder = responder;
+        this.maximumAge = TimeUnit.SECONDS.toMillis(maximumAge);
+        if (prefetch) {
+            prefetchExecutor = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "OCSP response prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            prefetchExecutor = null;
+        }
+    }
+
+    /**
+     * Gets a response for the certificate, fetching it from the responder if there is no usable cached response.
+     *
+     * @param certificate the certificate to check
+     * @param issuer the issuer of the certificate
+     * @return the encoded OCSP response, or {@code null} if none could be obtained, in which case the JDK will
+     *         contact the responder itself and apply its soft fail setting
+     */
+    byte[] getResponse(final X509Certificate certificate, final X509Certificate issuer) {
+        final long now = System.currentTimeMillis();
+        final Entry entry = entries.get(certificate);
+        if (entry != null && now < entry.refreshAt) {
+            hits.increment();
+            if (prefetchExecutor != null && entry.hits.incrementAndGet() >= PREFETCH_MIN_HITS && now >= entry.prefetchAt
+                    && entry.refreshing.compareAndSet(false, true)) {
+                prefetchExecutor.execute(() -> {
+                    try {
+                        store(certificate, fetch(certificate, issuer));
+                    } finally {
+                        entry.refreshing.set(false);
+                    }
+                });
+            }
+            return entry.response;
+        }
+        misses.increment();
+        final Entry fetched = fetch(certificate, issuer);
+        if (fetched != null && fetched.isCacheable()) {
+            store(certificate, fetched);
+            return fetched.response;
+        }
+        if (entry != null) {
+            if (now < entry.expiresAt) {
+                staleServed.increment();
+                return entry.response;
+            }
+            entries.remove(certificate, entry);
+        }
+        return fetched == null ? null : fetched.response;
+    }
+
+    /**
+     * Gets whether the responder for the certificate recently could not be reached, in which case the JDK would only
+     * wait for it to time out again.
+     *
+     * @param certificate the certificate to check
+     * @return {@code true} if the responder is not being contacted, {@code false} otherwise
+     */
+    boolean isResponderUnreachable(final X509Certificate certificate) {
+        final URI uri = responder != null ? responder : getResponderUri(certificate);
+        return uri != null && isUnreachable(uri);
+    }
+
+    private boolean isUnreachable(final URI uri) {
+        final Long until = unreachableUntil.get(uri);
+        if (until == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() >= until) {
+            unreachableUntil.remove(uri, until);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Discards the cached response for the certificate, for example because the JDK rejected it.
+     *
+     * @param certificate the certificate
+     */
+    void invalidate(final X509Certificate certificate) {
+        entries.remove(certificate);
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    long getStaleServedCount() {
+        return staleServed.sum();
+    }
+
+    private void store(final X509Certificate certificate, final Entry entry) {
+        if (entry == null || !entry.isCacheable()) {
+            return;
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            final long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> now >= e.expiresAt);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+        }
+        entries.put(certificate, entry);
+    }
+
+    private Entry fetch(final X509Certificate certificate, final X509Certificate issuer) {
+        final URI uri = responder != null ? responder : getResponderUri(certificate);
+        if (uri == null || isUnreachable(uri)) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        final byte[] response;
+        try {
+            response = post(uri, createRequest(certificate, issuer));
+        } catch (IOException e) {
+            unreachableUntil.put(uri, System.currentTimeMillis() + RETRY_AFTER_FAILURE);
+            ROOT_LOGGER.debugf(e, "Unable to obtain OCSP response for certificate '%s' from '%s'", certificate.getSubjectX500Principal(), uri);
+            return null;
+        } catch (GeneralSecurityException | ASN1Exception e) {
+            ROOT_LOGGER.debugf(e, "Unable to obtain OCSP response for certificate '%s' from '%s'", certificate.getSubjectX500Principal(), uri);
+            return null;
+        }
+        long nextUpdate;
+        try {
+            nextUpdate = getNextUpdate(response, certificate);
+        } catch (RuntimeException e) {
+            // Let the JDK report what is wrong with the response
+            ROOT_LOGGER.debugf(e, "Unable to parse OCSP response for certificate '%s' from '%s'", certificate.getSubjectX500Principal(), uri);
+            nextUpdate = 0;
+        }
+        return new Entry(response, now, Math.min(nextUpdate, now + maximumAge), nextUpdate);
+    }
+
+    private static byte[] post(final URI uri, final byte[] request) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+        try {
+            connection.setConnectTimeout(TIMEOUT);
+            connection.setReadTimeout(TIMEOUT);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(request.length);
+            connection.setRequestProperty("Content-Type", "application/ocsp-request");
+            connection.setRequestProperty("Accept", "application/ocsp-response");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(request);
+            }
+            final int responseCode = connection.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + responseCode);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                return in.readAllBytes();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Creates an {@code OCSPRequest} as defined by RFC 6960 for a single certificate, identified using SHA-1 as
+     * that is what the JDK uses to match the response to the certificate.
+     */
+    private static byte[] createRequest(final X509Certificate certificate, final X509Certificate issuer) throws GeneralSecurityException, ASN1Exception {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final byte[] issuerNameHash = digest.digest(issuer.getSubjectX500Principal().getEncoded());
+        final DERDecoder publicKeyInfo = new DERDecoder(issuer.getPublicKey().getEncoded());
+        publicKeyInfo.startSequence();
+        publicKeyInfo.skipElement();
+        final byte[] issuerKeyHash = digest.digest(publicKeyInfo.decodeBitString());
+
+        final DEREncoder encoder = new DEREncoder();
+        encoder.startSequence(); // OCSPRequest
+        encoder.startSequence(); // TBSRequest
+        encoder.startSequence(); // requestList
+        encoder.startSequence(); // Request
+        encoder.startSequence(); // CertID
+        encoder.startSequence();
+        encoder.encodeObjectIdentifier(SHA1_OID);
+        encoder.encodeNull();
+        encoder.endSequence();
+        encoder.encodeOctetString(issuerNameHash);
+        encoder.encodeOctetString(issuerKeyHash);
+        encoder.encodeInteger(certificate.getSerialNumber());
+        encoder.endSequence();
+        encoder.endSequence();
+        encoder.endSequence();
+        encoder.endSequence();
+        encoder.endSequence();
+        return encoder.getEncoded();
+    }
+
+    /**
+     * Gets the {@code nextUpdate} time of the response for the certificate.
+     *
+     * @return the time in milliseconds since the epoch, or {@code 0} if the response is not successful or has no
+     *         {@code nextUpdate} time
+     */
+    private static long getNextUpdate(final byte[] response, final X509Certificate certificate) throws ASN1Exception {
+        final DERDecoder decoder = new DERDecoder(response);
+        decoder.startSequence(); // OCSPResponse
+        if (decoder.peekType() != ENUMERATED_TYPE) {
+            return 0;
+        }
+        final byte[] status = decoder.drainElementValue();
+        if (status.length != 1 || status[0] != 0 || !decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, true)) {
+            return 0;
+        }
+        decoder.startExplicit(0);
+        decoder.startSequence(); // ResponseBytes
+        if (!OCSP_BASIC_RESPONSE_OID.equals(decoder.decodeObjectIdentifier())) {
+            return 0;
+        }
+        final DERDecoder basicResponse = new DERDecoder(decoder.decodeOctetString());
+        basicResponse.startSequence(); // BasicOCSPResponse
+        basicResponse.startSequence(); // ResponseData
+        if (basicResponse.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, true)) {
+            basicResponse.skipElement(); // version
+        }
+        basicResponse.skipElement(); // responderID
+        basicResponse.skipElement(); // producedAt
+        basicResponse.startSequence(); // responses
+        while (basicResponse.hasNextElement()) {
+            final DERDecoder singleResponse = new DERDecoder(basicResponse.drainElement());
+            singleResponse.startSequence();
+            final DERDecoder certId = new DERDecoder(singleResponse.drainElement());
+            certId.startSequence();
+            certId.skipElement(); // hashAlgorithm
+            certId.skipElement(); // issuerNameHash
+            certId.skipElement(); // issuerKeyHash
+            if (!certificate.getSerialNumber().equals(certId.decodeInteger())) {
+                continue;
+            }
+            singleResponse.skipElement(); // certStatus
+            singleResponse.skipElement(); // thisUpdate
+            if (!singleResponse.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, true)) {
+                return 0;
+            }
+            singleResponse.startExplicit(0);
+            final String nextUpdate = new String(singleResponse.drainElementValue(), StandardCharsets.US_ASCII);
+            if (!nextUpdate.endsWith("Z") || nextUpdate.length() < 15) {
+                return 0;
+            }
+            // Any fractional seconds only make the response valid for a little longer
+            return LocalDateTime.parse(nextUpdate.substring(0, 14), GENERALIZED_TIME).toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        return 0;
+    }
+
+    private static URI getResponderUri(final X509Certificate certificate) {
+        final byte[] extension = certificate.getExtensionValue(AUTHORITY_INFO_ACCESS_OID);
+        if (extension == null) {
+            return null;
+        }
+        try {
+            final DERDecoder decoder = new DERDecoder(new DERDecoder(extension).decodeOctetString());
+            decoder.startSequence();
+            while (decoder.hasNextElement()) {
+                final DERDecoder accessDescription = new DERDecoder(decoder.drainElement());
+                accessDescription.startSequence();
+                if (OCSP_ACCESS_METHOD_OID.equals(accessDescription.decodeObjectIdentifier())
+                        && accessDescription.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, URI_NAME_TAG, false)) {
+                    accessDescription.decodeImplicit(URI_NAME_TAG);
+                    return new URI(accessDescription.decodeIA5String());
+                }
+            }
+        } catch (ASN1Exception | URISyntaxException e) {
+            ROOT_LOGGER.debugf(e, "Unable to read the OCSP responder of certificate '%s'", certificate.getSubjectX500Principal());
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        private final byte[] response;
+        private final long fetchedAt;
+        private final long refreshAt;
+        private final long prefetchAt;
+        private final long expiresAt;
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(final byte[] response, final long fetchedAt, final long refreshAt, final long expiresAt) {
+            this.response = response;
+            this.fetchedAt = fetchedAt;
+            this.refreshAt = refreshAt;
+            this.prefetchAt = fetchedAt + (refreshAt - fetchedAt) * 3 / 4;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isCacheable() {
+            return refreshAt > fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.security.Principal;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.jboss.as.controller.LatencyHistogram;
+import org.wildfly.security.auth.SupportLevel;
+import org.wildfly.security.auth.server.RealmIdentity;
+import org.wildfly.security.auth.server.RealmUnavailableException;
+import org.wildfly.security.auth.server.SecurityRealm;
+import org.wildfly.security.auth.server.event.RealmEvent;
+import org.wildfly.security.authz.Attributes;
+import org.wildfly.security.authz.AuthorizationIdentity;
+import org.wildfly.security.credential.Credential;
+import org.wildfly.security.evidence.Evidence;
+
+/**
+ * A {@link SecurityRealm} which resolves an identity against several realms concurrently, for combining realms such
+ * as {@link org.wildfly.security.auth.realm.AggregateSecurityRealm AggregateSecurityRealm} and
+ * {@link org.wildfly.security.auth.realm.DistributedSecurityRealm DistributedSecurityRealm} that otherwise query each
+ * of their realms in turn.
+ * <p>
+ * For each lookup by principal, every realm starts resolving the identity in the background and a combining realm is
+ * created over realms that hand out those results. The combining realm still consults its realms in the configured
+ * order and applies its own rules to what they return, such as merging attributes or using the first realm containing
+ * the identity, so only the waiting overlaps. Results that are never asked for, for example those of later realms once
+ * an earlier realm contained the identity, are disposed of along with the identity.
+ * <p>
+ * A resolution the executor rejects runs on the thread needing its result, without a timeout, so a saturated
+ * executor degrades to sequential resolution. Idle threads exit after a minute, and the executor is shut down when
+ * the service providing the realm stops. Lookups by evidence are always sequential, as the principal for the other realms is only
+ * known once the evidence has been resolved.
+ */
+final class ParallelSecurityRealm implements SecurityRealm {
+
+    /** Upper bound on the number of resolutions in progress in the background for one combining realm. */
+    private static final int MAX_THREADS = 64;
+
+    private final Function<SecurityRealm[], SecurityRealm> realmFactory;
+    private final SecurityRealm sequentialRealm;
+    private final SecurityRealm[] realms;
+    private final SecurityRealm sharedRealm;
+    private final Function<Principal, Principal> principalTransformer;
+    private final boolean resolveAuthorization;
+    private final long timeout;
+    private final RealmStatistics[] statistics;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param name the name of the combining realm, used to name threads
+     * @param realmFactory creates the combining realm over the given realms
+     * @param realms the realms to resolve identities against
+     * @param realmNames the names of the realms, in the same order
+     * @param sharedRealm a realm the combining realm resolves itself and that is used as is, or {@code null}
+     * @param principalTransformer the transformation the combining realm applies before it queries the realms
+     * @param resolveAuthorization whether to also obtain the {@link AuthorizationIdentity} of identities that exist
+     * @param timeout the time in milliseconds a realm has to resolve the identity, or {@code 0} to wait indefinitely
+     */
+    ParallelSecurityRealm(String name, Function<SecurityRealm[], SecurityRealm> realmFactory, SecurityRealm[] realms,
+            String[] realmNames, SecurityRealm sharedRealm, Function<Principal, Principal> principalTransformer,
+            boolean resolveAuthorization, long timeout) {
+        this.realmFactory = realmFactory;
+        this.sequentialRealm = realmFactory.apply(realms);
+        this.realms = realms;
+        this.sharedRealm = sharedRealm;
+        this.principalTransformer = principalTransformer;
+        this.resolveAuthorization = resolveAuthorization;
+        this.timeout = timeout;
+        this.statistics = new RealmStatistics[realms.length];
+        for (int i = 0; i < realms.length; i++) {
+            statistics[i] = new RealmStatistics(realmNames[i]);
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, MAX_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, name + " identity resolution " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops resolving identities in the background. Resolutions already in progress complete, and later lookups
+     * resolve each identity on the thread needing it.
+     */
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the resolution statistics of each realm, in the configured order.
+     *
+     * @return the statistics
+     */
+    List<RealmStatistics> getStatistics() {
+        return Arrays.asList(statistics);
+    }
+
+    @Override
+    public RealmIdentity getRealmIdentity(Principal principal) throws RealmUnavailableException {
+        final Principal transformed = principalTransformer.apply(principal);
+        if (transformed == null) {
+            // Let the combining realm report it
+            return sequentialRealm.getRealmIdentity(principal);
+        }
+        final Resolution[] resolutions = new Resolution[realms.length];
+        final SecurityRealm[] resolvedRealms = new SecurityRealm[realms.length];
+        for (int i = 0; i < realms.length; i++) {
+            if (realms[i] == sharedRealm) {
+                resolvedRealms[i] = realms[i];
+            } else {
+                resolutions[i] = new Resolution(realms[i], statistics[i], transformed);
+                try {
+                    executor.execute(resolutions[i].task);
+                } catch (RejectedExecutionException e) {
+                    resolutions[i].inline = true;
+                }
+                resolvedRealms[i] = resolutions[i];
+            }
+        }
+        boolean ok = false;
+        try {
+            final RealmIdentity identity = realmFactory.apply(resolvedRealms).getRealmIdentity(principal);
+            ok = true;
+            return new CombinedIdentity(identity, resolutions);
+        } finally {
+            if (!ok) {
+                release(resolutions);
+            }
+        }
+    }
+
+    @Override
+    public RealmIdentity getRealmIdentity(Evidence evidence) throws RealmUnavailableException {
+        return sequentialRealm.getRealmIdentity(evidence);
+    }
+
+    @Override
+    public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+        return sequentialRealm.getCredentialAcquireSupport(credentialType, algorithmName, parameterSpec);
+    }
+
+    @Override
+    public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) throws RealmUnavailableException {
+        return sequentialRealm.getEvidenceVerifySupport(evidenceType, algorithmName);
+    }
+
+    @Override
+    public void handleRealmEvent(RealmEvent event) {
+        sequentialRealm.handleRealmEvent(event);
+    }
+
+    private static void release(Resolution[] resolutions) {
+        for (Resolution resolution : resolutions) {
+            if (resolution != null) {
+                resolution.release();
+            }
+        }
+    }
+
+    /**
+     * The resolution statistics of one realm.
+     */
+    static final class RealmStatistics {
+
+        private final String realmName;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+
+        RealmStatistics(String realmName) {
+            this.realmName = realmName;
+        }
+
+        String getRealmName() {
+            return realmName;
+        }
+
+        /**
+         * Gets the time taken by the realm to resolve identities, whether or not the result was used.
+         *
+         * @return the latency histogram
+         */
+        LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        long getTimeoutCount() {
+            return timeouts.sum();
+        }
+    }
+
+    /**
+     * The background resolution of an identity against one realm, which also stands in for the realm in the combining
+     * realm created for the lookup.
+     */
+    private final class Resolution implements SecurityRealm {
+
+        private final FutureTask<ResolvedIdentity> task = new FutureTask<>(this::resolve);
+        private final SecurityRealm realm;
+        private final RealmStatistics realmStatistics;
+        private final Principal principal;
+        private final long deadline;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final AtomicReference<ResolvedIdentity> result = new AtomicReference<>();
+        private volatile boolean abandoned;
+        /** Whether the executor rejected the resolution, leaving it to the thread needing the result. */
+        private boolean inline;
+
+        Resolution(SecurityRealm realm, RealmStatistics realmStatistics, Principal principal) {
+            this.realm = realm;
+            this.realmStatistics = realmStatistics;
+            this.principal = principal;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        }
+
+        private ResolvedIdentity resolve() throws RealmUnavailableException {
+            final long start = System.nanoTime();
+            RealmIdentity identity = null;
+            try {
+                identity = realm.getRealmIdentity(principal);
+                final boolean exists = identity.exists();
+                final ResolvedIdentity resolved = new ResolvedIdentity(identity, exists,
+                        resolveAuthorization && exists ? identity.getAuthorizationIdentity() : null);
+                identity = null;
+                result.set(resolved);
+                if (abandoned) {
+                    resolved.dispose();
+                }
+                return resolved;
+            } finally {
+                realmStatistics.latency.record(System.nanoTime() - start);
+                if (identity != null) {
+                    identity.dispose();
+                }
+            }
+        }
+
+        /**
+         * Gets the result, resolving it on the calling thread if the executor rejected it.
+         */
+        private ResolvedIdentity await() throws RealmUnavailableException {
+            if (inline) {
+                task.run();
+            }
+            try {
+                return timeout > 0 && !inline ? task.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : task.get();
+            } catch (TimeoutException e) {
+                realmStatistics.timeouts.increment();
+                abandon();
+                throw ROOT_LOGGER.realmResolutionTimedOut(realmStatistics.realmName, timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandon();
+                throw new RealmUnavailableException(e);
+            } catch (CancellationException e) {
+                throw new RealmUnavailableException(e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RealmUnavailableException) {
+                    throw (RealmUnavailableException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RealmUnavailableException(cause);
+            }
+        }
+
+        /**
+         * Gives up on the result, disposing of it whenever it becomes available.
+         */
+        private void abandon() {
+            abandoned = true;
+            task.cancel(true);
+            final ResolvedIdentity resolved = result.get();
+            if (resolved != null) {
+                resolved.dispose();
+            }
+        }
+
+        /**
+         * Abandons the result if the combining realm never asked for it.
+         */
+        void release() {
+            if (claimed.compareAndSet(false, true)) {
+                abandon();
+            }
+        }
+
+        @Override
+        public RealmIdentity getRealmIdentity(Principal principal) throws RealmUnavailableException {
+            if (this.principal.equals(principal) && claimed.compareAndSet(false, true)) {
+                return await();
+            }
+            return realm.getRealmIdentity(principal);
+        }
+
+        @Override
+        public RealmIdentity getRealmIdentity(Evidence evidence) throws RealmUnavailableException {
+            return realm.getRealmIdentity(evidence);
+        }
+
+        @Override
+        public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+            return realm.getCredentialAcquireSupport(credentialType, algorithmName, parameterSpec);
+        }
+
+        @Override
+        public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) throws RealmUnavailableException {
+            return realm.getEvidenceVerifySupport(evidenceType, algorithmName);
+        }
+
+        @Override
+        public void handleRealmEvent(RealmEvent event) {
+            realm.handleRealmEvent(event);
+        }
+    }
+
+    /**
+     * A {@link RealmIdentity} which forwards everything to another identity.
+     */
+    private static class ForwardingIdentity implements RealmIdentity {
+
+        final RealmIdentity delegate;
+
+        ForwardingIdentity(RealmIdentity delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Principal getRealmIdentityPrincipal() {
+            return delegate.getRealmIdentityPrincipal();
+        }
+
+        @Override
+        public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName) throws RealmUnavailableException {
+            return delegate.getCredentialAcquireSupport(credentialType, algorithmName);
+        }
+
+        @Override
+        public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+            return delegate.getCredentialAcquireSupport(credentialType, algorithmName, parameterSpec);
+        }
+
+        @Override
+        public <C extends Credential> C getCredential(Class<C> credentialType) throws RealmUnavailableException {
+            return delegate.getCredential(credentialType);
+        }
+
+        @Override
+        public <C extends Credential> C getCredential(Class<C> credentialType, String algorithmName) throws RealmUnavailableException {
+            return delegate.getCredential(credentialType, algorithmName);
+        }
+
+        @Override
+        public <C extends Credential> C getCredential(Class<C> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+            return delegate.getCredential(credentialType, algorithmName, parameterSpec);
+        }
+
+        @Override
+        public <C extends Credential, R> R applyToCredential(Class<C> credentialType, Function<C, R> function) throws RealmUnavailableException {
+            return delegate.applyToCredential(credentialType, function);
+        }
+
+        @Override
+        public <C extends Credential, R> R applyToCredential(Class<C> credentialType, String algorithmName, Function<C, R> function) throws RealmUnavailableException {
+            return delegate.applyToCredential(credentialType, algorithmName, function);
+        }
+
+        @Override
+        public <C extends Credential, R> R applyToCredential(Class<C> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec, Function<C, R> function) throws RealmUnavailableException {
+            return delegate.applyToCredential(credentialType, algorithmName, parameterSpec, function);
+        }
+
+        @Override
+        public void updateCredential(Credential credential) throws RealmUnavailableException {
+            delegate.updateCredential(credential);
+        }
+
+        @Override
+        public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) throws RealmUnavailableException {
+            return delegate.getEvidenceVerifySupport(evidenceType, algorithmName);
+        }
+
+        @Override
+        public boolean verifyEvidence(Evidence evidence) throws RealmUnavailableException {
+            return delegate.verifyEvidence(evidence);
+        }
+
+        @Override
+        public boolean exists() throws RealmUnavailableException {
+            return delegate.exists();
+        }
+
+        @Override
+        public AuthorizationIdentity getAuthorizationIdentity() throws RealmUnavailableException {
+            return delegate.getAuthorizationIdentity();
+        }
+
+        @Override
+        public Attributes getAttributes() throws RealmUnavailableException {
+            return delegate.getAttributes();
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+    }
+
+    /**
+     * An identity resolved in the background, which remembers what was already obtained from the realm.
+     */
+    private static final class ResolvedIdentity extends ForwardingIdentity {
+
+        private final boolean exists;
+        private final AuthorizationIdentity authorizationIdentity;
+        private final AtomicBoolean disposed = new AtomicBoolean();
+
+        ResolvedIdentity(RealmIdentity delegate, boolean exists, AuthorizationIdentity authorizationIdentity) {
+            super(delegate);
+            this.exists = exists;
+            this.authorizationIdentity = authorizationIdentity;
+        }
+
+        @Override
+        public boolean exists() {
+            return exists;
+        }
+
+        @Override
+        public AuthorizationIdentity getAuthorizationIdentity() throws RealmUnavailableException {
+            return authorizationIdentity != null ? authorizationIdentity : delegate.getAuthorizationIdentity();
+        }
+
+        @Override
+        public Attributes getAttributes() throws RealmUnavailableException {
+            return authorizationIdentity != null ? authorizationIdentity.getAttributes() : delegate.getAttributes();
+        }
+
+        @Override
+        public void dispose() {
+            // Both the combining realm and an abandoned resolution may dispose of the identity
+            if (disposed.compareAndSet(false, true)) {
+                delegate.dispose();
+            }
+        }
+    }
+
+    /**
+     * The identity returned by the combining realm, which also disposes of the results it did not use.
+     */
+    private static final class CombinedIdentity extends ForwardingIdentity {
+
+        private final Resolution[] resolutions;
+
+        CombinedIdentity(RealmIdentity delegate, Resolution[] resolutions) {
+            super(delegate);
+            this.resolutions = resolutions;
+        }
+
+        @Override
+        public void dispose() {
+            try {
+                delegate.dispose();
+            } finally {
+                release(resolutions);
+            }
+        }
+    }
+}
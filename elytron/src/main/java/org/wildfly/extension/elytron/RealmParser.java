@@ -43,6 +43,9 @@ class RealmParser {
     private final PersistentResourceXMLDescription aggregateRealmParser_8_0 = builder(PathElement.pathElement(ElytronDescriptionConstants.AGGREGATE_REALM))
             .addAttributes(AggregateRealmDefinition.ATTRIBUTES_8_0)
             .build();
+    private final PersistentResourceXMLDescription aggregateRealmParser_18 = builder(PathElement.pathElement(ElytronDescriptionConstants.AGGREGATE_REALM))
+            .addAttributes(AggregateRealmDefinition.ATTRIBUTES_18_0)
+            .build();
     private final PersistentResourceXMLDescription customRealmParser = builder(PathElement.pathElement(ElytronDescriptionConstants.CUSTOM_REALM))
             .addAttributes(CustomComponentDefinition.ATTRIBUTES)
             .setUseElementsForGroups(false)
@@ -135,6 +138,8 @@ class RealmParser {
             .addAttribute(DistributedRealmDefinition.REALMS, AttributeParser.STRING_LIST, AttributeMarshaller.STRING_LIST)
             .addAttribute(DistributedRealmDefinition.IGNORE_UNAVAILABLE_REALMS)
             .addAttribute(DistributedRealmDefinition.EMIT_EVENTS)
+            .addAttribute(DistributedRealmDefinition.PARALLEL_RESOLUTION)
+            .addAttribute(DistributedRealmDefinition.RESOLUTION_TIMEOUT)
             .build();
     private final PersistentResourceXMLDescription failoverRealmParser = builder(PathElement.pathElement(ElytronDescriptionConstants.FAILOVER_REALM))
             .addAttributes(FailoverRealmDefinition.ATTRIBUTES)
@@ -269,7 +274,7 @@ class RealmParser {
             .build();
 
     final PersistentResourceXMLDescription realmParser_18 = decorator(ElytronDescriptionConstants.SECURITY_REALMS)
-            .addChild(aggregateRealmParser_8_0)
+            .addChild(aggregateRealmParser_18)
             .addChild(customRealmParser)
             .addChild(customModifiableRealmParser)
             .addChild(identityRealmParser)
@@ -55,7 +55,11 @@ import java.security.Principal;
 import java.security.PrivateKey;
 import java.security.Provider;
 import java.security.SecureRandom;
+import java.security.cert.CertPathValidator;
 import java.security.cert.CertificateException;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.PKIXRevocationChecker;
+import java.security.cert.X509CertSelector;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -68,9 +72,12 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import javax.net.ssl.CertPathTrustManagerParameters;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
@@ -83,6 +90,7 @@ import javax.net.ssl.X509ExtendedTrustManager;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.LatencyHistogram;
 import org.jboss.as.controller.MapAttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.ObjectListAttributeDefinition;
@@ -98,6 +106,7 @@ import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.logging.ControllerLogger;
@@ -120,6 +129,7 @@ import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.common.function.ExceptionSupplier;
+import org.wildfly.extension.elytron.HandshakeStatisticsSSLContext.HandshakeStatistics;
 import org.wildfly.extension.elytron.TrivialResourceDefinition.Builder;
 import org.wildfly.extension.elytron.TrivialService.ValueSupplier;
 import org.wildfly.extension.elytron._private.ElytronSubsystemMessages;
@@ -230,6 +240,8 @@ class SSLDefinitions {
             //.setDefaultValue(new ModelNode(CipherSuiteSelector.OPENSSL_DEFAULT_CIPHER_SUITE_NAMES))
             .build();
 
+    private static final int DEFAULT_MAX_CERT_PATH = 5;
+
     private static final String[] ALLOWED_PROTOCOLS = { "SSLv2", "SSLv2Hello", "SSLv3", "TLSv1", "TLSv1.1", "TLSv1.2", "TLSv1.3" };
 
     static final StringListAttributeDefinition PROTOCOLS = new StringListAttributeDefinition.Builder(ElytronDescriptionConstants.PROTOCOLS)
@@ -289,6 +301,12 @@ class SSLDefinitions {
             .setRestartAllServices()
             .build();
 
+    static final SimpleAttributeDefinition STATISTICS_ENABLED = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.STATISTICS_ENABLED, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setRestartAllServices()
+            .build();
+
     static final SimpleAttributeDefinition KEY_MANAGER = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.KEY_MANAGER, ModelType.STRING, true)
             .setMinSize(1)
             .setCapabilityReference(KEY_MANAGER_CAPABILITY, SSL_CONTEXT_CAPABILITY)
@@ -371,7 +389,21 @@ class SSLDefinitions {
             .setRequires(ElytronDescriptionConstants.RESPONDER_CERTIFICATE)
             .build();
 
-    static final ObjectTypeAttributeDefinition OCSP = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.OCSP, RESPONDER, PREFER_CRLS, RESPONDER_CERTIFICATE, RESPONDER_KEYSTORE)
+    static final SimpleAttributeDefinition CACHE_MAXIMUM_AGE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CACHE_MAXIMUM_AGE, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1))
+            .setMeasurementUnit(MeasurementUnit.SECONDS)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_PREFETCH = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CACHE_PREFETCH, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setRequires(ElytronDescriptionConstants.CACHE_MAXIMUM_AGE)
+            .setRestartAllServices()
+            .build();
+
+    static final ObjectTypeAttributeDefinition OCSP = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.OCSP, RESPONDER, PREFER_CRLS, RESPONDER_CERTIFICATE, RESPONDER_KEYSTORE, CACHE_MAXIMUM_AGE, CACHE_PREFETCH)
             .setRequired(false)
             .setRestartAllServices()
             .build();
@@ -404,6 +436,42 @@ class SSLDefinitions {
             .setStorageRuntime()
             .build();
 
+    private static final SimpleAttributeDefinition FULL_HANDSHAKE_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.FULL_HANDSHAKE_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition RESUMED_HANDSHAKE_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.RESUMED_HANDSHAKE_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition SESSION_CACHE_HIT_RATIO = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SESSION_CACHE_HIT_RATIO, ModelType.DOUBLE)
+            .setStorageRuntime()
+            .build();
+
+    private static final ObjectTypeAttributeDefinition FULL_HANDSHAKE_TIME = LatencyHistogram.attributeDefinition(ElytronDescriptionConstants.FULL_HANDSHAKE_TIME);
+
+    private static final ObjectTypeAttributeDefinition RESUMED_HANDSHAKE_TIME = LatencyHistogram.attributeDefinition(ElytronDescriptionConstants.RESUMED_HANDSHAKE_TIME);
+
+    private static final SimpleMapAttributeDefinition NEGOTIATED_PROTOCOLS = new SimpleMapAttributeDefinition.Builder(ElytronDescriptionConstants.NEGOTIATED_PROTOCOLS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleMapAttributeDefinition NEGOTIATED_CIPHER_SUITES = new SimpleMapAttributeDefinition.Builder(ElytronDescriptionConstants.NEGOTIATED_CIPHER_SUITES, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition OCSP_CACHE_HITS = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.OCSP_CACHE_HITS, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition OCSP_CACHE_MISSES = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.OCSP_CACHE_MISSES, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition OCSP_CACHE_STALE_SERVED = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.OCSP_CACHE_STALE_SERVED, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
 
     /**
      * A simple {@link ModelTypeValidator} that requires that values are contained on a pre-defined list of string.
@@ -804,6 +872,19 @@ class SSLDefinitions {
                     throw new OperationFailedException(e);
                 }
 
+                Integer cacheMaximumAge = CACHE_MAXIMUM_AGE.resolveModelAttribute(context, ocspNode).asIntOrNull();
+                final OcspResponseCache ocspResponseCache;
+                if (cacheMaximumAge != null) {
+                    if (! crlFiles.isEmpty()) {
+                        throw ROOT_LOGGER.ocspCacheWithCertificateRevocationLists();
+                    }
+                    // Created once per resource so cached responses survive restarts of the trust manager service
+                    ocspResponseCache = new OcspResponseCache(responderUri, cacheMaximumAge,
+                            CACHE_PREFETCH.resolveModelAttribute(context, ocspNode).asBoolean());
+                } else {
+                    ocspResponseCache = null;
+                }
+
                 X509RevocationTrustManager.Builder builder = X509RevocationTrustManager.builder();
                 builder.setResponderURI(responderUri);
                 builder.setSoftFail(softFail);
@@ -827,6 +908,7 @@ class SSLDefinitions {
                     }
                 }
                 final List<CrlFile> finalCrlFiles = crlFiles;
+                final Integer finalMaxCertPath = maxCertPath;
                 return () -> {
                     TrustManagerFactory trustManagerFactory = createTrustManagerFactory(providersInjector.getOptionalValue(), providerName, algorithm);
                     KeyStore keyStore = keyStoreInjector.getOptionalValue();
@@ -839,15 +921,22 @@ class SSLDefinitions {
                         }
                     }
 
+                    X509Certificate responderCert = null;
                     if (responderCertAlias != null) {
                         KeyStore responderStore = responderStoreInjector.getOptionalValue();
                         try {
-                            builder.setOcspResponderCert((X509Certificate) responderStore.getCertificate(responderCertAlias));
+                            responderCert = (X509Certificate) responderStore.getCertificate(responderCertAlias);
+                            builder.setOcspResponderCert(responderCert);
                         } catch (KeyStoreException e) {
                             throw ElytronSubsystemMessages.ROOT_LOGGER.failedToLoadResponderCert(responderCertAlias, e);
                         }
                     }
 
+                    if (ocspResponseCache != null) {
+                        return createOcspCachingTrustManager(trustManagerFactory, keyStore, ocspResponseCache, responderUri,
+                                responderCert, softFail, onlyLeafCert, finalMaxCertPath);
+                    }
+
                     builder.setTrustStore(keyStore);
                     builder.setTrustManagerFactory(trustManagerFactory);
 
@@ -860,6 +949,43 @@ class SSLDefinitions {
                 };
             }
 
+            /**
+             * Creates a trust manager that checks revocation using OCSP only, the same as {@link X509RevocationTrustManager}
+             * does when no certificate revocation list is configured, but with responses obtained from the cache.
+             */
+            private TrustManager createOcspCachingTrustManager(TrustManagerFactory trustManagerFactory, KeyStore keyStore,
+                    OcspResponseCache ocspResponseCache, URI responderUri, X509Certificate responderCert, boolean softFail,
+                    boolean onlyLeafCert, Integer maxCertPath) throws StartException {
+                try {
+                    PKIXBuilderParameters parameters = new PKIXBuilderParameters(keyStore, new X509CertSelector());
+                    parameters.setRevocationEnabled(false);
+                    parameters.setMaxPathLength(maxCertPath != null ? maxCertPath : DEFAULT_MAX_CERT_PATH);
+                    trustManagerFactory.init(new CertPathTrustManagerParameters(parameters));
+
+                    PKIXRevocationChecker revocationChecker = (PKIXRevocationChecker) CertPathValidator.getInstance("PKIX").getRevocationChecker();
+                    revocationChecker.setOcspResponder(responderUri);
+                    revocationChecker.setOcspResponderCert(responderCert);
+                    Set<PKIXRevocationChecker.Option> options = EnumSet.of(PKIXRevocationChecker.Option.NO_FALLBACK);
+                    if (onlyLeafCert) {
+                        options.add(PKIXRevocationChecker.Option.ONLY_END_ENTITY);
+                    }
+                    if (softFail) {
+                        options.add(PKIXRevocationChecker.Option.SOFT_FAIL);
+                    }
+                    revocationChecker.setOptions(options);
+
+                    for (TrustManager trustManager : trustManagerFactory.getTrustManagers()) {
+                        if (trustManager instanceof X509ExtendedTrustManager) {
+                            return new OcspCachingTrustManager((X509ExtendedTrustManager) trustManager, parameters.getTrustAnchors(),
+                                    revocationChecker, ocspResponseCache);
+                        }
+                    }
+                } catch (GeneralSecurityException e) {
+                    throw new StartException(e);
+                }
+                throw ROOT_LOGGER.noTypeFound(X509ExtendedTrustManager.class.getSimpleName());
+            }
+
             private List<InputStream> getCrlStreams(List<CrlFile> crlFiles) throws StartException {
                 List<InputStream> crlStreams = new ArrayList<>();
                 for (CrlFile crl : crlFiles) {
@@ -996,9 +1122,41 @@ class SSLDefinitions {
                 .addOperation(new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.INIT, RESOURCE_RESOLVER)
                         .setRuntimeOnly()
                         .build(), init(TRUST_MANAGER_UTIL))
+                .addReadOnlyAttribute(OCSP_CACHE_HITS, new OcspCacheRuntimeHandler(TRUST_MANAGER_UTIL, OcspResponseCache::getHitCount))
+                .addReadOnlyAttribute(OCSP_CACHE_MISSES, new OcspCacheRuntimeHandler(TRUST_MANAGER_UTIL, OcspResponseCache::getMissCount))
+                .addReadOnlyAttribute(OCSP_CACHE_STALE_SERVED, new OcspCacheRuntimeHandler(TRUST_MANAGER_UTIL, OcspResponseCache::getStaleServedCount))
                 .build();
     }
 
+    /**
+     * Reads a statistic of the OCSP response cache of a trust manager, which is undefined if the trust manager does not
+     * cache OCSP responses.
+     */
+    private static class OcspCacheRuntimeHandler extends ElytronRuntimeOnlyHandler {
+
+        private final ServiceUtil<TrustManager> trustManagerUtil;
+        private final ToLongFunction<OcspResponseCache> statistic;
+
+        OcspCacheRuntimeHandler(ServiceUtil<TrustManager> trustManagerUtil, ToLongFunction<OcspResponseCache> statistic) {
+            this.trustManagerUtil = trustManagerUtil;
+            this.statistic = statistic;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceName serviceName = trustManagerUtil.serviceName(operation);
+            ServiceController<TrustManager> serviceController = getRequiredService(context.getServiceRegistry(false), serviceName, TrustManager.class);
+            State serviceState;
+            if ((serviceState = serviceController.getState()) != State.UP) {
+                throw ROOT_LOGGER.requiredServiceNotUp(serviceName, serviceState);
+            }
+            TrustManager trustManager = serviceController.getValue();
+            if (trustManager instanceof OcspCachingTrustManager) {
+                context.getResult().set(statistic.applyAsLong(((OcspCachingTrustManager) trustManager).getCache()));
+            }
+        }
+    }
+
     private static OperationStepHandler init(ServiceUtil<?> managerUtil) {
         return new ElytronRuntimeOnlyHandler() {
             @Override
@@ -1243,12 +1401,49 @@ class SSLDefinitions {
                 protected ServiceUtil<SSLContext> getSSLContextServiceUtil() {
                     return server ? SERVER_SERVICE_UTIL : CLIENT_SERVICE_UTIL;
                 }
-            }).addChild(new SSLSessionDefinition(server));
+            }).addReadOnlyAttribute(FULL_HANDSHAKE_COUNT, handshakeStatisticsHandler(server, statistics -> new ModelNode(statistics.getFullHandshakeCount())))
+                    .addReadOnlyAttribute(RESUMED_HANDSHAKE_COUNT, handshakeStatisticsHandler(server, statistics -> new ModelNode(statistics.getResumedHandshakeCount())))
+                    .addReadOnlyAttribute(SESSION_CACHE_HIT_RATIO, handshakeStatisticsHandler(server, statistics -> {
+                        long resumed = statistics.getResumedHandshakeCount();
+                        long total = resumed + statistics.getFullHandshakeCount();
+                        return total == 0 ? new ModelNode() : new ModelNode((double) resumed / total);
+                    }))
+                    .addReadOnlyAttribute(FULL_HANDSHAKE_TIME, handshakeStatisticsHandler(server, statistics -> statistics.getFullHandshakeTime().toModelNode()))
+                    .addReadOnlyAttribute(RESUMED_HANDSHAKE_TIME, handshakeStatisticsHandler(server, statistics -> statistics.getResumedHandshakeTime().toModelNode()))
+                    .addReadOnlyAttribute(NEGOTIATED_PROTOCOLS, handshakeStatisticsHandler(server, statistics -> counts(statistics.getProtocols())))
+                    .addReadOnlyAttribute(NEGOTIATED_CIPHER_SUITES, handshakeStatisticsHandler(server, statistics -> counts(statistics.getCipherSuites())))
+                    .addChild(new SSLSessionDefinition(server));
         }
 
         return builder.build();
     }
 
+    /**
+     * Creates a handler reading a handshake statistic of an SSL context, which is undefined if the SSL context does not
+     * record handshake statistics.
+     */
+    private static SSLContextRuntimeHandler handshakeStatisticsHandler(boolean server, Function<HandshakeStatistics, ModelNode> statistic) {
+        return new SSLContextRuntimeHandler() {
+            @Override
+            protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+                if (sslContext instanceof HandshakeStatisticsSSLContext) {
+                    result.set(statistic.apply(((HandshakeStatisticsSSLContext) sslContext).getStatistics()));
+                }
+            }
+
+            @Override
+            protected ServiceUtil<SSLContext> getSSLContextServiceUtil() {
+                return server ? SERVER_SERVICE_UTIL : CLIENT_SERVICE_UTIL;
+            }
+        };
+    }
+
+    private static ModelNode counts(Map<String, Long> counts) {
+        ModelNode result = new ModelNode().setEmptyObject();
+        counts.forEach((name, count) -> result.get(name).set(count));
+        return result;
+    }
+
     private static <T> InjectedValue<T> addDependency(String baseName, SimpleAttributeDefinition attribute,
                                                       Class<T> type, ServiceBuilder<SSLContext> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException {
 
@@ -1280,7 +1475,7 @@ class SSLDefinitions {
                 SECURITY_DOMAIN, WANT_CLIENT_AUTH, NEED_CLIENT_AUTH, AUTHENTICATION_OPTIONAL,
                 USE_CIPHER_SUITES_ORDER, MAXIMUM_SESSION_CACHE_SIZE, SESSION_TIMEOUT, WRAP, keyManagerDefinition, TRUST_MANAGER,
                 PRE_REALM_PRINCIPAL_TRANSFORMER, POST_REALM_PRINCIPAL_TRANSFORMER, FINAL_PRINCIPAL_TRANSFORMER, REALM_MAPPER,
-                providersDefinition, PROVIDER_NAME};
+                providersDefinition, PROVIDER_NAME, STATISTICS_ENABLED};
 
         AbstractAddStepHandler add = new TrivialAddHandler<SSLContext>(SSLContext.class, ServiceController.Mode.ACTIVE, ServiceController.Mode.PASSIVE, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY) {
 
@@ -1308,6 +1503,7 @@ class SSLDefinitions {
                 final int maximumSessionCacheSize = MAXIMUM_SESSION_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
                 final int sessionTimeout = SESSION_TIMEOUT.resolveModelAttribute(context, model).asInt();
                 final boolean wrap = WRAP.resolveModelAttribute(context, model).asBoolean();
+                final boolean statisticsEnabled = STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean();
 
                 return () -> {
                     SecurityDomain securityDomain = securityDomainInjector.getOptionalValue();
@@ -1369,7 +1565,8 @@ class SSLDefinitions {
                     }
 
                     try {
-                        return builder.build().create();
+                        SSLContext sslContext = builder.build().create();
+                        return statisticsEnabled ? new HandshakeStatisticsSSLContext(sslContext) : sslContext;
                     } catch (GeneralSecurityException e) {
                         throw new StartException(e);
                     }
@@ -1453,7 +1650,7 @@ class SSLDefinitions {
                 .build();
 
         AttributeDefinition[] attributes = new AttributeDefinition[]{CIPHER_SUITE_FILTER, CIPHER_SUITE_NAMES, PROTOCOLS,
-                KEY_MANAGER, TRUST_MANAGER, providersDefinition, PROVIDER_NAME};
+                KEY_MANAGER, TRUST_MANAGER, providersDefinition, PROVIDER_NAME, STATISTICS_ENABLED};
 
         AbstractAddStepHandler add = new TrivialAddHandler<SSLContext>(SSLContext.class, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY) {
             @Override
@@ -1467,6 +1664,7 @@ class SSLDefinitions {
                 final List<String> protocols = PROTOCOLS.unwrap(context, model);
                 final String cipherSuiteFilter = CIPHER_SUITE_FILTER.resolveModelAttribute(context, model).asString(); // has default value, can't be null
                 final String cipherSuiteNames = CIPHER_SUITE_NAMES.resolveModelAttribute(context, model).asStringOrNull(); // doesn't have a default value yet since we are disabling TLS 1.3 by default
+                final boolean statisticsEnabled = STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean();
                 return () -> {
                     X509ExtendedKeyManager keyManager = getX509KeyManager(keyManagerInjector.getOptionalValue());
                     X509ExtendedTrustManager trustManager = getX509TrustManager(trustManagerInjector.getOptionalValue());
@@ -1500,7 +1698,8 @@ class SSLDefinitions {
                     }
 
                     try {
-                        return builder.build().create();
+                        SSLContext sslContext = builder.build().create();
+                        return statisticsEnabled ? new HandshakeStatisticsSSLContext(sslContext) : sslContext;
                     } catch (GeneralSecurityException e) {
                         throw new StartException(e);
                     }
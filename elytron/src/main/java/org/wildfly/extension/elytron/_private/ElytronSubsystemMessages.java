@@ -27,6 +27,7 @@ import java.security.KeyStoreException;
 import java.security.NoSuchProviderException;
 import java.security.Policy;
 import java.security.Provider;
+import java.security.cert.CertificateException;
 
 import javax.xml.stream.Location;
 import javax.xml.stream.XMLStreamException;
@@ -44,6 +45,7 @@ import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceController.State;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartException;
+import org.wildfly.security.auth.server.RealmUnavailableException;
 import org.wildfly.security.auth.server.SecurityRealm;
 import org.wildfly.security.x500.cert.acme.AcmeException;
 
@@ -617,6 +619,9 @@ public interface ElytronSubsystemMessages extends BasicLogger {
     @Message(id = 1065, value = "Multiple maximum-cert-path definitions found.")
     OperationFailedException multipleMaximumCertPathDefinitions();
 
+    @Message(id = 1221, value = "OCSP response caching cannot be used together with certificate revocation lists.")
+    OperationFailedException ocspCacheWithCertificateRevocationLists();
+
     @Message(id = 1066, value = "Invalid value for cipher-suite-names. %s")
     OperationFailedException invalidCipherSuiteNames(@Cause Throwable cause, String causeMessage);
 
@@ -733,6 +738,12 @@ public interface ElytronSubsystemMessages extends BasicLogger {
             "use Elytron Tool command `filesystem-realm-encrypt`")
     OperationFailedException addSecretKeyToInitializedFilesystemRealm();
 
+    @Message(id = 1222, value = "Security realm '%s' did not resolve the identity within %d milliseconds")
+    RealmUnavailableException realmResolutionTimedOut(String realmName, long timeout);
+
+    @Message(id = 1223, value = "The OCSP responder for certificate '%s' could not be reached")
+    CertificateException ocspResponderUnreachable(String subject);
+
     /*
      * Don't just add new errors to the end of the file, there may be an appropriate section above for the resource.
      *
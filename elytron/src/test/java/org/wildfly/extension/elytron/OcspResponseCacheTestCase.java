@@ -0,0 +1,262 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.CertPathValidator;
+import java.security.cert.CertificateException;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.PKIXRevocationChecker;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.CertPathTrustManagerParameters;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.security.auth.x500.X500Principal;
+
+import com.sun.net.httpserver.HttpServer;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.jcajce.JcaBasicOCSPRespBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.security.x500.cert.BasicConstraintsExtension;
+import org.wildfly.security.x500.cert.SelfSignedX509CertificateAndSigningKey;
+import org.wildfly.security.x500.cert.X509CertificateBuilder;
+
+/**
+ * Tests of the OCSP response cache used by trust managers, against a stub responder signing responses with the issuer
+ * key.
+ */
+public class OcspResponseCacheTestCase {
+
+    private static final X500Principal ISSUER_DN = new X500Principal("O=Elytron, OU=Elytron, C=CZ, ST=Elytron, CN=OCSP Issuer");
+    private static final X500Principal LEAF_DN = new X500Principal("O=Elytron, OU=Elytron, C=CZ, ST=Elytron, CN=OCSP Leaf");
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile boolean available = true;
+    private volatile boolean revoked;
+    private volatile boolean nextUpdate = true;
+
+    private SelfSignedX509CertificateAndSigningKey issuer;
+    private X509Certificate[] chain;
+    private HttpServer responder;
+    private URI responderUri;
+
+    @Before
+    public void setUp() throws Exception {
+        issuer = SelfSignedX509CertificateAndSigningKey.builder()
+                .setDn(ISSUER_DN)
+                .setKeyAlgorithmName("RSA")
+                .setSignatureAlgorithmName("SHA256withRSA")
+                .addExtension(false, "BasicConstraints", "CA:true,pathlen:2147483647")
+                .build();
+        KeyPair leafKeys = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        X509Certificate leaf = new X509CertificateBuilder()
+                .setIssuerDn(ISSUER_DN)
+                .setSubjectDn(LEAF_DN)
+                .setSignatureAlgorithmName("SHA256withRSA")
+                .setSigningKey(issuer.getSigningKey())
+                .setPublicKey(leafKeys.getPublic())
+                .setSerialNumber(new BigInteger("2"))
+                .addExtension(new BasicConstraintsExtension(false, false, -1))
+                .build();
+        chain = new X509Certificate[] { leaf, issuer.getSelfSignedCertificate() };
+
+        responder = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        responder.createContext("/ocsp", exchange -> {
+            requests.incrementAndGet();
+            byte[] response;
+            try (InputStream in = exchange.getRequestBody()) {
+                response = available ? respond(new OCSPReq(in.readAllBytes())) : null;
+            } catch (Exception e) {
+                response = null;
+            }
+            if (response == null) {
+                exchange.sendResponseHeaders(503, -1);
+            } else {
+                exchange.getResponseHeaders().add("Content-Type", "application/ocsp-response");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            }
+            exchange.close();
+        });
+        responder.start();
+        responderUri = new URI("http://localhost:" + responder.getAddress().getPort() + "/ocsp");
+    }
+
+    @After
+    public void tearDown() {
+        responder.stop(0);
+    }
+
+    private byte[] respond(OCSPReq request) throws Exception {
+        X509CertificateHolder issuerHolder = new X509CertificateHolder(issuer.getSelfSignedCertificate().getEncoded());
+        BasicOCSPRespBuilder builder = new JcaBasicOCSPRespBuilder(issuer.getSelfSignedCertificate().getPublicKey(),
+                new JcaDigestCalculatorProviderBuilder().build().get(CertificateID.HASH_SHA1));
+        Date thisUpdate = new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1));
+        Date next = nextUpdate ? new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)) : null;
+        for (Req req : request.getRequestList()) {
+            CertificateStatus status = revoked ? new RevokedStatus(thisUpdate, 0) : CertificateStatus.GOOD;
+            builder.addResponse(req.getCertID(), status, thisUpdate, next, null);
+        }
+        BasicOCSPResp basic = builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(issuer.getSigningKey()),
+                new X509CertificateHolder[] { issuerHolder }, new Date());
+        return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basic).getEncoded();
+    }
+
+    private OcspCachingTrustManager createTrustManager(OcspResponseCache cache) throws Exception {
+        return createTrustManager(cache, false);
+    }
+
+    private OcspCachingTrustManager createTrustManager(OcspResponseCache cache, boolean softFail) throws Exception {
+        KeyStore trustStore = KeyStore.getInstance("PKCS12");
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry("ca", issuer.getSelfSignedCertificate());
+        PKIXBuilderParameters parameters = new PKIXBuilderParameters(trustStore, new X509CertSelector());
+        parameters.setRevocationEnabled(false);
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance("PKIX");
+        trustManagerFactory.init(new CertPathTrustManagerParameters(parameters));
+
+        PKIXRevocationChecker revocationChecker = (PKIXRevocationChecker) CertPathValidator.getInstance("PKIX").getRevocationChecker();
+        revocationChecker.setOcspResponder(responderUri);
+        EnumSet<PKIXRevocationChecker.Option> options = EnumSet.of(PKIXRevocationChecker.Option.ONLY_END_ENTITY, PKIXRevocationChecker.Option.NO_FALLBACK);
+        if (softFail) {
+            options.add(PKIXRevocationChecker.Option.SOFT_FAIL);
+        }
+        revocationChecker.setOptions(options);
+        return new OcspCachingTrustManager((X509ExtendedTrustManager) trustManagerFactory.getTrustManagers()[0],
+                parameters.getTrustAnchors(), revocationChecker, cache);
+    }
+
+    @Test
+    public void testResponseReused() throws Exception {
+        OcspResponseCache cache = new OcspResponseCache(responderUri, 300, false);
+        OcspCachingTrustManager trustManager = createTrustManager(cache);
+
+        trustManager.checkServerTrusted(chain, "RSA");
+        trustManager.checkServerTrusted(chain, "RSA");
+        trustManager.checkClientTrusted(chain, "RSA");
+
+        assertEquals(1, requests.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testStaleResponseServedWhenResponderUnavailable() throws Exception {
+        OcspResponseCache cache = new OcspResponseCache(responderUri, 1, false);
+        OcspCachingTrustManager trustManager = createTrustManager(cache);
+
+        trustManager.checkServerTrusted(chain, "RSA");
+        Thread.sleep(1100);
+        available = false;
+        trustManager.checkServerTrusted(chain, "RSA");
+
+        assertEquals(2, requests.get());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getStaleServedCount());
+    }
+
+    @Test
+    public void testUnreachableResponderSoftFails() throws Exception {
+        available = false;
+        OcspResponseCache cache = new OcspResponseCache(responderUri, 300, false);
+        OcspCachingTrustManager trustManager = createTrustManager(cache, true);
+
+        trustManager.checkServerTrusted(chain, "RSA");
+        trustManager.checkServerTrusted(chain, "RSA");
+
+        // Neither the cache nor the JDK contacted the responder again
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testUnreachableResponderFailsImmediately() throws Exception {
+        available = false;
+        OcspResponseCache cache = new OcspResponseCache(responderUri, 300, false);
+        OcspCachingTrustManager trustManager = createTrustManager(cache);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                trustManager.checkServerTrusted(chain, "RSA");
+                fail("Expected CertificateException");
+            } catch (CertificateException expected) {
+            }
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testResponseWithoutNextUpdateNotCached() throws Exception {
+        nextUpdate = false;
+        OcspResponseCache cache = new OcspResponseCache(responderUri, 300, false);
+        OcspCachingTrustManager trustManager = createTrustManager(cache);
+
+        trustManager.checkServerTrusted(chain, "RSA");
+        trustManager.checkServerTrusted(chain, "RSA");
+
+        assertEquals(2, requests.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testRevokedCertificateRejected() throws Exception {
+        revoked = true;
+        OcspResponseCache cache = new OcspResponseCache(responderUri, 300, false);
+        OcspCachingTrustManager trustManager = createTrustManager(cache);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                trustManager.checkServerTrusted(chain, "RSA");
+                fail("Expected CertificateException");
+            } catch (CertificateException expected) {
+            }
+        }
+        assertEquals(1, requests.get());
+        assertEquals(1, cache.getHitCount());
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.security.Principal;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.wildfly.security.auth.SupportLevel;
+import org.wildfly.security.auth.principal.NamePrincipal;
+import org.wildfly.security.auth.realm.AggregateSecurityRealm;
+import org.wildfly.security.auth.realm.DistributedSecurityRealm;
+import org.wildfly.security.auth.realm.SimpleMapBackedSecurityRealm;
+import org.wildfly.security.auth.realm.SimpleRealmEntry;
+import org.wildfly.security.auth.server.RealmIdentity;
+import org.wildfly.security.auth.server.RealmUnavailableException;
+import org.wildfly.security.auth.server.SecurityRealm;
+import org.wildfly.security.authz.MapAttributes;
+import org.wildfly.security.credential.Credential;
+import org.wildfly.security.evidence.Evidence;
+
+/**
+ * Tests of {@link ParallelSecurityRealm} against realms that block until released.
+ */
+public class ParallelSecurityRealmTestCase {
+
+    private static final Principal USER = new NamePrincipal("user");
+
+    @Test
+    public void testDistributedResolvesConcurrently() throws Exception {
+        // Each realm only answers once all three lookups are in progress
+        CountDownLatch inProgress = new CountDownLatch(3);
+        SecurityRealm[] realms = {
+                new BlockingRealm(null, inProgress, null),
+                new BlockingRealm(null, inProgress, null),
+                new BlockingRealm("third", inProgress, null)
+        };
+        ParallelSecurityRealm realm = distributed(realms, false, 0);
+
+        RealmIdentity identity = realm.getRealmIdentity(USER);
+        assertTrue(identity.exists());
+        assertEquals("third", identity.getAuthorizationIdentity().getAttributes().getFirst("source"));
+        identity.dispose();
+
+        for (ParallelSecurityRealm.RealmStatistics statistics : realm.getStatistics()) {
+            assertEquals(1, statistics.getLatency().getCount());
+        }
+    }
+
+    @Test
+    public void testDistributedPrecedence() throws Exception {
+        // The first realm answers last but still takes precedence
+        CountDownLatch secondDone = new CountDownLatch(1);
+        BlockingRealm second = new BlockingRealm("second", null, null);
+        SecurityRealm[] realms = {
+                new BlockingRealm("first", null, secondDone),
+                new SecurityRealmWrapper(second, secondDone)
+        };
+        ParallelSecurityRealm realm = distributed(realms, false, 0);
+
+        RealmIdentity identity = realm.getRealmIdentity(USER);
+        assertTrue(identity.exists());
+        assertEquals("first", identity.getAuthorizationIdentity().getAttributes().getFirst("source"));
+        identity.dispose();
+
+        identity = realm.getRealmIdentity(new NamePrincipal("unknown"));
+        assertFalse(identity.exists());
+        identity.dispose();
+    }
+
+    @Test
+    public void testDistributedTimeout() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        SecurityRealm[] realms = {
+                new BlockingRealm("first", null, never),
+                new BlockingRealm("second", null, null)
+        };
+
+        ParallelSecurityRealm ignoring = distributed(realms, true, 100);
+        RealmIdentity identity = ignoring.getRealmIdentity(USER);
+        assertTrue(identity.exists());
+        assertEquals("second", identity.getAuthorizationIdentity().getAttributes().getFirst("source"));
+        identity.dispose();
+        assertEquals(1, ignoring.getStatistics().get(0).getTimeoutCount());
+        assertEquals(0, ignoring.getStatistics().get(1).getTimeoutCount());
+
+        ParallelSecurityRealm failing = distributed(realms, false, 100);
+        assertThrows(RealmUnavailableException.class, () -> failing.getRealmIdentity(USER));
+        assertEquals(1, failing.getStatistics().get(0).getTimeoutCount());
+        never.countDown();
+    }
+
+    @Test
+    public void testAggregateResolvesConcurrently() throws Exception {
+        CountDownLatch inProgress = new CountDownLatch(2);
+        SecurityRealm authenticationRealm = new BlockingRealm("authentication", null, null);
+        SecurityRealm[] realms = {
+                new BlockingRealm("first", inProgress, null),
+                new BlockingRealm("second", inProgress, null),
+                authenticationRealm
+        };
+        Function<SecurityRealm[], SecurityRealm> realmFactory = r -> new AggregateSecurityRealm(authenticationRealm, r);
+        ParallelSecurityRealm realm = new ParallelSecurityRealm("aggregate", realmFactory, realms,
+                new String[] { "first", "second", "authentication" }, authenticationRealm, Function.identity(), true, 0);
+
+        RealmIdentity identity = realm.getRealmIdentity(USER);
+        assertTrue(identity.exists());
+        // Attributes are merged in the order the realms are listed
+        assertEquals("first", identity.getAuthorizationIdentity().getAttributes().getFirst("source"));
+        identity.dispose();
+
+        List<ParallelSecurityRealm.RealmStatistics> statistics = realm.getStatistics();
+        assertEquals(1, statistics.get(0).getLatency().getCount());
+        assertEquals(1, statistics.get(1).getLatency().getCount());
+        // The authentication realm's identity is reused rather than resolved again
+        assertEquals(0, statistics.get(2).getLatency().getCount());
+    }
+
+    @Test
+    public void testResolvesSequentiallyAfterShutdown() throws Exception {
+        SecurityRealm[] realms = {
+                new BlockingRealm(null, null, null),
+                new BlockingRealm("second", null, null)
+        };
+        ParallelSecurityRealm realm = distributed(realms, false, 100);
+        realm.shutdown();
+
+        RealmIdentity identity = realm.getRealmIdentity(USER);
+        assertTrue(identity.exists());
+        assertEquals("second", identity.getAuthorizationIdentity().getAttributes().getFirst("source"));
+        identity.dispose();
+        assertEquals(0, realm.getStatistics().get(1).getTimeoutCount());
+    }
+
+    private static ParallelSecurityRealm distributed(SecurityRealm[] realms, boolean ignoreUnavailableRealms, long timeout) {
+        String[] names = new String[realms.length];
+        for (int i = 0; i < realms.length; i++) {
+            names[i] = "realm" + i;
+        }
+        return new ParallelSecurityRealm("distributed", r -> new DistributedSecurityRealm(ignoreUnavailableRealms, null, r),
+                realms, names, null, Function.identity(), false, timeout);
+    }
+
+    /**
+     * A realm containing {@link #USER} with a {@code source} attribute, if given a source, which waits for the
+     * given latches before looking the identity up.
+     */
+    private static final class BlockingRealm extends SimpleMapBackedSecurityRealm {
+
+        private final CountDownLatch arrive;
+        private final CountDownLatch await;
+
+        BlockingRealm(String source, CountDownLatch arrive, CountDownLatch await) {
+            this.arrive = arrive;
+            this.await = await;
+            if (source != null) {
+                setIdentityMap(Collections.singletonMap(USER.getName(), new SimpleRealmEntry(Collections.emptyList(),
+                        new MapAttributes(Collections.singletonMap("source", Collections.singleton(source))))));
+            }
+        }
+
+        @Override
+        public RealmIdentity getRealmIdentity(Principal principal) {
+            try {
+                if (arrive != null) {
+                    arrive.countDown();
+                    if (! arrive.await(10, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("Lookups were not made concurrently");
+                    }
+                }
+                if (await != null) {
+                    await.await(10, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.getRealmIdentity(principal);
+        }
+    }
+
+    /**
+     * Signals once the wrapped realm has looked an identity up.
+     */
+    private static final class SecurityRealmWrapper implements SecurityRealm {
+
+        private final SecurityRealm delegate;
+        private final CountDownLatch done;
+
+        SecurityRealmWrapper(SecurityRealm delegate, CountDownLatch done) {
+            this.delegate = delegate;
+            this.done = done;
+        }
+
+        @Override
+        public RealmIdentity getRealmIdentity(Principal principal) throws RealmUnavailableException {
+            try {
+                return delegate.getRealmIdentity(principal);
+            } finally {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName, AlgorithmParameterSpec parameterSpec) throws RealmUnavailableException {
+            return delegate.getCredentialAcquireSupport(credentialType, algorithmName, parameterSpec);
+        }
+
+        @Override
+        public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) throws RealmUnavailableException {
+            return delegate.getEvidenceVerifySupport(evidenceType, algorithmName);
+        }
+    }
+}
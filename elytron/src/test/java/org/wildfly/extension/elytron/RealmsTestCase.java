@@ -19,6 +19,7 @@ package org.wildfly.extension.elytron;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -56,6 +57,7 @@ import javax.xml.crypto.dsig.XMLSignature;
 import javax.xml.crypto.dsig.XMLSignatureFactory;
 import javax.xml.crypto.dsig.dom.DOMValidateContext;
 import javax.xml.parsers.DocumentBuilderFactory;
+import org.jboss.as.controller.LatencyHistogram;
 import org.jboss.as.controller.client.helpers.ClientConstants;
 import org.jboss.as.subsystem.test.KernelServices;
 import org.jboss.dmr.ModelNode;
@@ -630,6 +632,33 @@ public class RealmsTestCase extends AbstractElytronSubsystemBaseTest {
         identity1.dispose();
     }
 
+    @Test
+    public void testAggregateRealmParallelResolution() throws Exception {
+        KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+        if (!services.isSuccessfulBoot()) {
+            if (services.getBootError() != null) {
+                Assert.fail(services.getBootError().toString());
+            }
+            Assert.fail("Failed to boot, no reason provided");
+        }
+
+        ServiceName serviceName = Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY.getCapabilityServiceName("AggregateRealmParallel");
+        SecurityRealm securityRealm = (SecurityRealm) services.getContainer().getService(serviceName).getValue();
+        Assert.assertNotNull(securityRealm);
+
+        RealmIdentity identity1 = securityRealm.getRealmIdentity(fromName("firstUser"));
+        Assert.assertTrue(identity1.exists());
+        // attributes from the first listed authorization realm take precedence
+        Assert.assertEquals(3, identity1.getAuthorizationIdentity().getAttributes().size());
+        Assert.assertEquals("[Jane]", identity1.getAuthorizationIdentity().getAttributes().get("firstName").toString());
+        Assert.assertEquals("[Doe]", identity1.getAuthorizationIdentity().getAttributes().get("lastName").toString());
+        identity1.dispose();
+
+        RealmIdentity identity2 = securityRealm.getRealmIdentity(fromName("unknownUser"));
+        assertFalse(identity2.exists());
+        identity2.dispose();
+    }
+
     @Test
     public void testJAASRealm() throws Exception {
         try {
@@ -761,6 +790,42 @@ public class RealmsTestCase extends AbstractElytronSubsystemBaseTest {
         Assert.assertTrue(isSecurityRealmUnavailableEventLogged("LdapRealm"));
     }
 
+    @Test
+    public void testDistributedRealmParallelResolution() throws Exception {
+        KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(services.getBootError().toString());
+        }
+
+        ServiceName serviceName = Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY.getCapabilityServiceName("DistributedRealmParallel");
+        SecurityRealm distributedRealm = (SecurityRealm) services.getContainer().getService(serviceName).getValue();
+        testDistributedRealmSuccessful(distributedRealm);
+
+        RealmIdentity identity = distributedRealm.getRealmIdentity(fromName("unknownUser"));
+        assertFalse(identity.exists());
+        identity.dispose();
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.DISTRIBUTED_REALM, "DistributedRealmParallel");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.REALM_STATISTICS);
+        List<ModelNode> statistics = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asList();
+        assertEquals(2, statistics.size());
+        assertEquals("LdapRealm", statistics.get(0).get(ElytronDescriptionConstants.REALM).asString());
+        assertEquals("FilesystemRealm", statistics.get(1).get(ElytronDescriptionConstants.REALM).asString());
+        for (ModelNode realmStatistics : statistics) {
+            assertEquals(2, realmStatistics.get(ElytronDescriptionConstants.LATENCY, LatencyHistogram.COUNT).asLong());
+            assertEquals(0, realmStatistics.get(ElytronDescriptionConstants.TIMEOUTS).asLong());
+        }
+    }
+
+    private static ModelNode assertSuccess(ModelNode response) {
+        if (!response.get(OUTCOME).asString().equals(SUCCESS)) {
+            Assert.fail(response.toJSONString(false));
+        }
+        return response;
+    }
+
     private boolean isSecurityRealmUnavailableEventLogged(String realmName) throws Exception {
         List<String> lines = Files.readAllLines(Paths.get("target/audit.log"), StandardCharsets.UTF_8);
         for (String line : lines) {
@@ -456,6 +456,7 @@ public class ResolveExpressionAttributesTestCase extends AbstractElytronSubsyste
         assertEquals("name", getValue(context, ElytronDescriptionConstants.CIPHER_SUITE_NAMES));
         assertEquals("10", getValue(context, ElytronDescriptionConstants.MAXIMUM_SESSION_CACHE_SIZE));
         assertEquals("120", getValue(context, ElytronDescriptionConstants.SESSION_TIMEOUT));
+        assertEquals("false", getValue(context, ElytronDescriptionConstants.STATISTICS_ENABLED));
 
         // Trust Managers
         ModelNode tm = serverModel.get(ElytronDescriptionConstants.TRUST_MANAGER).get("trust-with-ocsp").get(ElytronDescriptionConstants.OCSP);
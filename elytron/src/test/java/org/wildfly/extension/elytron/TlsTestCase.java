@@ -23,6 +23,7 @@ import java.io.OutputStreamWriter;
 import java.math.BigInteger;
 import java.net.InetAddress;
 import java.net.ServerSocket;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -50,9 +51,15 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509ExtendedTrustManager;
@@ -68,6 +75,7 @@ import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.bouncycastle.util.io.pem.PemWriter;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
+import org.jboss.as.controller.LatencyHistogram;
 import org.jboss.as.controller.client.helpers.ClientConstants;
 import org.jboss.as.controller.security.CredentialReference;
 import org.jboss.as.subsystem.test.AbstractSubsystemTest;
@@ -663,6 +671,132 @@ public class TlsTestCase extends AbstractSubsystemTest {
         MatcherAssert.assertThat(trustManager, CoreMatchers.instanceOf(X509RevocationTrustManager.class));
     }
 
+    @Test
+    public void testOcspCache() {
+        ServiceName serviceName = Capabilities.TRUST_MANAGER_RUNTIME_CAPABILITY.getCapabilityServiceName("trust-with-ocsp-cache");
+        TrustManager trustManager = (TrustManager) services.getContainer().getService(serviceName).getValue();
+        MatcherAssert.assertThat(trustManager, CoreMatchers.instanceOf(OcspCachingTrustManager.class));
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.TRUST_MANAGER, "trust-with-ocsp-cache");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.OCSP_CACHE_MISSES);
+        ModelNode result = services.executeOperation(operation);
+        Assert.assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        Assert.assertEquals(0, result.get(ClientConstants.RESULT).asLong());
+    }
+
+    @Test
+    public void testHandshakeStatistics() throws Throwable {
+        testHandshakeStatistics("ServerSslContextStatistics", "ClientSslContextStatistics");
+    }
+
+    @Test
+    public void testHandshakeStatisticsTLS13() throws Throwable {
+        Assume.assumeTrue("Skipping testHandshakeStatisticsTLS13, test is not being run on JDK 11+.",
+                JdkUtils.getJavaSpecVersion() >= 11);
+        testHandshakeStatistics("ServerSslContextTLS13Statistics", "ClientSslContextTLS13Statistics");
+    }
+
+    @Test
+    public void testHandshakeStatisticsDisabled() throws Throwable {
+        String[] context = { ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextNoAuth" };
+        Assert.assertFalse(getSslContext("ServerSslContextNoAuth") instanceof HandshakeStatisticsSSLContext);
+        Assert.assertFalse(readAttribute(context, ElytronDescriptionConstants.FULL_HANDSHAKE_COUNT).isDefined());
+        Assert.assertFalse(readAttribute(context, ElytronDescriptionConstants.FULL_HANDSHAKE_TIME).isDefined());
+    }
+
+    private void testHandshakeStatistics(String serverContextName, String clientContextName) throws Throwable {
+        SSLContext serverContext = getSslContext(serverContextName);
+        SSLContext clientContext = getSslContext(clientContextName);
+        String cipherSuite = null;
+        String protocol = null;
+        // The second handshake resumes the session established by the first
+        for (int i = 0; i < 2; i++) {
+            SSLEngine serverEngine = serverContext.createSSLEngine();
+            serverEngine.setUseClientMode(false);
+            AtomicReference<SSLEngine> selectingEngine = new AtomicReference<>();
+            BiFunction<SSLEngine, List<String>, String> selector = (engine, protocols) -> {
+                selectingEngine.set(engine);
+                return protocols.get(0);
+            };
+            serverEngine.setHandshakeApplicationProtocolSelector(selector);
+            assertEquals(selector, serverEngine.getHandshakeApplicationProtocolSelector());
+            SSLEngine clientEngine = clientContext.createSSLEngine("localhost", TESTING_PORT);
+            clientEngine.setUseClientMode(true);
+            SSLParameters parameters = clientEngine.getSSLParameters();
+            parameters.setApplicationProtocols(new String[] { "h2" });
+            clientEngine.setSSLParameters(parameters);
+            handshake(clientEngine, serverEngine);
+            // The selector sees the engine it was set on, not the engine wrapped to record statistics
+            assertEquals(serverEngine, selectingEngine.get());
+            assertEquals("h2", serverEngine.getApplicationProtocol());
+            cipherSuite = serverEngine.getSession().getCipherSuite();
+            protocol = serverEngine.getSession().getProtocol();
+        }
+
+        for (String[] context : new String[][] { { ElytronDescriptionConstants.SERVER_SSL_CONTEXT, serverContextName },
+                { ElytronDescriptionConstants.CLIENT_SSL_CONTEXT, clientContextName } }) {
+            assertEquals(1, readAttribute(context, ElytronDescriptionConstants.FULL_HANDSHAKE_COUNT).asLong());
+            assertEquals(1, readAttribute(context, ElytronDescriptionConstants.RESUMED_HANDSHAKE_COUNT).asLong());
+            assertEquals(0.5, readAttribute(context, ElytronDescriptionConstants.SESSION_CACHE_HIT_RATIO).asDouble(), 0);
+            ModelNode fullHandshakeTime = readAttribute(context, ElytronDescriptionConstants.FULL_HANDSHAKE_TIME);
+            assertEquals(1, fullHandshakeTime.get(LatencyHistogram.COUNT).asLong());
+            assertTrue(fullHandshakeTime.get(LatencyHistogram.MAX_TIME).asLong() > 0);
+            assertEquals(1, readAttribute(context, ElytronDescriptionConstants.RESUMED_HANDSHAKE_TIME).get(LatencyHistogram.COUNT).asLong());
+            assertEquals(2, readAttribute(context, ElytronDescriptionConstants.NEGOTIATED_PROTOCOLS).get(protocol).asLong());
+            assertEquals(2, readAttribute(context, ElytronDescriptionConstants.NEGOTIATED_CIPHER_SUITES).get(cipherSuite).asLong());
+        }
+    }
+
+    private ModelNode readAttribute(String[] address, String name) {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(address[0], address[1]);
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(name);
+        ModelNode result = services.executeOperation(operation);
+        Assert.assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        return result.get(ClientConstants.RESULT);
+    }
+
+    private static void handshake(SSLEngine clientEngine, SSLEngine serverEngine) throws SSLException {
+        int packetBufferSize = clientEngine.getSession().getPacketBufferSize();
+        int applicationBufferSize = clientEngine.getSession().getApplicationBufferSize();
+        ByteBuffer empty = ByteBuffer.allocate(0);
+        ByteBuffer clientToServer = ByteBuffer.allocate(packetBufferSize);
+        ByteBuffer serverToClient = ByteBuffer.allocate(packetBufferSize);
+        ByteBuffer clientApplicationData = ByteBuffer.allocate(applicationBufferSize);
+        ByteBuffer serverApplicationData = ByteBuffer.allocate(applicationBufferSize);
+        clientEngine.beginHandshake();
+        serverEngine.beginHandshake();
+        for (int i = 0; i < 100; i++) {
+            if (clientEngine.getHandshakeStatus() == HandshakeStatus.NOT_HANDSHAKING
+                    && serverEngine.getHandshakeStatus() == HandshakeStatus.NOT_HANDSHAKING) {
+                return;
+            }
+            clientEngine.wrap(empty, clientToServer);
+            runDelegatedTasks(clientEngine);
+            serverEngine.wrap(empty, serverToClient);
+            runDelegatedTasks(serverEngine);
+            clientToServer.flip();
+            serverToClient.flip();
+            serverEngine.unwrap(clientToServer, serverApplicationData);
+            runDelegatedTasks(serverEngine);
+            clientEngine.unwrap(serverToClient, clientApplicationData);
+            runDelegatedTasks(clientEngine);
+            clientToServer.compact();
+            serverToClient.compact();
+        }
+        fail("Handshake did not complete");
+    }
+
+    private static void runDelegatedTasks(SSLEngine engine) {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
     private SSLContext getSslContext(String contextName) {
         return getSslContext(contextName, true);
     }
@@ -24,6 +24,7 @@
 package org.wildfly.extension.io;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -40,6 +41,7 @@ import org.jboss.as.controller.CapabilityServiceBuilder;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
@@ -47,14 +49,18 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StopContext;
+import org.wildfly.extension.io.logging.IOLogger;
 import org.xnio.Pool;
 
 /**
@@ -109,6 +115,23 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
             .setAllowExpression(true)
             .build();
+    static final SimpleAttributeDefinition IMPLEMENTATION = new SimpleAttributeDefinitionBuilder(Constants.IMPLEMENTATION, ModelType.STRING, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(Implementation.SLICE.toString()))
+            .setValidator(new StringAllowedValuesValidator(Implementation.SLICE.toString(), Implementation.THREAD_CACHING.toString()))
+            .build();
+
+    private static final AttributeDefinition ALLOCATION_COUNT = new SimpleAttributeDefinitionBuilder("allocation-count", ModelType.LONG)
+            .setStorageRuntime().build();
+    private static final AttributeDefinition CACHE_HITS = new SimpleAttributeDefinitionBuilder("cache-hits", ModelType.LONG)
+            .setStorageRuntime().build();
+    private static final AttributeDefinition ALLOCATED_BUFFERS = new SimpleAttributeDefinitionBuilder("allocated-buffers", ModelType.LONG)
+            .setStorageRuntime().build();
+    private static final AttributeDefinition IN_USE_BUFFERS = new SimpleAttributeDefinitionBuilder("in-use-buffers", ModelType.LONG)
+            .setStorageRuntime().build();
+    private static final AttributeDefinition LEAKED_BUFFERS = new SimpleAttributeDefinitionBuilder("leaked-buffers", ModelType.LONG)
+            .setStorageRuntime().build();
 
 
     /*<buffer-pool name="default" buffer-size="1024" buffers-per-slice="1024"/>*/
@@ -116,7 +139,8 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
     static List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             BUFFER_SIZE,
             BUFFER_PER_SLICE,
-            DIRECT_BUFFERS
+            DIRECT_BUFFERS,
+            IMPLEMENTATION
     );
 
 
@@ -140,6 +164,38 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
         return (Collection) ATTRIBUTES;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        BufferPoolMetricsHandler metricsHandler = new BufferPoolMetricsHandler();
+        resourceRegistration.registerMetric(ALLOCATION_COUNT, metricsHandler);
+        resourceRegistration.registerMetric(CACHE_HITS, metricsHandler);
+        resourceRegistration.registerMetric(ALLOCATED_BUFFERS, metricsHandler);
+        resourceRegistration.registerMetric(IN_USE_BUFFERS, metricsHandler);
+        resourceRegistration.registerMetric(LEAKED_BUFFERS, metricsHandler);
+    }
+
+    /**
+     * The pool implementations a buffer pool can use.
+     */
+    enum Implementation {
+        /** A single free list shared by all threads, with a small per-thread cache. */
+        SLICE("slice"),
+        /** A {@link ThreadCachingBufferPool}, which also provides metrics. */
+        THREAD_CACHING("thread-caching");
+
+        private final String name;
+
+        Implementation(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
     private static class BufferPoolAdd extends AbstractAddStepHandler {
 
         private BufferPoolAdd() {
@@ -152,6 +208,7 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             final ModelNode bufferSizeModel = BUFFER_SIZE.resolveModelAttribute(context, model);
             final ModelNode bufferPerSliceModel = BUFFER_PER_SLICE.resolveModelAttribute(context, model);
             final ModelNode directModel = DIRECT_BUFFERS.resolveModelAttribute(context, model);
+            final String implementation = IMPLEMENTATION.resolveModelAttribute(context, model).asString();
 
             final int bufferSize = bufferSizeModel.isDefined() ? bufferSizeModel.asInt() : defaultBufferSize;
             final int bufferPerSlice = bufferPerSliceModel.isDefined() ? bufferPerSliceModel.asInt() : defaultBuffersPerRegion;
@@ -159,7 +216,8 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
 
             CapabilityServiceBuilder<?> builder = context.getCapabilityServiceTarget().addCapability(IO_POOL_RUNTIME_CAPABILITY);
             final Consumer<Pool<ByteBuffer>> byteBufferConsumer = builder.provides(IO_POOL_RUNTIME_CAPABILITY);
-            builder.setInstance(new BufferPoolService(byteBufferConsumer, bufferSize, bufferPerSlice, direct));
+            builder.setInstance(new BufferPoolService(byteBufferConsumer, bufferSize, bufferPerSlice, direct,
+                    Implementation.THREAD_CACHING.toString().equals(implementation)));
             builder.setInitialMode(ServiceController.Mode.ON_DEMAND);
             builder.install();
 
@@ -172,6 +230,44 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
         }
     }
 
+    private static class BufferPoolMetricsHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (PROFILE.equals(context.getCurrentAddress().getElement(0).getKey())) {
+                return;
+            }
+            context.addStep((ctx, op) -> {
+                final ServiceController<?> controller = ctx.getServiceRegistry(false)
+                        .getService(IO_POOL_RUNTIME_CAPABILITY.getCapabilityServiceName(ctx.getCurrentAddressValue(), Pool.class));
+                if (controller == null || controller.getState() != ServiceController.State.UP) {
+                    return;
+                }
+                // Only the thread caching pool keeps statistics
+                final Object pool = controller.getValue();
+                if (pool instanceof ThreadCachingBufferPool) {
+                    ctx.getResult().set(getMetricValue(op.require(ModelDescriptionConstants.NAME).asString(), (ThreadCachingBufferPool) pool));
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+
+        private static long getMetricValue(String attributeName, ThreadCachingBufferPool pool) throws OperationFailedException {
+            if (ALLOCATION_COUNT.getName().equals(attributeName)) {
+                return pool.getAllocationCount();
+            } else if (CACHE_HITS.getName().equals(attributeName)) {
+                return pool.getCacheHitCount();
+            } else if (ALLOCATED_BUFFERS.getName().equals(attributeName)) {
+                return pool.getAllocatedBufferCount();
+            } else if (IN_USE_BUFFERS.getName().equals(attributeName)) {
+                return pool.getInUseBufferCount();
+            } else if (LEAKED_BUFFERS.getName().equals(attributeName)) {
+                return pool.getLeakedBufferCount();
+            } else {
+                throw new OperationFailedException(IOLogger.ROOT_LOGGER.noMetrics());
+            }
+        }
+    }
+
     private static final class ByteBufferPoolService implements Service<ByteBufferPool> {
         private final Consumer<ByteBufferPool> poolConsumer;
         private final Supplier<Pool> poolSupplier;
@@ -46,24 +46,48 @@ public class BufferPoolService implements Service<Pool<ByteBuffer>> {
     private final int bufferSize;
     private final int buffersPerSlice;
     private final boolean directBuffers;
+    private final boolean threadCaching;
 
     public BufferPoolService(final Consumer<Pool<ByteBuffer>> byteBufferConsumer, final int bufferSize, final int buffersPerSlice, final boolean directBuffers) {
+        this(byteBufferConsumer, bufferSize, buffersPerSlice, directBuffers, false);
+    }
+
+    /**
+     * Creates a buffer pool service.
+     *
+     * @param byteBufferConsumer consumer of the pool
+     * @param bufferSize the size of each buffer
+     * @param buffersPerSlice the number of buffers allocated at once
+     * @param directBuffers whether buffers are allocated outside of the heap
+     * @param threadCaching {@code true} to use a {@link ThreadCachingBufferPool}, {@code false} to use a {@link ByteBufferSlicePool}
+     */
+    public BufferPoolService(final Consumer<Pool<ByteBuffer>> byteBufferConsumer, final int bufferSize, final int buffersPerSlice, final boolean directBuffers, final boolean threadCaching) {
         this.byteBufferConsumer = byteBufferConsumer;
         this.bufferSize = bufferSize;
         this.buffersPerSlice = buffersPerSlice;
         this.directBuffers = directBuffers;
+        this.threadCaching = threadCaching;
     }
 
     @Override
     public void start(final StartContext context) {
-        bufferPool = new ByteBufferSlicePool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR, bufferSize, buffersPerSlice * bufferSize);
+        final BufferAllocator<ByteBuffer> allocator = directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR;
+        if (threadCaching) {
+            bufferPool = new ThreadCachingBufferPool(allocator, bufferSize, buffersPerSlice);
+        } else {
+            bufferPool = new ByteBufferSlicePool(allocator, bufferSize, buffersPerSlice * bufferSize);
+        }
         byteBufferConsumer.accept(bufferPool);
     }
 
     @Override
     public void stop(final StopContext context) {
         byteBufferConsumer.accept(null);
-        ((ByteBufferSlicePool) bufferPool).clean();
+        if (bufferPool instanceof ThreadCachingBufferPool) {
+            ((ThreadCachingBufferPool) bufferPool).clean();
+        } else {
+            ((ByteBufferSlicePool) bufferPool).clean();
+        }
         bufferPool = null;
     }
 
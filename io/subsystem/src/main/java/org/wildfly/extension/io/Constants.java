@@ -32,6 +32,7 @@ interface Constants {
     String BUFFER_SIZE = "buffer-size";
     String BUFFER_PER_SLICE = "buffers-per-slice";
     String DIRECT_BUFFERS = "direct-buffers";
+    String IMPLEMENTATION = "implementation";
     String WORKER = "worker";
     String WORKER_IO_THREADS = "io-threads";
     String WORKER_TASK_CORE_THREADS = "task-core-threads";
@@ -40,4 +41,5 @@ interface Constants {
     String WORKER_TASK_MAX_THREADS = "task-max-threads";
     String THREAD_DAEMON = "thread-daemon";
     String STACK_SIZE = "stack-size";
+    String STATISTICS_ENABLED = "statistics-enabled";
 }
@@ -54,14 +54,16 @@ class MaxThreadTrackerService implements Service<Integer> {
     public void stop(StopContext stopContext) {
     }
 
+    /**
+     * Records the maximum number of task threads of a worker, replacing any value previously recorded for it.
+     *
+     * @param name the name of the worker
+     * @param max the maximum number of task threads
+     */
     void registerWorkerMax(String name, int max) {
         synchronized (workers) {
-            Integer prev = workers.get(name);
-            if (prev != null) {
-                max -= prev.intValue();
-            }
-            workers.put(name, max);
-            total += max;
+            Integer prev = workers.put(name, max);
+            total += prev == null ? max : max - prev;
         }
     }
 
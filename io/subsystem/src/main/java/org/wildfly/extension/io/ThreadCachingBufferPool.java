@@ -0,0 +1,347 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.wildfly.extension.io;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.extension.io.logging.IOLogger;
+import org.xnio.BufferAllocator;
+import org.xnio.Pool;
+import org.xnio.Pooled;
+
+/**
+ * A {@link Pool} of fixed size byte buffers which keeps a magazine of free buffers for each thread, so most
+ * allocations and frees never touch state shared with other threads.
+ * <p>
+ * A thread whose magazine is empty exchanges it for a full one from a shared depot, and a thread whose magazine is
+ * full hands it to the depot, so threads only contend once per magazine worth of buffers. New buffers are sliced
+ * from regions of {@code buffersPerRegion} buffers, allocated on or off the heap depending on the allocator.
+ * <p>
+ * One in every {@value #LEAK_SAMPLE_INTERVAL} buffers handed out by a thread is tracked, and if it is garbage
+ * collected without having been freed it is counted as that many leaked buffers; tracking every buffer would make each
+ * allocation update state shared with all other threads. Buffers cached by a thread which terminates are simply
+ * garbage collected along with its magazine, and the magazines of all threads are emptied when the pool is cleaned.
+ */
+final class ThreadCachingBufferPool implements Pool<ByteBuffer> {
+
+    /** Number of buffers held by a magazine */
+    static final int MAGAZINE_SIZE = 32;
+    /** Number of buffers handed out by a thread for each one tracked for leaks */
+    static final int LEAK_SAMPLE_INTERVAL = 64;
+
+    private final BufferAllocator<ByteBuffer> allocator;
+    private final int bufferSize;
+    private final int buffersPerRegion;
+    private final int leakSampleInterval;
+    private final ThreadLocal<Magazine> magazines = ThreadLocal.withInitial(this::createMagazine);
+    /** The magazines of all threads, so they can be emptied when the pool is cleaned */
+    private final Queue<Reference<Magazine>> allMagazines = new ConcurrentLinkedQueue<>();
+    private final Queue<ByteBuffer[]> depot = new ConcurrentLinkedQueue<>();
+    private final Set<LeakTracker> trackers = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<PooledBuffer> leaks = new ReferenceQueue<>();
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder allocatedBuffers = new LongAdder();
+    private final LongAdder inUseBuffers = new LongAdder();
+    private final LongAdder leakedBuffers = new LongAdder();
+
+    // Guarded by this
+    private ByteBuffer region;
+    private volatile boolean closed;
+
+    ThreadCachingBufferPool(final BufferAllocator<ByteBuffer> allocator, final int bufferSize, final int buffersPerRegion) {
+        this(allocator, bufferSize, buffersPerRegion, LEAK_SAMPLE_INTERVAL);
+    }
+
+    ThreadCachingBufferPool(final BufferAllocator<ByteBuffer> allocator, final int bufferSize, final int buffersPerRegion,
+                            final int leakSampleInterval) {
+        this.allocator = allocator;
+        this.bufferSize = bufferSize;
+        this.buffersPerRegion = buffersPerRegion;
+        this.leakSampleInterval = leakSampleInterval;
+    }
+
+    private Magazine createMagazine() {
+        final Magazine magazine = new Magazine();
+        // Forget the magazines of terminated threads
+        allMagazines.removeIf(reference -> reference.get() == null);
+        allMagazines.add(new WeakReference<>(magazine));
+        return magazine;
+    }
+
+    @Override
+    public Pooled<ByteBuffer> allocate() {
+        expungeLeaks();
+        final Magazine magazine = magazines.get();
+        ByteBuffer buffer = magazine.pop();
+        if (buffer != null) {
+            cacheHits.increment();
+        } else {
+            final ByteBuffer[] full = depot.poll();
+            if (full != null) {
+                magazine.load(full);
+                buffer = magazine.pop();
+            }
+            if (buffer == null) {
+                buffer = createBuffer();
+            }
+        }
+        allocations.increment();
+        inUseBuffers.increment();
+        return new PooledBuffer(this, buffer, magazine.sample(leakSampleInterval));
+    }
+
+    private synchronized ByteBuffer createBuffer() {
+        if (region == null || !region.hasRemaining()) {
+            region = allocator.allocate(bufferSize * buffersPerRegion);
+        }
+        final int position = region.position();
+        region.limit(position + bufferSize);
+        final ByteBuffer buffer = region.slice();
+        region.limit(region.capacity()).position(position + bufferSize);
+        allocatedBuffers.increment();
+        return buffer;
+    }
+
+    private void release(final ByteBuffer buffer) {
+        inUseBuffers.decrement();
+        if (closed) {
+            return;
+        }
+        buffer.clear();
+        final Magazine magazine = magazines.get();
+        if (!magazine.push(buffer)) {
+            depot.offer(magazine.unload());
+            magazine.push(buffer);
+        }
+    }
+
+    private void expungeLeaks() {
+        Reference<? extends PooledBuffer> reference;
+        while ((reference = leaks.poll()) != null) {
+            // A tracker is only still registered if its buffer was never freed or discarded
+            if (trackers.remove(reference)) {
+                leakedBuffers.add(leakSampleInterval);
+                inUseBuffers.add(-leakSampleInterval);
+            }
+        }
+    }
+
+    /**
+     * Releases the buffers held by the pool, including those cached by any thread. Buffers freed from now on are not
+     * cached.
+     */
+    void clean() {
+        closed = true;
+        depot.clear();
+        Reference<Magazine> reference;
+        while ((reference = allMagazines.poll()) != null) {
+            final Magazine magazine = reference.get();
+            if (magazine != null) {
+                magazine.empty();
+            }
+        }
+        magazines.remove();
+        synchronized (this) {
+            region = null;
+        }
+    }
+
+    /**
+     * Gets the number of buffers handed out by the pool.
+     *
+     * @return the allocation count
+     */
+    long getAllocationCount() {
+        return allocations.sum();
+    }
+
+    /**
+     * Gets the number of allocations satisfied from the allocating thread's own magazine.
+     *
+     * @return the cache hit count
+     */
+    long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Gets the number of buffers the pool has created.
+     *
+     * @return the allocated buffer count
+     */
+    long getAllocatedBufferCount() {
+        return allocatedBuffers.sum();
+    }
+
+    /**
+     * Gets the number of buffers currently handed out and neither freed, discarded nor leaked. As leaks are
+     * estimated, so is this count once buffers have leaked.
+     *
+     * @return the in use buffer count
+     */
+    long getInUseBufferCount() {
+        expungeLeaks();
+        return Math.max(inUseBuffers.sum(), 0L);
+    }
+
+    /**
+     * Gets an estimate of the number of buffers that were garbage collected without having been freed, based on the
+     * leaks of the buffers tracked.
+     *
+     * @return the leaked buffer count
+     */
+    long getLeakedBufferCount() {
+        expungeLeaks();
+        return leakedBuffers.sum();
+    }
+
+    /**
+     * The free buffers cached by a single thread, used as a stack. Only {@link #empty()} is called by other threads,
+     * which may leave the owning thread popping empty slots.
+     */
+    private static final class Magazine {
+        private ByteBuffer[] buffers = new ByteBuffer[MAGAZINE_SIZE];
+        private int size;
+        private int untilSample;
+
+        ByteBuffer pop() {
+            if (size == 0) {
+                return null;
+            }
+            final ByteBuffer buffer = buffers[--size];
+            buffers[size] = null;
+            return buffer;
+        }
+
+        boolean sample(final int interval) {
+            if (untilSample == 0) {
+                untilSample = interval - 1;
+                return true;
+            }
+            untilSample--;
+            return false;
+        }
+
+        void empty() {
+            Arrays.fill(buffers, null);
+        }
+
+        boolean push(final ByteBuffer buffer) {
+            if (size == buffers.length) {
+                return false;
+            }
+            buffers[size++] = buffer;
+            return true;
+        }
+
+        void load(final ByteBuffer[] full) {
+            buffers = full;
+            size = full.length;
+        }
+
+        ByteBuffer[] unload() {
+            final ByteBuffer[] full = buffers;
+            buffers = new ByteBuffer[MAGAZINE_SIZE];
+            size = 0;
+            return full;
+        }
+    }
+
+    private static final class LeakTracker extends WeakReference<PooledBuffer> {
+        LeakTracker(final PooledBuffer referent, final ReferenceQueue<PooledBuffer> queue) {
+            super(referent, queue);
+        }
+    }
+
+    private static final class PooledBuffer implements Pooled<ByteBuffer> {
+
+        private static final AtomicReferenceFieldUpdater<PooledBuffer, ByteBuffer> bufferUpdater =
+                AtomicReferenceFieldUpdater.newUpdater(PooledBuffer.class, ByteBuffer.class, "buffer");
+
+        private final ThreadCachingBufferPool pool;
+        private final LeakTracker tracker;
+        private volatile ByteBuffer buffer;
+
+        PooledBuffer(final ThreadCachingBufferPool pool, final ByteBuffer buffer, final boolean tracked) {
+            this.pool = pool;
+            this.buffer = buffer;
+            if (tracked) {
+                tracker = new LeakTracker(this, pool.leaks);
+                pool.trackers.add(tracker);
+            } else {
+                tracker = null;
+            }
+        }
+
+        private ByteBuffer take() {
+            final ByteBuffer taken = bufferUpdater.getAndSet(this, null);
+            if (taken != null && tracker != null) {
+                pool.trackers.remove(tracker);
+                tracker.clear();
+            }
+            return taken;
+        }
+
+        @Override
+        public void discard() {
+            if (take() != null) {
+                pool.inUseBuffers.decrement();
+            }
+        }
+
+        @Override
+        public void free() {
+            final ByteBuffer taken = take();
+            if (taken != null) {
+                pool.release(taken);
+            }
+        }
+
+        @Override
+        public ByteBuffer getResource() throws IllegalStateException {
+            final ByteBuffer current = buffer;
+            if (current == null) {
+                throw IOLogger.ROOT_LOGGER.bufferFreed();
+            }
+            return current;
+        }
+
+        @Override
+        public void close() {
+            free();
+        }
+    }
+}
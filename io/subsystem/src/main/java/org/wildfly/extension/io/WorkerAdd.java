@@ -32,11 +32,14 @@ import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_IO_THREAD
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_TASK_CORE_THREADS;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_TASK_MAX_THREADS;
 import static org.wildfly.extension.io.WorkerResourceDefinition.STACK_SIZE;
+import static org.wildfly.extension.io.WorkerResourceDefinition.STATISTICS_ENABLED;
 
 import java.lang.management.ManagementFactory;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
@@ -67,7 +70,7 @@ class WorkerAdd extends AbstractAddStepHandler {
     static final WorkerAdd INSTANCE = new WorkerAdd();
 
     private WorkerAdd() {
-        super(ATTRIBUTES);
+        super(Stream.concat(Stream.of(ATTRIBUTES), Stream.of(STATISTICS_ENABLED)).collect(Collectors.toList()));
     }
 
     private static int getMaxDescriptorCount() {
@@ -97,7 +100,7 @@ class WorkerAdd extends AbstractAddStepHandler {
         return getCpuCount() * 16;
     }
 
-    private static int getSuggestedIoThreadCount() {
+    static int getSuggestedIoThreadCount() {
         return getCpuCount() * 2;
     }
 
@@ -118,6 +121,19 @@ class WorkerAdd extends AbstractAddStepHandler {
         return count;
     }
 
+    /**
+     * Gets the maximum number of task threads of a worker which does not configure it, as calculated when the worker
+     * is added.
+     *
+     * @param context the context of an operation against the worker
+     * @return the maximum number of task threads
+     */
+    static int getDefaultMaxTaskThreads(final OperationContext context) {
+        final PathAddress address = context.getCurrentAddress();
+        final Resource parent = context.readResourceFromRoot(address.getParent(), false);
+        return getWorkerThreads(context.getCurrentAddressValue(), parent.getChildren(IOExtension.WORKER_PATH.getKey()).size());
+    }
+
     private static int getGlobalSuggestedCount(final OperationContext context, final ModelNode workers) throws OperationFailedException {
         int count = 0;
         if (!workers.isDefined()){
@@ -227,12 +243,14 @@ class WorkerAdd extends AbstractAddStepHandler {
         final CapabilityServiceBuilder<?> capBuilder = context.getCapabilityServiceTarget().addCapability(IO_WORKER_RUNTIME_CAPABILITY);
         final Consumer<XnioWorker> workerConsumer = capBuilder.provides(IO_WORKER_RUNTIME_CAPABILITY);
         final Supplier<ExecutorService> executorSupplier = capBuilder.requiresCapability("org.wildfly.management.executor", ExecutorService.class);
-        capBuilder.setInstance(new WorkerService(workerConsumer, executorSupplier, builder));
+        final WorkerService workerService = new WorkerService(workerConsumer, executorSupplier, builder);
+        workerService.setStatisticsEnabled(STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean());
+        capBuilder.setInstance(workerService);
         capBuilder.setInitialMode(ServiceController.Mode.ON_DEMAND);
         capBuilder.install();
     }
 
-    private void registerMax(OperationContext context, String name, int workerThreads) {
+    static void registerMax(OperationContext context, String name, int workerThreads) {
         ServiceName serviceName = IORootDefinition.IO_MAX_THREADS_RUNTIME_CAPABILITY.getCapabilityServiceName();
         MaxThreadTrackerService service = (MaxThreadTrackerService) context.getServiceRegistry(false).getRequiredService(serviceName).getService();
         service.registerWorkerMax(name, workerThreads);
@@ -27,6 +27,7 @@ package org.wildfly.extension.io;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,6 +37,7 @@ import java.util.Set;
 
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.LatencyHistogram;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -43,6 +45,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
@@ -110,12 +113,19 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
             STACK_SIZE
     };
 
+    static final SimpleAttributeDefinition STATISTICS_ENABLED = new SimpleAttributeDefinitionBuilder(Constants.STATISTICS_ENABLED, ModelType.BOOLEAN, true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setAllowExpression(true)
+            .build();
+
     private static final AttributeDefinition SHUTDOWN_REQUESTED = new SimpleAttributeDefinitionBuilder("shutdown-requested", ModelType.BOOLEAN).setStorageRuntime().build();
     private static final AttributeDefinition CORE_WORKER_POOL_SIZE = new SimpleAttributeDefinitionBuilder("core-pool-size", ModelType.INT).build();
     private static final AttributeDefinition MAX_WORKER_POOL_SIZE = new SimpleAttributeDefinitionBuilder("max-pool-size", ModelType.INT).build();
     private static final AttributeDefinition IO_THREAD_COUNT = new SimpleAttributeDefinitionBuilder("io-thread-count", ModelType.INT).build();
     private static final AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder("queue-size", ModelType.INT).build();
     private static final AttributeDefinition BUSY_WORKER_THREAD_COUNT = new SimpleAttributeDefinitionBuilder("busy-task-thread-count", ModelType.INT).build();
+    private static final AttributeDefinition QUEUE_WAIT = LatencyHistogram.attributeDefinition("queue-wait");
+    private static final AttributeDefinition SELECTOR_LAG = LatencyHistogram.attributeDefinition("selector-lag");
 
     static final Map<String, OptionAttributeDefinition> ATTRIBUTES_BY_XMLNAME;
 
@@ -138,54 +148,21 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
                 .addCapabilities(IO_WORKER_RUNTIME_CAPABILITY));
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return (Collection) ATTRIBUTES_BY_XMLNAME.values();
+        Collection<AttributeDefinition> attributes = new ArrayList<>(ATTRIBUTES_BY_XMLNAME.values());
+        attributes.add(STATISTICS_ENABLED);
+        return attributes;
     }
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
-        resourceRegistration.registerReadWriteAttribute(WORKER_TASK_MAX_THREADS,
-                new WorkerReadAttributeHandler(WORKER_TASK_MAX_THREADS.getOption()),
-                new WorkerWriteAttributeHandler(WORKER_TASK_MAX_THREADS){
-                    @Override
-                    boolean setValue(XnioWorker worker, ModelNode value) throws IOException {
-                        return worker.setOption(Options.WORKER_TASK_MAX_THREADS, value.asInt()) == null;
-                    }
-                });
-        resourceRegistration.registerReadWriteAttribute(WORKER_TASK_CORE_THREADS,
-                new WorkerReadAttributeHandler(WORKER_TASK_CORE_THREADS.getOption()),
-                new WorkerWriteAttributeHandler(WORKER_TASK_CORE_THREADS) {
-                    @Override
-                    boolean setValue(XnioWorker worker, ModelNode value) throws IOException {
-                        return worker.setOption(Options.WORKER_TASK_CORE_THREADS, value.asInt()) == null;
-                    }
-                });
-        resourceRegistration.registerReadWriteAttribute(WORKER_TASK_KEEPALIVE,
-                new WorkerReadAttributeHandler(WORKER_TASK_KEEPALIVE.getOption()),
-                new WorkerWriteAttributeHandler(WORKER_TASK_KEEPALIVE){
-                    @Override
-                    boolean setValue(XnioWorker worker, ModelNode value) throws IOException {
-                        return worker.setOption(Options.WORKER_TASK_KEEPALIVE, value.asInt()) == null;
-                    }
-                });
-        resourceRegistration.registerReadWriteAttribute(STACK_SIZE,
-                new WorkerReadAttributeHandler(STACK_SIZE.getOption()),
-                new WorkerWriteAttributeHandler(STACK_SIZE){
-                    @Override
-                    boolean setValue(XnioWorker worker, ModelNode value) throws IOException {
-                        return worker.setOption(Options.STACK_SIZE, value.asLong()) == null;
-                    }
-                });
-        resourceRegistration.registerReadWriteAttribute(WORKER_IO_THREADS,
-                new WorkerReadAttributeHandler(WORKER_IO_THREADS.getOption()),
-                new WorkerWriteAttributeHandler(WORKER_IO_THREADS){
-                    @Override
-                    boolean setValue(XnioWorker worker, ModelNode value) throws IOException {
-                        return worker.setOption(Options.WORKER_IO_THREADS, value.asInt()) == null;
-                    }
-                });
+        for (OptionAttributeDefinition attribute : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute,
+                    new WorkerReadAttributeHandler(attribute.getOption()),
+                    new WorkerWriteAttributeHandler(attribute));
+        }
+        resourceRegistration.registerReadWriteAttribute(STATISTICS_ENABLED, null, new StatisticsEnabledWriteAttributeHandler());
 
         WorkerMetricsHandler metricsHandler = new WorkerMetricsHandler();
         resourceRegistration.registerReadOnlyAttribute(SHUTDOWN_REQUESTED, metricsHandler);
@@ -195,6 +172,8 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         resourceRegistration.registerMetric(IO_THREAD_COUNT, metricsHandler);
         resourceRegistration.registerMetric(QUEUE_SIZE, metricsHandler);
         resourceRegistration.registerMetric(BUSY_WORKER_THREAD_COUNT, metricsHandler);
+        resourceRegistration.registerMetric(QUEUE_WAIT, metricsHandler);
+        resourceRegistration.registerMetric(SELECTOR_LAG, metricsHandler);
     }
 
     @Override
@@ -232,44 +211,82 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         abstract void executeWithWorker(OperationContext context, ModelNode operation, XnioWorker worker) throws OperationFailedException;
     }
 
-    private abstract static class WorkerWriteAttributeHandler extends AbstractWriteAttributeHandler {
+    /**
+     * Applies changes to the worker's thread pool settings without a reload wherever possible. Settings are applied
+     * to the running worker if XNIO supports changing them at runtime and are otherwise used the next time the
+     * worker starts, in which case a reload is only required if the worker is already running.
+     */
+    private static class WorkerWriteAttributeHandler extends AbstractWriteAttributeHandler<Void> {
+
+        private final OptionAttributeDefinition attribute;
 
-        WorkerWriteAttributeHandler(final AttributeDefinition... definitions){
-            super(definitions);
+        WorkerWriteAttributeHandler(final OptionAttributeDefinition attribute) {
+            super(attribute);
+            this.attribute = attribute;
         }
 
         @Override
-        protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode value, ModelNode currentValue, HandbackHolder handbackHolder) throws OperationFailedException {
-            XnioWorker worker = getXnioWorker(context);
-            if (worker == null || !value.isDefined()) { //worker can be null if it is not started yet, it can happen when there are no dependencies to it.
+        protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode value, ModelNode currentValue, HandbackHolder<Void> handbackHolder) throws OperationFailedException {
+            return setValue(context, value);
+        }
+
+        @Override
+        protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Void handback) throws OperationFailedException {
+            setValue(context, valueToRestore);
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean setValue(OperationContext context, ModelNode value) throws OperationFailedException {
+            WorkerService service = getWorkerService(context);
+            if (service == null) {
                 return true;
             }
             try {
-                return setValue(worker, value);
-            } catch (IOException e) {
+                if (attribute.getType() == ModelType.LONG) {
+                    return service.setOption((Option<Long>) attribute.getOption(), value.asLong());
+                }
+                final int intValue;
+                if (value.isDefined()) {
+                    intValue = value.asInt();
+                } else if (attribute == WORKER_TASK_MAX_THREADS) {
+                    intValue = WorkerAdd.getDefaultMaxTaskThreads(context);
+                } else {
+                    intValue = WorkerAdd.getSuggestedIoThreadCount();
+                }
+                final boolean restartRequired = service.setOption((Option<Integer>) attribute.getOption(), intValue);
+                if (attribute == WORKER_TASK_MAX_THREADS) {
+                    WorkerAdd.registerMax(context, context.getCurrentAddressValue(), intValue);
+                }
+                return restartRequired;
+            } catch (IOException | IllegalArgumentException e) {
                 throw new OperationFailedException(e);
             }
         }
+    }
+
+    private static class StatisticsEnabledWriteAttributeHandler extends AbstractWriteAttributeHandler<Void> {
+
+        StatisticsEnabledWriteAttributeHandler() {
+            super(STATISTICS_ENABLED);
+        }
 
         @Override
-        protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Object handback) throws OperationFailedException {
-            XnioWorker worker = getXnioWorker(context);
-            if (worker == null) { //worker can be null if it is not started yet, it can happen when there are no dependencies to it.
-                return;
-            }
-            try {
-                setValue(worker, valueToRestore);
-            } catch (IOException e) {
-                throw new OperationFailedException(e);
-            }
+        protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<Void> handbackHolder) {
+            setValue(context, resolvedValue);
+            return false;
         }
 
-        /**
-         *
-         * @return returns true if it requires reload
-         */
-        abstract boolean setValue(XnioWorker worker, ModelNode value) throws IOException;
+        @Override
+        protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Void handback) {
+            setValue(context, valueToRestore);
+        }
 
+        private static void setValue(OperationContext context, ModelNode value) {
+            WorkerService service = getWorkerService(context);
+            if (service != null) {
+                service.setStatisticsEnabled(value.asBoolean());
+            }
+        }
     }
 
     private static class WorkerReadAttributeHandler extends AbstractWorkerAttributeHandler {
@@ -296,8 +313,18 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
 
         @Override
         void executeWithWorker(OperationContext context, ModelNode operation, XnioWorker worker) throws OperationFailedException {
-            XnioWorkerMXBean metrics = worker.getMXBean();
             String name = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (QUEUE_WAIT.getName().equals(name) || SELECTOR_LAG.getName().equals(name)) {
+                // Undefined unless statistics are enabled
+                WorkerService service = getWorkerService(context);
+                WorkerStatistics statistics = service == null ? null : service.getStatistics();
+                if (statistics != null) {
+                    LatencyHistogram histogram = QUEUE_WAIT.getName().equals(name) ? statistics.getQueueWait() : statistics.getSelectorLag();
+                    context.getResult().set(histogram.toModelNode());
+                }
+                return;
+            }
+            XnioWorkerMXBean metrics = worker.getMXBean();
             context.getResult().set(getMetricValue(name, metrics));
         }
     }
@@ -315,6 +342,12 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         return getXnioWorker(context.getServiceRegistry(false), name);
     }
 
+    private static WorkerService getWorkerService(OperationContext context) {
+        ServiceName serviceName = IO_WORKER_RUNTIME_CAPABILITY.getCapabilityServiceName(context.getCurrentAddressValue(), XnioWorker.class);
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+        return controller == null ? null : (WorkerService) controller.getService();
+    }
+
     static XnioWorker getXnioWorker(ServiceRegistry serviceRegistry, String name) {
         ServiceName serviceName = IO_WORKER_RUNTIME_CAPABILITY.getCapabilityServiceName(name, XnioWorker.class);
         ServiceController<XnioWorker> controller = (ServiceController<XnioWorker>) serviceRegistry.getService(serviceName);
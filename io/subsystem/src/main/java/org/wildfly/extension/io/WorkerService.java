@@ -24,6 +24,7 @@
 
 package org.wildfly.extension.io;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -36,6 +37,8 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StopContext;
 import org.wildfly.common.net.CidrAddressTable;
 import org.wildfly.extension.io.logging.IOLogger;
+import org.xnio.Option;
+import org.xnio.Options;
 import org.xnio.XnioWorker;
 
 /**
@@ -48,8 +51,10 @@ public final class WorkerService implements Service<XnioWorker> {
     private final Consumer<XnioWorker> workerConsumer;
     private final Supplier<ExecutorService> executorSupplier;
     private final Object stopLock = new Object();
-    private XnioWorker worker;
+    private volatile XnioWorker worker;
     private volatile StopContext stopContext;
+    private boolean statisticsEnabled;
+    private volatile WorkerStatistics statistics;
 
     public WorkerService(final Consumer<XnioWorker> workerConsumer, final Supplier<ExecutorService> executorSupplier, final XnioWorker.Builder builder) {
         this.workerConsumer = workerConsumer;
@@ -59,14 +64,97 @@ public final class WorkerService implements Service<XnioWorker> {
 
     @Override
     public void start(final StartContext startContext) {
-        builder.setTerminationTask(this::stopDone);
-        worker = builder.build();
+        synchronized (builder) {
+            builder.setTerminationTask(this::stopDone);
+            worker = builder.build();
+            if (statisticsEnabled) {
+                startStatistics();
+            }
+        }
         workerConsumer.accept(worker);
     }
 
+    /**
+     * Turns sampling of the worker's queue wait and selector lag on or off, taking effect immediately if the worker is
+     * running. Samples recorded before statistics were last turned off are discarded.
+     *
+     * @param enabled whether statistics should be gathered
+     */
+    void setStatisticsEnabled(final boolean enabled) {
+        synchronized (builder) {
+            if (enabled == statisticsEnabled) {
+                return;
+            }
+            statisticsEnabled = enabled;
+            if (worker != null) {
+                if (enabled) {
+                    startStatistics();
+                } else {
+                    stopStatistics();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the statistics of the running worker.
+     *
+     * @return the statistics, or {@code null} if they are disabled or the worker is not running
+     */
+    WorkerStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void startStatistics() {
+        final WorkerStatistics statistics = new WorkerStatistics(worker);
+        statistics.start();
+        this.statistics = statistics;
+    }
+
+    private void stopStatistics() {
+        final WorkerStatistics statistics = this.statistics;
+        if (statistics != null) {
+            this.statistics = null;
+            statistics.stop();
+        }
+    }
+
+    /**
+     * Changes a thread pool setting of the worker. The setting is recorded so it is used whenever the worker is
+     * started, and is applied to the running worker if there is one and XNIO supports changing it at runtime, which is
+     * the case for the task thread pool settings but not for the I/O thread count or the thread stack size.
+     *
+     * @param option the option, one of the options of the worker's {@link OptionAttributeDefinition attributes}
+     * @param value the new value
+     * @return {@code true} if the worker is running and could not apply the setting, so it only takes effect once the
+     *         worker is restarted
+     * @throws IOException if the running worker failed to apply the setting
+     */
+    <T> boolean setOption(final Option<T> option, final T value) throws IOException {
+        synchronized (builder) {
+            if (Options.WORKER_TASK_CORE_THREADS.equals(option)) {
+                builder.setCoreWorkerPoolSize(Options.WORKER_TASK_CORE_THREADS.cast(value));
+            } else if (Options.WORKER_TASK_MAX_THREADS.equals(option)) {
+                builder.setMaxWorkerPoolSize(Options.WORKER_TASK_MAX_THREADS.cast(value));
+            } else if (Options.WORKER_TASK_KEEPALIVE.equals(option)) {
+                builder.setWorkerKeepAlive(Options.WORKER_TASK_KEEPALIVE.cast(value));
+            } else if (Options.WORKER_IO_THREADS.equals(option)) {
+                builder.setWorkerIoThreads(Options.WORKER_IO_THREADS.cast(value));
+            } else if (Options.STACK_SIZE.equals(option)) {
+                builder.setWorkerStackSize(Options.STACK_SIZE.cast(value));
+            }
+            final XnioWorker worker = this.worker;
+            // XnioWorker.setOption returns null for options it cannot change at runtime
+            return worker != null && worker.setOption(option, value) == null;
+        }
+    }
+
     @Override
     public void stop(final StopContext context) {
         this.stopContext = context;
+        synchronized (builder) {
+            stopStatistics();
+        }
         final ExecutorService executorService = executorSupplier.get();
         Runnable asyncStop = () -> {
             XnioWorker localWorker = worker;
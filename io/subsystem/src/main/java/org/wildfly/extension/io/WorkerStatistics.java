@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.as.controller.LatencyHistogram;
+import org.xnio.XnioIoThread;
+import org.xnio.XnioWorker;
+
+/**
+ * Samples how long work waits before a worker gets to it.
+ * <p>
+ * XNIO offers no hook into its task pool or its selector loops, so rather than timing every task this runs
+ * lightweight probes: each I/O thread schedules a timer task at a fixed interval and records how late it fired,
+ * which is the time the selector loop was busy with other work, and once per interval a task is submitted to the
+ * task pool to record how long it queued before a task thread picked it up. The cost is therefore a timer per I/O
+ * thread and a task submission per interval, regardless of load.
+ */
+final class WorkerStatistics {
+
+    private static final long INTERVAL_MILLIS = 100;
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(INTERVAL_MILLIS);
+
+    private final XnioWorker worker;
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram selectorLag = new LatencyHistogram();
+    private final AtomicBoolean queueProbePending = new AtomicBoolean();
+    private volatile boolean running;
+
+    WorkerStatistics(final XnioWorker worker) {
+        this.worker = worker;
+    }
+
+    void start() {
+        running = true;
+        for (int i = 0; i < worker.getIoThreadCount(); i++) {
+            schedule(worker.getIoThread(i));
+        }
+    }
+
+    /**
+     * Stops sampling. Probes already scheduled do nothing once they fire.
+     */
+    void stop() {
+        running = false;
+    }
+
+    LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    LatencyHistogram getSelectorLag() {
+        return selectorLag;
+    }
+
+    private void schedule(final XnioIoThread thread) {
+        final long due = System.nanoTime() + INTERVAL_NANOS;
+        try {
+            thread.executeAfter(() -> probe(thread, due), INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the worker is shutting down
+        }
+    }
+
+    private void probe(final XnioIoThread thread, final long due) {
+        if (!running) {
+            return;
+        }
+        final long now = System.nanoTime();
+        selectorLag.record(Math.max(0, now - due));
+        // Only one thread probes the task queue, and never with a probe still queued, so a
+        // saturated pool is measured by a single long wait rather than flooded with probes
+        if (thread.getNumber() == 0 && queueProbePending.compareAndSet(false, true)) {
+            try {
+                worker.execute(() -> {
+                    queueWait.record(System.nanoTime() - now);
+                    queueProbePending.set(false);
+                });
+            } catch (RejectedExecutionException e) {
+                queueProbePending.set(false);
+            }
+        }
+        schedule(thread);
+    }
+}
@@ -79,4 +79,7 @@ public interface IOLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 8, value = "The stack-size value of %d bytes for IO worker %s is low and may result in problems. A value of at least 150,000 is recommended.")
     void wrongStackSize(long val, String workerName);
+
+    @Message(id = 9, value = "Buffer has already been freed")
+    IllegalStateException bufferFreed();
 }
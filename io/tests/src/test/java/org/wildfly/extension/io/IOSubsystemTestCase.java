@@ -28,10 +28,12 @@ import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
 
 import org.jboss.as.controller.ExpressionResolver;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
@@ -45,6 +47,8 @@ import org.junit.Test;
 import org.wildfly.common.cpu.ProcessorInfo;
 import org.xnio.OptionMap;
 import org.xnio.Options;
+import org.xnio.Pool;
+import org.xnio.Pooled;
 import org.xnio.Sequence;
 import org.xnio.XnioWorker;
 
@@ -60,7 +64,7 @@ public class IOSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("io-3.0.xml");
+        return readResource("io-4.0.xml");
     }
 
     @Test
@@ -131,6 +135,112 @@ public class IOSubsystemTestCase extends AbstractSubsystemBaseTest {
         Assert.assertEquals(keepAliveMillis / 1000, (long) mbs.getAttribute(threadPoolName, "KeepAliveTimeSeconds"));
     }
 
+    @Test
+    public void testWorkerResizeWithoutReload() throws Exception {
+        KernelServices kernelServices = startKernelServices(getSubsystemXml());
+        MaxThreadTrackerService tracker = (MaxThreadTrackerService) kernelServices.getContainer()
+                .getRequiredService(IORootDefinition.IO_MAX_THREADS_RUNTIME_CAPABILITY.getCapabilityServiceName()).getService();
+        int total = tracker.getValue();
+        PathAddress addr = PathAddress.parseCLIStyleAddress("/subsystem=io/worker=third-worker");
+
+        // The worker is not running yet, so all settings apply once it starts
+        assertReloadRequired(false, kernelServices.executeOperation(Util.getWriteAttributeOperation(addr, Constants.WORKER_TASK_MAX_THREADS, 80)));
+        assertReloadRequired(false, kernelServices.executeOperation(Util.getWriteAttributeOperation(addr, Constants.WORKER_IO_THREADS, 3)));
+        Assert.assertEquals(total + 30, tracker.getValue().intValue());
+
+        ServiceController<XnioWorker> workerServiceController = (ServiceController<XnioWorker>) kernelServices.getContainer().getService(IOServices.WORKER.append("third-worker"));
+        workerServiceController.setMode(ServiceController.Mode.ACTIVE);
+        XnioWorker worker = workerServiceController.awaitValue();
+        Assert.assertEquals(3, worker.getIoThreadCount());
+        Assert.assertEquals(80, worker.getOption(Options.WORKER_TASK_MAX_THREADS).intValue());
+
+        // The task pool of the running worker is resized in place
+        assertReloadRequired(false, kernelServices.executeOperation(Util.getWriteAttributeOperation(addr, Constants.WORKER_TASK_MAX_THREADS, 100)));
+        Assert.assertEquals(100, worker.getOption(Options.WORKER_TASK_MAX_THREADS).intValue());
+        Assert.assertEquals(100, readAttribute(kernelServices, addr, "max-pool-size").asInt());
+        Assert.assertEquals(total + 50, tracker.getValue().intValue());
+
+        // Undefining the maximum restores the calculated default
+        assertReloadRequired(false, kernelServices.executeOperation(Util.getUndefineAttributeOperation(addr, Constants.WORKER_TASK_MAX_THREADS)));
+        int calculated = worker.getOption(Options.WORKER_TASK_MAX_THREADS);
+        Assert.assertEquals(total - 50 + calculated, tracker.getValue().intValue());
+
+        // Its I/O threads are fixed until it restarts
+        assertReloadRequired(true, kernelServices.executeOperation(Util.getWriteAttributeOperation(addr, Constants.WORKER_IO_THREADS, 4)));
+        Assert.assertEquals(3, worker.getIoThreadCount());
+    }
+
+    @Test
+    public void testWorkerStatistics() throws Exception {
+        KernelServices kernelServices = startKernelServices(getSubsystemXml());
+        startXnioWorker(kernelServices);
+        PathAddress addr = PathAddress.parseCLIStyleAddress("/subsystem=io/worker=default");
+        Assert.assertFalse(readAttribute(kernelServices, addr, "queue-wait").isDefined());
+        Assert.assertFalse(readAttribute(kernelServices, addr, "selector-lag").isDefined());
+
+        assertReloadRequired(false, kernelServices.executeOperation(Util.getWriteAttributeOperation(addr, Constants.STATISTICS_ENABLED, true)));
+        awaitSamples(kernelServices, addr, "queue-wait");
+        awaitSamples(kernelServices, addr, "selector-lag");
+
+        assertReloadRequired(false, kernelServices.executeOperation(Util.getWriteAttributeOperation(addr, Constants.STATISTICS_ENABLED, false)));
+        Assert.assertFalse(readAttribute(kernelServices, addr, "queue-wait").isDefined());
+
+        // Enabled in the configuration, so sampling starts with the worker
+        ServiceController<?> workerServiceController = kernelServices.getContainer().getService(IOServices.WORKER.append("third-worker"));
+        workerServiceController.setMode(ServiceController.Mode.ACTIVE);
+        workerServiceController.awaitValue();
+        awaitSamples(kernelServices, PathAddress.parseCLIStyleAddress("/subsystem=io/worker=third-worker"), "selector-lag");
+    }
+
+    private static void awaitSamples(KernelServices kernelServices, PathAddress address, String metric) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ModelNode histogram;
+        while (!(histogram = readAttribute(kernelServices, address, metric)).isDefined() || histogram.get("count").asLong() == 0) {
+            Assert.assertTrue(metric + " was not sampled", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(histogram.toString(), histogram.get("max-time").asLong() >= histogram.get("p50").asLong());
+    }
+
+    private static void assertReloadRequired(boolean expected, ModelNode result) {
+        Assert.assertEquals(result.toString(), ModelDescriptionConstants.SUCCESS, result.get(ModelDescriptionConstants.OUTCOME).asString());
+        Assert.assertEquals(result.toString(), expected, result.get(ModelDescriptionConstants.RESPONSE_HEADERS, ModelDescriptionConstants.OPERATION_REQUIRES_RELOAD).asBoolean(false));
+    }
+
+    @Test
+    public void testBufferPoolMetrics() throws Exception {
+        KernelServices kernelServices = startKernelServices(getSubsystemXml());
+        ServiceController<Pool<ByteBuffer>> poolServiceController = (ServiceController<Pool<ByteBuffer>>) kernelServices.getContainer().getService(IOServices.BUFFER_POOL.append("caching"));
+        poolServiceController.setMode(ServiceController.Mode.ACTIVE);
+        Pool<ByteBuffer> pool = poolServiceController.awaitValue();
+        Assert.assertTrue(pool instanceof ThreadCachingBufferPool);
+
+        Pooled<ByteBuffer> held = pool.allocate();
+        Assert.assertFalse(held.getResource().isDirect());
+        pool.allocate().free();
+        pool.allocate().free();
+
+        PathAddress addr = PathAddress.parseCLIStyleAddress("/subsystem=io/buffer-pool=caching");
+        Assert.assertEquals(3, readAttribute(kernelServices, addr, "allocation-count").asLong());
+        Assert.assertEquals(1, readAttribute(kernelServices, addr, "cache-hits").asLong());
+        Assert.assertEquals(2, readAttribute(kernelServices, addr, "allocated-buffers").asLong());
+        Assert.assertEquals(1, readAttribute(kernelServices, addr, "in-use-buffers").asLong());
+        Assert.assertEquals(0, readAttribute(kernelServices, addr, "leaked-buffers").asLong());
+        held.free();
+
+        // The slice implementation has no metrics
+        ServiceController<?> defaultPoolController = kernelServices.getContainer().getService(IOServices.BUFFER_POOL.append("default"));
+        defaultPoolController.setMode(ServiceController.Mode.ACTIVE);
+        defaultPoolController.awaitValue();
+        Assert.assertFalse(readAttribute(kernelServices, PathAddress.parseCLIStyleAddress("/subsystem=io/buffer-pool=default"), "allocation-count").isDefined());
+    }
+
+    private static ModelNode readAttribute(KernelServices kernelServices, PathAddress address, String name) {
+        ModelNode result = kernelServices.executeOperation(Util.getReadAttributeOperation(address, name));
+        Assert.assertEquals(result.toString(), "success", result.get("outcome").asString());
+        return result.get("result");
+    }
+
     protected KernelServices startKernelServices(String subsystemXml) throws Exception {
         KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization())
                 .setSubsystemXml(subsystemXml);
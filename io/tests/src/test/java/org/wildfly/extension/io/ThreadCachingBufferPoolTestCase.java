@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.wildfly.extension.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xnio.BufferAllocator;
+import org.xnio.Pooled;
+
+/**
+ * Unit tests of {@link ThreadCachingBufferPool}.
+ */
+public class ThreadCachingBufferPoolTestCase {
+
+    @Test
+    public void testAllocateAndFree() {
+        final ThreadCachingBufferPool pool = new ThreadCachingBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 16, 4);
+        final List<Pooled<ByteBuffer>> pooled = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            pooled.add(pool.allocate());
+        }
+        Assert.assertEquals(6, pool.getAllocatedBufferCount());
+        Assert.assertEquals(6, pool.getInUseBufferCount());
+        Assert.assertEquals(0, pool.getCacheHitCount());
+
+        // Buffers are distinct slices of the same size
+        for (int i = 0; i < pooled.size(); i++) {
+            final ByteBuffer buffer = pooled.get(i).getResource();
+            Assert.assertEquals(16, buffer.capacity());
+            Assert.assertEquals(16, buffer.remaining());
+            buffer.put(0, (byte) i);
+        }
+        for (int i = 0; i < pooled.size(); i++) {
+            Assert.assertEquals(i, pooled.get(i).getResource().get(0));
+        }
+
+        final ByteBuffer written = pooled.get(0).getResource();
+        written.position(10);
+        for (Pooled<ByteBuffer> buffer : pooled) {
+            buffer.free();
+        }
+        Assert.assertEquals(0, pool.getInUseBufferCount());
+        try {
+            pooled.get(0).getResource();
+            Assert.fail("Freed buffer was accessible");
+        } catch (IllegalStateException expected) {
+        }
+        // Freeing twice has no effect
+        pooled.get(0).free();
+        Assert.assertEquals(0, pool.getInUseBufferCount());
+
+        // Freed buffers are reused, cleared, from the thread's cache
+        for (int i = 0; i < 6; i++) {
+            final Pooled<ByteBuffer> reused = pool.allocate();
+            Assert.assertEquals(16, reused.getResource().remaining());
+            reused.close();
+        }
+        Assert.assertEquals(6, pool.getAllocatedBufferCount());
+        Assert.assertEquals(6, pool.getCacheHitCount());
+        Assert.assertEquals(12, pool.getAllocationCount());
+    }
+
+    @Test
+    public void testDiscard() {
+        final ThreadCachingBufferPool pool = new ThreadCachingBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 16, 4);
+        pool.allocate().discard();
+        Assert.assertEquals(0, pool.getInUseBufferCount());
+        pool.allocate().free();
+        // The discarded buffer was not returned to the pool
+        Assert.assertEquals(2, pool.getAllocatedBufferCount());
+        Assert.assertEquals(0, pool.getCacheHitCount());
+    }
+
+    @Test
+    public void testMagazinesMoveBetweenThreads() throws Exception {
+        final ThreadCachingBufferPool pool = new ThreadCachingBufferPool(BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR, 16, 8);
+        final int count = ThreadCachingBufferPool.MAGAZINE_SIZE * 3;
+        final List<Pooled<ByteBuffer>> pooled = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pooled.add(pool.allocate());
+        }
+        Assert.assertTrue(pooled.get(0).getResource().isDirect());
+        // Freeing on another thread hands full magazines to the depot, where this thread can find them
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> pooled.forEach(Pooled::free)).get();
+        } finally {
+            executor.shutdown();
+        }
+        for (int i = 0; i < ThreadCachingBufferPool.MAGAZINE_SIZE * 2; i++) {
+            pool.allocate().free();
+        }
+        Assert.assertEquals(count, pool.getAllocatedBufferCount());
+        Assert.assertEquals(0, pool.getInUseBufferCount());
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        final ThreadCachingBufferPool pool = new ThreadCachingBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 64, 16);
+        final int threads = 8;
+        final int iterations = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final byte marker = (byte) t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final List<Pooled<ByteBuffer>> held = new ArrayList<>();
+                    for (int i = 0; i < iterations; i++) {
+                        final Pooled<ByteBuffer> buffer = pool.allocate();
+                        buffer.getResource().put(0, marker);
+                        held.add(buffer);
+                        if (held.size() == 5) {
+                            for (Pooled<ByteBuffer> h : held) {
+                                // No other thread may have been handed the same buffer
+                                Assert.assertEquals(marker, h.getResource().get(0));
+                                h.free();
+                            }
+                            held.clear();
+                        }
+                    }
+                    held.forEach(Pooled::free);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(threads * iterations, pool.getAllocationCount());
+        Assert.assertEquals(0, pool.getInUseBufferCount());
+        Assert.assertTrue(pool.getAllocatedBufferCount() < threads * iterations);
+    }
+
+    @Test
+    public void testLeakDetection() throws Exception {
+        final ThreadCachingBufferPool pool = new ThreadCachingBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 16, 4, 1);
+        pool.allocate();
+        pool.allocate().free();
+        awaitLeaks(pool, 1);
+        Assert.assertEquals(1, pool.getLeakedBufferCount());
+        Assert.assertEquals(0, pool.getInUseBufferCount());
+    }
+
+    @Test
+    public void testSampledLeakDetection() throws Exception {
+        final ThreadCachingBufferPool pool = new ThreadCachingBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 16, 4, 4);
+        final List<Pooled<ByteBuffer>> held = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            held.add(pool.allocate());
+        }
+        // Leak the tracked first and fifth buffers, along with two untracked ones
+        for (int i = 0; i < held.size(); i++) {
+            if (i % 4 > 1) {
+                held.get(i).free();
+            }
+        }
+        held.clear();
+        awaitLeaks(pool, 8);
+        // Each tracked leak stands for the interval
+        Assert.assertEquals(8, pool.getLeakedBufferCount());
+        Assert.assertEquals(0, pool.getInUseBufferCount());
+    }
+
+    @Test
+    public void testCleanEmptiesAllMagazines() throws Exception {
+        final ThreadCachingBufferPool pool = new ThreadCachingBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 16, 4);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Cache a buffer in the magazine of the executor's thread
+            executor.submit(() -> pool.allocate().free()).get();
+            pool.clean();
+            executor.submit(() -> pool.allocate().free()).get();
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(0, pool.getCacheHitCount());
+        Assert.assertEquals(2, pool.getAllocatedBufferCount());
+    }
+
+    private static void awaitLeaks(final ThreadCachingBufferPool pool, final long expected) throws InterruptedException {
+        for (int i = 0; i < 50 && pool.getLeakedBufferCount() < expected; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A sparse index of the byte offsets of the lines of a log file, so a line can be found without reading every line
+ * before it.
+ * <p>
+ * The offset of every {@value #INTERVAL}th line is recorded. The index is extended incrementally each time it is
+ * {@link #update(FileChannel) updated}, only scanning the bytes appended since the previous update, and is discarded
+ * if the file has been rotated, i.e. replaced by a different file or truncated. Lines are terminated by a line feed,
+ * so the index can only be used for files written in a character set where a line feed is encoded as the single
+ * byte {@code 0x0A}; see {@link #isSupported(Charset)}.
+ */
+final class LogFileLineIndex {
+
+    /** The number of lines between indexed offsets. */
+    static final int INTERVAL = 1024;
+    /** Upper bound on the number of files indexed before all the indexes are discarded. */
+    private static final int MAX_FILES = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Map<Path, LogFileLineIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private Object fileKey;
+    /** The creation time of the indexed file, {@code null} until the index is first updated */
+    private FileTime creationTime;
+    /** Offsets of lines {@code 0}, {@code INTERVAL}, {@code 2 * INTERVAL}... */
+    private long[] offsets;
+    private int points;
+    /** The number of bytes scanned, up to and including the last line feed found */
+    private long scanned;
+    /** The number of line feeds in the scanned bytes */
+    private long lineFeeds;
+    /** The size of the file when it was last updated */
+    private long size;
+
+    private LogFileLineIndex(final Path path) {
+        this.path = path;
+        reset(null, null);
+    }
+
+    /**
+     * Gets the index for a log file.
+     *
+     * @param path the path to the log file
+     *
+     * @return the index, which needs to be {@linkplain #update(FileChannel) updated} before use
+     */
+    static LogFileLineIndex forFile(final Path path) {
+        final Path key = path.toAbsolutePath().normalize();
+        LogFileLineIndex index = INDEXES.get(key);
+        if (index == null) {
+            if (INDEXES.size() >= MAX_FILES) {
+                // Most likely rotated files that will not be read again; start over
+                INDEXES.clear();
+            }
+            index = INDEXES.computeIfAbsent(key, LogFileLineIndex::new);
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether files written in the character set can be indexed.
+     *
+     * @param charset the character set of the file
+     *
+     * @return {@code true} if a line feed is encoded as a single {@code 0x0A} byte
+     */
+    static boolean isSupported(final Charset charset) {
+        final byte[] lineFeed = "\n".getBytes(charset);
+        return lineFeed.length == 1 && lineFeed[0] == '\n';
+    }
+
+    /**
+     * Brings the index up to date with the current contents of the file.
+     *
+     * @param channel a channel open for reading the file
+     *
+     * @return the number of lines in the file, including a last line not terminated by a line feed
+     *
+     * @throws IOException if the file cannot be read
+     */
+    synchronized long update(final FileChannel channel) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final long currentSize = channel.size();
+        if (creationTime == null || isRotated(channel, attributes, currentSize)) {
+            reset(attributes.fileKey(), attributes.creationTime());
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = scanned;
+        while (position < currentSize) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    scanned = position + i + 1;
+                    if (++lineFeeds % INTERVAL == 0) {
+                        addPoint(scanned);
+                    }
+                }
+            }
+            position += read;
+        }
+        size = currentSize;
+        return size > scanned ? lineFeeds + 1 : lineFeeds;
+    }
+
+    /**
+     * Finds the byte offset of the start of a line. The index must have been {@linkplain #update(FileChannel) updated}
+     * and the line must be in the file at the time of that update.
+     *
+     * @param channel a channel open for reading the file
+     * @param line    the zero based number of the line
+     *
+     * @return the offset of the first byte of the line
+     *
+     * @throws IOException if the file cannot be read
+     */
+    synchronized long offsetOf(final FileChannel channel, final long line) throws IOException {
+        final int point = (int) Math.min(line / INTERVAL, points - 1);
+        long remaining = line - (long) point * INTERVAL;
+        long position = offsets[point];
+        if (remaining == 0) {
+            return position;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n' && --remaining == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the indexed offsets, which are the offsets of lines {@code 0}, {@value #INTERVAL},
+     * {@code 2 * }{@value #INTERVAL} and so on.
+     *
+     * @return a copy of the indexed offsets
+     */
+    synchronized long[] getOffsets() {
+        return Arrays.copyOf(offsets, points);
+    }
+
+    private boolean isRotated(final FileChannel channel, final BasicFileAttributes attributes, final long currentSize) throws IOException {
+        if (currentSize < scanned) {
+            return true;
+        }
+        if (attributes.fileKey() != null && fileKey != null) {
+            if (!attributes.fileKey().equals(fileKey)) {
+                return true;
+            }
+        } else if (!Objects.equals(attributes.creationTime(), creationTime)) {
+            return true;
+        }
+        // The file may have been truncated and rewritten past the scanned length since the previous update
+        if (scanned > 0) {
+            final ByteBuffer lastScanned = ByteBuffer.allocate(1);
+            return channel.read(lastScanned, scanned - 1) != 1 || lastScanned.get(0) != '\n';
+        }
+        return false;
+    }
+
+    private void reset(final Object fileKey, final FileTime creationTime) {
+        this.fileKey = fileKey;
+        this.creationTime = creationTime;
+        offsets = new long[16];
+        points = 1;
+        scanned = 0;
+        lineFeeds = 0;
+        size = 0;
+    }
+
+    private void addPoint(final long offset) {
+        if (points == offsets.length) {
+            offsets = Arrays.copyOf(offsets, points * 2);
+        }
+        offsets[points++] = offset;
+    }
+}
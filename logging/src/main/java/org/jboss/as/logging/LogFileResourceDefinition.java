@@ -30,21 +30,33 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.CaseParameterCorrector;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationContext.ResultHandler;
 import org.jboss.as.controller.OperationFailedException;
@@ -63,6 +75,7 @@ import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.logging.logging.LoggingLogger;
+import org.jboss.as.logging.validators.LogLevelValidator;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -124,6 +137,37 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             .setRuntimeOnly()
             .build();
 
+    private static final SimpleAttributeDefinition SEARCH_LEVEL = SimpleAttributeDefinitionBuilder.create("level", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setCorrector(CaseParameterCorrector.TO_UPPER)
+            .setValidator(new LogLevelValidator(true))
+            .build();
+
+    private static final SimpleAttributeDefinition PATTERN = SimpleAttributeDefinitionBuilder.create("pattern", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .build();
+
+    private static final SimpleAttributeDefinition FROM = SimpleAttributeDefinitionBuilder.create("from", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .build();
+
+    private static final SimpleAttributeDefinition TO = SimpleAttributeDefinitionBuilder.create("to", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .build();
+
+    private static final SimpleAttributeDefinition TIMESTAMP_FORMAT = SimpleAttributeDefinitionBuilder.create("timestamp-format", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(LogFileSearch.DEFAULT_TIMESTAMP_FORMAT))
+            .build();
+
+    private static final SimpleOperationDefinition SEARCH_LOG_FILE = new SimpleOperationDefinitionBuilder("search-log-file", LoggingExtension.getResourceDescriptionResolver())
+            .addAccessConstraint(VIEW_SERVER_LOGS)
+            .setParameters(ENCODING, SEARCH_LEVEL, PATTERN, FROM, TO, TIMESTAMP_FORMAT)
+            .setReplyType(ModelType.STRING)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
     private static final PathElement LOG_FILE_PATH = PathElement.pathElement("log-file");
 
     private final PathManager pathManager;
@@ -139,6 +183,7 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
     public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
         resourceRegistration.registerOperationHandler(READ_LOG_FILE, new ReadLogFileOperation(pathManager));
+        resourceRegistration.registerOperationHandler(SEARCH_LOG_FILE, new SearchLogFileOperation(pathManager));
 
     }
 
@@ -259,36 +304,170 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             }
             context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
         }
+    }
+
+    /**
+     * Searches a log file on the server, attaching the matching log records to the response as a stream.
+     *
+     * @see LogFileSearch
+     */
+    static class SearchLogFileOperation implements OperationStepHandler {
+
+        private final PathManager pathManager;
+
+        private SearchLogFileOperation(final PathManager pathManager) {
+            this.pathManager = pathManager;
+        }
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String fileName = context.getCurrentAddressValue();
+            final String logDir = pathManager.getPathEntry(ServerEnvironment.SERVER_LOG_DIR).resolvePath();
+            validateFile(context, logDir, fileName);
+            for (AttributeDefinition attribute : SEARCH_LOG_FILE.getParameters()) {
+                attribute.validateOperation(operation);
+            }
+            final ModelNode encodingModel = ENCODING.resolveModelAttribute(context, operation);
+            final ModelNode levelModel = SEARCH_LEVEL.resolveModelAttribute(context, operation);
+            final ModelNode patternModel = PATTERN.resolveModelAttribute(context, operation);
+            final String timestampFormat = TIMESTAMP_FORMAT.resolveModelAttribute(context, operation).asString();
+
+            final Level level = levelModel.isDefined() ? LogFileSearch.parseLevel(levelModel.asString()) : null;
+            final Pattern pattern;
+            try {
+                pattern = patternModel.isDefined() ? Pattern.compile(patternModel.asString()) : null;
+            } catch (PatternSyntaxException e) {
+                throw LoggingLogger.ROOT_LOGGER.invalidSearchPattern(patternModel.asString(), e.getDescription());
+            }
+            final DateTimeFormatter formatter;
+            try {
+                formatter = DateTimeFormatter.ofPattern(timestampFormat);
+            } catch (IllegalArgumentException e) {
+                throw LoggingLogger.ROOT_LOGGER.invalidTimestampFormat(timestampFormat);
+            }
+            final TemporalAccessor from = resolveTimestamp(context, operation, FROM, formatter, timestampFormat);
+            final TemporalAccessor to = resolveTimestamp(context, operation, TO, formatter, timestampFormat);
+            final Path path = Paths.get(pathManager.resolveRelativePathEntry(fileName, ServerEnvironment.SERVER_LOG_DIR));
+
+            // The file must exist
+            if (Files.notExists(path)) {
+                throw LoggingLogger.ROOT_LOGGER.logFileNotFound(fileName, ServerEnvironment.SERVER_LOG_DIR);
+            }
+            try {
+                final Charset charset = getCharset(encodingModel.isDefined() ? encodingModel.asString() : null);
+                final LogFileSearch search = new LogFileSearch(path, charset, pattern, level, formatter, from, to);
+                context.getResult().set(context.attachResultStream("text/plain", search));
+            } catch (IOException e) {
+                throw LoggingLogger.ROOT_LOGGER.failedToReadLogFile(e, fileName);
+            }
+            context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
+        }
 
-        private List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
-            final List<String> lines;
-            if (numberOfLines < 0) {
-                lines = new ArrayList<>();
+        private static TemporalAccessor resolveTimestamp(final OperationContext context, final ModelNode operation,
+                                                         final AttributeDefinition attribute, final DateTimeFormatter formatter,
+                                                         final String timestampFormat) throws OperationFailedException {
+            final ModelNode value = attribute.resolveModelAttribute(context, operation);
+            if (!value.isDefined()) {
+                return null;
+            }
+            try {
+                return LogFileSearch.parseTimestamp(formatter, value.asString());
+            } catch (DateTimeParseException e) {
+                throw LoggingLogger.ROOT_LOGGER.invalidTimestamp(value.asString(), timestampFormat);
+            }
+        }
+    }
+
+    /**
+     * Reads lines of a log file.
+     * <p>
+     * Reading a few lines from the tail only reads the end of the file backwards, counting the lines to skip. Other
+     * reads of files written in a character set supported by {@link LogFileLineIndex} use the index of the file, so only
+     * the lines returned need to be read. Otherwise the file is read sequentially, backwards if reading from the tail,
+     * counting the lines to skip.
+     *
+     * @param file          the log file
+     * @param encoding      the character encoding of the file or {@code null} to use the system default
+     * @param tail          {@code true} to count the lines to skip and read back from the end of the file
+     * @param skip          the number of lines to skip
+     * @param numberOfLines the maximum number of lines to read or {@code -1} to read all the lines
+     *
+     * @return the lines read in the order they appear in the file
+     *
+     * @throws IOException if the file cannot be read
+     */
+    static List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        /* we should stick with the default here and not use UTF-8.
+        The encoding on the file handler does not default to UTF-8 but the system default.
+        I think here we should stick with the system default unless explicitly defined.
+        I could see a UTF-8 default possibly being problematic on IBM bases systems.
+         */
+        final Charset charset = getCharset(encoding);
+        // Reading back fewer lines than the index interval from the end costs no more than reading from an indexed line
+        final boolean shortTail = tail && numberOfLines >= 0 && (long) skip + numberOfLines <= LogFileLineIndex.INTERVAL;
+        if (shortTail || !LogFileLineIndex.isSupported(charset)) {
+            return readLinesSequentially(file, charset, tail, skip, numberOfLines);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final LogFileLineIndex index = LogFileLineIndex.forFile(file.toPath());
+            final long total = index.update(channel);
+            final long first;
+            final long count;
+            if (tail) {
+                final long end = total - skip;
+                first = numberOfLines < 0 ? 0 : Math.max(0, end - numberOfLines);
+                count = end - first;
             } else {
-                lines = new ArrayList<>(numberOfLines);
+                first = skip;
+                count = numberOfLines < 0 ? total - first : Math.min(numberOfLines, total - first);
             }
-            try (
-                    final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
-                    /* we should stick with the default here and not use UTF-8.
-                    The encoding on the file handler does not default to UTF-8 but the system default.
-                    I think here we should stick with the system default unless explicitly defined.
-                    I could see a UTF-8 default possibly being problematic on IBM bases systems.
-                     */
-                    final InputStreamReader isr = (encoding == null ? new InputStreamReader(in) : new InputStreamReader(in, encoding));
-                    final BufferedReader reader = new BufferedReader(isr)
-            ) {
-                int lineCount = 0;
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (++lineCount <= skip) continue;
-                    if (lines.size() == numberOfLines) break;
-                    lines.add(line);
-                }
-                if (tail) {
-                    Collections.reverse(lines);
-                }
-                return lines;
+            if (count <= 0) {
+                return new ArrayList<>();
+            }
+            final List<String> lines = new ArrayList<>((int) Math.min(count, 1024));
+            channel.position(index.offsetOf(channel, first));
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), charset));
+            String line;
+            while (lines.size() < count && (line = reader.readLine()) != null) {
+                lines.add(line);
             }
+            return lines;
+        }
+    }
+
+    private static List<String> readLinesSequentially(final File file, final Charset charset, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final List<String> lines;
+        if (numberOfLines < 0) {
+            lines = new ArrayList<>();
+        } else {
+            lines = new ArrayList<>(numberOfLines);
+        }
+        try (
+                final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset))
+        ) {
+            int lineCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (++lineCount <= skip) continue;
+                if (lines.size() == numberOfLines) break;
+                lines.add(line);
+            }
+            if (tail) {
+                Collections.reverse(lines);
+            }
+            return lines;
+        }
+    }
+
+    static Charset getCharset(final String encoding) throws UnsupportedEncodingException {
+        if (encoding == null) {
+            return Charset.defaultCharset();
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedEncodingException(encoding);
         }
     }
 
@@ -298,6 +477,8 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
         private long start;
         private long end;
         private long pos;
+        // Whether a line feed must be returned after the last line of a file that does not end with one
+        private boolean missingLineFeed;
 
         LifoFileInputStream(final File file) throws IOException {
             raf = new RandomAccessFile(file, "r");
@@ -334,6 +515,10 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             }
             start = filePointer + 1;
             pos = start;
+            if (end == len) {
+                raf.seek(len - 1);
+                missingLineFeed = raf.readByte() != '\n';
+            }
         }
 
         @Override
@@ -343,6 +528,9 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
                 return raf.readByte();
             } else if (pos < 0) {
                 return -1;
+            } else if (missingLineFeed) {
+                missingLineFeed = false;
+                return '\n';
             } else {
                 positionFile();
                 return read();
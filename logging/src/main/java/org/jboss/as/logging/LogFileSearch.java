@@ -0,0 +1,397 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.logging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Searches a log file for the records matching a level, a regular expression and a time range, providing the
+ * matching records as a stream that is filled lazily as it is read.
+ * <p>
+ * A record starts with a line beginning with a timestamp in the configured format and includes the lines that follow
+ * it without a timestamp, such as the lines of a stack trace. Lines without a timestamp that do not follow a line with
+ * one are records of their own. A record matches if its first line contains a level at least as severe as the
+ * requested level, if any of its lines contains a match for the regular expression and if its timestamp is within
+ * the time range. Records without a level or a timestamp do not match a search by level or by time.
+ * <p>
+ * Records are assumed to be written in chronological order: the search starts from the {@link LogFileLineIndex
+ * indexed} line nearest before the start of the time range and stops at the first record after its end. Files
+ * written in a character set supported by the index are read through memory mapped windows; others are read
+ * sequentially.
+ */
+final class LogFileSearch extends InputStream {
+
+    static final String DEFAULT_TIMESTAMP_FORMAT = "yyyy-MM-dd HH:mm:ss,SSS";
+
+    private static final long WINDOW_SIZE = 32L * 1024L * 1024L;
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    /** The number of lines read looking for a timestamp when locating the start of the time range */
+    private static final int TIMESTAMP_SEARCH_LINES = 100;
+    private static final Map<String, Integer> LEVELS = new HashMap<>();
+    private static final Pattern LEVEL_PATTERN;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    static {
+        final Level[] levels = {
+                org.jboss.logmanager.Level.FATAL,
+                org.jboss.logmanager.Level.ERROR,
+                org.jboss.logmanager.Level.SEVERE,
+                org.jboss.logmanager.Level.WARNING,
+                org.jboss.logmanager.Level.WARN,
+                org.jboss.logmanager.Level.INFO,
+                org.jboss.logmanager.Level.CONFIG,
+                org.jboss.logmanager.Level.DEBUG,
+                org.jboss.logmanager.Level.FINEST,
+                org.jboss.logmanager.Level.FINER,
+                org.jboss.logmanager.Level.FINE,
+                org.jboss.logmanager.Level.TRACE,
+        };
+        final StringBuilder pattern = new StringBuilder("\\b(");
+        for (Level level : levels) {
+            LEVELS.put(level.getName(), level.intValue());
+            if (pattern.length() > 3) {
+                pattern.append('|');
+            }
+            pattern.append(level.getName());
+        }
+        LEVEL_PATTERN = Pattern.compile(pattern.append(")\\b").toString());
+    }
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final Pattern pattern;
+    private final int minLevel;
+    private final DateTimeFormatter formatter;
+    private final Long from;
+    private final Long to;
+    private final long end;
+    private final BufferedReader reader;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    private final List<String> record = new ArrayList<>();
+    private Long recordTime;
+    private boolean done;
+    private ByteBuffer pending = EMPTY;
+
+    /**
+     * Opens a log file for searching.
+     *
+     * @param path      the log file
+     * @param charset   the character set of the file
+     * @param pattern   the regular expression a line of a record must contain or {@code null} for any record
+     * @param level     the least severe level of the records to find or {@code null} for any record
+     * @param formatter the format of the timestamps at the start of the records
+     * @param from      the earliest timestamp of the records to find or {@code null} for no lower bound
+     * @param to        the latest timestamp of the records to find or {@code null} for no upper bound
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    LogFileSearch(final Path path, final Charset charset, final Pattern pattern, final Level level,
+                  final DateTimeFormatter formatter, final TemporalAccessor from, final TemporalAccessor to) throws IOException {
+        this.charset = charset;
+        this.pattern = pattern;
+        this.minLevel = level == null ? Integer.MIN_VALUE : level.intValue();
+        this.formatter = formatter;
+        this.from = from == null ? null : toKey(from);
+        this.to = to == null ? null : toKey(to);
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (LogFileLineIndex.isSupported(charset)) {
+                reader = null;
+                if (this.from != null) {
+                    // Only locating the start of the time range needs the offsets of the lines
+                    final LogFileLineIndex index = LogFileLineIndex.forFile(path);
+                    index.update(channel);
+                    position = findStart(index.getOffsets());
+                }
+                end = channel.size();
+            } else {
+                end = channel.size();
+                reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), charset));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Parses the name of a level.
+     *
+     * @param name the name of the level
+     *
+     * @return the level or {@code null} if the name is {@code ALL}
+     */
+    static Level parseLevel(final String name) {
+        return org.jboss.logmanager.Level.ALL.getName().equals(name) ? null : Level.parse(name);
+    }
+
+    /**
+     * Parses a timestamp.
+     *
+     * @param formatter the format of the timestamp
+     * @param value     the timestamp
+     *
+     * @return the parsed timestamp
+     *
+     * @throws DateTimeParseException if the value does not match the format
+     */
+    static TemporalAccessor parseTimestamp(final DateTimeFormatter formatter, final String value) {
+        return formatter.parse(value);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensurePending()) {
+            return -1;
+        }
+        return pending.get() & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensurePending()) {
+            return -1;
+        }
+        final int count = Math.min(len, pending.remaining());
+        pending.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        window = null;
+        channel.close();
+    }
+
+    private boolean ensurePending() throws IOException {
+        while (!pending.hasRemaining()) {
+            if (done) {
+                return false;
+            }
+            fill();
+        }
+        return true;
+    }
+
+    /**
+     * Reads lines until a matching record is complete or the end of the search is reached.
+     */
+    private void fill() throws IOException {
+        while (!done) {
+            final String line = nextLine();
+            if (line == null) {
+                done = true;
+                emit();
+                return;
+            }
+            final Long time = timestampOf(line);
+            if (time == null && recordTime != null) {
+                // Continuation of the current record
+                record.add(line);
+                continue;
+            }
+            final boolean emitted = emit();
+            if (time != null && to != null && time > to) {
+                done = true;
+                return;
+            }
+            record.add(line);
+            recordTime = time;
+            if (emitted) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Completes the current record, encoding it for the stream if it matches.
+     *
+     * @return {@code true} if the record matched
+     */
+    private boolean emit() {
+        if (record.isEmpty()) {
+            return false;
+        }
+        final boolean matches = matches();
+        if (matches) {
+            final StringBuilder text = new StringBuilder();
+            for (String line : record) {
+                text.append(line).append('\n');
+            }
+            pending = charset.encode(CharBuffer.wrap(text));
+        }
+        record.clear();
+        recordTime = null;
+        return matches;
+    }
+
+    private boolean matches() {
+        if (from != null || to != null) {
+            if (recordTime == null || (from != null && recordTime < from) || (to != null && recordTime > to)) {
+                return false;
+            }
+        }
+        if (minLevel != Integer.MIN_VALUE) {
+            final Matcher matcher = LEVEL_PATTERN.matcher(record.get(0));
+            if (!matcher.find() || LEVELS.get(matcher.group(1)) < minLevel) {
+                return false;
+            }
+        }
+        if (pattern != null) {
+            for (String line : record) {
+                if (pattern.matcher(line).find()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private Long timestampOf(final String line) {
+        if (line.isEmpty() || Character.isWhitespace(line.charAt(0))) {
+            return null;
+        }
+        try {
+            return toKey(formatter.parse(line, new ParsePosition(0)));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a timestamp to a value that orders timestamps parsed with the same format.
+     */
+    private static long toKey(final TemporalAccessor timestamp) {
+        final LocalDate date = timestamp.query(TemporalQueries.localDate());
+        final LocalTime time = timestamp.query(TemporalQueries.localTime());
+        return (date == null ? 0L : date.toEpochDay() * NANOS_PER_DAY) + (time == null ? 0L : time.toNanoOfDay());
+    }
+
+    /**
+     * Finds the last indexed line before the start of the time range.
+     */
+    private long findStart(final long[] offsets) throws IOException {
+        int low = 0;
+        int high = offsets.length - 1;
+        int start = 0;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final Long time = firstTimestamp(offsets[mid]);
+            if (time != null && time < from) {
+                start = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return offsets[start];
+    }
+
+    private Long firstTimestamp(final long offset) throws IOException {
+        position = offset;
+        for (int i = 0; i < TIMESTAMP_SEARCH_LINES; i++) {
+            final String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            final Long time = timestampOf(line);
+            if (time != null) {
+                return time;
+            }
+        }
+        return null;
+    }
+
+    private String nextLine() throws IOException {
+        if (reader != null) {
+            return reader.readLine();
+        }
+        while (position < end) {
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(position);
+            }
+            final int start = (int) (position - windowStart);
+            final int limit = window.limit();
+            for (int i = start; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    position = windowStart + i + 1;
+                    return decode(start, i);
+                }
+            }
+            if (windowStart + limit >= end || start == 0) {
+                // The last line of the file or a line longer than a window
+                position = windowStart + limit;
+                return decode(start, limit);
+            }
+            // The line continues past the window
+            map(position);
+        }
+        return null;
+    }
+
+    private void map(final long start) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, end - start));
+        windowStart = start;
+    }
+
+    private String decode(final int start, final int lineEnd) {
+        final ByteBuffer bytes = window.duplicate();
+        bytes.limit(lineEnd > start && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd);
+        bytes.position(start);
+        return charset.decode(bytes).toString();
+    }
+}
@@ -1049,4 +1049,36 @@ public interface LoggingLogger extends BasicLogger {
             "configuration files in deployments has been deprecated and will be removed in a future release.")
     @LogMessage(level = WARN)
     void usageOfLog4j1Config(String fileName, String deploymentName);
+
+    /**
+     * Creates an exception indicating the pattern used to search a log file is not a valid regular expression.
+     *
+     * @param pattern the invalid pattern
+     * @param reason  the reason the pattern is invalid
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 101, value = "Invalid search pattern '%s': %s")
+    OperationFailedException invalidSearchPattern(String pattern, String reason);
+
+    /**
+     * Creates an exception indicating the format used to parse the timestamps of log records is invalid.
+     *
+     * @param format the invalid format
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 102, value = "Invalid timestamp format '%s'")
+    OperationFailedException invalidTimestampFormat(String format);
+
+    /**
+     * Creates an exception indicating a timestamp could not be parsed.
+     *
+     * @param value  the timestamp
+     * @param format the format used to parse the timestamp
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 103, value = "Timestamp '%s' does not match the timestamp format '%s'")
+    OperationFailedException invalidTimestamp(String value, String format);
 }
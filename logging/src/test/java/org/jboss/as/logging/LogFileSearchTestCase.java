@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.logging;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests reading log files through a {@link LogFileLineIndex} and searching them with {@link LogFileSearch}.
+ */
+public class LogFileSearchTestCase {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(LogFileSearch.DEFAULT_TIMESTAMP_FORMAT);
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("search", ".log");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testIndexedReads() throws Exception {
+        final int count = LogFileLineIndex.INTERVAL * 3 + 17;
+        writeLines(0, count, false);
+
+        assertEquals(lines(1500, 10), read(false, 1500, 10));
+        assertEquals(lines(count - 8, 3), read(true, 5, 3));
+        assertEquals(lines(count - LogFileLineIndex.INTERVAL - 3, 3), read(true, LogFileLineIndex.INTERVAL, 3));
+        assertEquals(lines(count - 10, 10), read(false, count - 10, -1));
+        assertEquals(lines(0, count - 2), read(true, 2, -1));
+        assertEquals(lines(LogFileLineIndex.INTERVAL * 2, 1), read(false, LogFileLineIndex.INTERVAL * 2, 1));
+        assertEquals(new ArrayList<>(), read(false, count, 10));
+
+        // The index is extended as the file grows, including a last line without a line feed
+        writeLines(count, 100, true);
+        Files.write(file, "partial".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(Arrays.asList("line " + (count + 99), "partial"), read(true, 0, 2));
+        assertEquals(lines(count + 50, 2), read(false, count + 50, 2));
+
+        // Rotation replaces the file with a shorter one
+        Files.delete(file);
+        writeLines(0, 5, false);
+        assertEquals(lines(3, 2), read(true, 0, 2));
+        assertEquals(lines(0, 5), read(false, 0, -1));
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        final List<String> lines = Arrays.asList(
+                "2023-05-01 10:00:00,000 INFO  [org.jboss.test] (main) Starting",
+                "2023-05-01 10:00:01,000 DEBUG [org.jboss.test] (main) Details",
+                "2023-05-01 10:00:02,000 ERROR [org.jboss.test] (main) Failed",
+                "java.lang.IllegalStateException: broken",
+                "\tat org.jboss.test.Test.run(Test.java:10)",
+                "2023-05-01 10:00:03,000 WARN  [org.jboss.test] (main) Slow",
+                "2023-05-01 10:00:04,000 INFO  [org.jboss.test] (main) Started"
+        );
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        assertEquals(join(lines.subList(2, 6)), search(null, Level.parse("WARN"), null, null));
+        assertEquals(join(lines.subList(2, 5)), search(Pattern.compile("IllegalState"), null, null, null));
+        assertEquals(join(lines.subList(0, 1), lines.subList(6, 7)), search(Pattern.compile("Start"), null, null, null));
+        assertEquals(join(lines.subList(1, 6)), search(null, null, "2023-05-01 10:00:01,000", "2023-05-01 10:00:03,000"));
+        assertEquals(join(lines.subList(2, 5)), search(null, Level.parse("ERROR"), "2023-05-01 10:00:01,500", null));
+        assertEquals("", search(Pattern.compile("missing"), null, null, null));
+    }
+
+    @Test
+    public void testSearchFromIndexedLine() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < LogFileLineIndex.INTERVAL * 4; i++) {
+            lines.add(String.format("2023-05-01 10:%02d:%02d,000 INFO  message %d", i / 60 % 60, i % 60, i));
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        final int first = LogFileLineIndex.INTERVAL * 2 + 100;
+        assertEquals(join(lines.subList(first, first + 3)), search(null, null, lines.get(first).substring(0, 23), lines.get(first + 2).substring(0, 23)));
+    }
+
+    private List<String> read(final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        return LogFileResourceDefinition.readLines(file.toFile(), StandardCharsets.UTF_8.name(), tail, skip, numberOfLines);
+    }
+
+    private String search(final Pattern pattern, final Level level, final String from, final String to) throws IOException {
+        try (InputStream in = new LogFileSearch(file, StandardCharsets.UTF_8, pattern, level, FORMATTER,
+                from == null ? null : LogFileSearch.parseTimestamp(FORMATTER, from),
+                to == null ? null : LogFileSearch.parseTimestamp(FORMATTER, to))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[7];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            return out.toString(StandardCharsets.UTF_8.name());
+        }
+    }
+
+    private void writeLines(final int start, final int count, final boolean append) throws IOException {
+        final List<String> lines = lines(start, count);
+        if (append) {
+            Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } else {
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static List<String> lines(final int start, final int count) {
+        final List<String> result = new ArrayList<>(count);
+        for (int i = start; i < start + count; i++) {
+            result.add("line " + i);
+        }
+        return result;
+    }
+
+    @SafeVarargs
+    private static String join(final List<String>... lines) {
+        final StringBuilder result = new StringBuilder();
+        for (List<String> part : lines) {
+            for (String line : part) {
+                result.append(line).append('\n');
+            }
+        }
+        return result.toString();
+    }
+}
@@ -343,4 +343,8 @@ public interface ProtocolLogger extends BasicLogger {
 
     @Message(id = 60, value = "Channel open request timed out")
     IOException channelTimedOut();
+
+    @LogMessage(level = WARN)
+    @Message(id = 61, value = "Invalid value %s for system property %s, using the default value %d instead")
+    void invalidSystemPropertyValue(String value, String propertyName, int defaultValue);
 }
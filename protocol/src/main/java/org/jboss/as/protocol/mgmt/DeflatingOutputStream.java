@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a management protocol message, deflating the body once it grows beyond a threshold. Until the threshold
+ * is crossed the header and body are held back, so small messages are sent exactly as they would be without
+ * compression. Once it is crossed the header is written flagging a deflated body and the rest of the body is
+ * streamed through a {@link Deflater}.
+ *
+ * @see ManagementProtocolCompression
+ */
+final class DeflatingOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream target;
+    private final ManagementProtocolHeader header;
+    private final int threshold;
+    /** The body held back before the header is written, or the input pending deflation afterwards */
+    private byte[] buffer;
+    private int count;
+    private boolean headerWritten;
+    private Deflater deflater;
+    private byte[] deflated;
+    private long bytesIn;
+    private long bytesOut;
+    private long deflateTime;
+    private boolean closed;
+
+    DeflatingOutputStream(OutputStream target, ManagementProtocolHeader header, int threshold) {
+        this.target = target;
+        this.header = header;
+        this.threshold = threshold;
+        this.buffer = new byte[Math.min(threshold, 256)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count < buffer.length && (headerWritten ? deflater != null : count < threshold)) {
+            buffer[count++] = (byte) b;
+        } else {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (!headerWritten && count + len > threshold) {
+            startDeflating();
+        }
+        if (headerWritten && deflater == null) {
+            target.write(b, off, len);
+        } else if (deflater != null && count + len > buffer.length) {
+            deflateBuffer();
+            if (len >= buffer.length) {
+                deflate(b, off, len);
+            } else {
+                System.arraycopy(b, off, buffer, 0, len);
+                count = len;
+            }
+        } else {
+            if (count + len > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(threshold, Math.max(count + len, buffer.length * 2)));
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (!headerWritten) {
+            // Whoever is flushing wants the peer to see what has been written so far
+            writeUncompressed();
+        } else if (deflater != null) {
+            deflateBuffer();
+            while (drain(Deflater.SYNC_FLUSH) == deflated.length) {
+                // keep going until the deflater has nothing more to give
+            }
+        }
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!headerWritten) {
+                writeUncompressed();
+            } else if (deflater != null) {
+                deflateBuffer();
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain(Deflater.NO_FLUSH);
+                }
+                ManagementProtocolCompression.deflated(bytesIn, bytesOut, deflateTime);
+            }
+            target.close();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private void writeUncompressed() throws IOException {
+        header.write(new DataOutputStream(target));
+        headerWritten = true;
+        target.write(buffer, 0, count);
+        count = 0;
+        buffer = null;
+    }
+
+    private void startDeflating() throws IOException {
+        header.writeDeflated(new DataOutputStream(target));
+        headerWritten = true;
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        deflated = new byte[BUFFER_SIZE];
+        if (buffer.length < BUFFER_SIZE) {
+            buffer = Arrays.copyOf(buffer, BUFFER_SIZE);
+        }
+    }
+
+    private void deflateBuffer() throws IOException {
+        if (count > 0) {
+            deflate(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void deflate(byte[] b, int off, int len) throws IOException {
+        deflater.setInput(b, off, len);
+        bytesIn += len;
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    private int drain(int flush) throws IOException {
+        final long start = System.nanoTime();
+        final int length = deflater.deflate(deflated, 0, deflated.length, flush);
+        deflateTime += System.nanoTime() - start;
+        if (length > 0) {
+            target.write(deflated, 0, length);
+            bytesOut += length;
+        }
+        return length;
+    }
+}
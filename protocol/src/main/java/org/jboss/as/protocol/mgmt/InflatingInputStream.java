@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reads a deflated management protocol message body. Closing the stream releases the {@link Inflater} but leaves
+ * the underlying message open.
+ *
+ * @see DeflatingOutputStream
+ */
+final class InflatingInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream source;
+    private final Inflater inflater = new Inflater();
+    private final byte[] input = new byte[BUFFER_SIZE];
+    private final byte[] single = new byte[1];
+    private long inflateTime;
+    private boolean closed;
+
+    InflatingInputStream(InputStream source) {
+        this.source = source;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        for (;;) {
+            if (inflater.finished()) {
+                return -1;
+            }
+            if (inflater.needsInput()) {
+                final int read = source.read(input, 0, input.length);
+                if (read == -1) {
+                    throw new EOFException();
+                }
+                inflater.setInput(input, 0, read);
+            }
+            final long start = System.nanoTime();
+            final int inflated;
+            try {
+                inflated = inflater.inflate(b, off, len);
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            } finally {
+                inflateTime += System.nanoTime() - start;
+            }
+            if (inflated > 0) {
+                return inflated;
+            }
+            if (inflater.needsDictionary()) {
+                throw new ZipException();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            inflater.end();
+            ManagementProtocolCompression.inflated(inflateTime);
+        }
+    }
+}
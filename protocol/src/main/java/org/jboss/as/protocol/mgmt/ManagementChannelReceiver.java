@@ -64,10 +64,16 @@ public final class ManagementChannelReceiver implements Channel.Receiver {
         try {
             ProtocolLogger.ROOT_LOGGER.tracef("%s handling incoming data", this);
             lastMessageTime = System.currentTimeMillis();
-            final DataInput input = new DataInputStream(message);
+            DataInput input = new DataInputStream(message);
             final ManagementProtocolHeader header = ManagementProtocolHeader.parse(input);
             final byte type = header.getType();
+            ManagementProtocolCompression.received(channel, header);
+            InflatingInputStream inflating = null;
             try {
+                if (header.isBodyDeflated()) {
+                    inflating = new InflatingInputStream(message);
+                    input = new DataInputStream(inflating);
+                }
                 if (type == ManagementProtocol.TYPE_PING) {
                     // Handle legacy ping/pong directly
                     ProtocolLogger.ROOT_LOGGER.tracef("Received ping on %s", this);
@@ -93,6 +99,9 @@ public final class ManagementChannelReceiver implements Channel.Receiver {
                 } catch (IOException ignore) {
                     //
                 }
+                if (inflating != null) {
+                    inflating.close();
+                }
             }
             message.close();
         } catch(IOException e) {
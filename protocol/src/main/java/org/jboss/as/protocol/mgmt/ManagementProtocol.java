@@ -29,7 +29,8 @@ public interface ManagementProtocol {
     // Headers
     byte[] SIGNATURE = {Byte.MAX_VALUE, Byte.MIN_VALUE, Byte.MAX_VALUE, Byte.MIN_VALUE};
     int VERSION_FIELD = 0x00; // The version field header
-    int VERSION = 2; // The current protocol version
+    int VERSION = 3; // The current protocol version
+    int VERSION_DEFLATE = 3; // The first protocol version able to receive deflated message bodies
 
     byte TYPE = 0x1;
     byte TYPE_REQUEST = 0x2;
@@ -44,10 +45,12 @@ public interface ManagementProtocol {
     byte ONE_WAY = 0x13;
     byte REQUEST_BODY = 0x14;
     byte REQUEST_END = 0x15;
+    byte REQUEST_BODY_DEFLATED = 0x16;
 
     byte RESPONSE_ID = 0x20;
     byte RESPONSE_TYPE = 0x21;
     byte RESPONSE_BODY = 0x22;
     byte RESPONSE_ERROR = 0x23;
     byte RESPONSE_END = 0x24;
+    byte RESPONSE_BODY_DEFLATED = 0x25;
 }
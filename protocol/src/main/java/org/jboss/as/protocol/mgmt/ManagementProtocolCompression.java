@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.protocol.mgmt;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.protocol.logging.ProtocolLogger;
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Channel;
+
+/**
+ * Negotiated compression of management protocol message bodies.
+ * <p>
+ * Peers speaking protocol version {@link ManagementProtocol#VERSION_DEFLATE} or later can always inflate a body
+ * flagged as deflated in its header. Sending deflated bodies is disabled unless the
+ * {@code jboss.management.protocol.compression} system property is set to {@code true}, in which case a body is
+ * deflated once it grows beyond {@code jboss.management.protocol.compression.threshold} bytes (8192 by default).
+ * A response is only deflated if the request it answers was sent using a version that supports it, and a request
+ * is only deflated once a message received on the same channel has shown the peer supports it, so older peers
+ * never see a deflated body.
+ */
+public final class ManagementProtocolCompression {
+
+    /** System property used to enable sending deflated message bodies. */
+    public static final String COMPRESSION_PROPERTY = "jboss.management.protocol.compression";
+    /** System property used to configure the body size, in bytes, above which bodies are deflated. */
+    public static final String THRESHOLD_PROPERTY = "jboss.management.protocol.compression.threshold";
+
+    private static final int DEFAULT_THRESHOLD = 8192;
+
+    static final boolean ENABLED = Boolean.parseBoolean(SecurityActions.getSystemProperty(COMPRESSION_PROPERTY, "false"));
+    static final int THRESHOLD = resolveThreshold();
+
+    private static final Attachments.Key<Boolean> PEER_INFLATES = new Attachments.Key<>(Boolean.class);
+
+    private static final LongAdder deflatedMessages = new LongAdder();
+    private static final LongAdder uncompressedBytes = new LongAdder();
+    private static final LongAdder compressedBytes = new LongAdder();
+    private static final LongAdder deflateTime = new LongAdder();
+    private static final LongAdder inflatedMessages = new LongAdder();
+    private static final LongAdder inflateTime = new LongAdder();
+
+    private ManagementProtocolCompression() {
+    }
+
+    /**
+     * Gets the number of messages sent with a deflated body.
+     *
+     * @return the number of deflated messages
+     */
+    public static long getDeflatedMessageCount() {
+        return deflatedMessages.sum();
+    }
+
+    /**
+     * Gets the number of message body bytes that were deflated before being sent.
+     *
+     * @return the number of bytes before compression
+     */
+    public static long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    /**
+     * Gets the number of bytes sent for deflated message bodies.
+     *
+     * @return the number of bytes after compression
+     */
+    public static long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * Gets the number of bytes compression has saved sending message bodies.
+     *
+     * @return the number of bytes saved
+     */
+    public static long getBytesSaved() {
+        return uncompressedBytes.sum() - compressedBytes.sum();
+    }
+
+    /**
+     * Gets the time spent deflating message bodies. Only the time spent in the {@link java.util.zip.Deflater} is
+     * counted, not time spent waiting to write to the channel.
+     *
+     * @return the time in nanoseconds
+     */
+    public static long getDeflateTime() {
+        return deflateTime.sum();
+    }
+
+    /**
+     * Gets the number of received messages with a deflated body.
+     *
+     * @return the number of inflated messages
+     */
+    public static long getInflatedMessageCount() {
+        return inflatedMessages.sum();
+    }
+
+    /**
+     * Gets the time spent inflating received message bodies. Only the time spent in the
+     * {@link java.util.zip.Inflater} is counted, not time spent waiting for data from the channel.
+     *
+     * @return the time in nanoseconds
+     */
+    public static long getInflateTime() {
+        return inflateTime.sum();
+    }
+
+    /**
+     * Records what a received message tells us about the peer's ability to inflate message bodies.
+     *
+     * @param channel the channel the message was received on
+     * @param header the header of the received message
+     */
+    static void received(Channel channel, ManagementProtocolHeader header) {
+        if (header.getVersion() >= ManagementProtocol.VERSION_DEFLATE) {
+            final byte type = header.getType();
+            if (type == ManagementProtocol.TYPE_REQUEST || type == ManagementProtocol.TYPE_RESPONSE) {
+                channel.getAttachments().attachIfAbsent(PEER_INFLATES, Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * Whether the body of a message with the given header may be deflated.
+     *
+     * @param header the header of the message being sent
+     * @param channel the channel the message will be sent on
+     * @return {@code true} if the body may be deflated
+     */
+    static boolean isDeflatable(ManagementProtocolHeader header, Channel channel) {
+        if (!ENABLED || header.getVersion() < ManagementProtocol.VERSION_DEFLATE) {
+            return false;
+        }
+        switch (header.getType()) {
+            case ManagementProtocol.TYPE_REQUEST:
+                return channel.getAttachments().getAttachment(PEER_INFLATES) != null;
+            case ManagementProtocol.TYPE_RESPONSE:
+                // The version was negotiated down to what the requesting peer supports
+                return !((ManagementResponseHeader) header).isFailed();
+            default:
+                return false;
+        }
+    }
+
+    static void deflated(long bytesIn, long bytesOut, long time) {
+        deflatedMessages.increment();
+        uncompressedBytes.add(bytesIn);
+        compressedBytes.add(bytesOut);
+        deflateTime.add(time);
+    }
+
+    static void inflated(long time) {
+        inflatedMessages.increment();
+        inflateTime.add(time);
+    }
+
+    private static int resolveThreshold() {
+        final String value = SecurityActions.getSystemProperty(THRESHOLD_PROPERTY, null);
+        if (value != null) {
+            try {
+                return Math.max(0, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                ProtocolLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, THRESHOLD_PROPERTY, DEFAULT_THRESHOLD);
+            }
+        }
+        return DEFAULT_THRESHOLD;
+    }
+}
@@ -64,6 +64,26 @@ public abstract class ManagementProtocolHeader {
         output.writeByte(getType());
     }
 
+    /**
+     * Write the header information, flagging that the message body which follows is deflated. Only headers of
+     * messages which carry a body support this.
+     *
+     * @param output The output to write to
+     * @throws IOException If any problems occur writing to the output
+     */
+    void writeDeflated(final DataOutput output) throws IOException {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Whether the message body following this header is deflated.
+     *
+     * @return {@code true} if the body needs to be inflated before it is read
+     */
+    boolean isBodyDeflated() {
+        return false;
+    }
+
     /**
      * The protocol version for the current communication.
      *
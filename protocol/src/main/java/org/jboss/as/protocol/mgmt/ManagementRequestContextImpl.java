@@ -120,6 +120,9 @@ class ManagementRequestContextImpl<T, A> implements ManagementRequestContext<A>
     @Override
     public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) throws IOException {
         final MessageOutputStream os = channel.writeMessage();
+        if (ManagementProtocolCompression.isDeflatable(header, channel)) {
+            return FlushableDataOutputImpl.create(new DeflatingOutputStream(os, header, ManagementProtocolCompression.THRESHOLD));
+        }
         return AbstractMessageHandler.writeHeader(header, os);
     }
 
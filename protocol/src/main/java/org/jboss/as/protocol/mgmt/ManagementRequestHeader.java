@@ -41,6 +41,7 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
     private byte operationId;
     // Actually not needed
     private boolean oneWay;
+    private boolean bodyDeflated;
 
     /**
      * Construct an instance with the protocol version and operation handler for the header.
@@ -72,11 +73,30 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
         operationId = input.readByte();
         ProtocolUtils.expectHeader(input, ManagementProtocol.ONE_WAY);
         oneWay = input.readBoolean();
-        ProtocolUtils.expectHeader(input, ManagementProtocol.REQUEST_BODY);
+        final byte body = input.readByte();
+        if (body == ManagementProtocol.REQUEST_BODY_DEFLATED) {
+            bodyDeflated = true;
+        } else {
+            ProtocolUtils.expectHeader(body, ManagementProtocol.REQUEST_BODY);
+        }
     }
 
     /** {@inheritDoc} */
     public void write(final DataOutput output) throws IOException {
+        write(output, false);
+    }
+
+    @Override
+    void writeDeflated(final DataOutput output) throws IOException {
+        write(output, true);
+    }
+
+    @Override
+    boolean isBodyDeflated() {
+        return bodyDeflated;
+    }
+
+    private void write(final DataOutput output, final boolean deflated) throws IOException {
         super.write(output);
         output.write(ManagementProtocol.REQUEST_ID);
         output.writeInt(requestId);
@@ -86,7 +106,7 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
         output.write(operationId);
         output.write(ManagementProtocol.ONE_WAY);
         output.writeBoolean(oneWay);
-        output.write(ManagementProtocol.REQUEST_BODY);
+        output.write(deflated ? ManagementProtocol.REQUEST_BODY_DEFLATED : ManagementProtocol.REQUEST_BODY);
     }
 
     /**
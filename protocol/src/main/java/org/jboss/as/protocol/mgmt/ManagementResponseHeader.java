@@ -40,6 +40,7 @@ public class ManagementResponseHeader extends ManagementProtocolHeader {
     private int responseId;
     private boolean failed = false;
     private String error;
+    private boolean bodyDeflated;
 
     /**
      * Construct an instance with the protocol version for the header.
@@ -68,12 +69,31 @@ public class ManagementResponseHeader extends ManagementProtocolHeader {
         if (type == ManagementProtocol.RESPONSE_ERROR) {
             this.failed = true;
             error = input.readUTF();
+        } else if (type == ManagementProtocol.RESPONSE_BODY_DEFLATED) {
+            bodyDeflated = true;
         } else if (type != ManagementProtocol.RESPONSE_BODY) {
             throw ProtocolLogger.ROOT_LOGGER.invalidType("RESPONSE_ERROR", "RESPONSE_BODY", type);
         }
     }
 
     public void write(DataOutput output) throws IOException {
+        write(output, false);
+    }
+
+    @Override
+    void writeDeflated(DataOutput output) throws IOException {
+        if (error != null) {
+            throw new IllegalStateException();
+        }
+        write(output, true);
+    }
+
+    @Override
+    boolean isBodyDeflated() {
+        return bodyDeflated;
+    }
+
+    private void write(DataOutput output, boolean deflated) throws IOException {
         super.write(output);
         output.write(ManagementProtocol.RESPONSE_ID);
         output.writeInt(responseId);
@@ -82,7 +102,7 @@ public class ManagementResponseHeader extends ManagementProtocolHeader {
             output.write(ManagementProtocol.RESPONSE_ERROR);
             output.writeUTF(error);
         } else {
-            output.write(ManagementProtocol.RESPONSE_BODY);
+            output.write(deflated ? ManagementProtocol.RESPONSE_BODY_DEFLATED : ManagementProtocol.RESPONSE_BODY);
         }
     }
 
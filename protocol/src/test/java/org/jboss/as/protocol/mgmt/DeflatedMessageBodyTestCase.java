@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of deflated management protocol message bodies.
+ */
+public class DeflatedMessageBodyTestCase {
+
+    @Test
+    public void testSmallBodyIsNotDeflated() throws Exception {
+        final ManagementRequestHeader header = new ManagementRequestHeader(ManagementProtocol.VERSION, 1, 2, (byte) 3);
+        final byte[] body = compressibleBody(100);
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final DataOutputStream plain = new DataOutputStream(expected);
+        header.write(plain);
+        plain.write(body);
+
+        final byte[] message = write(header, body, 1024);
+        Assert.assertArrayEquals(expected.toByteArray(), message);
+        Assert.assertFalse(ManagementProtocolHeader.parse(new DataInputStream(new ByteArrayInputStream(message))).isBodyDeflated());
+    }
+
+    @Test
+    public void testLargeRequestBodyIsDeflated() throws Exception {
+        final ManagementRequestHeader header = new ManagementRequestHeader(ManagementProtocol.VERSION, 1, 2, (byte) 3);
+        final byte[] body = compressibleBody(100000);
+        final long deflated = ManagementProtocolCompression.getDeflatedMessageCount();
+
+        final byte[] message = write(header, body, 1024);
+        Assert.assertTrue(message.length < body.length / 2);
+        Assert.assertEquals(deflated + 1, ManagementProtocolCompression.getDeflatedMessageCount());
+
+        final ManagementRequestHeader read = (ManagementRequestHeader) readBody(message, body);
+        Assert.assertEquals(1, read.getRequestId());
+        Assert.assertEquals(2, read.getBatchId());
+        Assert.assertEquals(3, read.getOperationId());
+    }
+
+    @Test
+    public void testLargeResponseBodyIsDeflated() throws Exception {
+        final ManagementResponseHeader header = new ManagementResponseHeader(ManagementProtocol.VERSION, 7, null);
+        final byte[] body = new byte[50000];
+        new Random(42).nextBytes(body);
+
+        // Incompressible, but still has to make it across intact
+        final ManagementResponseHeader read = (ManagementResponseHeader) readBody(write(header, body, 0), body);
+        Assert.assertEquals(7, read.getResponseId());
+        Assert.assertFalse(read.isFailed());
+    }
+
+    private static byte[] write(ManagementProtocolHeader header, byte[] body, int threshold) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(new DeflatingOutputStream(result, header, threshold))) {
+            // Mix single byte and bulk writes as DataOutput does
+            output.writeByte(body[0]);
+            output.write(body, 1, 10);
+            for (int i = 11; i < body.length; i += 333) {
+                output.write(body, i, Math.min(333, body.length - i));
+            }
+        }
+        return result.toByteArray();
+    }
+
+    private static ManagementProtocolHeader readBody(byte[] message, byte[] expected) throws IOException {
+        final ByteArrayInputStream input = new ByteArrayInputStream(message);
+        final ManagementProtocolHeader header = ManagementProtocolHeader.parse(new DataInputStream(input));
+        Assert.assertTrue(header.isBodyDeflated());
+        final byte[] body = new byte[expected.length];
+        try (InflatingInputStream inflating = new InflatingInputStream(input)) {
+            new DataInputStream(inflating).readFully(body);
+            Assert.assertEquals(-1, inflating.read());
+        }
+        Assert.assertArrayEquals(expected, body);
+        return header;
+    }
+
+    private static byte[] compressibleBody(int size) {
+        final byte[] body = new byte[size];
+        final byte[] pattern = "{\"outcome\" => \"success\", \"result\" => undefined}".getBytes();
+        for (int i = 0; i < size; i++) {
+            body[i] = pattern[i % pattern.length];
+        }
+        return body;
+    }
+}
@@ -152,7 +152,8 @@ final class ApplicationServerService implements Service<AsyncFuture<ServiceConta
         }
         CurrentServiceContainer.setServiceContainer(context.getController().getServiceContainer());
 
-        final BootstrapListener bootstrapListener = new BootstrapListener(container, startTime, serviceTarget, futureContainer, prettyVersion, serverEnvironment.getServerTempDir());
+        final BootstrapListener bootstrapListener = new BootstrapListener(container, startTime, serviceTarget, futureContainer, prettyVersion, serverEnvironment.getServerTempDir(),
+                BootProfiler.start(startTime, serverEnvironment.getServerLogDir()));
         bootstrapListener.getStabilityMonitor().addController(myController);
         // Install either a local or remote content repository
         if(standalone) {
@@ -220,6 +221,10 @@ final class ApplicationServerService implements Service<AsyncFuture<ServiceConta
         //Moved to AbstractControllerService.stop()
         //processState.setStopping();
         CurrentServiceContainer.setServiceContainer(null);
+        if (configuration.getServerEnvironment().useGit()) {
+            // commit any configuration change still waiting for a group commit
+            configuration.getServerEnvironment().getGitRepository().flushPendingCommits();
+        }
         String prettyVersion = configuration.getServerEnvironment().getProductConfig().getPrettyVersionString();
         ServerLogger.AS_ROOT_LOGGER.serverStopped(prettyVersion, (int) (context.getElapsedTime() / 1000000L));
         BootstrapListener.deleteStartupMarker(configuration.getServerEnvironment().getServerTempDir());
@@ -0,0 +1,364 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.controller.BootPhaseRecorder;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.LifecycleEvent;
+import org.jboss.msc.service.LifecycleListener;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+import org.jboss.msc.service.ServiceTarget;
+
+/**
+ * Profiles the boot of a server, combining the boot phases recorded by {@link BootPhaseRecorder} with the time at which
+ * each service installed during boot came up, and determines the chain of services that determined when the boot
+ * completed.
+ * <p>
+ * Profiling is disabled unless the {@code org.wildfly.boot.profiling} system property is set to {@code true}. MSC does
+ * not report when a service starts, only when it is up, so the start time of a service is taken to be the time its last
+ * required dependency came up. The time reported for a service therefore also includes any time it spent queued for a
+ * container thread, and is not known for services without dependencies profiled.
+ * </p>
+ * Once the boot is complete services are no longer profiled and the profile is written as JSON to
+ * {@value #DUMP_FILE_NAME} in the server log directory.
+ */
+public final class BootProfiler implements LifecycleListener {
+
+    /** The default number of entries listed for each phase and for the slowest services. */
+    public static final int DEFAULT_TOP = 20;
+
+    static final String DUMP_FILE_NAME = "boot-profile.json";
+
+    private static volatile BootProfiler current;
+
+    private final long originNanos;
+    private final long originOffsetMillis;
+    private final File dumpDir;
+    private final Map<ServiceName, ServiceRecord> services = new ConcurrentHashMap<>();
+    private final List<ServiceTarget> targets = new ArrayList<>();
+    private volatile long completeNanos = -1L;
+    private volatile long bootTime = -1L;
+
+    BootProfiler(final long startTime, final File dumpDir) {
+        this.originNanos = System.nanoTime();
+        this.originOffsetMillis = System.currentTimeMillis() - startTime;
+        this.dumpDir = dumpDir;
+    }
+
+    /**
+     * Starts profiling a server boot, if profiling is enabled.
+     *
+     * @param startTime the time, in milliseconds since the epoch, at which the server process started booting
+     * @param dumpDir   the directory the profile is written to once the boot completes. May be {@code null}
+     * @return the profiler, or {@code null} if profiling is not enabled
+     */
+    static BootProfiler start(final long startTime, final File dumpDir) {
+        if (!BootPhaseRecorder.ENABLED) {
+            return null;
+        }
+        BootPhaseRecorder.reset();
+        final BootProfiler profiler = new BootProfiler(startTime, dumpDir);
+        current = profiler;
+        return profiler;
+    }
+
+    /**
+     * Gets the profiler of the latest server boot.
+     *
+     * @return the profiler, or {@code null} if profiling is not enabled
+     */
+    public static BootProfiler getCurrent() {
+        return current;
+    }
+
+    /**
+     * Profiles the services installed through the given target until the boot completes.
+     *
+     * @param target the service target
+     */
+    synchronized void attach(final ServiceTarget target) {
+        if (completeNanos < 0) {
+            target.addListener(this);
+            targets.add(target);
+        }
+    }
+
+    /**
+     * Marks the boot as complete, stops profiling services and writes the profile to the dump file.
+     *
+     * @param registry the registry of the services installed during boot
+     * @param bootTime the time, in milliseconds, the boot took
+     */
+    void bootComplete(final ServiceRegistry registry, final long bootTime) {
+        synchronized (this) {
+            if (completeNanos >= 0) {
+                return;
+            }
+            completeNanos = System.nanoTime();
+            this.bootTime = bootTime;
+            for (ServiceTarget target : targets) {
+                target.removeListener(this);
+            }
+            targets.clear();
+        }
+        // The targets only add their listeners to services installed through them, so remove it from every service
+        // installed before the boot completed too
+        for (ServiceName name : registry.getServiceNames()) {
+            final ServiceController<?> controller = registry.getService(name);
+            if (controller != null) {
+                controller.removeListener(this);
+            }
+        }
+        if (dumpDir != null) {
+            final File file = new File(dumpDir, DUMP_FILE_NAME);
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(toModelNode(DEFAULT_TOP, true).toJSONString(false));
+            } catch (IOException e) {
+                ServerLogger.ROOT_LOGGER.cannotWriteBootProfile(e, file.getAbsolutePath());
+            }
+        }
+    }
+
+    @Override
+    public void handleEvent(final ServiceController<?> controller, final LifecycleEvent event) {
+        switch (event) {
+            case UP:
+                serviceUp(controller.getName(), controller.requires(), controller.provides(), System.nanoTime());
+                break;
+            case DOWN:
+                serviceDown(controller.getName(), System.nanoTime());
+                break;
+            case FAILED:
+                serviceFailed(controller.getName(), controller.requires(), controller.provides());
+                break;
+            default:
+                break;
+        }
+    }
+
+    void serviceUp(final ServiceName name, final Set<ServiceName> requires, final Set<ServiceName> provides, final long nanos) {
+        final ServiceRecord record = services.computeIfAbsent(name, n -> new ServiceRecord(n, requires, provides));
+        if (record.up == 0L) {
+            record.up = nanos;
+        }
+    }
+
+    void serviceDown(final ServiceName name, final long nanos) {
+        final ServiceRecord record = services.get(name);
+        if (record != null) {
+            record.down = nanos;
+        }
+    }
+
+    void serviceFailed(final ServiceName name, final Set<ServiceName> requires, final Set<ServiceName> provides) {
+        services.computeIfAbsent(name, n -> new ServiceRecord(n, requires, provides)).failed = true;
+    }
+
+    /**
+     * Gets the profile as a model node. Times are in milliseconds, relative to the start of the server process.
+     *
+     * @param top         the number of entries to list for each phase and for the slowest services
+     * @param allServices {@code true} to also list every service that came up during boot
+     * @return the profile. Will not be {@code null}
+     */
+    public ModelNode toModelNode(final int top, final boolean allServices) {
+        return toModelNode(BootPhaseRecorder.getPhases(), top, allServices);
+    }
+
+    ModelNode toModelNode(final List<BootPhaseRecorder.Phase> phases, final int top, final boolean allServices) {
+        final long completeNanos = this.completeNanos;
+        final long end = completeNanos < 0 ? System.nanoTime() : completeNanos;
+        final ModelNode result = new ModelNode();
+        result.get("complete").set(completeNanos >= 0);
+        if (bootTime >= 0) {
+            result.get("boot-time").set(bootTime);
+        }
+        result.get("profiling-start").set(originOffsetMillis);
+
+        // Phases, in the order they started
+        final Map<String, List<BootPhaseRecorder.Phase>> phasesByName = new LinkedHashMap<>();
+        phases.sort(Comparator.comparingLong(BootPhaseRecorder.Phase::getStart));
+        for (BootPhaseRecorder.Phase phase : phases) {
+            phasesByName.computeIfAbsent(phase.getName(), n -> new ArrayList<>()).add(phase);
+        }
+        final ModelNode phasesNode = result.get("phases").setEmptyObject();
+        for (Map.Entry<String, List<BootPhaseRecorder.Phase>> entry : phasesByName.entrySet()) {
+            final List<BootPhaseRecorder.Phase> list = entry.getValue();
+            long start = Long.MAX_VALUE;
+            long finish = Long.MIN_VALUE;
+            long total = 0;
+            for (BootPhaseRecorder.Phase phase : list) {
+                start = Math.min(start, phase.getStart());
+                finish = Math.max(finish, phase.getEnd());
+                total += phase.getDuration();
+            }
+            final ModelNode phaseNode = phasesNode.get(entry.getKey());
+            phaseNode.get("start").set(offset(start));
+            phaseNode.get("end").set(offset(finish));
+            phaseNode.get("count").set(list.size());
+            phaseNode.get("total-time").set(millis(total));
+            if (list.size() > 1 || list.get(0).getDetail() != null) {
+                final List<BootPhaseRecorder.Phase> slowest = new ArrayList<>(list);
+                slowest.sort(Comparator.comparingLong(BootPhaseRecorder.Phase::getDuration).reversed());
+                final ModelNode slowestNode = phaseNode.get("slowest").setEmptyList();
+                for (BootPhaseRecorder.Phase phase : slowest.subList(0, Math.min(top, slowest.size()))) {
+                    final ModelNode node = slowestNode.add();
+                    if (phase.getDetail() != null) {
+                        node.get("name").set(phase.getDetail());
+                    }
+                    node.get("start").set(offset(phase.getStart()));
+                    node.get("time").set(millis(phase.getDuration()));
+                    node.get("thread").set(phase.getThread());
+                }
+            }
+        }
+
+        // Services that came up during the boot
+        final List<ServiceRecord> booted = new ArrayList<>();
+        final Map<ServiceName, ServiceRecord> byProvidedName = new HashMap<>();
+        for (ServiceRecord record : services.values()) {
+            if (record.up != 0L && record.up <= end) {
+                booted.add(record);
+                for (ServiceName name : record.provides) {
+                    byProvidedName.put(name, record);
+                }
+            }
+        }
+        final Map<ServiceRecord, ServiceRecord> gatingDependencies = new HashMap<>();
+        final Map<ServiceRecord, Long> startTimes = new HashMap<>();
+        ServiceRecord last = null;
+        int failed = 0;
+        for (ServiceRecord record : booted) {
+            ServiceRecord gating = null;
+            for (ServiceName name : record.requires) {
+                final ServiceRecord dependency = byProvidedName.get(name);
+                if (dependency != null && dependency != record && dependency.up <= record.up
+                        && (gating == null || dependency.up > gating.up)) {
+                    gating = dependency;
+                }
+            }
+            if (gating != null) {
+                gatingDependencies.put(record, gating);
+                startTimes.put(record, record.up - gating.up);
+            }
+            if (last == null || record.up > last.up) {
+                last = record;
+            }
+        }
+        for (ServiceRecord record : services.values()) {
+            if (record.failed) {
+                failed++;
+            }
+        }
+
+        final ModelNode servicesNode = result.get("services");
+        servicesNode.get("up").set(booted.size());
+        servicesNode.get("failed").set(failed);
+
+        final List<ServiceRecord> slowest = new ArrayList<>(startTimes.keySet());
+        slowest.sort(Comparator.comparingLong((ServiceRecord r) -> startTimes.get(r)).reversed());
+        final ModelNode slowestNode = servicesNode.get("slowest").setEmptyList();
+        for (ServiceRecord record : slowest.subList(0, Math.min(top, slowest.size()))) {
+            slowestNode.add(toModelNode(record, startTimes, gatingDependencies));
+        }
+
+        // Walk back from the service that came up last through the dependencies that each service waited for last
+        final List<ServiceRecord> criticalPath = new ArrayList<>();
+        for (ServiceRecord record = last; record != null && criticalPath.size() <= booted.size(); record = gatingDependencies.get(record)) {
+            criticalPath.add(record);
+        }
+        Collections.reverse(criticalPath);
+        final ModelNode criticalPathNode = servicesNode.get("critical-path").setEmptyList();
+        for (ServiceRecord record : criticalPath) {
+            criticalPathNode.add(toModelNode(record, startTimes, gatingDependencies));
+        }
+
+        if (allServices) {
+            booted.sort(Comparator.comparingLong(r -> r.up));
+            final ModelNode allNode = servicesNode.get("all").setEmptyList();
+            for (ServiceRecord record : booted) {
+                allNode.add(toModelNode(record, startTimes, gatingDependencies));
+            }
+        }
+        return result;
+    }
+
+    private ModelNode toModelNode(final ServiceRecord record, final Map<ServiceRecord, Long> startTimes,
+                                  final Map<ServiceRecord, ServiceRecord> gatingDependencies) {
+        final ModelNode node = new ModelNode();
+        node.get("name").set(record.name.getCanonicalName());
+        node.get("up").set(offset(record.up));
+        final Long startTime = startTimes.get(record);
+        if (startTime != null) {
+            node.get("time").set(millis(startTime));
+            node.get("waited-for").set(gatingDependencies.get(record).name.getCanonicalName());
+        }
+        if (record.down != 0L) {
+            node.get("down").set(offset(record.down));
+        }
+        return node;
+    }
+
+    private double offset(final long nanos) {
+        return originOffsetMillis + millis(nanos - originNanos);
+    }
+
+    private static double millis(final long nanos) {
+        // Microsecond precision is plenty
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static final class ServiceRecord {
+        private final ServiceName name;
+        private final Set<ServiceName> requires;
+        private final Set<ServiceName> provides;
+        private volatile long up;
+        private volatile long down;
+        private volatile boolean failed;
+
+        private ServiceRecord(final ServiceName name, final Set<ServiceName> requires, final Set<ServiceName> provides) {
+            this.name = name;
+            this.requires = requires;
+            this.provides = provides;
+        }
+    }
+}
@@ -218,8 +218,10 @@ public interface Bootstrap {
                             persister = new GitConfigurationPersister(serverEnvironment.getGitRepository(), configurationFile, rootElement, parser, parser,
                                     runningModeControl.isReloaded());
                         } else {
-                            persister = new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser,
+                            BackupXmlConfigurationPersister backupPersister = new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser,
                                     runningModeControl.isReloaded(), serverEnvironment.getLaunchType() == ServerEnvironment.LaunchType.EMBEDDED);
+                            backupPersister.enableBootOperationSnapshot();
+                            persister = backupPersister;
                         }
                         for (Namespace namespace : Namespace.domainValues()) {
                             if (!namespace.equals(Namespace.CURRENT)) {
@@ -53,23 +53,42 @@ public final class BootstrapListener {
     private final String prettyVersion;
     private final FutureServiceContainer futureContainer;
     private final File tempDir;
+    private final BootProfiler bootProfiler;
     private  String startedCleanMessage;
     private  String startedWitErrorsMessage;
 
     public BootstrapListener(final ServiceContainer serviceContainer, final long startTime, final ServiceTarget serviceTarget, final FutureServiceContainer futureContainer, final String prettyVersion, final File tempDir) {
+        this(serviceContainer, startTime, serviceTarget, futureContainer, prettyVersion, tempDir, null);
+    }
+
+    public BootstrapListener(final ServiceContainer serviceContainer, final long startTime, final ServiceTarget serviceTarget, final FutureServiceContainer futureContainer, final String prettyVersion, final File tempDir,
+                             final BootProfiler bootProfiler) {
         this.serviceContainer = serviceContainer;
         this.startTime = startTime;
         this.serviceTarget = serviceTarget;
         this.prettyVersion = prettyVersion;
         this.futureContainer = futureContainer;
         this.tempDir = tempDir;
+        this.bootProfiler = bootProfiler;
         serviceTarget.addMonitor(monitor);
+        if (bootProfiler != null) {
+            bootProfiler.attach(serviceTarget);
+        }
     }
 
     public StabilityMonitor getStabilityMonitor() {
         return monitor;
     }
 
+    /**
+     * Gets the profiler of this boot.
+     *
+     * @return the profiler, or {@code null} if boot profiling is not enabled
+     */
+    public BootProfiler getBootProfiler() {
+        return bootProfiler;
+    }
+
     public void generateBootStatistics(String message) {
         final StabilityStatistics statistics = new StabilityStatistics();
         try {
@@ -82,6 +101,9 @@ public final class BootstrapListener {
             final long bootstrapTime = System.currentTimeMillis() - startTime;
             done(bootstrapTime, statistics, message);
             monitor.clear();
+            if (bootProfiler != null) {
+                bootProfiler.bootComplete(serviceContainer, bootstrapTime);
+            }
         }
     }
 
@@ -96,6 +118,9 @@ public final class BootstrapListener {
     }
 
     public void bootFailure(Throwable throwable) {
+        if (bootProfiler != null) {
+            bootProfiler.bootComplete(serviceContainer, System.currentTimeMillis() - startTime);
+        }
         futureContainer.failed(throwable);
     }
 
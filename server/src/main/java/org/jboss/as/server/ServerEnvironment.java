@@ -253,6 +253,20 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
     @Deprecated
     public static final String JBOSS_PERSIST_SERVER_CONFIG = "jboss.server.persist.config";
 
+    /**
+     * The system property used to set the time in milliseconds during which configuration changes are aggregated
+     * in a single git commit when the configuration history is managed through git. The default is {@code 0}, which
+     * does not aggregate changes by time.
+     */
+    public static final String GIT_COMMIT_WINDOW = "jboss.server.git.commit.window";
+
+    /**
+     * The system property used to set the maximum number of configuration changes aggregated in a single git commit
+     * when the configuration history is managed through git. The default is {@code 0}, which does not aggregate
+     * changes by count.
+     */
+    public static final String GIT_COMMIT_MAX_OPERATIONS = "jboss.server.git.commit.max-operations";
+
     public static final String DOMAIN_BASE_DIR = "jboss.domain.base.dir";
     public static final String DOMAIN_CONFIG_DIR = "jboss.domain.config.dir";
 
@@ -494,6 +508,8 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
                     .setBranch(gitBranch)
                     .setRepository(gitRepository)
                     .setIgnored(listIgnoredFiles(defaultServerConfig))
+                    .setCommitWindow(getLongFromProperty(GIT_COMMIT_WINDOW, props))
+                    .setCommitMaxOperations(getPositiveIntFromProperty(GIT_COMMIT_MAX_OPERATIONS, props))
                     .build();
             if (gitConfiguration != null) {
                 try {
@@ -1202,6 +1218,50 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
 
     private static final File[] NO_FILES = new File[0];
 
+    /**
+     * Get a non negative number from configuration.
+     *
+     * @param name the name of the property
+     * @param props the set of configuration properties
+     *
+     * @return the number, or {@code 0} if the property is not set or is not a valid number.
+     */
+    private long getLongFromProperty(final String name, final Properties props) {
+        String value = props.getProperty(name, null);
+        if (value != null) {
+            try {
+                return Math.max(0L, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(name, value);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Get a strictly positive integer from configuration.
+     *
+     * @param name the name of the property
+     * @param props the set of configuration properties
+     *
+     * @return the number, or {@code 0} if the property is not set or is not a valid positive integer.
+     */
+    private int getPositiveIntFromProperty(final String name, final Properties props) {
+        String value = props.getProperty(name, null);
+        if (value != null) {
+            try {
+                int result = Integer.parseInt(value.trim());
+                if (result >= 1) {
+                    return result;
+                }
+            } catch (NumberFormatException e) {
+                // warned about below
+            }
+            ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(name, value);
+        }
+        return 0;
+    }
+
     /**
      * Get a File path list from configuration.
      *
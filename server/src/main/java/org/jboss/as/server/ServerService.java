@@ -47,6 +47,7 @@ import java.util.function.Supplier;
 
 import org.jboss.as.controller.AbstractControllerService;
 import org.jboss.as.controller.BootContext;
+import org.jboss.as.controller.BootPhaseRecorder;
 import org.jboss.as.controller.CapabilityRegistry;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.DelegatingResourceDefinition;
@@ -302,6 +303,12 @@ public final class ServerService extends AbstractControllerService {
                         getMutableRootResourceRegistrationProvider(),
                         super.getBootErrorCollector(),
                         configuration.getCapabilityRegistry()));
+        final BootProfiler bootProfiler = bootstrapListener.getBootProfiler();
+        if (bootProfiler != null) {
+            // Services installed by the boot operations are children of this service, so they do not see the
+            // listeners of the target this service was installed with
+            bootProfiler.attach(context.getChildTarget());
+        }
         super.start(context);
     }
 
@@ -399,7 +406,9 @@ public final class ServerService extends AbstractControllerService {
                 boolean failOnRuntime = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.unsupported.fail-boot-on-runtime-failure", "false"));
 
                 // Load the ops
+                final long parseStart = BootPhaseRecorder.start();
                 List<ModelNode> bootOps = extensibleConfigurationPersister.load();
+                BootPhaseRecorder.record(BootPhaseRecorder.PARSE_CONFIGURATION, null, parseStart);
                 //Add the controller initialization operation to the boot ops
                 ModelNode controllerInitOp = registerModelControllerServiceInitializationBootStep(context);
                 if (controllerInitOp != null) {
@@ -408,7 +417,9 @@ public final class ServerService extends AbstractControllerService {
                     bootOps.add(controllerInitOp);
                 }
 
+                final long bootOpsStart = BootPhaseRecorder.start();
                 ok = boot(bootOps, failOnRuntime);
+                BootPhaseRecorder.record(BootPhaseRecorder.BOOT_OPERATIONS, null, bootOpsStart);
 
                 if (ok) {
                     finishBoot(suspend);
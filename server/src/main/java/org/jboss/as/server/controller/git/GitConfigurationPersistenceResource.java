@@ -22,10 +22,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Constants;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
 import org.jboss.as.controller.persistence.AbstractFilePersistenceResource;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
@@ -40,31 +44,51 @@ public class GitConfigurationPersistenceResource extends AbstractFilePersistence
 
     protected final File file;
     private final GitRepository repository;
+    private final Set<PathAddress> affectedAddresses;
 
     public GitConfigurationPersistenceResource(final ModelNode model, final File fileName, final GitRepository repository,
             final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        this(model, fileName, repository, persister, Collections.emptySet());
+    }
+
+    public GitConfigurationPersistenceResource(final ModelNode model, final File fileName, final GitRepository repository,
+            final AbstractConfigurationPersister persister, final Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
        super(model, persister);
         this.file = fileName;
         this.repository = repository;
+        this.affectedAddresses = affectedAddresses;
     }
 
     @Override
     public void rollback() {
         super.rollback();
-        try (Git git = repository.getGit()) {
-            git.reset().setMode(ResetCommand.ResetType.HARD).setRef(Constants.HEAD).call();
-        } catch (GitAPIException ex) {
-            MGMT_OP_LOGGER.failedToStoreConfiguration(ex, file.getName());
+        if (repository.isGroupCommit()) {
+            // A hard reset would also discard the changes waiting for the next group commit
+            try {
+                repository.rollbackToPending(file.toPath());
+            } catch (GitAPIException ex) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(ex, file.getName());
+            }
+            return;
+        }
+        synchronized (repository) {
+            try (Git git = repository.getGit()) {
+                git.reset().setMode(ResetCommand.ResetType.HARD).setRef(Constants.HEAD).call();
+            } catch (GitAPIException ex) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(ex, file.getName());
+            }
         }
     }
 
     protected void gitCommit(String msg) {
-        try (Git git = repository.getGit()) {
-            if(!git.status().call().isClean()) {
-                git.commit().setMessage(msg).setAll(true).setNoVerify(true).call();
+        synchronized (repository) {
+            try (Git git = repository.getGit()) {
+                if(!git.status().call().isClean()) {
+                    git.commit().setMessage(msg).setAll(true).setNoVerify(true).call();
+                }
+            } catch (GitAPIException e) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(e, file.getName());
             }
-        } catch (GitAPIException e) {
-            MGMT_OP_LOGGER.failedToStoreConfiguration(e, file.getName());
         }
     }
 
@@ -72,10 +96,21 @@ public class GitConfigurationPersistenceResource extends AbstractFilePersistence
     protected void doCommit(InputStream in) {
         try {
             Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            gitCommit("Storing configuration");
-        } catch (IOException ex) {
+            if (repository.isGroupCommit()) {
+                repository.addPendingCommit(file.toPath(), describeChange());
+            } else {
+                gitCommit("Storing configuration");
+            }
+        } catch (IOException | GitAPIException ex) {
             MGMT_OP_LOGGER.failedToStoreConfiguration(ex, file.getName());
         }
     }
 
+    private String describeChange() {
+        if (affectedAddresses == null || affectedAddresses.isEmpty()) {
+            return file.getName();
+        }
+        return affectedAddresses.stream().map(PathAddress::toCLIStyleString).sorted().collect(Collectors.joining(", "));
+    }
+
 }
@@ -109,7 +109,7 @@ public class GitConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
-        return new GitConfigurationPersistenceResource(model, mainFile, gitRepository, this);
+        return new GitConfigurationPersistenceResource(model, mainFile, gitRepository, this, affectedAddresses);
     }
 
     @Override
@@ -117,22 +117,25 @@ public class GitConfigurationPersister extends XmlConfigurationPersister {
         boolean noComment = (comment ==null || comment.isEmpty());
         String message = noComment ? SNAPSHOT_PREFIX + FORMATTER.format(LocalDateTime.now()) : comment;
         String tagName = (name ==null || name.isEmpty()) ? SNAPSHOT_PREFIX + FORMATTER.format(LocalDateTime.now()) : name;
-        try (Git git = gitRepository.getGit()) {
-            Status status = git.status().call();
-            List<Ref> tags = git.tagList().call();
-            String refTagName = R_TAGS + tagName;
-            for(Ref tag : tags) {
-                if(refTagName.equals(tag.getName())) {
-                   throw MGMT_OP_LOGGER.snapshotAlreadyExistError(tagName);
+        synchronized (gitRepository) {
+            gitRepository.flushPendingCommits();
+            try (Git git = gitRepository.getGit()) {
+                Status status = git.status().call();
+                List<Ref> tags = git.tagList().call();
+                String refTagName = R_TAGS + tagName;
+                for(Ref tag : tags) {
+                    if(refTagName.equals(tag.getName())) {
+                       throw MGMT_OP_LOGGER.snapshotAlreadyExistError(tagName);
+                    }
                 }
+                //if comment is not null
+                if(status.hasUncommittedChanges() || !noComment) {
+                    git.commit().setMessage(message).setAll(true).setNoVerify(true).call();
+                }
+                git.tag().setName(tagName).setMessage(message).call();
+            } catch (GitAPIException ex) {
+                throw MGMT_OP_LOGGER.failedToPersistConfiguration(ex, message, ex.getMessage());
             }
-            //if comment is not null
-            if(status.hasUncommittedChanges() || !noComment) {
-                git.commit().setMessage(message).setAll(true).setNoVerify(true).call();
-            }
-            git.tag().setName(tagName).setMessage(message).call();
-        } catch (GitAPIException ex) {
-            throw MGMT_OP_LOGGER.failedToPersistConfiguration(ex, message, ex.getMessage());
         }
         return message;
     }
@@ -142,6 +145,7 @@ public class GitConfigurationPersister extends XmlConfigurationPersister {
         StringBuilder message = new StringBuilder();
         String remoteName = gitRepository.getRemoteName(name);
         if (remoteName != null && gitRepository.isValidRemoteName(remoteName)) {
+            gitRepository.flushPendingCommits();
             try (Git git = gitRepository.getGit()) {
                 Iterable<PushResult> result = git.push().setRemote(remoteName)
                         .setRefSpecs(new RefSpec(gitRepository.getBranch() + ':' + gitRepository.getBranch()))
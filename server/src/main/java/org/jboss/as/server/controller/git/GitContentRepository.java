@@ -56,10 +56,12 @@ public class GitContentRepository extends ContentRepositoryImpl {
         byte[] result = super.removeContentFromExploded(deploymentHash, paths);
         if (!Arrays.equals(deploymentHash, result)) {
             final Path realFile = getDeploymentContentFile(result, true);
-            try (Git git = gitRepository.getGit()) {
-                git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
-            } catch (GitAPIException ex) {
-                throw new ExplodedContentException(ex.getMessage(), ex);
+            synchronized (gitRepository) {
+                try (Git git = gitRepository.getGit()) {
+                    git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
+                } catch (GitAPIException ex) {
+                    throw new ExplodedContentException(ex.getMessage(), ex);
+                }
             }
         }
         return result;
@@ -70,10 +72,12 @@ public class GitContentRepository extends ContentRepositoryImpl {
         byte[] result = super.addContentToExploded(deploymentHash, addFiles, overwrite);
         if (!Arrays.equals(deploymentHash, result)) {
             final Path realFile = getDeploymentContentFile(result, true);
-            try (Git git = gitRepository.getGit()) {
-                git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
-            } catch (GitAPIException ex) {
-                throw new ExplodedContentException(ex.getMessage(), ex);
+            synchronized (gitRepository) {
+                try (Git git = gitRepository.getGit()) {
+                    git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
+                } catch (GitAPIException ex) {
+                    throw new ExplodedContentException(ex.getMessage(), ex);
+                }
             }
         }
         return result;
@@ -84,10 +88,12 @@ public class GitContentRepository extends ContentRepositoryImpl {
         byte[] result = super.explodeSubContent(deploymentHash, relativePath);
         if (!Arrays.equals(deploymentHash, result)) {
             final Path realFile = getDeploymentContentFile(result, true);
-            try (Git git = gitRepository.getGit()) {
-                git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
-            } catch (GitAPIException ex) {
-                throw new ExplodedContentException(ex.getMessage(), ex);
+            synchronized (gitRepository) {
+                try (Git git = gitRepository.getGit()) {
+                    git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
+                } catch (GitAPIException ex) {
+                    throw new ExplodedContentException(ex.getMessage(), ex);
+                }
             }
         }
         return result;
@@ -98,10 +104,12 @@ public class GitContentRepository extends ContentRepositoryImpl {
         byte[] result = super.explodeContent(deploymentHash);
         if (!Arrays.equals(deploymentHash, result)) {
             final Path realFile = getDeploymentContentFile(result, true);
-            try (Git git = gitRepository.getGit()) {
-                git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
-            } catch (GitAPIException ex) {
-                throw new ExplodedContentException(ex.getMessage(), ex);
+            synchronized (gitRepository) {
+                try (Git git = gitRepository.getGit()) {
+                    git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
+                } catch (GitAPIException ex) {
+                    throw new ExplodedContentException(ex.getMessage(), ex);
+                }
             }
         }
         return result;
@@ -112,15 +120,17 @@ public class GitContentRepository extends ContentRepositoryImpl {
         final Path realFile = getDeploymentContentFile(reference.getHash());
         super.removeContent(reference);
         if (!Files.exists(realFile)) {
-            try (Git git = gitRepository.getGit()) {
-                Set<String> deletedFiles = git.status().call().getMissing();
-                RmCommand rmCommand = git.rm();
-                for (String file : deletedFiles) {
-                    rmCommand.addFilepattern(file);
+            synchronized (gitRepository) {
+                try (Git git = gitRepository.getGit()) {
+                    Set<String> deletedFiles = git.status().call().getMissing();
+                    RmCommand rmCommand = git.rm();
+                    for (String file : deletedFiles) {
+                        rmCommand.addFilepattern(file);
+                    }
+                    rmCommand.addFilepattern(gitRepository.getPattern(realFile)).call();
+                } catch (GitAPIException ex) {
+                    throw new RuntimeException(ex);
                 }
-                rmCommand.addFilepattern(gitRepository.getPattern(realFile)).call();
-            } catch (GitAPIException ex) {
-                throw new RuntimeException(ex);
             }
         }
     }
@@ -129,10 +139,12 @@ public class GitContentRepository extends ContentRepositoryImpl {
     public byte[] addContent(InputStream stream) throws IOException {
         byte[] result = super.addContent(stream);
         final Path realFile = getDeploymentContentFile(result, true);
-        try (Git git = gitRepository.getGit()) {
-            git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
-        } catch (GitAPIException ex) {
-            throw new IOException(ex);
+        synchronized (gitRepository) {
+            try (Git git = gitRepository.getGit()) {
+                git.add().addFilepattern(gitRepository.getPattern(realFile)).call();
+            } catch (GitAPIException ex) {
+                throw new IOException(ex);
+            }
         }
         return result;
     }
@@ -140,24 +152,28 @@ public class GitContentRepository extends ContentRepositoryImpl {
     @Override
     public void flush(boolean success) {
         if (success) {
-            try (Git git = gitRepository.getGit()) {
-                Status status = git.status().call();
-                if (!status.isClean()) {
-                    String message = git.getRepository().parseCommit(git.getRepository().resolve(HEAD)).getFullMessage();
-                    if(! status.getUntracked().isEmpty() || ! status.getUntrackedFolders().isEmpty()) {
-                        AddCommand addCommand = git.add();
-                        for(String untracked : status.getUntrackedFolders()) {
-                            addCommand = addCommand.addFilepattern(untracked);
-                        }
-                        for(String untracked : status.getUntracked()) {
-                            addCommand = addCommand.addFilepattern(untracked);
+            synchronized (gitRepository) {
+                // amend the commit of the configuration change this content belongs to, not an older one
+                gitRepository.flushPendingCommits();
+                try (Git git = gitRepository.getGit()) {
+                    Status status = git.status().call();
+                    if (!status.isClean()) {
+                        String message = git.getRepository().parseCommit(git.getRepository().resolve(HEAD)).getFullMessage();
+                        if(! status.getUntracked().isEmpty() || ! status.getUntrackedFolders().isEmpty()) {
+                            AddCommand addCommand = git.add();
+                            for(String untracked : status.getUntrackedFolders()) {
+                                addCommand = addCommand.addFilepattern(untracked);
+                            }
+                            for(String untracked : status.getUntracked()) {
+                                addCommand = addCommand.addFilepattern(untracked);
+                            }
+                            addCommand.call();
                         }
-                        addCommand.call();
+                        git.commit().setMessage(message).setAmend(true).setAll(true).setNoVerify(true).call();
                     }
-                    git.commit().setMessage(message).setAmend(true).setAll(true).setNoVerify(true).call();
+                } catch (RevisionSyntaxException | IOException | GitAPIException ex) {
+                    throw new RuntimeException(ex);
                 }
-            } catch (RevisionSyntaxException | IOException | GitAPIException ex) {
-                throw new RuntimeException(ex);
             }
         }
     }
@@ -32,9 +32,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.AccessController;
 import java.security.GeneralSecurityException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.eclipse.jgit.api.AddCommand;
@@ -44,6 +51,7 @@ import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.errors.EmptyCommitException;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -57,6 +65,7 @@ import org.eclipse.jgit.transport.SshSessionFactory;
 import org.eclipse.jgit.transport.sshd.SshdSessionFactory;
 import org.jboss.as.repository.PathUtil;
 import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.client.config.ConfigXMLParseException;
 
 /**
@@ -72,10 +81,19 @@ public class GitRepository implements Closeable {
     private final String defaultRemoteRepository;
     private final String branch;
     private final SshdSessionFactory sshdSessionFactory;
+    private final long commitWindow;
+    private final int commitMaxOperations;
+    // Group commit state, guarded by this. Every operation on the index or working tree must hold this lock too,
+    // otherwise it races with a scheduled group commit for the index lock.
+    private final List<String> pendingCommits = new ArrayList<>();
+    private ScheduledThreadPoolExecutor commitScheduler;
+    private ScheduledFuture<?> scheduledCommit;
 
     public GitRepository(GitRepositoryConfiguration gitConfig)
             throws IllegalArgumentException, IOException, ConfigXMLParseException, GeneralSecurityException {
         this.basePath = gitConfig.getBasePath();
+        this.commitWindow = gitConfig.getCommitWindow();
+        this.commitMaxOperations = gitConfig.getCommitMaxOperations();
         this.branch = gitConfig.getBranch();
         this.ignored = gitConfig.getIgnored();
         this.defaultRemoteRepository = gitConfig.getRepository();
@@ -211,7 +229,20 @@ public class GitRepository implements Closeable {
         }
     }
     public GitRepository(Repository repository) {
+        this(repository, 0L, 0);
+    }
+
+    /**
+     * Creates a repository wrapper using group commits.
+     *
+     * @param repository the underlying git repository.
+     * @param commitWindow the time in milliseconds during which configuration changes are aggregated in a single commit.
+     * @param commitMaxOperations the maximum number of configuration changes aggregated in a single commit.
+     */
+    public GitRepository(Repository repository, long commitWindow, int commitMaxOperations) {
         this.repository = repository;
+        this.commitWindow = commitWindow;
+        this.commitMaxOperations = commitMaxOperations;
         this.ignored = Collections.emptySet();
         this.defaultRemoteRepository = DEFAULT_REMOTE_NAME;
         this.branch = MASTER;
@@ -267,6 +298,13 @@ public class GitRepository implements Closeable {
 
     @Override
     public void close() {
+        flushPendingCommits();
+        synchronized (this) {
+            if (commitScheduler != null) {
+                commitScheduler.shutdown();
+                commitScheduler = null;
+            }
+        }
         if (sshdSessionFactory != null) {
             this.sshdSessionFactory.close();
         }
@@ -311,7 +349,7 @@ public class GitRepository implements Closeable {
      *
      * @throws GitAPIException
      */
-    public void rollback() throws GitAPIException {
+    public synchronized void rollback() throws GitAPIException {
         try (Git git = getGit()) {
             git.reset().setMode(ResetCommand.ResetType.HARD).setRef(HEAD).call();
         }
@@ -323,7 +361,7 @@ public class GitRepository implements Closeable {
      * @param msg the commit message.
      * @throws GitAPIException
      */
-    public void commit(String msg) throws GitAPIException {
+    public synchronized void commit(String msg) throws GitAPIException {
         try (Git git = getGit()) {
             Status status = git.status().call();
             if (!status.isClean()) {
@@ -331,4 +369,95 @@ public class GitRepository implements Closeable {
             }
         }
     }
+
+    /**
+     * Whether configuration changes are aggregated into group commits instead of one commit per change.
+     *
+     * @return true if group commits are enabled.
+     */
+    public boolean isGroupCommit() {
+        return commitWindow > 0 || commitMaxOperations > 1;
+    }
+
+    /**
+     * Stages a single changed configuration file and records the change for the next group commit. The pending
+     * changes are committed together once {@code commitMaxOperations} changes have been recorded or
+     * {@code commitWindow} milliseconds after the first pending change, whichever comes first.
+     *
+     * @param file the changed configuration file.
+     * @param description the description of the change listed in the commit message.
+     * @throws GitAPIException
+     */
+    public synchronized void addPendingCommit(Path file, String description) throws GitAPIException {
+        try (Git git = getGit()) {
+            git.add().addFilepattern(getPattern(file)).call();
+        }
+        pendingCommits.add(description);
+        if (commitMaxOperations > 0 && pendingCommits.size() >= commitMaxOperations) {
+            commitPending();
+        } else if (scheduledCommit == null && commitWindow > 0) {
+            scheduledCommit = getCommitScheduler().schedule(this::flushPendingCommits, commitWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Restores a configuration file to its staged content, discarding changes not yet recorded for a group commit.
+     *
+     * @param file the configuration file.
+     * @throws GitAPIException
+     */
+    public synchronized void rollbackToPending(Path file) throws GitAPIException {
+        try (Git git = getGit()) {
+            git.checkout().addPath(getPattern(file)).call();
+        }
+    }
+
+    /**
+     * Commits all the pending configuration changes in a single commit, if any.
+     */
+    public synchronized void flushPendingCommits() {
+        try {
+            commitPending();
+        } catch (GitAPIException ex) {
+            ServerLogger.ROOT_LOGGER.errorUsingGit(ex, ex.getMessage());
+        }
+    }
+
+    private void commitPending() throws GitAPIException {
+        if (scheduledCommit != null) {
+            scheduledCommit.cancel(false);
+            scheduledCommit = null;
+        }
+        if (pendingCommits.isEmpty()) {
+            return;
+        }
+        final StringBuilder message = new StringBuilder("Storing configuration");
+        if (pendingCommits.size() > 1) {
+            message.append(" (").append(pendingCommits.size()).append(" operations)");
+        }
+        message.append("\n");
+        for (String description : pendingCommits) {
+            message.append("\n- ").append(description);
+        }
+        pendingCommits.clear();
+        try (Git git = getGit()) {
+            // only commit the staged files, there is no need to scan the whole working tree
+            git.commit().setMessage(message.toString()).setAllowEmpty(false).setNoVerify(true).call();
+        } catch (EmptyCommitException ex) {
+            // the pending changes were already committed with some other change
+        }
+    }
+
+    private ScheduledThreadPoolExecutor getCommitScheduler() {
+        if (commitScheduler == null) {
+            final JBossThreadFactory threadFactory = AccessController.doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+                public JBossThreadFactory run() {
+                    return new JBossThreadFactory(new ThreadGroup("GitRepository-commit-threads"), Boolean.TRUE, null, "%G - %t", null, null);
+                }
+            });
+            commitScheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+            commitScheduler.setRemoveOnCancelPolicy(true);
+        }
+        return commitScheduler;
+    }
 }
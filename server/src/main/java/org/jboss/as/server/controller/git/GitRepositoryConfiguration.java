@@ -37,15 +37,20 @@ public class GitRepositoryConfiguration {
     private final URI authenticationConfig;
     private final Set<String> ignored;
     private final boolean sign;
+    private final long commitWindow;
+    private final int commitMaxOperations;
 
 
-    private GitRepositoryConfiguration(Path basePath, String repository, String branch, URI authenticationConfig, Set<String> ignored, boolean sign) {
+    private GitRepositoryConfiguration(Path basePath, String repository, String branch, URI authenticationConfig, Set<String> ignored, boolean sign,
+            long commitWindow, int commitMaxOperations) {
         this.basePath = basePath;
         this.repository = repository;
         this.branch = branch;
         this.authenticationConfig = authenticationConfig;
         this.ignored = ignored;
         this.sign = sign;
+        this.commitWindow = commitWindow;
+        this.commitMaxOperations = commitMaxOperations;
     }
 
     public Path getBasePath() {
@@ -76,6 +81,22 @@ public class GitRepositoryConfiguration {
         return sign;
     }
 
+    /**
+     * The time in milliseconds during which configuration changes are aggregated in a single commit.
+     * @return the group commit window, 0 if changes are not aggregated by time.
+     */
+    public long getCommitWindow() {
+        return commitWindow;
+    }
+
+    /**
+     * The maximum number of configuration changes aggregated in a single commit.
+     * @return the maximum number of changes per commit, 0 if changes are not aggregated by count.
+     */
+    public int getCommitMaxOperations() {
+        return commitMaxOperations;
+    }
+
     public static class Builder {
 
         private Path basePath;
@@ -84,6 +105,8 @@ public class GitRepositoryConfiguration {
         private URI authenticationConfig;
         private Set<String> ignored;
         private boolean sign = false;
+        private long commitWindow = 0L;
+        private int commitMaxOperations = 0;
 
         private Builder() {
         }
@@ -141,12 +164,22 @@ public class GitRepositoryConfiguration {
             if(this.ignored == null) {
                 this.ignored =  Collections.emptySet();
             }
-            return new GitRepositoryConfiguration(basePath, repository, branch, authenticationConfig, ignored, sign);
+            return new GitRepositoryConfiguration(basePath, repository, branch, authenticationConfig, ignored, sign, commitWindow, commitMaxOperations);
         }
 
         public Builder setSign(boolean sign) {
             this.sign = sign;
             return this;
         }
+
+        public Builder setCommitWindow(long commitWindow) {
+            this.commitWindow = Math.max(0L, commitWindow);
+            return this;
+        }
+
+        public Builder setCommitMaxOperations(int commitMaxOperations) {
+            this.commitMaxOperations = Math.max(0, commitMaxOperations);
+            return this;
+        }
     }
     }
@@ -527,7 +527,7 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerSubModel(managementDefinition);
 
         // Other core services
-        resourceRegistration.registerSubModel(new ServiceContainerResourceDefinition());
+        resourceRegistration.registerSubModel(new ServiceContainerResourceDefinition(true));
 
         //module loading
         resourceRegistration.registerSubModel(ModuleLoadingResourceDefinition.INSTANCE);
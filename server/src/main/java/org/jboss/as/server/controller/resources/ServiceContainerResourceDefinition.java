@@ -31,6 +31,7 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
 import org.jboss.as.server.operations.DumpServicesHandler;
+import org.jboss.as.server.operations.ReadBootProfileHandler;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the service container runtime resources.
@@ -40,15 +41,30 @@ import org.jboss.as.server.operations.DumpServicesHandler;
 
 public class ServiceContainerResourceDefinition extends SimpleResourceDefinition {
 
+    private final boolean server;
+
     public ServiceContainerResourceDefinition() {
+        this(false);
+    }
+
+    /**
+     * Creates the resource definition.
+     *
+     * @param server {@code true} if the resource belongs to a server rather than a host controller
+     */
+    public ServiceContainerResourceDefinition(boolean server) {
         super(new Parameters(PathElement.pathElement(CORE_SERVICE, SERVICE_CONTAINER),
                 ServerDescriptions.getResourceDescriptionResolver("core", SERVICE_CONTAINER))
                 .setAccessConstraints(SensitiveTargetAccessConstraintDefinition.SERVICE_CONTAINER));
+        this.server = server;
     }
 
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
         resourceRegistration.registerOperationHandler(DumpServicesHandler.DEFINITION, DumpServicesHandler.INSTANCE);
+        if (server) {
+            resourceRegistration.registerOperationHandler(ReadBootProfileHandler.DEFINITION, ReadBootProfileHandler.INSTANCE);
+        }
     }
 }
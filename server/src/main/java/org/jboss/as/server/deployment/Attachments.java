@@ -80,6 +80,12 @@ public final class Attachments {
      */
     public static final AttachmentKey<Set<String>> REGISTERED_SUBSYSTEMS = AttachmentKey.create(Set.class);
 
+    /**
+     * Timing data of the deployment unit processors run against the deployment unit, only attached when deployment
+     * processing profiling is enabled.
+     */
+    public static final AttachmentKey<DeploymentProcessingProfile> DEPLOYMENT_PROCESSING_PROFILE = AttachmentKey.create(DeploymentProcessingProfile.class);
+
     /**
      * The name that uniquely identifies the deployment to the management layer across the domain.
      */
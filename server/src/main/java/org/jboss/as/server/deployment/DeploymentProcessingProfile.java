@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Timing data recorded for each {@link DeploymentUnitProcessor} run against a deployment unit, grouped by {@link Phase}.
+ * <p>
+ * Profiling is disabled unless the {@code org.wildfly.deployment.profiling} system property is set to {@code true}, in
+ * which case {@link DeploymentUnitPhaseService} records the wall clock time, the CPU time and, where the JVM supports it,
+ * the bytes allocated by the deployment thread while each processor's {@code deploy} method runs.
+ *
+ * @see Attachments#DEPLOYMENT_PROCESSING_PROFILE
+ */
+public final class DeploymentProcessingProfile {
+
+    /** System property used to enable deployment processing profiling. */
+    public static final String PROFILING_PROPERTY = "org.wildfly.deployment.profiling";
+
+    static final boolean ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PROFILING_PROPERTY, "false"));
+
+    private static final ThreadMXBean THREAD_MX_BEAN;
+    private static final boolean CPU_TIME_SUPPORTED;
+    private static final AllocationCounter ALLOCATION_COUNTER;
+
+    static {
+        ThreadMXBean threadMXBean = null;
+        boolean cpuTimeSupported = false;
+        AllocationCounter allocationCounter = null;
+        if (ENABLED) {
+            threadMXBean = ManagementFactory.getThreadMXBean();
+            cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+            allocationCounter = AllocationCounter.create(threadMXBean);
+        }
+        THREAD_MX_BEAN = threadMXBean;
+        CPU_TIME_SUPPORTED = cpuTimeSupported;
+        ALLOCATION_COUNTER = allocationCounter;
+    }
+
+    private final Map<Phase, List<Entry>> phases = new EnumMap<>(Phase.class);
+
+    /**
+     * Starts measuring a processor run on the current thread.
+     *
+     * @return the measurement, to be passed to {@link #record(Phase, RegisteredDeploymentUnitProcessor, Measurement)}
+     */
+    static Measurement start() {
+        return new Measurement(System.nanoTime(),
+                CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1L,
+                ALLOCATION_COUNTER != null ? ALLOCATION_COUNTER.getCurrentThreadAllocatedBytes() : -1L);
+    }
+
+    void record(Phase phase, RegisteredDeploymentUnitProcessor processor, Measurement start) {
+        final long wallTime = System.nanoTime() - start.wallTime;
+        final long cpuTime = start.cpuTime < 0 ? -1L : THREAD_MX_BEAN.getCurrentThreadCpuTime() - start.cpuTime;
+        final long allocatedBytes = start.allocatedBytes < 0 ? -1L : ALLOCATION_COUNTER.getCurrentThreadAllocatedBytes() - start.allocatedBytes;
+        record(phase, processor, wallTime, cpuTime, allocatedBytes);
+    }
+
+    synchronized void record(Phase phase, RegisteredDeploymentUnitProcessor processor, long wallTime, long cpuTime, long allocatedBytes) {
+        phases.computeIfAbsent(phase, p -> new ArrayList<>())
+                .add(new Entry(processor.getProcessor().getClass().getName(), processor.getSubsystemName(), processor.getPriority(), wallTime, cpuTime, allocatedBytes));
+    }
+
+    /**
+     * Gets the profile as a model node. Times are in nanoseconds; CPU time and allocated bytes are {@code -1} if
+     * the JVM cannot measure them, in which case the phase and deployment totals are {@code -1} as well.
+     *
+     * @return the profile. Will not be {@code null}
+     */
+    public synchronized ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        long totalWallTime = 0;
+        long totalCpuTime = 0;
+        long totalAllocatedBytes = 0;
+        final ModelNode phasesNode = result.get("phases").setEmptyObject();
+        for (Map.Entry<Phase, List<Entry>> phase : phases.entrySet()) {
+            long wallTime = 0;
+            long cpuTime = 0;
+            long allocatedBytes = 0;
+            final ModelNode phaseNode = phasesNode.get(phase.getKey().name());
+            final ModelNode processors = phaseNode.get("processors").setEmptyList();
+            for (Entry entry : phase.getValue()) {
+                wallTime += entry.wallTime;
+                cpuTime = sum(cpuTime, entry.cpuTime);
+                allocatedBytes = sum(allocatedBytes, entry.allocatedBytes);
+                final ModelNode processor = processors.add();
+                processor.get("processor").set(entry.processor);
+                if (entry.subsystem != null) {
+                    processor.get("subsystem").set(entry.subsystem);
+                }
+                processor.get("priority").set(entry.priority);
+                processor.get("wall-time").set(entry.wallTime);
+                processor.get("cpu-time").set(entry.cpuTime);
+                processor.get("allocated-bytes").set(entry.allocatedBytes);
+            }
+            phaseNode.get("wall-time").set(wallTime);
+            phaseNode.get("cpu-time").set(cpuTime);
+            phaseNode.get("allocated-bytes").set(allocatedBytes);
+            totalWallTime += wallTime;
+            totalCpuTime = sum(totalCpuTime, cpuTime);
+            totalAllocatedBytes = sum(totalAllocatedBytes, allocatedBytes);
+        }
+        result.get("wall-time").set(totalWallTime);
+        result.get("cpu-time").set(totalCpuTime);
+        result.get("allocated-bytes").set(totalAllocatedBytes);
+        return result;
+    }
+
+    /**
+     * Adds two measurements, either of which is {@code -1} if it could not be taken.
+     */
+    private static long sum(long total, long value) {
+        return total < 0 || value < 0 ? -1L : total + value;
+    }
+
+    static final class Measurement {
+        private final long wallTime;
+        private final long cpuTime;
+        private final long allocatedBytes;
+
+        private Measurement(long wallTime, long cpuTime, long allocatedBytes) {
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    private static final class Entry {
+        private final String processor;
+        private final String subsystem;
+        private final int priority;
+        private final long wallTime;
+        private final long cpuTime;
+        private final long allocatedBytes;
+
+        private Entry(String processor, String subsystem, int priority, long wallTime, long cpuTime, long allocatedBytes) {
+            this.processor = processor;
+            this.subsystem = subsystem;
+            this.priority = priority;
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    /**
+     * Reads the per-thread allocation counter exposed by the {@code jdk.management} module, if available.
+     */
+    private static final class AllocationCounter {
+        private final com.sun.management.ThreadMXBean threadMXBean;
+
+        private AllocationCounter(com.sun.management.ThreadMXBean threadMXBean) {
+            this.threadMXBean = threadMXBean;
+        }
+
+        static AllocationCounter create(ThreadMXBean threadMXBean) {
+            try {
+                if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+                    final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+                    if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                        return new AllocationCounter(bean);
+                    }
+                }
+            } catch (LinkageError ignored) {
+                // jdk.management is not visible
+            }
+            return null;
+        }
+
+        long getCurrentThreadAllocatedBytes() {
+            return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBDEPLOYMENT;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.ENABLED;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handles reading the timing data recorded for the deployment unit processors run against a deployment and its
+ * sub-deployments.
+ *
+ * @see DeploymentProcessingProfile
+ */
+public class DeploymentProcessingProfileHandler implements OperationStepHandler {
+    public static final String OPERATION_NAME = "read-processing-profile";
+
+    public DeploymentProcessingProfileHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (!DeploymentProcessingProfile.ENABLED) {
+            throw ServerLogger.ROOT_LOGGER.deploymentProcessingProfilingDisabled(DeploymentProcessingProfile.PROFILING_PROPERTY);
+        }
+        final PathAddress currentAddress = context.getCurrentAddress();
+        final boolean subDeploymentFlag = currentAddress.getLastElement().getKey().equals(SUBDEPLOYMENT);
+        final PathAddress address = subDeploymentFlag ? currentAddress.getParent() : currentAddress;
+
+        final ModelNode model = context.readResourceFromRoot(address, false).getModel();
+        final boolean enabled = ENABLED.resolveModelAttribute(context, model).asBoolean();
+        final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, model).asString();
+        final String item = context.getCurrentAddressValue();
+
+        if (enabled && context.isNormalServer()) {
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) {
+                    final ServiceController<?> deploymentUnitSc = context.getServiceRegistry(false).getService(Services.deploymentUnitName(runtimeName));
+                    if (deploymentUnitSc == null || deploymentUnitSc.getValue() == null) {
+                        return;
+                    }
+                    final DeploymentUnit deploymentUnit = (DeploymentUnit) deploymentUnitSc.getValue();
+
+                    final ModelNode result;
+                    if (subDeploymentFlag) {
+                        DeploymentUnit target = null;
+                        for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+                            if (subDeployment.getName().equals(item)) {
+                                target = subDeployment;
+                                break;
+                            }
+                        }
+                        if (target == null) {
+                            throw ControllerLogger.ROOT_LOGGER.managementResourceNotFound(currentAddress);
+                        }
+                        result = toModelNode(target);
+                    } else {
+                        result = toModelNode(deploymentUnit);
+                        final ModelNode subDeployments = result.get(ModelDescriptionConstants.SUBDEPLOYMENT).setEmptyObject();
+                        for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+                            subDeployments.get(subDeployment.getName()).set(toModelNode(subDeployment));
+                        }
+                    }
+                    context.getResult().set(result);
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+    }
+
+    private static ModelNode toModelNode(DeploymentUnit deploymentUnit) {
+        final DeploymentProcessingProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROCESSING_PROFILE);
+        return profile == null ? new ModelNode() : profile.toModelNode();
+    }
+}
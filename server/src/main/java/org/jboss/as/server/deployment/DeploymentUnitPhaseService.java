@@ -181,11 +181,32 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final DeploymentProcessingProfile profile;
+        if (DeploymentProcessingProfile.ENABLED) {
+            if (phase == Phase.STRUCTURE) {
+                profile = new DeploymentProcessingProfile();
+                deploymentUnit.putAttachment(Attachments.DEPLOYMENT_PROCESSING_PROFILE, profile);
+            } else {
+                profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROCESSING_PROFILE);
+            }
+        } else {
+            profile = null;
+        }
+
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
+                    if (profile == null) {
+                        processor.getProcessor().deploy(processorContext);
+                    } else {
+                        final DeploymentProcessingProfile.Measurement measurement = DeploymentProcessingProfile.start();
+                        try {
+                            processor.getProcessor().deploy(processorContext);
+                        } finally {
+                            profile.record(phase, processor, measurement);
+                        }
+                    }
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -230,6 +251,11 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             // Add a dependency on the parent's next phase
             if (parent != null) {
                 phaseServiceBuilder.requires(Services.deploymentUnitName(parent.getName(), nextPhase));
+                // If sub deployments are processed serially, wait for the previous sibling's next phase too
+                final ServiceName serialPredecessor = deploymentUnit.getAttachment(SubDeploymentUnitService.SERIAL_PREDECESSOR);
+                if (serialPredecessor != null) {
+                    phaseServiceBuilder.requires(serialPredecessor.append(nextPhase.name()));
+                }
             }
 
             // Make sure all sub deployments have finished this phase before moving to the next one
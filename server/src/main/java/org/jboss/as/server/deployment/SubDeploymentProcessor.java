@@ -36,6 +36,7 @@ import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Deployment processor responsible to creating deployment unit services for sub-deployment.
@@ -45,6 +46,24 @@ import org.jboss.msc.service.ServiceTarget;
  */
 public class SubDeploymentProcessor implements DeploymentUnitProcessor {
 
+    /**
+     * System property which, if set to {@code true}, forces the sub deployments of a deployment to be processed one
+     * after the other rather than concurrently.
+     */
+    public static final String SERIAL_PROCESSING_PROPERTY = "org.wildfly.deployment.subdeployments.serial";
+
+    private static final boolean SERIAL_PROCESSING = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(SERIAL_PROCESSING_PROPERTY, "false"));
+
+    private final boolean serialProcessing;
+
+    public SubDeploymentProcessor() {
+        this(SERIAL_PROCESSING);
+    }
+
+    SubDeploymentProcessor(boolean serialProcessing) {
+        this.serialProcessing = serialProcessing;
+    }
+
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -58,6 +77,7 @@ public class SubDeploymentProcessor implements DeploymentUnitProcessor {
 
         final ServiceTarget serviceTarget = phaseContext.getServiceTarget();
         final List<ResourceRoot> childRoots = deploymentUnit.getAttachmentList(Attachments.RESOURCE_ROOTS);
+        ServiceName previousSibling = null;
         for (final ResourceRoot childRoot : childRoots) {
             if (childRoot == deploymentResourceRoot || !SubDeploymentMarker.isSubDeployment(childRoot)) {
                 continue;
@@ -70,9 +90,16 @@ public class SubDeploymentProcessor implements DeploymentUnitProcessor {
             final ServiceName serviceName = Services.deploymentUnitName(deploymentUnit.getName(), childRoot.getRootName());
             final ServiceBuilder<?> sb = serviceTarget.addService(serviceName);
             final Consumer<DeploymentUnit> deploymentUnitConsumer = sb.provides(serviceName);
-            final SubDeploymentUnitService service = new SubDeploymentUnitService(deploymentUnitConsumer, childRoot, deploymentUnit, registration, mutableRegistration, resource, capabilityServiceSupport, pathManager, serviceName.getSimpleName());
+            // Sibling sub deployments are processed concurrently unless serial processing is forced, in which case
+            // each phase of a sub deployment waits for the same phase of the previous sibling
+            final ServiceName serialPredecessor = serialProcessing ? previousSibling : null;
+            if (serialPredecessor != null) {
+                sb.requires(serialPredecessor.append(Phase.STRUCTURE.name()));
+            }
+            final SubDeploymentUnitService service = new SubDeploymentUnitService(deploymentUnitConsumer, childRoot, deploymentUnit, registration, mutableRegistration, resource, capabilityServiceSupport, pathManager, serviceName.getSimpleName(), serialPredecessor);
             sb.setInstance(service);
             sb.install();
+            previousSibling = serviceName;
             phaseContext.addDeploymentDependency(serviceName, Attachments.SUB_DEPLOYMENTS);
             //we also need a dep on the first phase of the sub deployments
             phaseContext.addToAttachmentList(Attachments.NEXT_PHASE_DEPS, serviceName.append(ServiceName.of(Phase.STRUCTURE.name())));
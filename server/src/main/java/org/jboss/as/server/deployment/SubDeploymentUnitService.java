@@ -30,6 +30,7 @@ import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.server.deployment.module.ModuleSpecification;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
 
 import java.util.function.Consumer;
@@ -41,13 +42,25 @@ import java.util.function.Consumer;
  * @author <a href="mailto:ropalka@redhat.com">Richard Opalka</a>
  */
 final class SubDeploymentUnitService extends AbstractDeploymentUnitService {
+    /**
+     * The service name of the sibling sub deployment whose phases must complete before the same phase of this
+     * sub deployment, if sub deployments are processed serially.
+     */
+    static final AttachmentKey<ServiceName> SERIAL_PREDECESSOR = AttachmentKey.create(ServiceName.class);
+
     private final ResourceRoot deploymentRoot;
     private final DeploymentUnit parent;
     private final PathManager pathManager;
+    private final ServiceName serialPredecessor;
 
     public SubDeploymentUnitService(final Consumer<DeploymentUnit> deploymentUnitConsumer, ResourceRoot deploymentRoot, DeploymentUnit parent, ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, CapabilityServiceSupport capabilityServiceSupport, PathManager pathManager, final String name) {
+        this(deploymentUnitConsumer, deploymentRoot, parent, registration, mutableRegistration, resource, capabilityServiceSupport, pathManager, name, null);
+    }
+
+    SubDeploymentUnitService(final Consumer<DeploymentUnit> deploymentUnitConsumer, ResourceRoot deploymentRoot, DeploymentUnit parent, ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, CapabilityServiceSupport capabilityServiceSupport, PathManager pathManager, final String name, final ServiceName serialPredecessor) {
         super(deploymentUnitConsumer, registration, mutableRegistration, resource, capabilityServiceSupport, name);
         this.pathManager = pathManager;
+        this.serialPredecessor = serialPredecessor;
         if (deploymentRoot == null) throw ServerLogger.ROOT_LOGGER.deploymentRootRequired();
         this.deploymentRoot = deploymentRoot;
         if (parent == null) throw ServerLogger.ROOT_LOGGER.subdeploymentsRequireParent();
@@ -67,6 +80,9 @@ final class SubDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX, parent.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX));
         deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_SUPPORT, parent.getAttachment(Attachments.ANNOTATION_INDEX_SUPPORT));
         deploymentUnit.putAttachment(Attachments.PATH_MANAGER, pathManager);
+        if (serialPredecessor != null) {
+            deploymentUnit.putAttachment(SERIAL_PREDECESSOR, serialPredecessor);
+        }
         return deploymentUnit;
     }
 
@@ -1457,6 +1457,16 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 307, value = "No authentication mechanism login name was given")
     AuthenticationMechanismException mechNoLoginNameGiven();
 
+    @Message(id = 308, value = "Deployment processing profiling is not enabled. Set the '%s' system property to 'true' to enable it.")
+    OperationFailedException deploymentProcessingProfilingDisabled(String property);
+
+    @Message(id = 309, value = "Boot profiling is not enabled. Set the '%s' system property to 'true' to enable it.")
+    OperationFailedException bootProfilingDisabled(String property);
+
+    @LogMessage(level = WARN)
+    @Message(id = 310, value = "Failed to write the boot profile to %s")
+    void cannotWriteBootProfile(@Cause Throwable cause, String file);
+
     ////////////////////////////////////////////////
     //Messages without IDs
 
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server.operations;
+
+import org.jboss.as.controller.BootPhaseRecorder;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.server.BootProfiler;
+import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handler that reads the profile of the latest boot of the server.
+ *
+ * @see BootProfiler
+ */
+public class ReadBootProfileHandler implements OperationStepHandler {
+
+    private static final String OPERATION_NAME = "read-boot-profile";
+
+    private static final SimpleAttributeDefinition TOP = SimpleAttributeDefinitionBuilder.create("top", ModelType.INT)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(BootProfiler.DEFAULT_TOP))
+            .setValidator(new IntRangeValidator(0, true))
+            .build();
+
+    public static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, ServerDescriptions.getResourceDescriptionResolver())
+            .setParameters(TOP)
+            .setRuntimeOnly()
+            .setReadOnly()
+            .setReplyType(ModelType.OBJECT)
+            .build();
+
+    public static final ReadBootProfileHandler INSTANCE = new ReadBootProfileHandler();
+
+    private ReadBootProfileHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final BootProfiler profiler = BootProfiler.getCurrent();
+        if (profiler == null) {
+            throw ServerLogger.ROOT_LOGGER.bootProfilingDisabled(BootPhaseRecorder.PROFILING_PROPERTY);
+        }
+        final int top = TOP.resolveModelAttribute(context, operation).asInt();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) {
+                context.getResult().set(profiler.toModelNode(top, false));
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+}
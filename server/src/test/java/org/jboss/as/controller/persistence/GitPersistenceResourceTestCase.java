@@ -102,4 +102,35 @@ public class GitPersistenceResourceTestCase extends AbstractGitPersistenceResour
         Assert.assertEquals("test_snapshot : 1st snapshot", tags.get(0));
     }
 
+    @Test
+    public void testGroupCommit() throws Exception {
+        Path standard = createFile(root, "standard.xml", "std");
+        ConfigurationFile configurationFile = new ConfigurationFile(root.toFile(), "standard.xml", null, ConfigurationFile.InteractionPolicy.STANDARD, true, null);
+        Assert.assertEquals(standard.toAbsolutePath().toString(), configurationFile.getBootFile().getAbsolutePath());
+        GitRepository gitRepository = new GitRepository(repository, 0L, 3);
+        TestConfigurationFilePersister persister = new TestConfigurationFilePersister(configurationFile, gitRepository);
+        persister.successfulBoot();
+        store(persister, "One");
+        store(persister, "Two");
+        checkFiles("standard", "Two");
+        List<String> commits = listCommits(repository);
+        Assert.assertEquals(1, commits.size());
+        store(persister, "Three");
+        commits = listCommits(repository);
+        Assert.assertEquals(2, commits.size());
+        Assert.assertTrue(commits.get(0), commits.get(0).startsWith("Storing configuration (3 operations)"));
+        checkFiles("standard", "Three");
+        store(persister, "Four");
+        Assert.assertEquals(2, listCommits(repository).size());
+        persister.snapshot("test_snapshot", "1st snapshot");
+        commits = listCommits(repository);
+        Assert.assertEquals(4, commits.size());
+        Assert.assertEquals("1st snapshot", commits.get(0));
+        Assert.assertTrue(commits.get(1), commits.get(1).startsWith("Storing configuration\n"));
+        store(persister, "Five");
+        gitRepository.flushPendingCommits();
+        Assert.assertEquals(5, listCommits(repository).size());
+        gitRepository.flushPendingCommits();
+        Assert.assertEquals(5, listCommits(repository).size());
+    }
 }
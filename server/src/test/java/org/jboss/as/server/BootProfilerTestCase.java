@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BootPhaseRecorder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link BootProfiler}.
+ */
+public class BootProfilerTestCase {
+
+    private static final ServiceName A = ServiceName.of("a");
+    private static final ServiceName B = ServiceName.of("b");
+    private static final ServiceName C = ServiceName.of("c");
+    private static final ServiceName D = ServiceName.of("d");
+    private static final ServiceName E = ServiceName.of("e");
+    private static final ServiceName F = ServiceName.of("f");
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testPhases() {
+        final BootProfiler profiler = new BootProfiler(System.currentTimeMillis(), null);
+        final long base = System.nanoTime() - TimeUnit.SECONDS.toNanos(10);
+        final List<BootPhaseRecorder.Phase> phases = new ArrayList<>(Arrays.asList(
+                new BootPhaseRecorder.Phase(BootPhaseRecorder.SUBSYSTEM_RUNTIME, "logging", base + 60 * MILLIS, base + 90 * MILLIS, "worker-1"),
+                new BootPhaseRecorder.Phase(BootPhaseRecorder.SUBSYSTEM_RUNTIME, "io", base + 55 * MILLIS, base + 135 * MILLIS, "worker-2"),
+                new BootPhaseRecorder.Phase(BootPhaseRecorder.PARSE_CONFIGURATION, null, base, base + 50 * MILLIS, "main")));
+
+        final ModelNode result = profiler.toModelNode(phases, 1, false).get("phases");
+        assertEquals(Arrays.asList(BootPhaseRecorder.PARSE_CONFIGURATION, BootPhaseRecorder.SUBSYSTEM_RUNTIME), new ArrayList<>(result.keys()));
+
+        final ModelNode parse = result.get(BootPhaseRecorder.PARSE_CONFIGURATION);
+        assertEquals(1, parse.get("count").asInt());
+        assertEquals(50.0, parse.get("total-time").asDouble(), 0.0);
+        assertFalse(parse.has("slowest"));
+
+        final ModelNode subsystems = result.get(BootPhaseRecorder.SUBSYSTEM_RUNTIME);
+        assertEquals(2, subsystems.get("count").asInt());
+        assertEquals(110.0, subsystems.get("total-time").asDouble(), 0.0);
+        assertEquals(80.0, subsystems.get("end").asDouble() - subsystems.get("start").asDouble(), 0.001);
+        final List<ModelNode> slowest = subsystems.get("slowest").asList();
+        assertEquals(1, slowest.size());
+        assertEquals("io", slowest.get(0).get("name").asString());
+        assertEquals(80.0, slowest.get(0).get("time").asDouble(), 0.0);
+        assertEquals("worker-2", slowest.get(0).get("thread").asString());
+    }
+
+    @Test
+    public void testServices() {
+        final BootProfiler profiler = new BootProfiler(System.currentTimeMillis(), null);
+        final long base = System.nanoTime() - TimeUnit.SECONDS.toNanos(10);
+        up(profiler, A, base + 100 * MILLIS);
+        up(profiler, B, base + 300 * MILLIS, A);
+        up(profiler, C, base + 150 * MILLIS, A);
+        // D waits for B, which came up after C
+        up(profiler, D, base + 900 * MILLIS, B, C);
+        up(profiler, E, base + 200 * MILLIS, C);
+        profiler.serviceFailed(F, Collections.singleton(A), Collections.singleton(F));
+
+        final ModelNode services = profiler.toModelNode(new ArrayList<>(), 2, true).get("services");
+        assertEquals(5, services.get("up").asInt());
+        assertEquals(1, services.get("failed").asInt());
+
+        final List<ModelNode> slowest = services.get("slowest").asList();
+        assertEquals(2, slowest.size());
+        assertService(slowest.get(0), D, 600.0, B);
+        assertService(slowest.get(1), B, 200.0, A);
+
+        // The critical path runs from the service without dependencies to the last one to come up
+        final List<ModelNode> criticalPath = services.get("critical-path").asList();
+        assertEquals(3, criticalPath.size());
+        assertEquals(A.getCanonicalName(), criticalPath.get(0).get("name").asString());
+        assertFalse(criticalPath.get(0).has("waited-for"));
+        assertService(criticalPath.get(1), B, 200.0, A);
+        assertService(criticalPath.get(2), D, 600.0, B);
+
+        final List<ModelNode> all = services.get("all").asList();
+        assertEquals(5, all.size());
+        final List<String> order = new ArrayList<>();
+        for (ModelNode service : all) {
+            order.add(service.get("name").asString());
+        }
+        assertEquals(Arrays.asList("a", "c", "e", "b", "d"), order);
+        assertService(all.get(2), E, 50.0, C);
+    }
+
+    @Test
+    public void testBootCompleteStopsProfiling() throws InterruptedException {
+        final ServiceContainer container = ServiceContainer.Factory.create("boot-profiler");
+        try {
+            final BootProfiler profiler = new BootProfiler(System.currentTimeMillis(), null);
+            profiler.attach(container);
+            final ServiceController<?> controller = container.addService(A, Service.NULL).install();
+            container.awaitStability();
+
+            profiler.bootComplete(container, 1000L);
+            controller.setMode(ServiceController.Mode.REMOVE);
+            container.awaitStability();
+
+            final ModelNode result = profiler.toModelNode(new ArrayList<>(), 1, true);
+            assertTrue(result.get("complete").asBoolean());
+            assertEquals(1000L, result.get("boot-time").asLong());
+            final List<ModelNode> all = result.get("services", "all").asList();
+            assertEquals(1, all.size());
+            assertEquals(A.getCanonicalName(), all.get(0).get("name").asString());
+            // Services installed before the boot completed no longer report to the profiler
+            assertFalse(all.get(0).has("down"));
+        } finally {
+            container.shutdown();
+            container.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void up(BootProfiler profiler, ServiceName name, long nanos, ServiceName... requires) {
+        profiler.serviceUp(name, new HashSet<>(Arrays.asList(requires)), Collections.singleton(name), nanos);
+    }
+
+    private static void assertService(ModelNode service, ServiceName name, double time, ServiceName waitedFor) {
+        assertEquals(name.getCanonicalName(), service.get("name").asString());
+        assertEquals(time, service.get("time").asDouble(), 0.0);
+        assertEquals(waitedFor.getCanonicalName(), service.get("waited-for").asString());
+    }
+}
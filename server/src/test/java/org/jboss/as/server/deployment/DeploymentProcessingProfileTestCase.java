@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server.deployment;
+
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of the aggregation done by {@link DeploymentProcessingProfile}.
+ */
+public class DeploymentProcessingProfileTestCase {
+
+    @Test
+    public void testEmptyProfile() {
+        final ModelNode profile = new DeploymentProcessingProfile().toModelNode();
+        Assert.assertEquals(0, profile.get("phases").keys().size());
+        Assert.assertEquals(0L, profile.get("wall-time").asLong());
+        Assert.assertEquals(0L, profile.get("cpu-time").asLong());
+        Assert.assertEquals(0L, profile.get("allocated-bytes").asLong());
+    }
+
+    @Test
+    public void testAggregation() {
+        final DeploymentProcessingProfile profile = new DeploymentProcessingProfile();
+        profile.record(Phase.PARSE, new RegisteredDeploymentUnitProcessor(10, new ParseProcessor(), "parse-subsystem"), 100L, 80L, 1000L);
+        profile.record(Phase.PARSE, new RegisteredDeploymentUnitProcessor(20, new OtherProcessor(), null), 50L, 40L, 500L);
+        profile.record(Phase.INSTALL, new RegisteredDeploymentUnitProcessor(5, new InstallProcessor(), "install-subsystem"), 300L, 200L, 2000L);
+
+        final ModelNode result = profile.toModelNode();
+        Assert.assertEquals(2, result.get("phases").keys().size());
+
+        final ModelNode parse = result.get("phases", Phase.PARSE.name());
+        Assert.assertEquals(150L, parse.get("wall-time").asLong());
+        Assert.assertEquals(120L, parse.get("cpu-time").asLong());
+        Assert.assertEquals(1500L, parse.get("allocated-bytes").asLong());
+        final List<ModelNode> processors = parse.get("processors").asList();
+        Assert.assertEquals(2, processors.size());
+        Assert.assertEquals(ParseProcessor.class.getName(), processors.get(0).get("processor").asString());
+        Assert.assertEquals("parse-subsystem", processors.get(0).get("subsystem").asString());
+        Assert.assertEquals(10, processors.get(0).get("priority").asInt());
+        Assert.assertEquals(100L, processors.get(0).get("wall-time").asLong());
+        Assert.assertEquals(80L, processors.get(0).get("cpu-time").asLong());
+        Assert.assertEquals(1000L, processors.get(0).get("allocated-bytes").asLong());
+        Assert.assertEquals(OtherProcessor.class.getName(), processors.get(1).get("processor").asString());
+        Assert.assertFalse(processors.get(1).hasDefined("subsystem"));
+
+        final ModelNode install = result.get("phases", Phase.INSTALL.name());
+        Assert.assertEquals(300L, install.get("wall-time").asLong());
+        Assert.assertEquals(1, install.get("processors").asList().size());
+
+        Assert.assertEquals(450L, result.get("wall-time").asLong());
+        Assert.assertEquals(320L, result.get("cpu-time").asLong());
+        Assert.assertEquals(3500L, result.get("allocated-bytes").asLong());
+    }
+
+    @Test
+    public void testUnmeasuredValues() {
+        final DeploymentProcessingProfile profile = new DeploymentProcessingProfile();
+        profile.record(Phase.PARSE, new RegisteredDeploymentUnitProcessor(10, new ParseProcessor(), null), 100L, -1L, 1000L);
+        profile.record(Phase.INSTALL, new RegisteredDeploymentUnitProcessor(5, new InstallProcessor(), null), 300L, 200L, -1L);
+
+        final ModelNode result = profile.toModelNode();
+        final ModelNode parse = result.get("phases", Phase.PARSE.name());
+        Assert.assertEquals(-1L, parse.get("cpu-time").asLong());
+        Assert.assertEquals(1000L, parse.get("allocated-bytes").asLong());
+        final ModelNode install = result.get("phases", Phase.INSTALL.name());
+        Assert.assertEquals(200L, install.get("cpu-time").asLong());
+        Assert.assertEquals(-1L, install.get("allocated-bytes").asLong());
+
+        Assert.assertEquals(400L, result.get("wall-time").asLong());
+        Assert.assertEquals(-1L, result.get("cpu-time").asLong());
+        Assert.assertEquals(-1L, result.get("allocated-bytes").asLong());
+    }
+
+    @Test
+    public void testMeasurement() {
+        final DeploymentProcessingProfile profile = new DeploymentProcessingProfile();
+        profile.record(Phase.PARSE, new RegisteredDeploymentUnitProcessor(10, new ParseProcessor(), null), DeploymentProcessingProfile.start());
+
+        final ModelNode parse = profile.toModelNode().get("phases", Phase.PARSE.name());
+        Assert.assertEquals(1, parse.get("processors").asList().size());
+        Assert.assertTrue(parse.get("wall-time").asLong() >= 0L);
+    }
+
+    private static class ParseProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+    }
+
+    private static class OtherProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+    }
+
+    private static class InstallProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.vfs.VFS;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the order in which {@link SubDeploymentProcessor} lets the phases of sibling sub deployments run.
+ */
+public class SubDeploymentProcessingOrderTestCase {
+
+    private static final String PARENT = "test.ear";
+    private static final String[] SUB_DEPLOYMENTS = {"first.jar", "second.jar", "third.jar"};
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch secondParsed = new CountDownLatch(1);
+    private volatile boolean secondParsedDuringFirst;
+    private ServiceContainer container;
+
+    @Before
+    public void setUp() {
+        container = ServiceContainer.Factory.create("sub-deployment-processing-order");
+        final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> chains = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            chains.put(phase, Collections.singletonList(new RegisteredDeploymentUnitProcessor(0, new RecordingProcessor(phase), null)));
+            // The parent deployment's phases have all completed
+            container.addService(Services.deploymentUnitName(PARENT, phase), Service.NULL).install();
+        }
+        DeployerChainsService.addService(container, chains);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        container.shutdown();
+        container.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testConcurrentProcessing() throws Exception {
+        deploySubDeployments(false);
+
+        // The second sub deployment is parsed while the first is still in its PARSE phase
+        Assert.assertTrue(secondParsedDuringFirst);
+        assertAllPhasesRun();
+    }
+
+    @Test
+    public void testSerialProcessing() throws Exception {
+        deploySubDeployments(true);
+
+        Assert.assertFalse(secondParsedDuringFirst);
+        assertAllPhasesRun();
+        for (Phase phase : Phase.values()) {
+            for (int i = 1; i < SUB_DEPLOYMENTS.length; i++) {
+                final int previousEnd = events.indexOf(event(SUB_DEPLOYMENTS[i - 1], phase, "end"));
+                final int start = events.indexOf(event(SUB_DEPLOYMENTS[i], phase, "start"));
+                Assert.assertTrue(phase + " of " + SUB_DEPLOYMENTS[i] + " started before that of " + SUB_DEPLOYMENTS[i - 1] + " ended: " + events,
+                        previousEnd < start);
+            }
+        }
+    }
+
+    private void deploySubDeployments(boolean serial) throws Exception {
+        final DeploymentUnit parent = new DeploymentUnitImpl(null, PARENT, container);
+        parent.putAttachment(Attachments.DEPLOYMENT_ROOT, new ResourceRoot(VFS.getChild(PARENT), null));
+        parent.putAttachment(DeploymentResourceSupport.DEPLOYMENT_RESOURCE, Resource.Factory.create());
+        for (String name : SUB_DEPLOYMENTS) {
+            final ResourceRoot root = new ResourceRoot(name, VFS.getChild(PARENT).getChild(name), null);
+            SubDeploymentMarker.mark(root);
+            parent.addToAttachmentList(Attachments.RESOURCE_ROOTS, root);
+        }
+        final DeploymentPhaseContext phaseContext = new DeploymentPhaseContextImpl(new DeploymentUnitPhaseService.DeploymentUnitServiceTarget(container, null),
+                container, new ArrayList<>(), parent, Phase.STRUCTURE);
+
+        new SubDeploymentProcessor(serial).deploy(phaseContext);
+        container.awaitStability();
+
+        final ServiceName lastPhase = Services.deploymentUnitName(PARENT, SUB_DEPLOYMENTS[SUB_DEPLOYMENTS.length - 1], Phase.values()[Phase.values().length - 1]);
+        Assert.assertEquals(ServiceController.State.UP, container.getRequiredService(lastPhase).getState());
+    }
+
+    private void assertAllPhasesRun() {
+        for (String name : SUB_DEPLOYMENTS) {
+            for (Phase phase : Phase.values()) {
+                Assert.assertTrue(events.contains(event(name, phase, "end")));
+            }
+        }
+    }
+
+    private static String event(String deployment, Phase phase, String type) {
+        return deployment + ':' + phase + ':' + type;
+    }
+
+    private class RecordingProcessor implements DeploymentUnitProcessor {
+        private final Phase phase;
+
+        RecordingProcessor(Phase phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            final String name = phaseContext.getDeploymentUnit().getName();
+            events.add(event(name, phase, "start"));
+            if (phase == Phase.PARSE) {
+                if (SUB_DEPLOYMENTS[0].equals(name)) {
+                    // Wait for a bit for the second sub deployment, which only gets parsed now if processing is concurrent
+                    try {
+                        secondParsedDuringFirst = secondParsed.await(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new DeploymentUnitProcessingException(e);
+                    }
+                } else if (SUB_DEPLOYMENTS[1].equals(name)) {
+                    secondParsed.countDown();
+                }
+            }
+            events.add(event(name, phase, "end"));
+        }
+    }
+}